@@ -0,0 +1,148 @@
+# 增量变更脚本，已有数据库按顺序执行
+
+use wx_mp_manage;
+
+-- 公众号配置版本号，用于多节点同步
+alter table wx_account
+    add column `revision` bigint default 0 not null comment '配置版本号' after `aesKey`;
+
+-- AI 高频问题回复规则建议
+create table if not exists `ai_reply_suggestion`
+(
+    `id`           bigint auto_increment comment 'id' primary key,
+    `appId`        char(20)                           not null comment 'appId',
+    `question`     varchar(2048)                      not null comment '出现次数最多的问法',
+    `replyMessage` varchar(2048)                      null comment '出现次数最多的回复',
+    `hitCount`     int      default 0                 not null comment '相似问题出现次数',
+    `replyCount`   int      default 0                 not null comment '出现次数最多的回复的次数',
+    `signature`    varchar(1024)                      not null comment '问题的 MinHash 签名',
+    `statistics`   text                               null comment '问法和回复的出现次数（json）',
+    `status`       tinyint  default 0                 not null comment '0 - 待处理、1 - 已采纳、2 - 已忽略',
+    `ruleId`       bigint                             null comment '采纳后生成的回复规则 id',
+    `createTime`   datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    `updateTime`   datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    `isDelete`     tinyint  default 0                 not null comment '是否删除',
+    index idx_appId_status (appId, status)
+) comment 'AI 高频问题回复规则建议';
+
+-- 公众号知识库文档
+create table if not exists `knowledge_document`
+(
+    `id`         bigint auto_increment comment 'id' primary key,
+    `appId`      char(20)                           not null comment 'appId',
+    `title`      varchar(256)                       not null comment '标题',
+    `content`    mediumtext                         not null comment '文档内容',
+    `userId`     bigint                             not null comment '创建用户 id',
+    `createTime` datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    `updateTime` datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    `isDelete`   tinyint  default 0                 not null comment '是否删除',
+    index idx_appId (appId)
+) comment '公众号知识库文档';
+
+-- 回复规则关键字，已有规则的关键字由应用启动时迁移（归一化需要和应用保持一致）
+create table if not exists `wx_reply_keyword`
+(
+    `id`         bigint auto_increment comment 'id' primary key,
+    `appId`      char(20)                           not null comment 'appId',
+    `ruleId`     bigint                             not null comment '回复规则 id',
+    `keyword`    varchar(255)                       not null comment '关键字',
+    `matchType`  tinyint                            not null comment '匹配类型',
+    `normalized` varchar(255)                       not null comment '归一化后的关键字',
+    `createTime` datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    index idx_appId_normalized (appId, normalized),
+    index idx_ruleId (ruleId)
+) comment '回复规则关键字（随规则一起写入，规则删除时物理删除）';
+
+-- AI 回复记录的 token 用量
+alter table ai_reply_record
+    add column `model`            varchar(64) null comment '模型' after `replyStatus`,
+    add column `promptTokens`     int         null comment '输入 token 数' after `model`,
+    add column `completionTokens` int         null comment '输出 token 数' after `promptTokens`,
+    add column `latencyMillis`    int         null comment 'AI 调用耗时（毫秒）' after `completionTokens`;
+
+-- AI 调用用量统计
+create table if not exists `ai_usage_stat`
+(
+    `id`               bigint auto_increment comment 'id' primary key,
+    `appId`            char(20)                           not null comment 'appId',
+    `model`            varchar(64)                        not null comment '模型',
+    `statTime`         datetime                           not null comment '统计时间（分钟）',
+    `callCount`        int      default 0                 not null comment '调用次数',
+    `failCount`        int      default 0                 not null comment '失败次数',
+    `promptTokens`     bigint   default 0                 not null comment '输入 token 数',
+    `completionTokens` bigint   default 0                 not null comment '输出 token 数',
+    `latencyMillis`    bigint   default 0                 not null comment '总耗时（毫秒）',
+    `maxLatencyMillis` int      default 0                 not null comment '最大耗时（毫秒）',
+    `createTime`       datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    `updateTime`       datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    unique index uk_appId_statTime_model (appId, statTime, model),
+    index idx_statTime (statTime)
+) comment 'AI 调用用量统计（按分钟汇总）';
+
+-- AI 回复后台补发：未回复的记录由定时任务重新生成回复并通过客服消息发送
+alter table ai_reply_record
+    modify column `replyStatus` tinyint default 0 not null comment '回复状态，0 - 未回复、1 - 已回复、2 - 补发中、3 - 补发失败',
+    add column `retryCount` tinyint default 0 not null comment '后台补发次数' after `latencyMillis`,
+    add index idx_replyStatus_id (replyStatus, id);
+
+-- 公众号粉丝，创建后在管理后台触发一次全量同步
+create table if not exists `wx_follower`
+(
+    `id`              bigint auto_increment comment 'id' primary key,
+    `appId`           char(20)                           not null comment 'appId',
+    `openId`          varchar(64)                        not null comment '粉丝 openId',
+    `unionId`         varchar(64)                        null comment 'unionId（公众号绑定开放平台时才有）',
+    `subscribe`       tinyint  default 1                 not null comment '是否关注，0 - 已取消关注、1 - 关注中',
+    `subscribeTime`   datetime                           null comment '最近一次关注时间',
+    `unsubscribeTime` datetime                           null comment '取消关注时间',
+    `subscribeScene`  varchar(64)                        null comment '关注渠道',
+    `remark`          varchar(64)                        null comment '公众号运营者对粉丝的备注',
+    `tagIds`          varchar(512)                       null comment '标签 id（json）',
+    `language`        varchar(16)                        null comment '语言',
+    `syncTime`        datetime                           null comment '最近一次全量同步或关注、取消关注事件写入的时间（应用时间）',
+    `createTime`      datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    `updateTime`      datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    unique index uk_appId_openId (appId, openId),
+    index idx_appId_id (appId, id),
+    index idx_appId_subscribe_id (appId, subscribe, id)
+) comment '公众号粉丝（全量同步 + 关注、取消关注事件增量更新）';
+
+
+
+-- 群发任务
+create table if not exists `wx_broadcast_task`
+(
+    `id`           bigint auto_increment comment 'id' primary key,
+    `appId`        char(20)                           not null comment 'appId',
+    `title`        varchar(128)                       not null comment '任务名称',
+    `channel`      tinyint  default 0                 not null comment '发送渠道，0 - 客服消息、1 - 模板消息',
+    `content`      text                               not null comment '消息内容（json）',
+    `status`       tinyint  default 0                 not null comment '0 - 待发送、1 - 发送中、2 - 已暂停、3 - 已完成、4 - 已取消',
+    `totalCount`   int      default 0                 not null comment '接收人数',
+    `successCount` int      default 0                 not null comment '发送成功人数',
+    `failCount`    int      default 0                 not null comment '发送失败人数',
+    `userId`       bigint                             not null comment '创建用户 id',
+    `startTime`    datetime                           null comment '开始发送时间',
+    `finishTime`   datetime                           null comment '完成时间',
+    `createTime`   datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    `updateTime`   datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    `isDelete`     tinyint  default 0                 not null comment '是否删除',
+    index idx_status (status),
+    index idx_appId (appId)
+) comment '群发任务';
+
+create table if not exists `wx_broadcast_recipient`
+(
+    `id`            bigint auto_increment comment 'id' primary key,
+    `taskId`        bigint                             not null comment '群发任务 id',
+    `openId`        varchar(64)                        not null comment '接收人 openId',
+    `status`        tinyint  default 0                 not null comment '0 - 待发送、1 - 发送中、2 - 已发送、3 - 发送失败',
+    `attempts`      tinyint  default 0                 not null comment '已发送次数',
+    `nextRetryTime` datetime                           null comment '下次重试时间',
+    `errorCode`     int                                null comment '最近一次的微信错误码',
+    `errorMsg`      varchar(255)                       null comment '最近一次的错误信息',
+    `createTime`    datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    `updateTime`    datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    unique index uk_taskId_openId (taskId, openId),
+    index idx_taskId_status_id (taskId, status, id)
+) comment '群发任务接收人（每人一行记录发送状态，任务中断后从未完成的接收人继续）';
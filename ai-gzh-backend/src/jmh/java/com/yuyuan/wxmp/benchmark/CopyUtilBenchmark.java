@@ -0,0 +1,70 @@
+package com.yuyuan.wxmp.benchmark;
+
+import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountAddDTO;
+import com.yuyuan.wxmp.model.entity.WxAccount;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.vo.WxReplyRuleVO;
+import com.yuyuan.wxmp.utils.CopyUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CopyUtil.copy（BeanUtils.copyProperties + 反射创建对象）
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyUtilBenchmark {
+
+    private WxReplyRule wxReplyRule;
+
+    private WxAccountAddDTO wxAccountAddDTO;
+
+    @Setup
+    public void setUp() {
+        wxReplyRule = new WxReplyRule();
+        wxReplyRule.setId(1L);
+        wxReplyRule.setAppId(WxMpMessageBenchmark.APP_ID);
+        wxReplyRule.setRuleName("退款");
+        wxReplyRule.setMatchValue("[{\"matchType\":1,\"matchKeyWords\":\"退款\"}]");
+        wxReplyRule.setReplyContent("{\"contentType\":1,\"textContent\":\"退款申请提交后 1 ~ 3 个工作日内处理\"}");
+        wxReplyRule.setReplyType(1);
+        wxReplyRule.setUserId(1L);
+        wxReplyRule.setCreateTime(new Date());
+        wxReplyRule.setUpdateTime(new Date());
+
+        wxAccountAddDTO = new WxAccountAddDTO();
+        wxAccountAddDTO.setAppId(WxMpMessageBenchmark.APP_ID);
+        wxAccountAddDTO.setName("撷雯小筑");
+        wxAccountAddDTO.setSecret("benchmark_secret");
+        wxAccountAddDTO.setToken(WxMpMessageBenchmark.TOKEN);
+        wxAccountAddDTO.setAesKey(WxMpMessageBenchmark.AES_KEY);
+    }
+
+    @Benchmark
+    public WxReplyRuleVO copyRuleToVO() {
+        return CopyUtil.copy(wxReplyRule, WxReplyRuleVO.class);
+    }
+
+    @Benchmark
+    public WxAccount copyAccountDTO() {
+        return CopyUtil.copy(wxAccountAddDTO, WxAccount.class);
+    }
+}
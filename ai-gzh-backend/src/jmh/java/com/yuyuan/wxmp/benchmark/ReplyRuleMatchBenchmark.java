@@ -0,0 +1,103 @@
+package com.yuyuan.wxmp.benchmark;
+
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.manager.ReplyRuleMatcher;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
+import com.yuyuan.wxmp.model.entity.WxReplyKeyword;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyMatchTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关键字规则匹配（receiveMessageReply 使用的 ReplyRuleMatcher）
+ * <p>
+ * 规则中 70% 为模糊匹配、20% 为归一化匹配、10% 为容错匹配；miss 为所有规则都不命中（最坏情况）
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplyRuleMatchBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int ruleCount;
+
+    private ReplyRuleMatcher matcher;
+
+    private String hitMessage;
+
+    private String missMessage;
+
+    @Setup
+    public void setUp() {
+        WxReplyContentDTO content = new WxReplyContentDTO();
+        content.setContentType(WxReplyContentTypeEnum.TEXT.getValue());
+        content.setTextContent("回复内容");
+        String replyContent = JSONUtil.toJsonStr(content);
+
+        List<WxReplyRule> rules = new ArrayList<>(ruleCount);
+        List<WxReplyKeyword> keywords = new ArrayList<>(ruleCount);
+        for (int i = 0; i < ruleCount; i++) {
+            WxReplyRule rule = new WxReplyRule();
+            rule.setId((long) i);
+            rule.setReplyType(WxReplyRuleTypeEnum.KEYWORDS.getValue());
+            rule.setReplyContent(replyContent);
+            rules.add(rule);
+
+            WxReplyMatchTypeEnum matchType;
+            String keyword;
+            if (i % 10 < 7) {
+                matchType = WxReplyMatchTypeEnum.LIKE;
+                keyword = "规则" + i + "号";
+            } else if (i % 10 < 9) {
+                matchType = WxReplyMatchTypeEnum.NORMALIZED;
+                keyword = "规则" + i + "号";
+            } else {
+                matchType = WxReplyMatchTypeEnum.FUZZY;
+                keyword = "怎么办理第" + i + "项业务";
+            }
+            WxReplyKeyword replyKeyword = new WxReplyKeyword();
+            replyKeyword.setRuleId(rule.getId());
+            replyKeyword.setKeyword(keyword);
+            replyKeyword.setMatchType(matchType.getValue());
+            replyKeyword.setNormalized(TextNormalizeUtil.normalize(keyword));
+            keywords.add(replyKeyword);
+        }
+        matcher = ReplyRuleMatcher.compile(rules, keywords, 2, 100_000);
+        // 命中中间位置的一条模糊匹配规则
+        hitMessage = "请问规则" + (ruleCount / 2 / 10 * 10) + "号怎么用";
+        missMessage = "今天天气怎么样，适合出门吗";
+    }
+
+    @Benchmark
+    public WxReplyContentDTO hit() {
+        return matcher.match(hitMessage);
+    }
+
+    @Benchmark
+    public WxReplyContentDTO miss() {
+        return matcher.match(missMessage);
+    }
+}
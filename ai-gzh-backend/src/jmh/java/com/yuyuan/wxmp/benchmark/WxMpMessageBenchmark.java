@@ -0,0 +1,131 @@
+package com.yuyuan.wxmp.benchmark;
+
+import me.chanjar.weixin.common.util.crypto.SHA1;
+import me.chanjar.weixin.mp.api.impl.WxMpServiceImpl;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
+import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
+import me.chanjar.weixin.mp.util.crypto.WxMpCryptUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 微信消息接收：签名校验、XML 解析、AES 加解密
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WxMpMessageBenchmark {
+
+    static final String APP_ID = "wx1234567890abcdef";
+
+    static final String TOKEN = "benchmark_token";
+
+    static final String AES_KEY = "abcdefghijklmnopqrstuvwxyz0123456789ABCDEFG";
+
+    static final String TEXT_XML = "<xml>"
+            + "<ToUserName><![CDATA[gh_123456789abc]]></ToUserName>"
+            + "<FromUserName><![CDATA[oABCD1234567890abcdefghijk]]></FromUserName>"
+            + "<CreateTime>1760839200</CreateTime>"
+            + "<MsgType><![CDATA[text]]></MsgType>"
+            + "<Content><![CDATA[请问怎么申请退款，订单号 20261019]]></Content>"
+            + "<MsgId>24681357924681357</MsgId>"
+            + "</xml>";
+
+    private WxMpDefaultConfigImpl config;
+
+    private WxMpServiceImpl wxMpService;
+
+    private WxMpCryptUtil cryptUtil;
+
+    private String timestamp;
+
+    private String nonce;
+
+    private String signature;
+
+    private String encryptedXml;
+
+    private String encryptTimestamp;
+
+    private String encryptNonce;
+
+    private String msgSignature;
+
+    static WxMpDefaultConfigImpl config() {
+        WxMpDefaultConfigImpl config = new WxMpDefaultConfigImpl();
+        config.setAppId(APP_ID);
+        config.setSecret("benchmark_secret");
+        config.setToken(TOKEN);
+        config.setAesKey(AES_KEY);
+        return config;
+    }
+
+    @Setup
+    public void setUp() {
+        config = config();
+        wxMpService = new WxMpServiceImpl();
+        wxMpService.setWxMpConfigStorage(config);
+        cryptUtil = new WxMpCryptUtil(config);
+
+        timestamp = "1760839200";
+        nonce = "1234567890";
+        signature = SHA1.gen(TOKEN, timestamp, nonce);
+
+        // 加密后的 XML 中带有对应的签名、时间戳和随机串
+        encryptedXml = cryptUtil.encrypt(TEXT_XML);
+        encryptTimestamp = element(encryptedXml, "TimeStamp");
+        encryptNonce = element(encryptedXml, "Nonce");
+        msgSignature = element(encryptedXml, "MsgSignature");
+    }
+
+    @Benchmark
+    public boolean checkSignature() {
+        return wxMpService.checkSignature(timestamp, nonce, signature);
+    }
+
+    @Benchmark
+    public WxMpXmlMessage parsePlainXml() {
+        return WxMpXmlMessage.fromXml(TEXT_XML);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cryptUtil.encrypt(TEXT_XML);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cryptUtil.decrypt(msgSignature, encryptTimestamp, encryptNonce, encryptedXml);
+    }
+
+    @Benchmark
+    public WxMpXmlMessage parseEncryptedXml() {
+        return WxMpXmlMessage.fromEncryptedXml(encryptedXml, config, encryptTimestamp, encryptNonce, msgSignature);
+    }
+
+    private static String element(String xml, String name) {
+        Matcher matcher = Pattern.compile("<" + name + ">(?:<!\\[CDATA\\[)?(.*?)(?:]]>)?</" + name + ">").matcher(xml);
+        if (!matcher.find()) {
+            throw new IllegalStateException("加密结果中没有 " + name);
+        }
+        return matcher.group(1);
+    }
+}
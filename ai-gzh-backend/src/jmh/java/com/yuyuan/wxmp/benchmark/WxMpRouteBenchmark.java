@@ -0,0 +1,107 @@
+package com.yuyuan.wxmp.benchmark;
+
+import com.yuyuan.wxmp.handler.WxMpMessageDispatcher;
+import me.chanjar.weixin.common.api.WxConsts.EventType;
+import me.chanjar.weixin.common.api.WxConsts.XmlMsgType;
+import me.chanjar.weixin.common.api.WxMessageDuplicateChecker;
+import me.chanjar.weixin.mp.api.WxMpMessageHandler;
+import me.chanjar.weixin.mp.api.WxMpMessageRouter;
+import me.chanjar.weixin.mp.api.impl.WxMpServiceImpl;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消息路由：WxMpMessageRouter（原路由规则）与 WxMpMessageDispatcher 对比
+ * <p>
+ * 处理器均为空实现，只比较路由本身的开销。同一条消息会被反复路由，
+ * WxMpMessageRouter 的排重换成不排重的实现，否则除第一次外都会被当成重复消息直接返回。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WxMpRouteBenchmark {
+
+    private static final WxMpMessageHandler NOOP_HANDLER = (message, context, wxMpService, sessionManager) -> null;
+
+    private WxMpServiceImpl wxMpService;
+
+    private WxMpMessageRouter router;
+
+    private WxMpMessageDispatcher dispatcher;
+
+    private WxMpXmlMessage textMessage;
+
+    private WxMpXmlMessage unsubscribeMessage;
+
+    @Setup
+    public void setUp() {
+        wxMpService = new WxMpServiceImpl();
+        wxMpService.setWxMpConfigStorage(WxMpMessageBenchmark.config());
+
+        // 与替换前的路由配置一致：日志规则 + 按消息类型、事件匹配的规则
+        router = new WxMpMessageRouter(wxMpService);
+        router.setMessageDuplicateChecker(new WxMessageDuplicateChecker() {
+            @Override
+            public boolean isDuplicate(String messageId) {
+                return false;
+            }
+        });
+        router.rule().async(false).handler(NOOP_HANDLER).next();
+        router.rule().async(false).msgType(XmlMsgType.TEXT).handler(NOOP_HANDLER).end();
+        router.rule().async(false).msgType(XmlMsgType.EVENT).event(EventType.SUBSCRIBE).handler(NOOP_HANDLER).end();
+        router.rule().async(false).msgType(XmlMsgType.EVENT).event(EventType.UNSUBSCRIBE).handler(NOOP_HANDLER).end();
+
+        dispatcher = WxMpMessageDispatcher.builder()
+                .route(XmlMsgType.TEXT, NOOP_HANDLER)
+                .route(XmlMsgType.EVENT, EventType.SUBSCRIBE, NOOP_HANDLER)
+                .route(XmlMsgType.EVENT, EventType.UNSUBSCRIBE, NOOP_HANDLER)
+                .build();
+
+        textMessage = WxMpXmlMessage.fromXml(WxMpMessageBenchmark.TEXT_XML);
+        // 最后一条规则，WxMpMessageRouter 需要逐条匹配完所有规则
+        unsubscribeMessage = new WxMpXmlMessage();
+        unsubscribeMessage.setToUser("gh_123456789abc");
+        unsubscribeMessage.setFromUser("oABCD1234567890abcdefghijk");
+        unsubscribeMessage.setCreateTime(1760839200L);
+        unsubscribeMessage.setMsgType(XmlMsgType.EVENT);
+        unsubscribeMessage.setEvent(EventType.UNSUBSCRIBE);
+    }
+
+    @Benchmark
+    public WxMpXmlOutMessage routerText() {
+        return router.route(textMessage);
+    }
+
+    @Benchmark
+    public WxMpXmlOutMessage dispatcherText() {
+        return dispatcher.dispatch(textMessage, wxMpService);
+    }
+
+    @Benchmark
+    public WxMpXmlOutMessage routerUnsubscribe() {
+        return router.route(unsubscribeMessage);
+    }
+
+    @Benchmark
+    public WxMpXmlOutMessage dispatcherUnsubscribe() {
+        return dispatcher.dispatch(unsubscribeMessage, wxMpService);
+    }
+}
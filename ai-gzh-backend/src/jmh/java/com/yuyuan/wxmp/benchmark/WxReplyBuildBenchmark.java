@@ -0,0 +1,76 @@
+package com.yuyuan.wxmp.benchmark;
+
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
+import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
+import com.yuyuan.wxmp.service.WxReplyRuleService;
+import com.yuyuan.wxmp.service.impl.WxReplyRuleServiceImpl;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
+import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 回复消息组装：replyByContentType + toXml / toEncryptedXml
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WxReplyBuildBenchmark {
+
+    private WxReplyRuleService wxReplyRuleService;
+
+    private WxMpDefaultConfigImpl config;
+
+    private WxMpXmlMessage inMessage;
+
+    private WxReplyContentDTO textContent;
+
+    private WxReplyContentDTO imageContent;
+
+    @Setup
+    public void setUp() {
+        // replyByContentType 不依赖其他组件
+        wxReplyRuleService = new WxReplyRuleServiceImpl(null, null, null, null, null);
+        config = WxMpMessageBenchmark.config();
+        inMessage = WxMpXmlMessage.fromXml(WxMpMessageBenchmark.TEXT_XML);
+
+        textContent = new WxReplyContentDTO();
+        textContent.setContentType(WxReplyContentTypeEnum.TEXT.getValue());
+        textContent.setTextContent("退款申请提交后 1 ~ 3 个工作日内处理，请在「我的订单」中查看进度。");
+
+        imageContent = new WxReplyContentDTO();
+        imageContent.setContentType(WxReplyContentTypeEnum.IMAGE.getValue());
+        imageContent.setMediaId("MEDIA_ID_1234567890abcdefghijklmnopqrstuvwxyz");
+    }
+
+    @Benchmark
+    public String textToXml() {
+        return wxReplyRuleService.replyByContentType(inMessage, textContent, WxReplyContentTypeEnum.TEXT).toXml();
+    }
+
+    @Benchmark
+    public String imageToXml() {
+        return wxReplyRuleService.replyByContentType(inMessage, imageContent, WxReplyContentTypeEnum.IMAGE).toXml();
+    }
+
+    @Benchmark
+    public String textToEncryptedXml() {
+        return wxReplyRuleService.replyByContentType(inMessage, textContent, WxReplyContentTypeEnum.TEXT).toEncryptedXml(config);
+    }
+}
@@ -1,58 +1,152 @@
 package com.yuyuan.wxmp.aop;
 
 import cn.hutool.extra.servlet.JakartaServletUtil;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
+import me.chanjar.weixin.mp.api.WxMpService;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.HandlerMapping;
 
-import java.util.UUID;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 /**
- * 请求响应日志 AOP
+ * 请求访问日志 AOP
+ * <p>
+ * 请求结束后输出一行 key=value 格式的访问日志（logger 名为 access，在 logback-spring.xml 中异步输出）。
+ * 按路由采样，出错和慢请求总是记录；只有需要输出时才生成请求 id 和渲染参数。
  *
  * @author <a href="https://github.com/liyupi">程序员鱼皮</a>
  * @from <a href="https://yupi.icu">编程导航知识星球</a>
  **/
 @Aspect
 @Component
-@Slf4j
 public class LogInterceptor {
 
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access");
+
+    /**
+     * 请求 id 前缀（本节点启动时间），后面接自增序号
+     */
+    private static final String ID_PREFIX = Long.toString(System.currentTimeMillis(), 36) + "-";
+
+    /**
+     * 参数 toString 中的敏感字段（Lombok 格式 field=value）
+     */
+    private static final Pattern SENSITIVE_FIELD = Pattern.compile("(?i)(\\w*(?:password|secret|aeskey|token)\\w*)=[^,)]*");
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final WxMpProperties.AccessLog properties;
+
+    public LogInterceptor(WxMpProperties wxMpProperties) {
+        this.properties = wxMpProperties.getAccessLog();
+    }
+
     /**
      * 执行拦截
      */
     @Around("execution(* com.yuyuan.wxmp.controller.*.*(..))")
     public Object doInterceptor(ProceedingJoinPoint point) throws Throwable {
-        // 计时
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-        // 获取请求路径
-        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
-        HttpServletRequest httpServletRequest = ((ServletRequestAttributes) requestAttributes).getRequest();
-        // 生成请求唯一 id
-        String requestId = UUID.randomUUID().toString();
-        String url = httpServletRequest.getRequestURI();
-        // 获取请求参数
-        Object[] args = point.getArgs();
-        String reqParam = "[" + StringUtils.join(args, ", ") + "]";
-        // 输出请求日志
-        log.info("request start，id: {}, path: {}, ip: {}, params: {}", requestId, url,
-                JakartaServletUtil.getClientIP(httpServletRequest), reqParam);
-        // 执行原方法
-        Object result = point.proceed();
-        // 输出响应日志
-        stopWatch.stop();
-        long totalTimeMillis = stopWatch.getTotalTimeMillis();
-        log.info("request end, id: {}, cost: {}ms", requestId, totalTimeMillis);
-        return result;
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return point.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            this.log(point, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), error);
+        }
+    }
+
+    private void log(ProceedingJoinPoint point, long costMillis, Throwable error) {
+        boolean important = error != null || costMillis >= properties.getSlowMillis();
+        if (important ? !ACCESS_LOG.isWarnEnabled() : !ACCESS_LOG.isInfoEnabled()) {
+            return;
+        }
+        HttpServletRequest request = currentRequest();
+        Object pattern = request == null ? null : request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : point.getSignature().toShortString();
+        if (!important) {
+            double sampleRate = properties.getSampleRates().getOrDefault(route, properties.getDefaultSampleRate());
+            if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                return;
+            }
+        }
+        StringBuilder line = new StringBuilder(256)
+                .append("id=").append(ID_PREFIX).append(sequence.incrementAndGet())
+                .append(" route=").append(route)
+                .append(" cost=").append(costMillis).append("ms")
+                .append(" result=").append(error == null ? "ok" : error.getClass().getSimpleName());
+        if (request != null) {
+            line.append(" method=").append(request.getMethod())
+                    .append(" ip=").append(JakartaServletUtil.getClientIP(request));
+        }
+        line.append(" args=");
+        this.appendArgs(line, point.getArgs());
+        if (important) {
+            ACCESS_LOG.warn(line.toString());
+        } else {
+            ACCESS_LOG.info(line.toString());
+        }
+    }
+
+    private void appendArgs(StringBuilder line, Object[] args) {
+        line.append('[');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                line.append(", ");
+            }
+            Object arg = args[i];
+            if (arg == null) {
+                line.append("null");
+            } else if (arg instanceof ServletRequest || arg instanceof ServletResponse
+                    || arg instanceof WxMpService || arg instanceof BindingResult) {
+                // 框架对象不输出内容
+                line.append(arg.getClass().getSimpleName());
+            } else if (arg instanceof MultipartFile file) {
+                line.append("file(").append(file.getOriginalFilename()).append(", ").append(file.getSize()).append(" bytes)");
+            } else if (arg instanceof CharSequence || arg instanceof Number || arg instanceof Boolean
+                    || arg instanceof Enum<?> || arg instanceof Date || arg instanceof TemporalAccessor) {
+                this.appendTruncated(line, arg.toString());
+            } else {
+                this.appendTruncated(line, SENSITIVE_FIELD.matcher(arg.toString()).replaceAll("$1=***"));
+            }
+        }
+        line.append(']');
+    }
+
+    private void appendTruncated(StringBuilder line, String value) {
+        int maxLength = properties.getMaxArgLength();
+        if (value.length() <= maxLength) {
+            line.append(value);
+            return;
+        }
+        line.append(value, 0, maxLength).append("...(").append(value.length()).append(" chars)");
     }
-}
 
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes servletRequestAttributes) {
+            return servletRequestAttributes.getRequest();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.yuyuan.wxmp.aop;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MetricConstant;
+import com.yuyuan.wxmp.manager.MetricsManager;
+import com.yuyuan.wxmp.manager.TraceManager;
+import io.micrometer.tracing.Span;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 执行耗时监控和链路追踪（MyBatis 拦截器）
+ * <p>
+ * 按 Mapper 方法（去掉包名，例如 AiReplyRecordMapper.selectTopUsers）统计耗时，每次执行生成一个 wx.db span。
+ * <p>
+ * 超过 slowMillis 的语句和按 sampleRate 采样的语句写入 sql 日志（logback-spring.xml 中异步输出），
+ * 替代 StdOutImpl 同步打印全部 SQL 和结果。日志只包含 SQL 模板，不输出参数值。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    private static final Logger SQL_LOG = LoggerFactory.getLogger("sql");
+
+    private final MetricsManager metricsManager;
+
+    private final TraceManager traceManager;
+
+    private final WxMpProperties.Sql properties;
+
+    public SqlMetricsInterceptor(MetricsManager metricsManager, TraceManager traceManager, WxMpProperties wxMpProperties) {
+        this.metricsManager = metricsManager;
+        this.traceManager = traceManager;
+        this.properties = wxMpProperties.getSql();
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        String statement = shortName(mappedStatement.getId());
+        String command = mappedStatement.getSqlCommandType().name().toLowerCase(Locale.ROOT);
+        long start = System.nanoTime();
+        Span span = traceManager.start("wx.db", "statement", statement, "command", command);
+        Object result = null;
+        boolean success = false;
+        try {
+            result = invocation.proceed();
+            success = true;
+            return result;
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+            metricsManager.recordSince(MetricConstant.DB_STATEMENT, start,
+                    "statement", statement,
+                    "command", command,
+                    "outcome", success ? "success" : "error");
+            this.log(invocation, statement, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), result, success);
+        }
+    }
+
+    private void log(Invocation invocation, String statement, long costMillis, Object result, boolean success) {
+        boolean slow = costMillis >= properties.getSlowMillis();
+        if (slow) {
+            if (!SQL_LOG.isWarnEnabled()) {
+                return;
+            }
+        } else if (!SQL_LOG.isInfoEnabled() || properties.getSampleRate() <= 0
+                || ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return;
+        }
+        String line = "statement=" + statement
+                + " cost=" + costMillis + "ms"
+                + " rows=" + rows(result)
+                + " result=" + (success ? "ok" : "error")
+                + " sql=" + this.sqlOf(invocation);
+        if (slow) {
+            SQL_LOG.warn(line);
+        } else {
+            SQL_LOG.info(line);
+        }
+    }
+
+    private String sqlOf(Invocation invocation) {
+        Object[] args = invocation.getArgs();
+        BoundSql boundSql = args.length == 6
+                ? (BoundSql) args[5]
+                : ((MappedStatement) args[0]).getBoundSql(args[1]);
+        String sql = boundSql.getSql().replaceAll("\\s+", " ").trim();
+        if (sql.length() > properties.getMaxSqlLength()) {
+            return sql.substring(0, properties.getMaxSqlLength()) + "...(" + sql.length() + " chars)";
+        }
+        return sql;
+    }
+
+    /**
+     * 查询返回行数或更新影响行数，未知时为 -1
+     */
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        return -1;
+    }
+
+    /**
+     * com.yuyuan.wxmp.mapper.AiReplyRecordMapper.selectTopUsers -> AiReplyRecordMapper.selectTopUsers
+     */
+    private static String shortName(String statementId) {
+        int methodIndex = statementId.lastIndexOf('.');
+        int classIndex = methodIndex > 0 ? statementId.lastIndexOf('.', methodIndex - 1) : -1;
+        return statementId.substring(classIndex + 1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.yuyuan.wxmp.aop;
+
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.WxMpConfigRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.mp.api.WxMpService;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为 Controller 方法中的 {@link WxMpService} 参数注入当前 appId 对应的公众号服务
+ * <p>
+ * appId 取自路径变量，每个方法对应的路径变量名在启动时解析并缓存，请求时只需一次 Map 查找。
+ * 注入的服务实例只属于该公众号，不依赖 ThreadLocal，可以传递给异步任务使用。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WxMpServiceArgumentResolver implements HandlerMethodArgumentResolver, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final String APP_ID = "appId";
+
+    private final WxMpConfigRegistry wxMpConfigRegistry;
+
+    /**
+     * 方法 -> appId 路径变量名
+     */
+    private final Map<Method, String> appIdVariableCache = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return WxMpService.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Method method = parameter.getMethod();
+        String variableName = method == null ? APP_ID : appIdVariableCache.computeIfAbsent(method, this::findAppIdVariable);
+        @SuppressWarnings("unchecked")
+        Map<String, String> uriVariables = (Map<String, String>) webRequest.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        String appId = uriVariables == null ? null : uriVariables.get(variableName);
+        ThrowUtils.throwIf(StringUtils.isBlank(appId), ErrorCode.PARAMS_ERROR, "appId 不能为空");
+        return wxMpConfigRegistry.getRequiredService(appId);
+    }
+
+    /**
+     * 启动完成后预先解析所有接口的 appId 路径变量名
+     */
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        Map<String, RequestMappingHandlerMapping> mappings = event.getApplicationContext()
+                .getBeansOfType(RequestMappingHandlerMapping.class);
+        mappings.values().forEach(mapping -> mapping.getHandlerMethods().values().forEach(handlerMethod -> {
+            for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+                if (this.supportsParameter(parameter)) {
+                    appIdVariableCache.computeIfAbsent(handlerMethod.getMethod(), this::findAppIdVariable);
+                    break;
+                }
+            }
+        }));
+        log.info("已缓存 {} 个公众号接口的 appId 参数", appIdVariableCache.size());
+    }
+
+    private String findAppIdVariable(Method method) {
+        for (Parameter parameter : method.getParameters()) {
+            PathVariable pathVariable = AnnotationUtils.findAnnotation(parameter, PathVariable.class);
+            if (pathVariable != null) {
+                String variableName = pathVariable.value().isEmpty() ? parameter.getName() : pathVariable.value();
+                if (APP_ID.equalsIgnoreCase(variableName)) {
+                    return variableName;
+                }
+            }
+        }
+        return APP_ID;
+    }
+}
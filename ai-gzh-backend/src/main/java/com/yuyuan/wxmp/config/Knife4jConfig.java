@@ -3,6 +3,8 @@ package com.yuyuan.wxmp.config;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
+import me.chanjar.weixin.mp.api.WxMpService;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,6 +18,11 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class Knife4jConfig {
 
+    static {
+        // WxMpService 参数由 WxMpServiceArgumentResolver 注入，不属于接口参数
+        SpringDocUtils.getConfig().addRequestWrapperToIgnore(WxMpService.class);
+    }
+
     @Bean
     public OpenAPI evaluationOpenApi() {
         Contact authorContact = new Contact()
@@ -0,0 +1,85 @@
+package com.yuyuan.wxmp.config;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MqConstant;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 微信消息分区队列
+ * <p>
+ * 一致性哈希交换机按 appId:openId 把消息分到固定数量的分区队列，同一粉丝的消息始终进入同一个分区。
+ * 分区队列开启 single active consumer，多个处理节点同时订阅时每个分区只有一个节点在消费，节点退出后自动切换。
+ * 消费线程只负责把消息交给 {@link com.yuyuan.wxmp.manager.MessageLaneExecutor}，由消息通道保证同一粉丝的消息串行、按顺序处理，
+ * 处理完成后才确认，每个分区同时处理的消息数由 prefetch 限制，单条 AI 调用变慢不会阻塞同一分区的其他粉丝。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Configuration
+@ConditionalOnExpression("'${wx.mp.ingest.mode:inline}' == 'queue' or ${wx.mp.ingest.worker:false}")
+public class MessageIngestConfig {
+
+    @Bean
+    public Declarables messageIngestDeclarables(WxMpProperties wxMpProperties) {
+        CustomExchange exchange = new CustomExchange(MqConstant.MESSAGE_INGEST_EXCHANGE, "x-consistent-hash", true, false);
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(exchange);
+        for (int i = 0; i < wxMpProperties.getIngest().getPartitions(); i++) {
+            Queue queue = QueueBuilder.durable(MqConstant.MESSAGE_INGEST_QUEUE_PREFIX + i).singleActiveConsumer().build();
+            declarables.add(queue);
+            // 一致性哈希交换机的绑定键是权重，各分区相同
+            Binding binding = BindingBuilder.bind(queue).to(exchange).with("1").noargs();
+            declarables.add(binding);
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * 本节点消费的分区队列
+     */
+    @Bean
+    public String[] messageIngestQueues(WxMpProperties wxMpProperties) {
+        WxMpProperties.Ingest ingest = wxMpProperties.getIngest();
+        IntStream partitions = ingest.getConsumePartitions().isEmpty()
+                ? IntStream.range(0, ingest.getPartitions())
+                : ingest.getConsumePartitions().stream().mapToInt(Integer::intValue);
+        return partitions.mapToObj(i -> MqConstant.MESSAGE_INGEST_QUEUE_PREFIX + i).toArray(String[]::new);
+    }
+
+    /**
+     * 每个分区一个消费者，消息处理完成后手动确认
+     */
+    @Bean
+    public DirectRabbitListenerContainerFactory messageIngestContainerFactory(ConnectionFactory connectionFactory,
+                                                                             MessageConverter messageConverter,
+                                                                             WxMpProperties wxMpProperties) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setConsumersPerQueue(1);
+        factory.setPrefetchCount(wxMpProperties.getIngest().getPrefetch());
+        // 消息通道处理完成后由 MessageIngestReceiver 确认，处理失败同样确认，避免一条异常消息反复投递
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+        // 和 spring.rabbitmq.listener.simple.observation-enabled 一致，消息头中的链路信息延续到处理节点
+        factory.setObservationEnabled(true);
+        return factory;
+    }
+}
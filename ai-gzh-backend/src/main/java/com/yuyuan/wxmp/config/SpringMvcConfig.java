@@ -1,10 +1,15 @@
 package com.yuyuan.wxmp.config;
 
+import com.yuyuan.wxmp.aop.WxMpServiceArgumentResolver;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 
 /**
  * mvc拦截
@@ -13,7 +18,11 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * @since 2023/10/28
  */
 @Configuration
+@RequiredArgsConstructor
 public class SpringMvcConfig implements WebMvcConfigurer {
+
+    private final WxMpServiceArgumentResolver wxMpServiceArgumentResolver;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -24,4 +33,9 @@ public class SpringMvcConfig implements WebMvcConfigurer {
                 // 1小时内不需要再预检（发OPTIONS请求）
                 .maxAge(3600);
     }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(wxMpServiceArgumentResolver);
+    }
 }
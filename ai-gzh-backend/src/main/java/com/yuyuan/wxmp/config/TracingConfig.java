@@ -0,0 +1,31 @@
+package com.yuyuan.wxmp.config;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.manager.JsonFileSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 链路追踪配置
+ * <p>
+ * 导出方式由 wx.mp.tracing.exporter 决定：file 写入本地文件；otlp 由 Spring Boot 根据
+ * management.otlp.tracing.endpoint 自动创建导出器；其他 SpanExporter bean 也会一起生效
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * 由 SdkTracerProvider 在导出最后一批 span 后关闭，不交给 Spring 关闭
+     */
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(prefix = "wx.mp.tracing", name = "exporter", havingValue = "file", matchIfMissing = true)
+    public SpanExporter jsonFileSpanExporter(WxMpProperties wxMpProperties) {
+        WxMpProperties.Tracing tracing = wxMpProperties.getTracing();
+        return new JsonFileSpanExporter(tracing.getFileDir(), tracing.getRetentionDays());
+    }
+}
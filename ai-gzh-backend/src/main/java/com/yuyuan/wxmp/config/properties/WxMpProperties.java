@@ -0,0 +1,695 @@
+package com.yuyuan.wxmp.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 微信公众号相关配置
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wx.mp")
+public class WxMpProperties {
+
+    /**
+     * access_token 存储配置
+     */
+    private Token token = new Token();
+
+    /**
+     * 公众号配置注册表
+     */
+    private Registry registry = new Registry();
+
+    /**
+     * 消息处理通道
+     */
+    private Lane lane = new Lane();
+
+    /**
+     * AI 调用调度
+     */
+    private AiScheduler aiScheduler = new AiScheduler();
+
+    /**
+     * AI 回复记录挖掘
+     */
+    private Mining mining = new Mining();
+
+    /**
+     * 本地意图分类
+     */
+    private Intent intent = new Intent();
+
+    /**
+     * 公众号知识库
+     */
+    private Knowledge knowledge = new Knowledge();
+
+    /**
+     * 关键字回复规则匹配
+     */
+    private Matcher matcher = new Matcher();
+
+    /**
+     * AI 调用用量统计和预算
+     */
+    private Usage usage = new Usage();
+
+    /**
+     * 链路追踪
+     */
+    private Tracing tracing = new Tracing();
+
+    /**
+     * 接口访问日志
+     */
+    private AccessLog accessLog = new AccessLog();
+
+    /**
+     * SQL 慢查询日志
+     */
+    private Sql sql = new Sql();
+
+    /**
+     * 微信回调录制
+     */
+    private Capture capture = new Capture();
+
+    /**
+     * 未回复 AI 记录的后台补发
+     */
+    private Retry retry = new Retry();
+
+    /**
+     * 消息接收模式（队列接收、处理节点）
+     */
+    private Ingest ingest = new Ingest();
+
+    /**
+     * 粉丝同步
+     */
+    private Follower follower = new Follower();
+
+    /**
+     * 群发任务
+     */
+    private Broadcast broadcast = new Broadcast();
+
+    /**
+     * 微信接口地址，为空时使用官方地址，联调、压测时可指向本地模拟接口（如 StubWeChatApiServer）
+     */
+    private String apiHost;
+
+    @Data
+    public static class Token {
+
+        /**
+         * 距离过期多久开始提前刷新（秒），微信旧 token 在新 token 生成后仍有 5 分钟有效期
+         */
+        private long refreshAheadSeconds = 300;
+
+        /**
+         * 本地缓存 token 的时间（秒），超过后重新从 Redis 读取
+         */
+        private long localCacheSeconds = 30;
+    }
+
+    @Data
+    public static class Registry {
+
+        /**
+         * 最多同时加载的公众号数量，超出后淘汰最久未使用的
+         */
+        private int maxSize = 2000;
+
+        /**
+         * 空闲多久后淘汰（分钟）
+         */
+        private long idleMinutes = 30;
+
+        /**
+         * 不存在的 appId 的缓存时间（秒），避免伪造请求反复查库
+         */
+        private long missingCacheSeconds = 60;
+    }
+
+    @Data
+    public static class Lane {
+
+        /**
+         * 通道数量，同一个 appId + openId 的消息固定进入同一个通道
+         */
+        private int laneCount = 256;
+
+        /**
+         * 处理线程数
+         */
+        private int threads = 64;
+
+        /**
+         * 单个通道最多排队的消息数，超出后直接返回繁忙提示
+         */
+        private int maxPendingPerLane = 100;
+
+        /**
+         * 等待处理结果的最长时间（毫秒），微信服务器 5 秒内收不到响应会重试
+         */
+        private long replyTimeoutMillis = 4500;
+    }
+
+    @Data
+    public static class AiScheduler {
+
+        /**
+         * 全局同时进行的 AI 调用数
+         */
+        private int maxConcurrency = 16;
+
+        /**
+         * 默认权重，权重越大分到的调用次数越多
+         */
+        private int defaultWeight = 1;
+
+        /**
+         * 单个公众号默认最多同时进行的 AI 调用数
+         */
+        private int defaultMaxInFlight = 4;
+
+        /**
+         * 单个公众号最多排队的请求数
+         */
+        private int maxQueuePerApp = 100;
+
+        /**
+         * 距离截止时间不足该值（毫秒）时不再调用 AI，直接丢弃
+         */
+        private long minRemainingMillis = 500;
+
+        /**
+         * 按 appId 单独配置
+         */
+        private Map<String, Tenant> tenants = new HashMap<>();
+
+        @Data
+        public static class Tenant {
+
+            private Integer weight;
+
+            private Integer maxInFlight;
+        }
+    }
+
+    @Data
+    public static class Mining {
+
+        /**
+         * 是否开启定时挖掘
+         */
+        private boolean enabled = true;
+
+        /**
+         * 定时挖掘的 cron 表达式
+         */
+        private String cron = "0 0 3 * * ?";
+
+        /**
+         * 单次最多处理的记录数，未处理完的下次继续
+         */
+        private int batchSize = 50000;
+
+        /**
+         * 只处理创建时间早于该值（分钟）的记录，避免跳过还在回复中的记录
+         */
+        private int settleMinutes = 10;
+
+        /**
+         * 归一化后长度小于该值的问题不参与聚类
+         */
+        private int minQuestionLength = 2;
+
+        /**
+         * 判定为同一类问题的相似度（Jaccard）
+         */
+        private double similarity = 0.6;
+
+        /**
+         * 出现次数达到该值才作为建议展示
+         */
+        private int minHits = 5;
+
+        /**
+         * 出现次数未达到 minHits 的待处理簇超过该天数没有新的相似问题时删除，避免长尾问题让建议表无限增长
+         */
+        private int candidateExpireDays = 30;
+
+        /**
+         * 每个建议最多保留的问法、回复数量
+         */
+        private int maxStatsSize = 20;
+
+        /**
+         * 是否自动生成关键字回复规则，关闭时只生成建议，由管理员采纳
+         */
+        private boolean autoCreate = false;
+
+        /**
+         * 自动生成规则需要的出现次数
+         */
+        private int autoCreateMinHits = 20;
+
+        /**
+         * 自动生成规则需要的最常见回复占比，AI 回答不稳定的问题不自动生成
+         */
+        private double autoCreateReplyRatio = 0.6;
+    }
+
+    @Data
+    public static class Intent {
+
+        /**
+         * 是否在调用 AI 前使用本地分类器
+         */
+        private boolean enabled = true;
+
+        /**
+         * 直接回复需要的置信度（后验概率）
+         */
+        private double minConfidence = 0.95;
+
+        /**
+         * 直接回复需要的已知特征占比，避免只靠少数几个字命中
+         */
+        private double minCoverage = 0.6;
+
+        /**
+         * 模型刷新时间（分钟）
+         */
+        private long refreshMinutes = 10;
+
+        /**
+         * 用作"其他"类别的最近 AI 问答数量
+         */
+        private int maxOtherSamples = 2000;
+
+        /**
+         * 规则关键字样本的权重
+         */
+        private int keywordWeight = 5;
+
+        /**
+         * 建议中单个问法的最大权重
+         */
+        private int maxQuestionWeight = 20;
+    }
+
+    @Data
+    public static class Knowledge {
+
+        /**
+         * 是否在调用 AI 时检索知识库
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地索引目录，每个公众号一个子目录
+         */
+        private String indexDir = "data/knowledge";
+
+        /**
+         * 切片最大字符数
+         */
+        private int chunkSize = 300;
+
+        /**
+         * 超长段落切片的重叠字符数
+         */
+        private int chunkOverlap = 50;
+
+        /**
+         * 检索返回的切片数
+         */
+        private int topK = 3;
+
+        /**
+         * 向量检索的最低相似度
+         */
+        private double minSimilarity = 0.2;
+
+        /**
+         * 拼入提示词的资料最大字符数
+         */
+        private int maxContextChars = 1500;
+
+        /**
+         * 检查知识库版本的间隔（秒）
+         */
+        private long checkIntervalSeconds = 60;
+
+        /**
+         * 单个文档最大字符数
+         */
+        private int maxDocumentChars = 200000;
+    }
+
+    @Data
+    public static class Matcher {
+
+        /**
+         * 匹配器重新加载间隔（秒），规则变更广播丢失时的兜底
+         */
+        private long refreshSeconds = 300;
+
+        /**
+         * 容错匹配最多允许的编辑距离
+         */
+        private int maxFuzzyDistance = 2;
+
+        /**
+         * 单个正则单条消息最多读取的字符次数
+         */
+        private int regexMaxSteps = 100000;
+    }
+
+    @Data
+    public static class Usage {
+
+        /**
+         * 每个公众号每天最多使用的 token 数，0 为不限制
+         */
+        private long dailyTokenBudget = 0;
+
+        /**
+         * 单独设置的公众号每日 token 预算，key 为 appId
+         */
+        private Map<String, Long> budgets = new HashMap<>();
+    }
+
+    @Data
+    public static class Tracing {
+
+        /**
+         * 链路导出方式：file（写入本地文件，默认）、otlp（发送到 management.otlp.tracing.endpoint）、none
+         */
+        private String exporter = "file";
+
+        /**
+         * file 方式的写入目录，每天一个文件
+         */
+        private String fileDir = "data/traces";
+
+        /**
+         * file 方式保留的天数
+         */
+        private int retentionDays = 7;
+    }
+
+    @Data
+    public static class AccessLog {
+
+        /**
+         * 默认采样率（0 ~ 1），出错和慢请求不受采样限制
+         */
+        private double defaultSampleRate = 1.0;
+
+        /**
+         * 按路由单独设置采样率，key 为接口路径模板，例如 /wx/msg/{appId}
+         */
+        private Map<String, Double> sampleRates = new HashMap<>();
+
+        /**
+         * 超过此耗时（毫秒）的请求总是记录
+         */
+        private long slowMillis = 1000;
+
+        /**
+         * 单个参数最多输出的字符数
+         */
+        private int maxArgLength = 200;
+    }
+
+    @Data
+    public static class Sql {
+
+        /**
+         * 超过此耗时（毫秒）的语句记录为慢查询
+         */
+        private long slowMillis = 200;
+
+        /**
+         * 其余语句的采样率（0 ~ 1），0 为不记录
+         */
+        private double sampleRate = 0;
+
+        /**
+         * SQL 最多输出的字符数
+         */
+        private int maxSqlLength = 1000;
+    }
+
+    @Data
+    public static class Capture {
+
+        /**
+         * 是否录制微信回调，录制内容包含粉丝消息原文，只在需要复现问题时短期开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 录制文件目录
+         */
+        private String dir = "data/capture";
+
+        /**
+         * 单个录制文件大小（MB），写满后切换到新文件
+         */
+        private int segmentMb = 64;
+
+        /**
+         * 最多保留的录制文件数，超出后删除最早的
+         */
+        private int maxSegments = 32;
+
+        /**
+         * 只录制这些公众号，为空时录制全部
+         */
+        private Set<String> appIds = new HashSet<>();
+    }
+
+    @Data
+    public static class Retry {
+
+        /**
+         * 是否开启后台补发
+         */
+        private boolean enabled = true;
+
+        /**
+         * 扫描间隔（秒）
+         */
+        private long intervalSeconds = 60;
+
+        /**
+         * 只补发创建时间早于该值（秒）的记录，避免和正在回复的请求重复
+         */
+        private long settleSeconds = 60;
+
+        /**
+         * 客服消息时间窗口（小时），微信只允许在粉丝最后一次互动后 48 小时内发送，留出余量
+         */
+        private int windowHours = 47;
+
+        /**
+         * 每条记录最多补发次数，超出后标记为补发失败
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * 每批领取的记录数
+         */
+        private int batchSize = 50;
+
+        /**
+         * 单次扫描最多处理的记录数，剩余的下次继续
+         */
+        private int maxRecordsPerRun = 500;
+
+        /**
+         * 同时生成回复的线程数
+         */
+        private int concurrency = 4;
+
+        /**
+         * 单条记录生成回复的超时时间（毫秒），超过后不再等待 AI 调度
+         */
+        private long aiTimeoutMillis = 30000;
+
+        /**
+         * 补发中的记录超过该时间（分钟）未更新视为节点已退出，重新放回未回复
+         */
+        private long claimTimeoutMinutes = 10;
+    }
+
+    @Data
+    public static class Ingest {
+
+        /**
+         * 接收模式：inline 在回调中直接处理并被动回复；queue 校验签名后写入分区队列立即返回，由处理节点通过客服消息回复
+         */
+        private String mode = "inline";
+
+        /**
+         * 是否作为处理节点消费分区队列，接收节点和处理节点可以分开部署
+         */
+        private boolean worker = false;
+
+        /**
+         * 分区队列数量，同一粉丝的消息固定进入同一个分区；修改后旧分区中的消息需要先消费完
+         */
+        private int partitions = 16;
+
+        /**
+         * 本节点消费的分区编号，为空时消费全部分区（每个分区同一时间只有一个节点在消费）
+         */
+        private List<Integer> consumePartitions = new ArrayList<>();
+
+        /**
+         * 等待 broker 确认的时间（毫秒），超时或未确认时改为在回调中直接处理（与处理节点之间按消息排重）
+         */
+        private long confirmTimeoutMillis = 1000;
+
+        /**
+         * 消息排重的保留时间（秒），需要覆盖微信重试和队列积压的时间，为 0 时不排重
+         */
+        private long dedupeSeconds = 300;
+
+        /**
+         * 处理节点生成回复的超时时间（毫秒），不受微信 5 秒的限制，超时的记录由补发任务处理
+         */
+        private long replyTimeoutMillis = 30000;
+
+        /**
+         * 每个分区最多同时处理（已取出未确认）的消息数，消息交给消息通道处理，完成后才确认
+         */
+        private int prefetch = 50;
+
+        public boolean isQueueMode() {
+            return "queue".equalsIgnoreCase(mode);
+        }
+    }
+
+    @Data
+    public static class Follower {
+
+        /**
+         * 是否开启定时全量同步
+         */
+        private boolean syncEnabled = true;
+
+        /**
+         * 全量同步时间
+         */
+        private String syncCron = "0 30 4 * * ?";
+
+        /**
+         * 同时调用批量获取用户信息接口的线程数
+         */
+        private int concurrency = 4;
+
+        /**
+         * 关注事件后是否获取用户信息（unionId、关注渠道等），关闭时只记录 openId 和关注时间
+         */
+        private boolean fetchInfoOnSubscribe = true;
+    }
+
+    @Data
+    public static class Broadcast {
+
+        /**
+         * 是否开启群发任务扫描，关闭后已开始的任务停在当前进度，重新开启后继续
+         */
+        private boolean enabled = true;
+
+        /**
+         * 扫描发送中任务的间隔（秒），等待重试的接收人最多延后这么久发送
+         */
+        private long scanIntervalSeconds = 10;
+
+        /**
+         * 本节点同时执行的任务数（按公众号），同一公众号的任务依次发送
+         */
+        private int maxConcurrentTasks = 2;
+
+        /**
+         * 本节点同时调用微信接口的线程数，所有任务共用
+         */
+        private int sendConcurrency = 16;
+
+        /**
+         * 每批领取的接收人数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 每个公众号每秒发送条数，微信按公众号统计接口频率
+         */
+        private double permitsPerSecond = 20;
+
+        /**
+         * 令牌桶容量，允许的瞬时突发条数
+         */
+        private int burst = 20;
+
+        /**
+         * 单条发送等待令牌的最长时间（毫秒），超出时（公众号被限流暂停）本批剩余的接收人放回待发送并释放发送线程，
+         * 由定时扫描在暂停结束后继续
+         */
+        private long maxAcquireWaitMillis = 10000;
+
+        /**
+         * 按公众号单独设置每秒发送条数，未设置的使用 permitsPerSecond
+         */
+        private Map<String, Double> appPermitsPerSecond = new HashMap<>();
+
+        /**
+         * 每个接收人最多发送次数，超出后标记为发送失败
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * 重试间隔基数（秒），第 n 次重试等待 backoffBaseSeconds * 2^(n-1)
+         */
+        private long backoffBaseSeconds = 30;
+
+        /**
+         * 重试间隔上限（秒）
+         */
+        private long backoffMaxSeconds = 3600;
+
+        /**
+         * 返回 45009（接口调用超过限额）后整个公众号暂停发送的时间（秒）
+         */
+        private long quotaPauseSeconds = 600;
+
+        /**
+         * 获取公众号的每秒发送条数
+         *
+         * @param appId appId
+         * @return 每秒发送条数
+         */
+        public double permitsPerSecondOf(String appId) {
+            return appPermitsPerSecond.getOrDefault(appId, permitsPerSecond);
+        }
+    }
+}
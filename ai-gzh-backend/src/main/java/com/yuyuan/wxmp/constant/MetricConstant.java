@@ -0,0 +1,75 @@
+package com.yuyuan.wxmp.constant;
+
+/**
+ * 监控指标名称（通过管理端口的 /actuator/prometheus 暴露）
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public interface MetricConstant {
+
+    /**
+     * 微信消息接口耗时，tag：appId、outcome（reply / empty / queued / error）
+     */
+    String PORTAL_REQUEST = "wx.portal.request";
+
+    /**
+     * 消息路由耗时，tag：appId、route、outcome（success / error）
+     */
+    String ROUTE = "wx.route";
+
+    /**
+     * 文本消息处理耗时（微信服务器等待的时间），tag：appId、outcome（replied / lane_busy / timeout / error）
+     */
+    String MESSAGE_HANDLE = "wx.message.handle";
+
+    /**
+     * 文本消息回复耗时（通道内执行），tag：appId、outcome（rule / intent / ai / ai_record / error）
+     */
+    String MESSAGE_REPLY = "wx.message.reply";
+
+    /**
+     * 关键字规则匹配耗时，tag：appId、outcome（hit / miss）
+     */
+    String RULE_MATCH = "wx.rule.match";
+
+    /**
+     * AI 回复耗时，tag：appId、outcome（cache_hit / rate_limited / over_budget / rejected / replied / invalid / error）
+     */
+    String AI_REPLY = "wx.ai.reply";
+
+    /**
+     * 模型调用耗时（不包含排队时间），tag：appId、outcome（success / error）
+     */
+    String AI_CALL = "wx.ai.call";
+
+    /**
+     * 未回复记录的后台补发次数，tag：appId、outcome（delivered / duplicate / ai_failed / send_failed / expired 等）
+     */
+    String AI_RETRY = "wx.ai.retry";
+
+    /**
+     * 队列模式下从接收到回复发出的耗时，tag：appId、outcome（replied / empty / duplicate / send_failed / lane_busy / error）
+     */
+    String MESSAGE_INGEST = "wx.message.ingest";
+
+    /**
+     * 群发消息发送次数，tag：appId、channel、outcome（sent / throttled / retry / failed）
+     */
+    String BROADCAST_SEND = "wx.broadcast.send";
+
+    /**
+     * Redis 缓存命中次数，tag：cache、result（hit / miss）
+     */
+    String CACHE_REQUESTS = "wx.cache.requests";
+
+    /**
+     * 分布式锁获取耗时，tag：lock、mode（block / try）、outcome（acquired / busy）
+     */
+    String LOCK_ACQUIRE = "wx.lock.acquire";
+
+    /**
+     * SQL 执行耗时，tag：statement、command、outcome（success / error）
+     */
+    String DB_STATEMENT = "wx.db.statement";
+}
@@ -2,11 +2,22 @@ package com.yuyuan.wxmp.constant;
 
 public interface MqConstant {
     /**
-     * 新增微信公众号服务配置交换机
+     * 同步微信公众号服务配置交换机（新增、修改、删除共用，保证同一节点内消息有序）
      */
-    String ADD_WXMP_CONFIG_EXCHANGE = "fanout.add_wxmp_config.exchange";
+    String SYNC_WXMP_CONFIG_EXCHANGE = "fanout.sync_wxmp_config.exchange";
+
+    /**
+     * 回复规则变更交换机（消息内容为 appId）
+     */
+    String REPLY_RULE_CHANGE_EXCHANGE = "fanout.reply_rule_change.exchange";
+
+    /**
+     * 微信消息接收交换机（一致性哈希，routing key 为 appId:openId，需要启用 rabbitmq_consistent_hash_exchange 插件）
+     */
+    String MESSAGE_INGEST_EXCHANGE = "x-consistent-hash.message_ingest.exchange";
+
     /**
-     * 移除微信公众号服务配置交换机
+     * 微信消息分区队列前缀，后接分区编号
      */
-    String REMOVE_WXMP_CONFIG_EXCHANGE = "fanout.remove_wxmp_config.exchange";
+    String MESSAGE_INGEST_QUEUE_PREFIX = "message_ingest.partition.";
 }
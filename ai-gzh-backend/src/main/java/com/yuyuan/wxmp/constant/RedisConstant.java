@@ -8,7 +8,47 @@ package com.yuyuan.wxmp.constant;
  */
 public interface RedisConstant {
     /**
-     * 消息回复锁
+     * 公众号 access_token / ticket
      */
-    String MESSAGE_REPLY_LOCK = "message_reply_lock:";
+    String WX_MP_TOKEN_KEY_PREFIX = "wx_mp_token:";
+
+    /**
+     * AI 回复记录挖掘已处理到的 id
+     */
+    String AI_REPLY_MINING_LAST_ID_KEY = "ai_reply_mining:last_id";
+
+    /**
+     * AI 回复记录挖掘任务锁
+     */
+    String AI_REPLY_MINING_LOCK_KEY = "ai_reply_mining";
+
+    /**
+     * 回复规则关键字迁移任务锁
+     */
+    String REPLY_KEYWORD_MIGRATION_LOCK_KEY = "reply_keyword_migration";
+
+    /**
+     * AI 回复补发任务锁
+     */
+    String AI_REPLY_RETRY_LOCK_KEY = "ai_reply_retry";
+
+    /**
+     * 粉丝全量同步任务锁（后接 appId）
+     */
+    String FOLLOWER_SYNC_LOCK_KEY_PREFIX = "follower_sync:";
+
+    /**
+     * 所有公众号定时全量同步粉丝的任务锁
+     */
+    String FOLLOWER_SYNC_ALL_LOCK_KEY = "follower_sync_all";
+
+    /**
+     * 群发任务发送锁（后接 appId），同一公众号的任务只在一个节点上发送，本地令牌桶即为全局频率
+     */
+    String BROADCAST_LOCK_KEY_PREFIX = "broadcast:";
+
+    /**
+     * 微信消息排重（后接 appId:MsgId 或 appId:FromUser:CreateTime）
+     */
+    String MESSAGE_DEDUPE_KEY_PREFIX = "wx_msg_dedupe:";
 }
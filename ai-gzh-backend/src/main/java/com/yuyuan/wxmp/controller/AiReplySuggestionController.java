@@ -0,0 +1,75 @@
+package com.yuyuan.wxmp.controller;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.yuyuan.wxmp.annotation.AuthCheck;
+import com.yuyuan.wxmp.common.BaseResponse;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.ResultUtils;
+import com.yuyuan.wxmp.constant.UserConstant;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.model.dto.aireplysuggestion.AiReplySuggestionPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+import com.yuyuan.wxmp.model.vo.AiReplySuggestionVO;
+import com.yuyuan.wxmp.service.AiReplySuggestionService;
+import com.yuyuan.wxmp.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * AI 高频问题回复规则建议
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/wx/reply/suggestion")
+public class AiReplySuggestionController {
+
+    private final AiReplySuggestionService aiReplySuggestionService;
+
+    private final UserService userService;
+
+    @GetMapping("/page")
+    @Operation(summary = "分页查询回复规则建议")
+    public BaseResponse<Page<AiReplySuggestionVO>> listAiReplySuggestionByPage(AiReplySuggestionPageQueryRequest aiReplySuggestionPageQueryRequest) {
+        long current = aiReplySuggestionPageQueryRequest.getCurrent();
+        long size = aiReplySuggestionPageQueryRequest.getPageSize();
+        Page<AiReplySuggestion> suggestionPage = aiReplySuggestionService.page(new Page<>(current, size),
+                aiReplySuggestionService.getQueryWrapper(aiReplySuggestionPageQueryRequest));
+        Page<AiReplySuggestionVO> resultPage = new Page<>();
+        BeanUtils.copyProperties(suggestionPage, resultPage, "records");
+        resultPage.setRecords(suggestionPage.getRecords()
+                .stream()
+                .map(AiReplySuggestionVO::obj2VO)
+                .collect(Collectors.toList()));
+        return ResultUtils.success(resultPage);
+    }
+
+    @PostMapping("/accept")
+    @Operation(summary = "采纳建议，生成关键字回复规则")
+    public BaseResponse<Long> acceptAiReplySuggestion(@RequestParam Long id, HttpServletRequest request) {
+        return ResultUtils.success(aiReplySuggestionService.accept(id, userService.getLoginUser(request).getId()));
+    }
+
+    @PostMapping("/ignore")
+    @Operation(summary = "忽略建议")
+    public BaseResponse<Boolean> ignoreAiReplySuggestion(@RequestBody List<Long> ids) {
+        return ResultUtils.success(aiReplySuggestionService.ignore(ids));
+    }
+
+    @PostMapping("/mine")
+    @Operation(summary = "立即挖掘 AI 回复记录")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Integer> mineAiReplyRecord() {
+        Integer count = aiReplySuggestionService.mine();
+        ThrowUtils.throwIf(count == null, ErrorCode.OPERATION_ERROR, "挖掘任务正在执行，请稍后再试");
+        return ResultUtils.success(count);
+    }
+}
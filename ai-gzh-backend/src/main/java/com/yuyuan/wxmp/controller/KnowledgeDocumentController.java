@@ -0,0 +1,101 @@
+package com.yuyuan.wxmp.controller;
+
+import cn.hutool.core.io.FileUtil;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.yuyuan.wxmp.common.BaseResponse;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.ResultUtils;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.KnowledgeIndexManager;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeDocumentAddRequest;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeDocumentPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.KnowledgeDocument;
+import com.yuyuan.wxmp.model.vo.KnowledgeDocumentVO;
+import com.yuyuan.wxmp.model.vo.KnowledgePassageVO;
+import com.yuyuan.wxmp.service.KnowledgeDocumentService;
+import com.yuyuan.wxmp.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 公众号知识库
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/wx/knowledge")
+public class KnowledgeDocumentController {
+
+    private static final Set<String> ALLOW_DOCUMENT_TYPE = Set.of("txt", "md");
+
+    private final KnowledgeDocumentService knowledgeDocumentService;
+
+    private final KnowledgeIndexManager knowledgeIndexManager;
+
+    private final UserService userService;
+
+    @GetMapping("/page")
+    @Operation(summary = "分页查询知识库文档")
+    public BaseResponse<Page<KnowledgeDocumentVO>> listKnowledgeDocumentByPage(KnowledgeDocumentPageQueryRequest knowledgeDocumentPageQueryRequest) {
+        long current = knowledgeDocumentPageQueryRequest.getCurrent();
+        long size = knowledgeDocumentPageQueryRequest.getPageSize();
+        Page<KnowledgeDocument> documentPage = knowledgeDocumentService.page(new Page<>(current, size),
+                knowledgeDocumentService.getQueryWrapper(knowledgeDocumentPageQueryRequest));
+        Page<KnowledgeDocumentVO> resultPage = new Page<>();
+        BeanUtils.copyProperties(documentPage, resultPage, "records");
+        resultPage.setRecords(documentPage.getRecords()
+                .stream()
+                .map(KnowledgeDocumentVO::obj2VO)
+                .collect(Collectors.toList()));
+        return ResultUtils.success(resultPage);
+    }
+
+    @PostMapping("/add")
+    @Operation(summary = "新增知识库文档")
+    public BaseResponse<Long> addKnowledgeDocument(@Valid @RequestBody KnowledgeDocumentAddRequest knowledgeDocumentAddRequest, HttpServletRequest request) {
+        return ResultUtils.success(knowledgeDocumentService.addDocument(knowledgeDocumentAddRequest,
+                userService.getLoginUser(request).getId()));
+    }
+
+    @PostMapping("/{appId}/upload")
+    @Operation(summary = "上传知识库文档（txt、md）")
+    public BaseResponse<Long> uploadKnowledgeDocument(@PathVariable String appId, @RequestPart("file") MultipartFile multipartFile,
+                                                      String title, HttpServletRequest request) throws IOException {
+        String originalFilename = multipartFile.getOriginalFilename();
+        String fileSuffix = StringUtils.lowerCase(FileUtil.getSuffix(originalFilename));
+        ThrowUtils.throwIf(!ALLOW_DOCUMENT_TYPE.contains(fileSuffix), ErrorCode.PARAMS_ERROR, "仅支持 txt、md 文档");
+
+        KnowledgeDocumentAddRequest knowledgeDocumentAddRequest = new KnowledgeDocumentAddRequest();
+        knowledgeDocumentAddRequest.setAppId(appId);
+        knowledgeDocumentAddRequest.setTitle(StringUtils.defaultIfBlank(title, FileUtil.mainName(originalFilename)));
+        knowledgeDocumentAddRequest.setContent(new String(multipartFile.getBytes(), StandardCharsets.UTF_8));
+        return ResultUtils.success(knowledgeDocumentService.addDocument(knowledgeDocumentAddRequest,
+                userService.getLoginUser(request).getId()));
+    }
+
+    @PostMapping("/delete")
+    @Operation(summary = "根据id删除知识库文档")
+    public BaseResponse<Boolean> deleteKnowledgeDocumentByIds(@RequestBody List<Long> ids) {
+        return ResultUtils.success(knowledgeDocumentService.deleteDocuments(ids));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "检索知识库（调试用，返回调用 AI 时拼入提示词的资料）")
+    public BaseResponse<List<KnowledgePassageVO>> searchKnowledge(@RequestParam String appId, @RequestParam String query) {
+        return ResultUtils.success(knowledgeIndexManager.search(appId, query));
+    }
+}
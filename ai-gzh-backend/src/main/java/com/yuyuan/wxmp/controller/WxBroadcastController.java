@@ -0,0 +1,106 @@
+package com.yuyuan.wxmp.controller;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.yuyuan.wxmp.annotation.AuthCheck;
+import com.yuyuan.wxmp.common.BaseResponse;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.ResultUtils;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.UserConstant;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.WxBroadcastManager;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastTaskAddRequest;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastTaskPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.WxBroadcastTask;
+import com.yuyuan.wxmp.model.vo.WxBroadcastTaskVO;
+import com.yuyuan.wxmp.service.UserService;
+import com.yuyuan.wxmp.service.WxBroadcastTaskService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.stream.Collectors;
+
+/**
+ * 群发任务
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/wx/broadcast")
+public class WxBroadcastController {
+
+    private final WxBroadcastTaskService wxBroadcastTaskService;
+
+    private final WxBroadcastManager wxBroadcastManager;
+
+    private final UserService userService;
+
+    private final WxMpProperties wxMpProperties;
+
+    @PostMapping("/add")
+    @Operation(summary = "创建群发任务", description = "创建后为待发送，调用开始接口后发送")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Long> addWxBroadcastTask(@RequestBody @Valid WxBroadcastTaskAddRequest wxBroadcastTaskAddRequest,
+                                                 HttpServletRequest request) {
+        return ResultUtils.success(wxBroadcastTaskService.create(wxBroadcastTaskAddRequest, userService.getLoginUser(request).getId()));
+    }
+
+    @PostMapping("/start")
+    @Operation(summary = "开始或继续发送")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Boolean> startWxBroadcastTask(@RequestParam Long id) {
+        WxBroadcastTask wxBroadcastTask = wxBroadcastTaskService.start(id);
+        // 立即开始，没有提交成功时由定时扫描继续
+        if (wxMpProperties.getBroadcast().isEnabled()) {
+            wxBroadcastManager.runAsync(wxBroadcastTask.getAppId());
+        }
+        return ResultUtils.success(true);
+    }
+
+    @PostMapping("/pause")
+    @Operation(summary = "暂停发送", description = "正在发送的一批完成后停止")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Boolean> pauseWxBroadcastTask(@RequestParam Long id) {
+        return ResultUtils.success(wxBroadcastTaskService.pause(id));
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "取消任务")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Boolean> cancelWxBroadcastTask(@RequestParam Long id) {
+        return ResultUtils.success(wxBroadcastTaskService.cancel(id));
+    }
+
+    @GetMapping("/get")
+    @Operation(summary = "查询群发任务及进度")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<WxBroadcastTaskVO> getWxBroadcastTask(@RequestParam Long id) {
+        WxBroadcastTask wxBroadcastTask = wxBroadcastTaskService.getById(id);
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(wxBroadcastTask), ErrorCode.NOT_FOUND_ERROR);
+        return ResultUtils.success(WxBroadcastTaskVO.obj2VO(wxBroadcastTask));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "分页查询群发任务")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Page<WxBroadcastTaskVO>> listWxBroadcastTaskByPage(WxBroadcastTaskPageQueryRequest wxBroadcastTaskPageQueryRequest) {
+        long current = wxBroadcastTaskPageQueryRequest.getCurrent();
+        long size = wxBroadcastTaskPageQueryRequest.getPageSize();
+        Page<WxBroadcastTask> taskPage = wxBroadcastTaskService.page(new Page<>(current, size),
+                wxBroadcastTaskService.getQueryWrapper(wxBroadcastTaskPageQueryRequest));
+        Page<WxBroadcastTaskVO> resultPage = new Page<>();
+        BeanUtils.copyProperties(taskPage, resultPage, "records");
+        resultPage.setRecords(taskPage.getRecords()
+                .stream()
+                .map(WxBroadcastTaskVO::obj2VO)
+                .collect(Collectors.toList()));
+        return ResultUtils.success(resultPage);
+    }
+}
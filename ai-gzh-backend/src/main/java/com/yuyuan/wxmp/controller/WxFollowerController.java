@@ -0,0 +1,53 @@
+package com.yuyuan.wxmp.controller;
+
+import com.yuyuan.wxmp.annotation.AuthCheck;
+import com.yuyuan.wxmp.common.BaseResponse;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.ResultUtils;
+import com.yuyuan.wxmp.constant.UserConstant;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.WxFollowerSyncManager;
+import com.yuyuan.wxmp.manager.WxMpConfigRegistry;
+import com.yuyuan.wxmp.model.dto.wxfollower.WxFollowerQueryRequest;
+import com.yuyuan.wxmp.model.vo.WxFollowerPageVO;
+import com.yuyuan.wxmp.service.WxFollowerService;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 公众号粉丝
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/wx/follower")
+public class WxFollowerController {
+
+    private final WxFollowerService wxFollowerService;
+
+    private final WxFollowerSyncManager wxFollowerSyncManager;
+
+    private final WxMpConfigRegistry wxMpConfigRegistry;
+
+    @GetMapping("/list")
+    @Operation(summary = "按游标分页查询粉丝", description = "下一页传入上一页返回的 nextId")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<WxFollowerPageVO> listWxFollowerByCursor(@Valid WxFollowerQueryRequest wxFollowerQueryRequest) {
+        return ResultUtils.success(wxFollowerService.listByCursor(wxFollowerQueryRequest));
+    }
+
+    @PostMapping("/sync")
+    @Operation(summary = "全量同步粉丝", description = "在后台执行，完成时间取决于粉丝数量")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Boolean> syncWxFollower(@RequestParam String appId) {
+        // 公众号不存在时直接报错，不提交后台任务
+        wxMpConfigRegistry.getRequiredService(appId);
+        boolean submitted = wxFollowerSyncManager.syncAsync(appId);
+        ThrowUtils.throwIf(!submitted, ErrorCode.OPERATION_ERROR, "粉丝同步正在执行，请稍后再试");
+        return ResultUtils.success(true);
+    }
+}
@@ -53,8 +53,6 @@ import java.util.UUID;
 //@Api(tags = "公众号素材管理")
 @Slf4j
 public class WxMaterialController {
-    private final WxMpService wxMpService;
-
     private final UserService userService;
 
     /**
@@ -83,7 +81,7 @@ public class WxMaterialController {
 
     @PostMapping("/{appId}/upload")
     @Operation(summary = "上传素材（图片、音频、视频）")
-    public BaseResponse<Boolean> uploadMaterial(@PathVariable String appId, @RequestPart("file") MultipartFile multipartFile, String materialType, HttpServletRequest request) throws WxErrorException, IOException {
+    public BaseResponse<Boolean> uploadMaterial(@PathVariable String appId, WxMpService wxMpService, @RequestPart("file") MultipartFile multipartFile, String materialType, HttpServletRequest request) throws WxErrorException, IOException {
         WxMaterialTypeEnum wxMaterialTypeEnum = WxMaterialTypeEnum.getEnumByValue(materialType);
         ThrowUtils.throwIf(ObjectUtils.isEmpty(wxMaterialTypeEnum), ErrorCode.PARAMS_ERROR);
 
@@ -102,7 +100,6 @@ public class WxMaterialController {
             wxMpMaterial.setName(originalFilename);
             wxMpMaterial.setFile(file);
             wxMpMaterial.setVideoTitle(originalFilename);
-//            wxMpService.switchover(appId);
             wxMpService.getMaterialService().materialFileUpload(materialType, wxMpMaterial);
             return ResultUtils.success(true);
         } catch (Exception e) {
@@ -122,38 +119,34 @@ public class WxMaterialController {
 
     @PostMapping("/{appId}/delete")
     @Operation(summary = "删除素材")
-    public BaseResponse<Boolean> deleteMaterial(@PathVariable String appId, @RequestBody MaterialDeleteRequest materialDeleteRequest, HttpServletRequest request) throws WxErrorException, IOException {
+    public BaseResponse<Boolean> deleteMaterial(@PathVariable String appId, WxMpService wxMpService, @RequestBody MaterialDeleteRequest materialDeleteRequest, HttpServletRequest request) throws WxErrorException, IOException {
         String materialId = materialDeleteRequest.getMaterialId();
-//        wxMpService.switchover(appId);
         return ResultUtils.success(wxMpService.getMaterialService().materialDelete(materialId));
     }
 
 
     @GetMapping("/{appId}/list")
     @Operation(summary = "查询素材列表")
-    public BaseResponse<WxMpMaterialFileBatchGetResult> listAllMaterial(@PathVariable String appId, WxMaterialQueryRequest wxMaterialQueryRequest) throws WxErrorException {
+    public BaseResponse<WxMpMaterialFileBatchGetResult> listAllMaterial(@PathVariable String appId, WxMpService wxMpService, WxMaterialQueryRequest wxMaterialQueryRequest) throws WxErrorException {
         String materialType = wxMaterialQueryRequest.getMaterialType();
         int current = (int) wxMaterialQueryRequest.getCurrent();
         int pageSize = (int) wxMaterialQueryRequest.getPageSize();
         int offset = (current - 1) * pageSize;
 
-//        wxMpService.switchover(appId);
         return ResultUtils.success(wxMpService.getMaterialService().materialFileBatchGet(materialType, offset, pageSize));
     }
 
     @GetMapping("/{appId}/video/info")
     @Operation(summary = "查询视频详情")
-    public BaseResponse<WxMpMaterialVideoInfoResult> getMaterialVideoByMaterialId(@PathVariable String appId, @RequestParam String materialId) throws WxErrorException {
+    public BaseResponse<WxMpMaterialVideoInfoResult> getMaterialVideoByMaterialId(@PathVariable String appId, WxMpService wxMpService, @RequestParam String materialId) throws WxErrorException {
         ThrowUtils.throwIf(StringUtils.isBlank(materialId), ErrorCode.PARAMS_ERROR);
-//        wxMpService.switchover(appId);
         return ResultUtils.success(wxMpService.getMaterialService().materialVideoInfo(materialId));
     }
 
     @GetMapping("/{appId}/img_voice/download")
     @Operation(summary = "下载图片或音频")
-    public ResponseEntity<InputStreamResource> downloadImgAndVoiceMaterial(@PathVariable String appId, String materialId, String fileName) throws WxErrorException {
+    public ResponseEntity<InputStreamResource> downloadImgAndVoiceMaterial(@PathVariable String appId, WxMpService wxMpService, String materialId, String fileName) throws WxErrorException {
         ThrowUtils.throwIf(StringUtils.isAnyBlank(materialId, fileName), ErrorCode.PARAMS_ERROR);
-//        wxMpService.switchover(appId);
         try (InputStream inputStream = wxMpService.getMaterialService().materialImageOrVoiceDownload(materialId)) {
             InputStreamResource resource = new InputStreamResource(inputStream);
             return ResponseEntity.ok()
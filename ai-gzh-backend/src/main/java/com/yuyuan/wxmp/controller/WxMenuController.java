@@ -5,7 +5,6 @@ import com.yuyuan.wxmp.common.BaseResponse;
 import com.yuyuan.wxmp.common.ResultUtils;
 import com.yuyuan.wxmp.model.enums.WxMenuButtonTypeEnum;
 import io.swagger.v3.oas.annotations.Operation;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.chanjar.weixin.common.bean.menu.WxMenu;
 import me.chanjar.weixin.common.bean.menu.WxMenuButton;
@@ -24,12 +23,9 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/wx/menu")
-@RequiredArgsConstructor
 //@Api(tags = "公众号菜单管理")
 @Slf4j
 public class WxMenuController {
-    private final WxMpService wxMpService;
-
 
     @GetMapping("/get/type")
     @Operation(summary = "获取菜单类型")
@@ -42,8 +38,7 @@ public class WxMenuController {
      */
     @GetMapping("/get/{appId}")
     @Operation(summary = "获取公众号菜单")
-    public BaseResponse<WxMpMenu> getMenu(@PathVariable String appId) throws WxErrorException {
-//        wxMpService.switchoverTo(appId);
+    public BaseResponse<WxMpMenu> getMenu(@PathVariable String appId, WxMpService wxMpService) throws WxErrorException {
         return ResultUtils.success(wxMpService.getMenuService().menuGet());
     }
 
@@ -52,8 +47,7 @@ public class WxMenuController {
      */
     @PostMapping("/update/{appId}")
     @Operation(summary = "更新菜单")
-    public BaseResponse<Boolean> updateMenu(@PathVariable String appId, @RequestBody List<WxMenuButton> wxMenuButtonList) throws WxErrorException {
-//        wxMpService.switchoverTo(appId);
+    public BaseResponse<Boolean> updateMenu(@PathVariable String appId, WxMpService wxMpService, @RequestBody List<WxMenuButton> wxMenuButtonList) throws WxErrorException {
         WxMenu wxMenu = new WxMenu();
         wxMenu.setButtons(wxMenuButtonList);
         wxMpService.getMenuService().menuCreate(wxMenu);
@@ -63,8 +57,7 @@ public class WxMenuController {
 
     @PostMapping("/delete/{appId}")
     @Operation(summary = "删除菜单", description = "注意这里是全部删除")
-    public BaseResponse<Boolean> deleteMenu(@PathVariable String appId) throws WxErrorException {
-//        wxMpService.switchoverTo(appId);
+    public BaseResponse<Boolean> deleteMenu(@PathVariable String appId, WxMpService wxMpService) throws WxErrorException {
         wxMpService.getMenuService().menuDelete();
         return ResultUtils.success(true);
     }
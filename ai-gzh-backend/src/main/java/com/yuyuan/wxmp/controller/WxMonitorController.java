@@ -0,0 +1,92 @@
+package com.yuyuan.wxmp.controller;
+
+import com.yuyuan.wxmp.annotation.AuthCheck;
+import com.yuyuan.wxmp.common.BaseResponse;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.ResultUtils;
+import com.yuyuan.wxmp.constant.UserConstant;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.handler.WxMpMessageDispatcher;
+import com.yuyuan.wxmp.manager.AiCallScheduler;
+import com.yuyuan.wxmp.manager.AiUsageManager;
+import com.yuyuan.wxmp.manager.IntentClassifierManager;
+import com.yuyuan.wxmp.mapper.AiReplyRecordMapper;
+import com.yuyuan.wxmp.model.vo.AiSchedulerStatsVO;
+import com.yuyuan.wxmp.model.vo.AiUsageStatVO;
+import com.yuyuan.wxmp.model.vo.AiUserUsageVO;
+import com.yuyuan.wxmp.model.vo.IntentEvaluationVO;
+import com.yuyuan.wxmp.model.vo.WxRouteStatsVO;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 运行状态监控
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/wx/monitor")
+public class WxMonitorController {
+
+    private final WxMpMessageDispatcher messageDispatcher;
+
+    private final AiCallScheduler aiCallScheduler;
+
+    private final IntentClassifierManager intentClassifierManager;
+
+    private final AiUsageManager aiUsageManager;
+
+    private final AiReplyRecordMapper aiReplyRecordMapper;
+
+    @GetMapping("/route/stats")
+    @Operation(summary = "获取消息路由耗时统计")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<WxRouteStatsVO>> getRouteStats() {
+        return ResultUtils.success(messageDispatcher.getRouteStats());
+    }
+
+    @GetMapping("/ai/scheduler/stats")
+    @Operation(summary = "获取 AI 调用排队统计（按公众号）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<AiSchedulerStatsVO>> getAiSchedulerStats() {
+        return ResultUtils.success(aiCallScheduler.getStats());
+    }
+
+    @GetMapping("/intent/evaluate")
+    @Operation(summary = "离线评估本地意图分类器（准确率和预测耗时）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<IntentEvaluationVO> evaluateIntentClassifier(@RequestParam String appId) {
+        return ResultUtils.success(intentClassifierManager.evaluate(appId));
+    }
+
+    @GetMapping("/ai/usage")
+    @Operation(summary = "获取 AI 调用用量（按时间粒度汇总，granularity：minute / hour / day）")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<AiUsageStatVO>> getAiUsage(@RequestParam(required = false) String appId,
+                                                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date startTime,
+                                                        @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date endTime,
+                                                        @RequestParam(defaultValue = "hour") String granularity) {
+        return ResultUtils.success(aiUsageManager.getUsage(appId, startTime, endTime, granularity));
+    }
+
+    @GetMapping("/ai/usage/users")
+    @Operation(summary = "获取 AI token 用量最多的用户")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<List<AiUserUsageVO>> getAiUserUsage(@RequestParam String appId,
+                                                            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date startTime,
+                                                            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date endTime,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        ThrowUtils.throwIf(limit <= 0 || limit > 100, ErrorCode.PARAMS_ERROR, "limit 范围为 1 ~ 100");
+        return ResultUtils.success(aiReplyRecordMapper.selectTopUsers(appId, startTime, endTime, limit));
+    }
+}
@@ -2,14 +2,21 @@ package com.yuyuan.wxmp.controller;
 
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.constant.MetricConstant;
 import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.handler.WxMpMessageDispatcher;
+import com.yuyuan.wxmp.manager.CallbackCaptureManager;
+import com.yuyuan.wxmp.manager.MessageDedupeManager;
+import com.yuyuan.wxmp.manager.MessageIngestPublisher;
+import com.yuyuan.wxmp.manager.MetricsManager;
+import com.yuyuan.wxmp.manager.TraceManager;
+import com.yuyuan.wxmp.model.dto.wxmpmessage.WxInboundMessage;
 import com.yuyuan.wxmp.model.entity.WxAccount;
 import com.yuyuan.wxmp.service.WxAccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import me.chanjar.weixin.mp.api.WxMpMessageRouter;
 import me.chanjar.weixin.mp.api.WxMpService;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
@@ -28,15 +35,23 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class WxMpPortalController {
 
-    private final WxMpService wxService;
-
     private final WxAccountService wxAccountService;
 
-    private final WxMpMessageRouter messageRouter;
+    private final WxMpMessageDispatcher messageDispatcher;
+
+    private final MetricsManager metricsManager;
+
+    private final TraceManager traceManager;
+
+    private final CallbackCaptureManager callbackCaptureManager;
+
+    private final MessageIngestPublisher messageIngestPublisher;
+
+    private final MessageDedupeManager messageDedupeManager;
 
     @GetMapping(produces = "text/plain;charset=utf-8")
     @Operation(summary = "微信服务器的认证消息", description = "公众号接入开发模式时微信调用此接口")
-    public String wxServiceAuth(@PathVariable String appId,
+    public String wxServiceAuth(@PathVariable String appId, WxMpService wxService,
                           @RequestParam(name = "signature", required = false) String signature,
                           @RequestParam(name = "timestamp", required = false) String timestamp,
                           @RequestParam(name = "nonce", required = false) String nonce,
@@ -47,7 +62,6 @@ public class WxMpPortalController {
 
         ThrowUtils.throwIf(StringUtils.isAnyBlank(signature, timestamp, nonce, echoStr), ErrorCode.PARAMS_ERROR);
 
-        this.wxService.switchoverTo(appId);
         if (wxService.checkSignature(timestamp, nonce, signature)) {
             // 设置公众号的认证状态
             wxAccountService.update(
@@ -63,7 +77,7 @@ public class WxMpPortalController {
 
     @PostMapping(produces = "application/xml; charset=UTF-8")
     @Operation(summary = "微信各类消息", description = "公众号接入开发模式后才有效")
-    public String post(@PathVariable String appId,
+    public String post(@PathVariable String appId, WxMpService wxService,
                        @RequestBody String requestBody,
                        @RequestParam("signature") String signature,
                        @RequestParam("timestamp") String timestamp,
@@ -71,16 +85,41 @@ public class WxMpPortalController {
                        @RequestParam("openid") String openId,
                        @RequestParam(name = "encrypt_type", required = false) String encType,
                        @RequestParam(name = "msg_signature", required = false) String msgSignature) {
-        this.wxService.switchoverTo(appId);
-
-        ThrowUtils.throwIf(!wxService.checkSignature(timestamp, nonce, signature), ErrorCode.PARAMS_ERROR, "非法请求，可能属于伪造的请求！");
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            boolean validSignature = traceManager.trace("wx.signature.check",
+                    () -> wxService.checkSignature(timestamp, nonce, signature), "appId", appId);
+            ThrowUtils.throwIf(!validSignature, ErrorCode.PARAMS_ERROR, "非法请求，可能属于伪造的请求！");
+            long receiveTime = System.currentTimeMillis();
+            if (callbackCaptureManager.isEnabled(appId)) {
+                // 录制原始回调，回放时重新签名
+                callbackCaptureManager.capture(new CallbackCaptureManager.CapturedCallback(receiveTime,
+                        appId, openId, timestamp, nonce, encType, msgSignature, requestBody));
+            }
+            if (messageIngestPublisher.isEnabled() && messageIngestPublisher.publish(new WxInboundMessage(
+                    appId, openId, timestamp, nonce, encType, msgSignature, requestBody, receiveTime))) {
+                // 已写入分区队列，由处理节点通过客服消息回复
+                outcome = "queued";
+                return "";
+            }
+            String out = this.handleMessage(appId, wxService, requestBody, timestamp, nonce, encType, msgSignature);
+            outcome = StringUtils.isBlank(out) ? "empty" : "reply";
+            return out;
+        } finally {
+            metricsManager.recordSince(MetricConstant.PORTAL_REQUEST, start, "appId", appId, "outcome", outcome);
+        }
+    }
 
+    private String handleMessage(String appId, WxMpService wxService, String requestBody,
+                                 String timestamp, String nonce, String encType, String msgSignature) {
         String out = null;
         if (encType == null) {
             // 明文传输的消息
-            WxMpXmlMessage inMessage = WxMpXmlMessage.fromXml(requestBody);
-            log.info("接收明文消息：appId={}, fromUser={}, content={}", appId, inMessage.getFromUser(), inMessage.getContent());
-            WxMpXmlOutMessage outMessage = this.route(appId, inMessage);
+            WxMpXmlMessage inMessage = traceManager.trace("wx.xml.parse",
+                    () -> WxMpXmlMessage.fromXml(requestBody), "appId", appId, "encrypted", "false");
+            log.debug("接收明文消息：appId={}, fromUser={}, content={}", appId, inMessage.getFromUser(), inMessage.getContent());
+            WxMpXmlOutMessage outMessage = this.route(appId, wxService, inMessage);
             if (outMessage == null) {
                 log.info("未找到匹配的消息处理器，返回空字符串");
                 return "";
@@ -89,10 +128,11 @@ public class WxMpPortalController {
             out = outMessage.toXml();
         } else if ("aes".equalsIgnoreCase(encType)) {
             // aes加密的消息
-            WxMpXmlMessage inMessage = WxMpXmlMessage.fromEncryptedXml(requestBody, wxService.getWxMpConfigStorage(),
-                    timestamp, nonce, msgSignature);
-            log.info("接收加密消息，解密后内容为：\n{} ", inMessage.toString());
-            WxMpXmlOutMessage outMessage = this.route(appId, inMessage);
+            WxMpXmlMessage inMessage = traceManager.trace("wx.xml.parse",
+                    () -> WxMpXmlMessage.fromEncryptedXml(requestBody, wxService.getWxMpConfigStorage(), timestamp, nonce, msgSignature),
+                    "appId", appId, "encrypted", "true");
+            log.debug("接收加密消息，解密后内容为：\n{} ", inMessage);
+            WxMpXmlOutMessage outMessage = this.route(appId, wxService, inMessage);
             if (outMessage == null) {
                 log.info("未找到匹配的消息处理器，返回空字符串");
                 return "";
@@ -107,16 +147,23 @@ public class WxMpPortalController {
             return "";
         }
         
-        log.info("组装回复信息：{}", out);
+        log.debug("组装回复信息：{}", out);
         return out;
     }
 
-    private WxMpXmlOutMessage route(String appid, WxMpXmlMessage message) {
+    private WxMpXmlOutMessage route(String appid, WxMpService wxService, WxMpXmlMessage message) {
+        if (!messageDedupeManager.tryAcquire(appid, message)) {
+            log.info("重复的微信消息，跳过：appId={}, msgId={}", appid, message.getMsgId());
+            return null;
+        }
         try {
-            log.info("开始路由消息：appId={}, messageType={}, content={}", appid, message.getMsgType(), message.getContent());
-            WxMpXmlOutMessage result = messageRouter.route(appid, message);
+            log.debug("开始路由消息：appId={}, messageType={}, content={}", appid, message.getMsgType(), message.getContent());
+            // openId 记录在 span 上，粉丝反馈没有回复时按 openId 找到整条链路
+            WxMpXmlOutMessage result = traceManager.trace("wx.route",
+                    () -> messageDispatcher.dispatch(message, wxService),
+                    "appId", appid, "openId", message.getFromUser(), "msgType", message.getMsgType(), "event", message.getEvent());
             if (result != null) {
-                log.info("消息路由成功，生成回复消息");
+                log.debug("消息路由成功，生成回复消息");
             } else {
                 log.info("消息路由失败，未生成回复消息");
             }
@@ -124,8 +124,7 @@ public class WxReplyRuleController {
 
         WxReplyRule wxReplyRule = wxReplyRuleAddRequest.toWxReplyRule();
         wxReplyRule.setUserId(userService.getLoginUser(request).getId());
-        wxReplyRuleService.save(wxReplyRule);
-        return ResultUtils.success(wxReplyRule.getId());
+        return ResultUtils.success(wxReplyRuleService.addRule(wxReplyRule));
 
     }
 
@@ -154,7 +153,7 @@ public class WxReplyRuleController {
             );
         }
 
-        return ResultUtils.success(wxReplyRuleService.updateById(wxReplyRuleUpdateRequest.toWxReplyRule()));
+        return ResultUtils.success(wxReplyRuleService.updateRule(wxReplyRuleUpdateRequest.toWxReplyRule()));
 
     }
 
@@ -164,7 +163,7 @@ public class WxReplyRuleController {
     @PostMapping("/delete")
     @Operation(summary = "根据id删除列表")
     public BaseResponse<Boolean> deleteWxReplyRuleByIds(@RequestBody List<Long> ids) {
-        return ResultUtils.success(wxReplyRuleService.removeBatchByIds(ids));
+        return ResultUtils.success(wxReplyRuleService.deleteRules(ids));
     }
 
 }
@@ -1,9 +1,11 @@
 package com.yuyuan.wxmp.handler;
 
 
-import com.yuyuan.wxmp.constant.RedisConstant;
-import com.yuyuan.wxmp.manager.DistributedLockManager;
-import cn.hutool.crypto.digest.DigestUtil;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MetricConstant;
+import com.yuyuan.wxmp.manager.IntentClassifierManager;
+import com.yuyuan.wxmp.manager.MessageLaneExecutor;
+import com.yuyuan.wxmp.manager.MetricsManager;
 import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
 import com.yuyuan.wxmp.model.entity.AiReplyRecord;
 import com.yuyuan.wxmp.model.enums.WxAiReplyStatusEnum;
@@ -18,12 +20,16 @@ import me.chanjar.weixin.mp.api.WxMpService;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlOutTextMessage;
-import me.chanjar.weixin.mp.util.WxMpConfigStorageHolder;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 
 /**
@@ -41,91 +47,144 @@ public class MessageHandler implements WxMpMessageHandler {
 
     private final AiReplyRecordService aiReplyRecordService;
 
-    private final DistributedLockManager distributedLockManager;
+    private final MessageLaneExecutor messageLaneExecutor;
+
+    private final IntentClassifierManager intentClassifierManager;
+
+    private final WxMpProperties wxMpProperties;
+
+    private final MetricsManager metricsManager;
 
     @Override
     public WxMpXmlOutMessage handle(WxMpXmlMessage wxMpXmlMessage, Map<String, Object> map,
                                     WxMpService wxMpService, WxSessionManager wxSessionManager) {
-        String appId = WxMpConfigStorageHolder.get();
+        String appId = wxMpService.getWxMpConfigStorage().getAppId();
         String userMessage = wxMpXmlMessage.getContent();
         String fromUser = wxMpXmlMessage.getFromUser();
         String toUser = wxMpXmlMessage.getToUser();
-        
-        // 针对公众号和用户加锁，避免用户短时间内发送同一条信息导致 AI 回复了多次
-        String lock = RedisConstant.MESSAGE_REPLY_LOCK + appId + ":" + fromUser + ":" + DigestUtil.md5Hex(userMessage);
-        
-        return distributedLockManager.nonBlockExecute(lock, 
-                // 获取锁成功时执行
-                () -> {
-                    try {
-                        // 1. 优先匹配自动回复规则
-                        WxReplyContentDTO replyContent = wxReplyRuleService.receiveMessageReply(appId, userMessage);
-                        String finalReplyContent;
-                        
-                        if (ObjectUtils.isNotEmpty(replyContent)) {
-                            // 1.1 匹配到规则，直接回复
-                            WxReplyContentTypeEnum contentTypeEnum = WxReplyContentTypeEnum.getEnumByValue(replyContent.getContentType());
-                            if (ObjectUtils.isEmpty(contentTypeEnum)) {
-                                finalReplyContent = "抱歉，我暂时无法理解您的问题。您可以尝试问其他问题，或者提供更多详细信息。";
-                            } else {
-                                // 直接获取文本内容，简化处理
-                                finalReplyContent = replyContent.getTextContent();
-                            }
-                        } else {
-                            // 2. 没有匹配到自动回复规则，调用AI
-                            AiReplyRecord replyRecord = aiReplyRecordService.lambdaQuery()
-                                    .eq(AiReplyRecord::getFromUser, fromUser)
-                                    .eq(AiReplyRecord::getAppId, appId)
-                                    .eq(AiReplyRecord::getMessage, userMessage)
-                                    .eq(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.NOT_REPLY.getValue())
-                                    .one();
+        // 微信服务器等待响应的截止时间，队列模式通过客服消息回复，可以等待更长时间
+        boolean kefuReply = Boolean.TRUE.equals(map.get(WxMpMessageDispatcher.CONTEXT_KEFU_REPLY));
+        long deadline = System.currentTimeMillis() + (kefuReply
+                ? wxMpProperties.getIngest().getReplyTimeoutMillis() : wxMpProperties.getLane().getReplyTimeoutMillis());
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            if (kefuReply) {
+                // 队列模式下 MessageIngestReceiver 已经在该粉丝的通道内执行，直接处理，再次提交到同一通道会排在自己后面
+                WxMpXmlOutMessage outMessage = this.reply(appId, fromUser, toUser, userMessage, deadline);
+                outcome = "replied";
+                return outMessage;
+            }
+            // 同一个粉丝的消息进入同一个通道串行处理，避免同时发送的消息导致 AI 重复回复或乱序
+            CompletableFuture<WxMpXmlOutMessage> future;
+            try {
+                future = messageLaneExecutor.submit(appId, fromUser, () -> this.reply(appId, fromUser, toUser, userMessage, deadline));
+            } catch (RejectedExecutionException e) {
+                log.warn("消息通道繁忙，返回默认回复 - appId: {}, fromUser: {}, message: {}", appId, fromUser, userMessage);
+                outcome = "lane_busy";
+                return this.busyReply(fromUser, toUser);
+            }
+            try {
+                WxMpXmlOutMessage outMessage = future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+                outcome = "replied";
+                return outMessage;
+            } catch (TimeoutException e) {
+                // 任务会在通道内继续执行，结果保存到回复记录中，用户再次发送时直接返回，否则由补发任务通过客服消息发送
+                log.info("消息处理超时，返回默认回复 - appId: {}, fromUser: {}, message: {}", appId, fromUser, userMessage);
+                outcome = "timeout";
+                return this.busyReply(fromUser, toUser);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return this.busyReply(fromUser, toUser);
+            } catch (ExecutionException e) {
+                log.error("处理消息失败 - fromUser: {}, message: {}", fromUser, userMessage, e.getCause());
+                return this.busyReply(fromUser, toUser);
+            }
+        } finally {
+            metricsManager.recordSince(MetricConstant.MESSAGE_HANDLE, start, "appId", appId, "outcome", outcome);
+        }
+    }
 
-                            if (ObjectUtils.isEmpty(replyRecord)) {
-                                AiReplyRecord aiReplyRecord = new AiReplyRecord();
-                                aiReplyRecord.setAppId(appId);
-                                aiReplyRecord.setFromUser(fromUser);
-                                aiReplyRecord.setMessage(userMessage);
-                                aiReplyRecordService.save(aiReplyRecord);
-                                
-                                finalReplyContent = aiReplyRecordService.aiReply(appId, fromUser, userMessage, aiReplyRecord);
-                            } else if (ObjectUtils.isEmpty(replyRecord.getReplyMessage())) {
-                                // 如果回复消息为空，代表此时没有 AI 回复，需要重新调用AI
-                                log.info("找到未回复的记录，重新调用AI服务 - 记录ID: {}, 消息: {}", replyRecord.getId(), replyRecord.getMessage());
-                                finalReplyContent = aiReplyRecordService.aiReply(appId, fromUser, userMessage, replyRecord);
-                            } else {
-                                // 3. AI已经回复过，直接使用
-                                finalReplyContent = replyRecord.getReplyMessage();
-                                aiReplyRecordService.lambdaUpdate()
-                                        .set(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.REPLIED.getValue())
-                                        .eq(AiReplyRecord::getId, replyRecord.getId())
-                                        .update();
-                            }
-                        }
-                        
-                        // 返回最终回复给微信服务器
-                        return WxMpXmlOutMessage.TEXT()
-                                .content(finalReplyContent)
-                                .fromUser(toUser)
-                                .toUser(fromUser)
-                                .build();
-                    } catch (Exception e) {
-                        log.error("处理消息失败 - fromUser: {}, message: {}, 错误: {}", fromUser, userMessage, e.getMessage(), e);
-                        return WxMpXmlOutMessage.TEXT()
-                                .content("抱歉，我暂时无法处理您的请求，请稍后再试。")
-                                .fromUser(toUser)
-                                .toUser(fromUser)
-                                .build();
-                    }
-                },
-                // 获取锁失败时执行
-                () -> {
-                    log.info("获取锁失败，返回默认回复 - appId: {}, fromUser: {}, message: {}", appId, fromUser, userMessage);
-                    return WxMpXmlOutMessage.TEXT()
-                            .content("正在处理您的请求，请稍后再试。")
-                            .fromUser(toUser)
-                            .toUser(fromUser)
-                            .build();
+    private WxMpXmlOutMessage reply(String appId, String fromUser, String toUser, String userMessage, long deadline) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            // 1. 优先匹配自动回复规则
+            WxReplyContentDTO replyContent = wxReplyRuleService.receiveMessageReply(appId, userMessage);
+            outcome = "rule";
+            if (ObjectUtils.isEmpty(replyContent)) {
+                // 1.1 规则没有命中时，用本地分类器判断是否属于某条规则，命中则不再调用 AI
+                replyContent = intentClassifierManager.classify(appId, userMessage);
+                outcome = "intent";
+            }
+            String finalReplyContent;
+            
+            if (ObjectUtils.isNotEmpty(replyContent)) {
+                // 1.2 匹配到规则，直接回复
+                WxReplyContentTypeEnum contentTypeEnum = WxReplyContentTypeEnum.getEnumByValue(replyContent.getContentType());
+                if (ObjectUtils.isEmpty(contentTypeEnum)) {
+                    finalReplyContent = "抱歉，我暂时无法理解您的问题。您可以尝试问其他问题，或者提供更多详细信息。";
+                } else {
+                    // 直接获取文本内容，简化处理
+                    finalReplyContent = replyContent.getTextContent();
                 }
-        );
+            } else {
+                // 2. 没有匹配到自动回复规则，调用AI
+                outcome = "ai";
+                AiReplyRecord replyRecord = aiReplyRecordService.lambdaQuery()
+                        .eq(AiReplyRecord::getFromUser, fromUser)
+                        .eq(AiReplyRecord::getAppId, appId)
+                        .eq(AiReplyRecord::getMessage, userMessage)
+                        .eq(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.NOT_REPLY.getValue())
+                        .one();
+
+                if (ObjectUtils.isEmpty(replyRecord)) {
+                    AiReplyRecord aiReplyRecord = new AiReplyRecord();
+                    aiReplyRecord.setAppId(appId);
+                    aiReplyRecord.setFromUser(fromUser);
+                    aiReplyRecord.setMessage(userMessage);
+                    aiReplyRecordService.save(aiReplyRecord);
+                    
+                    finalReplyContent = aiReplyRecordService.aiReply(appId, fromUser, userMessage, aiReplyRecord, deadline);
+                } else if (ObjectUtils.isEmpty(replyRecord.getReplyMessage())) {
+                    // 如果回复消息为空，代表此时没有 AI 回复，需要重新调用AI
+                    log.info("找到未回复的记录，重新调用AI服务 - 记录ID: {}, 消息: {}", replyRecord.getId(), replyRecord.getMessage());
+                    finalReplyContent = aiReplyRecordService.aiReply(appId, fromUser, userMessage, replyRecord, deadline);
+                } else {
+                    // 3. AI已经回复过，直接使用
+                    outcome = "ai_record";
+                    finalReplyContent = replyRecord.getReplyMessage();
+                    aiReplyRecordService.lambdaUpdate()
+                            .set(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.REPLIED.getValue())
+                            .eq(AiReplyRecord::getId, replyRecord.getId())
+                            .update();
+                }
+            }
+            
+            // 返回最终回复给微信服务器
+            return WxMpXmlOutMessage.TEXT()
+                    .content(finalReplyContent)
+                    .fromUser(toUser)
+                    .toUser(fromUser)
+                    .build();
+        } catch (Exception e) {
+            log.error("处理消息失败 - fromUser: {}, message: {}, 错误: {}", fromUser, userMessage, e.getMessage(), e);
+            outcome = "error";
+            return WxMpXmlOutMessage.TEXT()
+                    .content("抱歉，我暂时无法处理您的请求，请稍后再试。")
+                    .fromUser(toUser)
+                    .toUser(fromUser)
+                    .build();
+        } finally {
+            metricsManager.recordSince(MetricConstant.MESSAGE_REPLY, start, "appId", appId, "outcome", outcome);
+        }
+    }
+
+    private WxMpXmlOutMessage busyReply(String fromUser, String toUser) {
+        return WxMpXmlOutMessage.TEXT()
+                .content("正在处理您的请求，请稍后再试。")
+                .fromUser(toUser)
+                .toUser(fromUser)
+                .build();
     }
 }
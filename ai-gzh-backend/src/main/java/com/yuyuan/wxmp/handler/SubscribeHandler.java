@@ -1,6 +1,7 @@
 package com.yuyuan.wxmp.handler;
 
 
+import com.yuyuan.wxmp.manager.WxFollowerSyncManager;
 import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
 import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
 import com.yuyuan.wxmp.service.WxReplyRuleService;
@@ -13,7 +14,6 @@ import me.chanjar.weixin.mp.api.WxMpService;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlOutTextMessage;
-import me.chanjar.weixin.mp.util.WxMpConfigStorageHolder;
 import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.stereotype.Component;
 
@@ -32,12 +32,16 @@ public class SubscribeHandler implements WxMpMessageHandler {
 
     private final WxReplyRuleService wxReplyRuleService;
 
+    private final WxFollowerSyncManager wxFollowerSyncManager;
+
     @Override
     public WxMpXmlOutMessage handle(WxMpXmlMessage wxMpXmlMessage, Map<String, Object> map,
                                     WxMpService wxMpService, WxSessionManager wxSessionManager) throws WxErrorException {
         log.info("收到关注事件：fromUser={}, toUser={}", wxMpXmlMessage.getFromUser(), wxMpXmlMessage.getToUser());
-        String appId = WxMpConfigStorageHolder.get();
+        String appId = wxMpService.getWxMpConfigStorage().getAppId();
         log.info("处理关注事件：appId={}", appId);
+        // 粉丝信息在后台写入，不影响关注回复
+        wxFollowerSyncManager.onSubscribe(appId, wxMpXmlMessage.getFromUser(), wxMpXmlMessage.getCreateTime());
         
         WxReplyContentDTO replyContent = wxReplyRuleService.replySubscribe(appId);
         WxMpXmlOutTextMessage defaultReply = WxMpXmlOutMessage.TEXT().content("感谢关注")
@@ -0,0 +1,36 @@
+package com.yuyuan.wxmp.handler;
+
+import com.yuyuan.wxmp.manager.WxFollowerSyncManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.common.session.WxSessionManager;
+import me.chanjar.weixin.mp.api.WxMpMessageHandler;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 取消关注处理器，更新粉丝关注状态，不回复
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnsubscribeHandler implements WxMpMessageHandler {
+
+    private final WxFollowerSyncManager wxFollowerSyncManager;
+
+    @Override
+    public WxMpXmlOutMessage handle(WxMpXmlMessage wxMpXmlMessage, Map<String, Object> map,
+                                    WxMpService wxMpService, WxSessionManager wxSessionManager) {
+        String appId = wxMpService.getWxMpConfigStorage().getAppId();
+        log.info("收到取消关注事件：appId={}, fromUser={}", appId, wxMpXmlMessage.getFromUser());
+        wxFollowerSyncManager.onUnsubscribe(appId, wxMpXmlMessage.getFromUser(), wxMpXmlMessage.getCreateTime());
+        return null;
+    }
+}
@@ -0,0 +1,222 @@
+package com.yuyuan.wxmp.handler;
+
+import com.yuyuan.wxmp.constant.MetricConstant;
+import com.yuyuan.wxmp.manager.MetricsManager;
+import com.yuyuan.wxmp.model.vo.WxRouteStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.mp.api.WxMpMessageHandler;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 微信消息分发器
+ * <p>
+ * 按 (msgType, event) 直接查表找到处理器，替代 WxMpMessageRouter 的逐条规则匹配。
+ * 不经过 WxMpMessageRouter 的消息排重（WxMessageInMemoryDuplicateChecker）、session 管理和内部线程池，
+ * 同时统计每条路由的调用次数、失败次数与耗时
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Slf4j
+public class WxMpMessageDispatcher {
+
+    /**
+     * 路由表，key 为 msgType 或 msgType:event（均为小写）
+     */
+    private final Map<String, Route> routeMap;
+
+    /**
+     * 处理上下文：回复通过客服消息发送（队列模式），处理器不受微信 5 秒响应时间的限制
+     */
+    public static final String CONTEXT_KEFU_REPLY = "kefuReply";
+
+    /**
+     * 监控指标，为空时只保留内部统计
+     */
+    private final MetricsManager metricsManager;
+
+    private WxMpMessageDispatcher(Map<String, Route> routeMap, MetricsManager metricsManager) {
+        this.routeMap = Collections.unmodifiableMap(routeMap);
+        this.metricsManager = metricsManager;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 分发消息
+     *
+     * @param message     微信消息
+     * @param wxMpService 当前公众号服务
+     * @return {@link WxMpXmlOutMessage }，没有匹配的处理器或处理失败时返回 null
+     */
+    public WxMpXmlOutMessage dispatch(WxMpXmlMessage message, WxMpService wxMpService) {
+        return this.dispatch(message, wxMpService, Collections.emptyMap());
+    }
+
+    /**
+     * 带上下文分发消息
+     *
+     * @param message     微信消息
+     * @param wxMpService 当前公众号服务
+     * @param context     处理上下文，传给处理器
+     * @return {@link WxMpXmlOutMessage }，没有匹配的处理器或处理失败时返回 null
+     */
+    public WxMpXmlOutMessage dispatch(WxMpXmlMessage message, WxMpService wxMpService, Map<String, Object> context) {
+        Route route = this.lookup(message.getMsgType(), message.getEvent());
+        if (route == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            WxMpXmlOutMessage outMessage = route.handler.handle(message, context, wxMpService, null);
+            success = true;
+            return outMessage;
+        } catch (Exception e) {
+            log.error("消息处理失败 - route: {}, fromUser: {}", route.name, message.getFromUser(), e);
+            return null;
+        } finally {
+            route.record(System.nanoTime() - start, success);
+            if (metricsManager != null) {
+                metricsManager.recordSince(MetricConstant.ROUTE, start,
+                        "appId", wxMpService.getWxMpConfigStorage().getAppId(),
+                        "route", route.name,
+                        "outcome", success ? "success" : "error");
+            }
+        }
+    }
+
+    /**
+     * 获取各路由的耗时统计
+     *
+     * @return {@link List }<{@link WxRouteStatsVO }>
+     */
+    public List<WxRouteStatsVO> getRouteStats() {
+        List<WxRouteStatsVO> statsList = new ArrayList<>(routeMap.size());
+        routeMap.values().forEach(route -> statsList.add(route.snapshot()));
+        return statsList;
+    }
+
+    private Route lookup(String msgType, String event) {
+        if (StringUtils.isBlank(msgType)) {
+            return null;
+        }
+        String type = msgType.toLowerCase(Locale.ROOT);
+        if (StringUtils.isNotBlank(event)) {
+            Route route = routeMap.get(routeKey(type, event));
+            if (route != null) {
+                return route;
+            }
+        }
+        // 没有精确到事件的路由时，回退到只按消息类型匹配
+        return routeMap.get(type);
+    }
+
+    private static String routeKey(String msgType, String event) {
+        if (StringUtils.isBlank(event)) {
+            return msgType.toLowerCase(Locale.ROOT);
+        }
+        return msgType.toLowerCase(Locale.ROOT) + ":" + event.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单条路由及其统计数据
+     */
+    private static final class Route {
+
+        private final String name;
+
+        private final WxMpMessageHandler handler;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Route(String name, WxMpMessageHandler handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+
+        private void record(long nanos, boolean success) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (!success) {
+                errorCount.increment();
+            }
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        private WxRouteStatsVO snapshot() {
+            long total = count.sum();
+            WxRouteStatsVO statsVO = new WxRouteStatsVO();
+            statsVO.setRoute(name);
+            statsVO.setCount(total);
+            statsVO.setErrorCount(errorCount.sum());
+            statsVO.setAvgMicros(total == 0 ? 0 : totalNanos.sum() / total / 1000);
+            statsVO.setMaxMicros(maxNanos.get() / 1000);
+            return statsVO;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Route> routeMap = new HashMap<>();
+
+        private MetricsManager metricsManager;
+
+        private Builder() {
+        }
+
+        /**
+         * 同时把路由耗时记录到监控指标
+         */
+        public Builder metrics(MetricsManager metricsManager) {
+            this.metricsManager = metricsManager;
+            return this;
+        }
+
+        /**
+         * 按消息类型注册处理器
+         */
+        public Builder route(String msgType, WxMpMessageHandler handler) {
+            return this.route(msgType, null, handler);
+        }
+
+        /**
+         * 按消息类型 + 事件类型注册处理器
+         */
+        public Builder route(String msgType, String event, WxMpMessageHandler handler) {
+            String key = routeKey(msgType, event);
+            if (routeMap.containsKey(key)) {
+                throw new IllegalStateException("重复的消息路由：" + key);
+            }
+            routeMap.put(key, new Route(key, handler));
+            return this;
+        }
+
+        public WxMpMessageDispatcher build() {
+            return new WxMpMessageDispatcher(routeMap, metricsManager);
+        }
+    }
+}
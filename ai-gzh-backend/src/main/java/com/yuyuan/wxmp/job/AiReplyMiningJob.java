@@ -0,0 +1,39 @@
+package com.yuyuan.wxmp.job;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.service.AiReplySuggestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时把高频 AI 问答挖掘成回复规则建议
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AiReplyMiningJob {
+
+    private final AiReplySuggestionService aiReplySuggestionService;
+
+    private final WxMpProperties wxMpProperties;
+
+    @Scheduled(cron = "${wx.mp.mining.cron:0 0 3 * * ?}")
+    public void run() {
+        if (!wxMpProperties.getMining().isEnabled()) {
+            return;
+        }
+        try {
+            Integer count = aiReplySuggestionService.mine();
+            if (count == null) {
+                log.info("AI 回复记录挖掘正在其他节点执行，跳过");
+            }
+        } catch (Exception e) {
+            log.error("AI 回复记录挖掘失败", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.yuyuan.wxmp.job;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.manager.AiReplyRetryManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时补发未回复的 AI 记录
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AiReplyRetryJob {
+
+    private final AiReplyRetryManager aiReplyRetryManager;
+
+    private final WxMpProperties wxMpProperties;
+
+    @Scheduled(initialDelay = 60, fixedDelayString = "${wx.mp.retry.interval-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void run() {
+        if (!wxMpProperties.getRetry().isEnabled()) {
+            return;
+        }
+        try {
+            Integer count = aiReplyRetryManager.retry();
+            if (count == null) {
+                log.debug("AI 回复补发正在其他节点执行，跳过");
+            }
+        } catch (Exception e) {
+            log.error("AI 回复补发失败", e);
+        }
+    }
+}
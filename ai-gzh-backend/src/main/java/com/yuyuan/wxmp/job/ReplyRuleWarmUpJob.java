@@ -0,0 +1,34 @@
+package com.yuyuan.wxmp.job;
+
+import com.yuyuan.wxmp.manager.ReplyRuleMatcherManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动时预热所有公众号的回复规则，第一条消息和关注事件不用等待查库
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReplyRuleWarmUpJob implements ApplicationRunner {
+
+    private final ReplyRuleMatcherManager replyRuleMatcherManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            long startTime = System.currentTimeMillis();
+            int count = replyRuleMatcherManager.warmUp();
+            log.info("回复规则预热完成，公众号 {} 个，耗时 {}ms", count, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            // 预热失败不影响启动，使用时按公众号加载
+            log.error("回复规则预热失败", e);
+        }
+    }
+}
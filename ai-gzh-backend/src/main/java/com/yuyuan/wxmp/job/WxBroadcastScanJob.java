@@ -0,0 +1,50 @@
+package com.yuyuan.wxmp.job;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.manager.WxBroadcastManager;
+import com.yuyuan.wxmp.model.entity.WxBroadcastTask;
+import com.yuyuan.wxmp.model.enums.WxBroadcastTaskStatusEnum;
+import com.yuyuan.wxmp.service.WxBroadcastTaskService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时扫描发送中的群发任务，继续其他节点中断的任务和到达重试时间的接收人
+ * <p>
+ * 发送在后台线程中执行，不占用定时任务线程
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WxBroadcastScanJob {
+
+    private final WxBroadcastManager wxBroadcastManager;
+
+    private final WxBroadcastTaskService wxBroadcastTaskService;
+
+    private final WxMpProperties wxMpProperties;
+
+    @Scheduled(initialDelay = 30, fixedDelayString = "${wx.mp.broadcast.scan-interval-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    public void run() {
+        if (!wxMpProperties.getBroadcast().isEnabled()) {
+            return;
+        }
+        try {
+            wxBroadcastTaskService.lambdaQuery()
+                    .select(WxBroadcastTask::getAppId)
+                    .eq(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.RUNNING.getValue())
+                    .groupBy(WxBroadcastTask::getAppId)
+                    .list()
+                    .forEach(task -> wxBroadcastManager.runAsync(task.getAppId()));
+        } catch (Exception e) {
+            log.error("扫描群发任务失败", e);
+        }
+    }
+}
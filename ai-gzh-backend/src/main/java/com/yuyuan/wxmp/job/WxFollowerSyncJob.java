@@ -0,0 +1,50 @@
+package com.yuyuan.wxmp.job;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.manager.WxFollowerSyncManager;
+import com.yuyuan.wxmp.model.entity.WxAccount;
+import com.yuyuan.wxmp.service.WxAccountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 定时全量同步所有公众号的粉丝，修正事件丢失造成的偏差
+ * <p>
+ * 同步在后台线程中执行，不占用定时任务线程
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WxFollowerSyncJob {
+
+    private final WxFollowerSyncManager wxFollowerSyncManager;
+
+    private final WxAccountService wxAccountService;
+
+    private final WxMpProperties wxMpProperties;
+
+    @Scheduled(cron = "${wx.mp.follower.sync-cron:0 30 4 * * ?}")
+    public void run() {
+        if (!wxMpProperties.getFollower().isSyncEnabled()) {
+            return;
+        }
+        try {
+            List<String> appIds = wxAccountService.lambdaQuery()
+                    .select(WxAccount::getAppId)
+                    .list()
+                    .stream()
+                    .map(WxAccount::getAppId)
+                    .toList();
+            wxFollowerSyncManager.syncAllAsync(appIds);
+        } catch (Exception e) {
+            log.error("提交粉丝全量同步失败", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.yuyuan.wxmp.job;
+
+import com.yuyuan.wxmp.constant.RedisConstant;
+import com.yuyuan.wxmp.manager.DistributedLockManager;
+import com.yuyuan.wxmp.service.WxReplyKeywordService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动时把已有规则的关键字迁移到关键字表
+ * <p>
+ * 只处理还没有关键字的规则，迁移完成后每次启动只是一次查询；多节点同时启动时只有一个节点执行。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WxReplyKeywordMigrationJob implements ApplicationRunner {
+
+    private final WxReplyKeywordService wxReplyKeywordService;
+
+    private final DistributedLockManager distributedLockManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            distributedLockManager.nonBlockExecute(RedisConstant.REPLY_KEYWORD_MIGRATION_LOCK_KEY, () -> {
+                long startTime = System.currentTimeMillis();
+                int count = wxReplyKeywordService.migrate();
+                if (count > 0) {
+                    log.info("回复规则关键字迁移完成，迁移规则 {} 条，耗时 {}ms", count, System.currentTimeMillis() - startTime);
+                }
+            });
+        } catch (Exception e) {
+            // 迁移失败不影响启动，未迁移的规则匹配时回退为解析 matchValue
+            log.error("回复规则关键字迁移失败", e);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.model.vo.AiSchedulerStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * AI 调用调度器（按公众号加权公平排队）
+ * <p>
+ * 每个公众号一个排队队列，按权重轮流放行（stride 调度：每次放行后 pass += STRIDE / weight，总是放行 pass 最小的公众号），
+ * 同时限制全局和单个公众号同时进行的调用数，避免单个公众号占满 AI 并发导致其他公众号超时。
+ * 排队超过截止时间（微信 5 秒响应窗口）的请求直接丢弃，不再浪费 AI 调用。
+ * <p>
+ * 调用在调用方线程中执行，调度器只负责放行。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class AiCallScheduler {
+
+    private static final long STRIDE = 1L << 20;
+
+    private final WxMpProperties.AiScheduler properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 以下字段均由 lock 保护
+     */
+    private final Map<String, Tenant> tenantMap = new HashMap<>();
+
+    private final Set<Tenant> activeTenants = new LinkedHashSet<>();
+
+    private int inFlight;
+
+    /**
+     * 最近一次放行时的 pass，新进入排队的公众号从这里开始，避免空闲期间积累额度
+     */
+    private long virtualTime;
+
+    public AiCallScheduler(WxMpProperties wxMpProperties) {
+        this.properties = wxMpProperties.getAiScheduler();
+    }
+
+    /**
+     * 排队执行 AI 调用
+     *
+     * @param appId    appId
+     * @param deadline 截止时间（毫秒时间戳）
+     * @param task     调用
+     * @return 调用结果
+     * @throws RejectedExecutionException 排队已满或等待超过截止时间
+     */
+    public <T> T execute(String appId, long deadline, Supplier<T> task) {
+        Ticket ticket = this.enqueue(appId, deadline);
+        this.awaitGrant(ticket);
+        try {
+            return task.get();
+        } finally {
+            this.release(ticket.tenant);
+        }
+    }
+
+    /**
+     * 获取各公众号的调度统计
+     *
+     * @return {@link List}<{@link AiSchedulerStatsVO}>
+     */
+    public List<AiSchedulerStatsVO> getStats() {
+        List<AiSchedulerStatsVO> statsList = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Tenant tenant : tenantMap.values()) {
+                AiSchedulerStatsVO stats = new AiSchedulerStatsVO();
+                stats.setAppId(tenant.appId);
+                stats.setWeight(tenant.weight);
+                stats.setMaxInFlight(tenant.maxInFlight);
+                stats.setQueueDepth(tenant.queue.size());
+                stats.setInFlight(tenant.inFlight);
+                stats.setGranted(tenant.granted);
+                stats.setShed(tenant.shed);
+                stats.setRejected(tenant.rejected);
+                stats.setAvgWaitMillis(tenant.granted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(tenant.totalWaitNanos / tenant.granted));
+                stats.setMaxWaitMillis(TimeUnit.NANOSECONDS.toMillis(tenant.maxWaitNanos));
+                statsList.add(stats);
+            }
+        } finally {
+            lock.unlock();
+        }
+        statsList.sort(Comparator.comparing(AiSchedulerStatsVO::getQueueDepth).reversed());
+        return statsList;
+    }
+
+    private Ticket enqueue(String appId, long deadline) {
+        lock.lock();
+        try {
+            Tenant tenant = tenantMap.computeIfAbsent(appId, this::newTenant);
+            if (tenant.queue.size() >= properties.getMaxQueuePerApp()) {
+                tenant.rejected++;
+                throw new RejectedExecutionException("AI 调用排队已满：" + appId);
+            }
+            if (tenant.queue.isEmpty() && tenant.inFlight == 0) {
+                tenant.pass = Math.max(tenant.pass, virtualTime);
+            }
+            Ticket ticket = new Ticket(tenant, deadline);
+            tenant.queue.add(ticket);
+            activeTenants.add(tenant);
+            this.dispatch();
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitGrant(Ticket ticket) {
+        long waitMillis = ticket.deadline - properties.getMinRemainingMillis() - System.currentTimeMillis();
+        boolean interrupted = false;
+        try {
+            if (waitMillis > 0) {
+                ticket.latch.await(waitMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        lock.lock();
+        try {
+            if (ticket.state == TicketState.GRANTED) {
+                return;
+            }
+            if (ticket.state == TicketState.WAITING) {
+                // 等待超时，从队列中移除
+                ticket.state = TicketState.SHED;
+                ticket.tenant.shed++;
+                ticket.tenant.queue.remove(ticket);
+                if (ticket.tenant.queue.isEmpty()) {
+                    activeTenants.remove(ticket.tenant);
+                }
+            }
+        } finally {
+            lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        throw new RejectedExecutionException("AI 调用等待超过截止时间：" + ticket.tenant.appId);
+    }
+
+    private void release(Tenant tenant) {
+        lock.lock();
+        try {
+            tenant.inFlight--;
+            inFlight--;
+            this.dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在全局并发允许的范围内，按 pass 从小到大放行（需持有锁）
+     */
+    private void dispatch() {
+        long now = System.currentTimeMillis();
+        while (inFlight < properties.getMaxConcurrency()) {
+            Tenant next = null;
+            for (Tenant tenant : activeTenants) {
+                if (tenant.inFlight < tenant.maxInFlight && (next == null || tenant.pass < next.pass)) {
+                    next = tenant;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Ticket ticket = next.queue.poll();
+            if (next.queue.isEmpty()) {
+                activeTenants.remove(next);
+            }
+            if (ticket == null) {
+                continue;
+            }
+            if (ticket.deadline - properties.getMinRemainingMillis() <= now) {
+                // 已经来不及在截止时间内完成，直接丢弃
+                ticket.state = TicketState.SHED;
+                next.shed++;
+                ticket.latch.countDown();
+                continue;
+            }
+            ticket.state = TicketState.GRANTED;
+            next.inFlight++;
+            inFlight++;
+            virtualTime = next.pass;
+            next.pass += STRIDE / next.weight;
+            long waitNanos = System.nanoTime() - ticket.enqueuedAt;
+            next.granted++;
+            next.totalWaitNanos += waitNanos;
+            next.maxWaitNanos = Math.max(next.maxWaitNanos, waitNanos);
+            ticket.latch.countDown();
+        }
+    }
+
+    private Tenant newTenant(String appId) {
+        WxMpProperties.AiScheduler.Tenant config = properties.getTenants().get(appId);
+        int weight = config != null && config.getWeight() != null ? config.getWeight() : properties.getDefaultWeight();
+        int maxInFlight = config != null && config.getMaxInFlight() != null ? config.getMaxInFlight() : properties.getDefaultMaxInFlight();
+        return new Tenant(appId, Math.max(weight, 1), Math.max(maxInFlight, 1));
+    }
+
+    private enum TicketState {
+        WAITING, GRANTED, SHED
+    }
+
+    private static final class Tenant {
+
+        private final String appId;
+
+        private final int weight;
+
+        private final int maxInFlight;
+
+        private final Queue<Ticket> queue = new ArrayDeque<>();
+
+        private int inFlight;
+
+        private long pass;
+
+        private long granted;
+
+        private long shed;
+
+        private long rejected;
+
+        private long totalWaitNanos;
+
+        private long maxWaitNanos;
+
+        private Tenant(String appId, int weight, int maxInFlight) {
+            this.appId = appId;
+            this.weight = weight;
+            this.maxInFlight = maxInFlight;
+        }
+    }
+
+    private static final class Ticket {
+
+        private final Tenant tenant;
+
+        private final long deadline;
+
+        private final long enqueuedAt = System.nanoTime();
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private TicketState state = TicketState.WAITING;
+
+        private Ticket(Tenant tenant, long deadline) {
+            this.tenant = tenant;
+            this.deadline = deadline;
+        }
+    }
+}
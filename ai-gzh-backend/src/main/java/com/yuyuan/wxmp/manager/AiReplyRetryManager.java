@@ -0,0 +1,213 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MetricConstant;
+import com.yuyuan.wxmp.constant.RedisConstant;
+import com.yuyuan.wxmp.model.entity.AiReplyRecord;
+import com.yuyuan.wxmp.model.enums.WxAiReplyStatusEnum;
+import com.yuyuan.wxmp.service.AiReplyRecordService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.common.error.WxErrorException;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.bean.kefu.WxMpKefuMessage;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 未回复 AI 记录的后台补发
+ * <p>
+ * AI 调用失败、排队被拒绝或超过微信 5 秒响应窗口时，记录保持未回复，粉丝只收到默认回复。
+ * 补发任务按 (replyStatus, id) 分批领取这些记录（SELECT ... FOR UPDATE SKIP LOCKED 后改为补发中），
+ * 已有回复内容的直接发送，没有的重新生成，再通过客服消息在 48 小时窗口内发给粉丝。
+ * <p>
+ * 通过 Redisson 锁保证同一时间只有一个节点领取；节点中途退出时，补发中的记录超过 claimTimeoutMinutes 后重新放回未回复。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class AiReplyRetryManager {
+
+    /**
+     * 无法再发送客服消息的错误码：超出回复时间限制、粉丝已取消关注、拒收消息、openId 无效
+     */
+    private static final Set<Integer> UNDELIVERABLE_ERROR_CODES = Set.of(45015, 43004, 45047, 40003);
+
+    private final AiReplyRecordService aiReplyRecordService;
+
+    private final WxMpConfigRegistry wxMpConfigRegistry;
+
+    private final DistributedLockManager distributedLockManager;
+
+    private final MetricsManager metricsManager;
+
+    private final WxMpProperties.Retry properties;
+
+    private final ThreadPoolExecutor executor;
+
+    public AiReplyRetryManager(AiReplyRecordService aiReplyRecordService, WxMpConfigRegistry wxMpConfigRegistry,
+                               DistributedLockManager distributedLockManager, MetricsManager metricsManager,
+                               WxMpProperties wxMpProperties) {
+        this.aiReplyRecordService = aiReplyRecordService;
+        this.wxMpConfigRegistry = wxMpConfigRegistry;
+        this.distributedLockManager = distributedLockManager;
+        this.metricsManager = metricsManager;
+        this.properties = wxMpProperties.getRetry();
+        int concurrency = Math.max(properties.getConcurrency(), 1);
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadFactoryBuilder.create().setNamePrefix("ai-reply-retry-").build());
+    }
+
+    /**
+     * 补发未回复的记录
+     *
+     * @return 本次处理的记录数，其他节点正在执行时返回 null
+     */
+    public Integer retry() {
+        return distributedLockManager.nonBlockExecute(RedisConstant.AI_REPLY_RETRY_LOCK_KEY, this::doRetry, () -> null);
+    }
+
+    private Integer doRetry() {
+        Date now = new Date();
+        Date windowStart = DateUtil.offsetHour(now, -properties.getWindowHours());
+        this.expireAndRecover(now, windowStart);
+
+        Date before = DateUtil.offsetSecond(now, (int) -properties.getSettleSeconds());
+        long lastId = 0;
+        int count = 0;
+        while (count < properties.getMaxRecordsPerRun()) {
+            int limit = Math.min(properties.getBatchSize(), properties.getMaxRecordsPerRun() - count);
+            List<AiReplyRecord> records = aiReplyRecordService.claimRetryRecords(lastId, windowStart, before,
+                    properties.getMaxAttempts(), limit);
+            if (records.isEmpty()) {
+                break;
+            }
+            lastId = records.get(records.size() - 1).getId();
+            count += records.size();
+            // 一批处理完再领取下一批，领取后未处理的记录不会长时间停留在补发中
+            CompletableFuture.allOf(records.stream()
+                    .map(record -> CompletableFuture.runAsync(() -> this.process(record), executor))
+                    .toArray(CompletableFuture<?>[]::new)
+            ).join();
+        }
+        if (count > 0) {
+            log.info("AI 回复补发完成，处理记录 {} 条，耗时 {}ms", count, System.currentTimeMillis() - now.getTime());
+        }
+        return count;
+    }
+
+    /**
+     * 超出客服消息窗口的记录标记为补发失败，超时未完成的补发放回未回复
+     */
+    private void expireAndRecover(Date now, Date windowStart) {
+        aiReplyRecordService.lambdaUpdate()
+                .eq(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.NOT_REPLY.getValue())
+                .lt(AiReplyRecord::getCreateTime, windowStart)
+                .set(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.FAILED.getValue())
+                .update();
+        aiReplyRecordService.lambdaUpdate()
+                .eq(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.RETRYING.getValue())
+                .lt(AiReplyRecord::getUpdateTime, DateUtil.offsetMinute(now, (int) -properties.getClaimTimeoutMinutes()))
+                .set(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.NOT_REPLY.getValue())
+                .update();
+    }
+
+    private void process(AiReplyRecord record) {
+        String outcome = "error";
+        try {
+            outcome = this.doProcess(record);
+        } catch (Exception e) {
+            log.error("AI 回复补发失败 - 记录ID: {}, appId: {}", record.getId(), record.getAppId(), e);
+            this.release(record);
+        } finally {
+            metricsManager.increment(MetricConstant.AI_RETRY, "appId", record.getAppId(), "outcome", outcome);
+        }
+    }
+
+    private String doProcess(AiReplyRecord record) {
+        WxMpService wxMpService = wxMpConfigRegistry.getService(record.getAppId());
+        if (wxMpService == null) {
+            this.updateStatus(record, WxAiReplyStatusEnum.FAILED);
+            return "no_account";
+        }
+
+        // 1. 没有回复内容时重新生成，成功后记录已标记为已回复
+        String reply = record.getReplyMessage();
+        if (StringUtils.isBlank(reply)) {
+            reply = aiReplyRecordService.aiReply(record.getAppId(), record.getFromUser(), record.getMessage(), record,
+                    System.currentTimeMillis() + properties.getAiTimeoutMillis());
+            if (!WxAiReplyStatusEnum.REPLIED.getValue().equals(record.getReplyStatus())) {
+                // 返回的是限流、额度、调用失败等默认回复，不发送给粉丝
+                this.release(record);
+                return "ai_failed";
+            }
+        }
+
+        // 2. 粉丝重新发送过同样的问题并已得到回复时不再发送
+        boolean answered = aiReplyRecordService.lambdaQuery()
+                .eq(AiReplyRecord::getAppId, record.getAppId())
+                .eq(AiReplyRecord::getFromUser, record.getFromUser())
+                .eq(AiReplyRecord::getMessage, record.getMessage())
+                .eq(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.REPLIED.getValue())
+                .gt(AiReplyRecord::getId, record.getId())
+                .count() > 0;
+        if (answered) {
+            this.updateStatus(record, WxAiReplyStatusEnum.REPLIED);
+            return "duplicate";
+        }
+
+        // 3. 通过客服消息发送
+        try {
+            wxMpService.getKefuService().sendKefuMessage(WxMpKefuMessage.TEXT()
+                    .toUser(record.getFromUser())
+                    .content(reply)
+                    .build());
+        } catch (WxErrorException e) {
+            int errorCode = e.getError().getErrorCode();
+            log.warn("AI 回复补发客服消息失败 - 记录ID: {}, appId: {}, fromUser: {}, 错误: {}",
+                    record.getId(), record.getAppId(), record.getFromUser(), e.getError());
+            if (UNDELIVERABLE_ERROR_CODES.contains(errorCode)) {
+                this.updateStatus(record, WxAiReplyStatusEnum.FAILED);
+                return "undeliverable";
+            }
+            this.release(record);
+            return "send_failed";
+        }
+        this.updateStatus(record, WxAiReplyStatusEnum.REPLIED);
+        log.info("AI 回复已通过客服消息补发 - 记录ID: {}, appId: {}, fromUser: {}", record.getId(), record.getAppId(), record.getFromUser());
+        return "delivered";
+    }
+
+    /**
+     * 放回未回复等待下次补发，次数用完时标记为补发失败
+     */
+    private void release(AiReplyRecord record) {
+        this.updateStatus(record, record.getRetryCount() >= properties.getMaxAttempts()
+                ? WxAiReplyStatusEnum.FAILED : WxAiReplyStatusEnum.NOT_REPLY);
+    }
+
+    private void updateStatus(AiReplyRecord record, WxAiReplyStatusEnum status) {
+        aiReplyRecordService.lambdaUpdate()
+                .eq(AiReplyRecord::getId, record.getId())
+                .set(AiReplyRecord::getReplyStatus, status.getValue())
+                .update();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
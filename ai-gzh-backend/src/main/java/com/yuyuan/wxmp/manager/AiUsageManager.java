@@ -0,0 +1,230 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.date.DateUtil;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.mapper.AiUsageStatMapper;
+import com.yuyuan.wxmp.model.entity.AiUsageStat;
+import com.yuyuan.wxmp.model.vo.AiUsageStatVO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AI 调用用量统计
+ * <p>
+ * 每次调用只累加本节点内存中的计数器（按 appId + 模型，LongAdder 无锁），每分钟汇总写入 ai_usage_stat，
+ * 多个节点写入同一分钟时在数据库中累加。
+ * <p>
+ * 每日 token 预算按"数据库中今天的用量 + 本节点还未写入的用量"判断，其他节点未写入的部分最多滞后一分钟。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class AiUsageManager {
+
+    private static final int MODEL_MAX_LENGTH = 64;
+
+    private final AiUsageStatMapper aiUsageStatMapper;
+
+    private final WxMpProperties.Usage properties;
+
+    private final String defaultModel;
+
+    private final Map<CounterKey, Counter> counterMap = new ConcurrentHashMap<>();
+
+    /**
+     * 数据库中各公众号今天的 token 用量，每次写入后刷新
+     */
+    private volatile DailyUsage dailyUsage = new DailyUsage(LocalDate.MIN, Map.of());
+
+    public AiUsageManager(AiUsageStatMapper aiUsageStatMapper, WxMpProperties wxMpProperties,
+                          @Value("${spring.ai.openai.chat.options.model:unknown}") String defaultModel) {
+        this.aiUsageStatMapper = aiUsageStatMapper;
+        this.properties = wxMpProperties.getUsage();
+        this.defaultModel = defaultModel;
+    }
+
+    /**
+     * 记录一次 AI 调用
+     *
+     * @param appId            appId
+     * @param model            模型，为空时使用配置的默认模型
+     * @param promptTokens     输入 token 数
+     * @param completionTokens 输出 token 数
+     * @param latencyMillis    耗时（毫秒）
+     * @param success          是否成功
+     */
+    public void record(String appId, String model, long promptTokens, long completionTokens, long latencyMillis, boolean success) {
+        String modelName = StringUtils.left(StringUtils.defaultIfBlank(model, defaultModel), MODEL_MAX_LENGTH);
+        Counter counter = counterMap.computeIfAbsent(new CounterKey(appId, modelName), key -> new Counter());
+        counter.calls.increment();
+        if (!success) {
+            counter.failures.increment();
+        }
+        counter.promptTokens.add(promptTokens);
+        counter.completionTokens.add(completionTokens);
+        counter.latencyMillis.add(latencyMillis);
+        counter.maxLatencyMillis.accumulate(latencyMillis);
+    }
+
+    /**
+     * 公众号今天的 token 用量是否已达到预算
+     *
+     * @param appId appId
+     * @return 是否超出预算
+     */
+    public boolean isOverBudget(String appId) {
+        long budget = properties.getBudgets().getOrDefault(appId, properties.getDailyTokenBudget());
+        return budget > 0 && this.getTodayTokens(appId) >= budget;
+    }
+
+    /**
+     * 公众号今天的 token 用量
+     *
+     * @param appId appId
+     * @return token 数
+     */
+    public long getTodayTokens(String appId) {
+        DailyUsage usage = dailyUsage;
+        long tokens = usage.day.equals(LocalDate.now()) ? usage.tokens.getOrDefault(appId, 0L) : 0L;
+        for (Map.Entry<CounterKey, Counter> entry : counterMap.entrySet()) {
+            if (entry.getKey().appId.equals(appId)) {
+                tokens += entry.getValue().promptTokens.sum() + entry.getValue().completionTokens.sum();
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 按时间粒度查询用量（不包含本节点还未写入的部分）
+     *
+     * @param appId       appId，为空时查询所有公众号
+     * @param startTime   开始时间（包含）
+     * @param endTime     结束时间（不包含）
+     * @param granularity 时间粒度：minute / hour / day
+     * @return {@link List}<{@link AiUsageStatVO}>
+     */
+    public List<AiUsageStatVO> getUsage(String appId, Date startTime, Date endTime, String granularity) {
+        String timeFormat = switch (StringUtils.defaultString(granularity, "hour")) {
+            case "minute" -> "%Y-%m-%d %H:%i";
+            case "hour" -> "%Y-%m-%d %H:00";
+            case "day" -> "%Y-%m-%d";
+            default -> throw new BusinessException(ErrorCode.PARAMS_ERROR, "时间粒度只支持 minute、hour、day");
+        };
+        ThrowUtils.throwIf(startTime == null || endTime == null || !startTime.before(endTime),
+                ErrorCode.PARAMS_ERROR, "时间范围错误");
+        return aiUsageStatMapper.selectUsage(StringUtils.trimToNull(appId), startTime, endTime, timeFormat);
+    }
+
+    /**
+     * 把本节点的计数写入数据库，并刷新今天的用量
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void flush() {
+        Date statTime = DateUtil.beginOfMinute(new Date());
+        List<AiUsageStat> statList = new ArrayList<>();
+        List<Counter> counterList = new ArrayList<>();
+        counterMap.forEach((key, counter) -> {
+            AiUsageStat stat = counter.drain();
+            if (stat.getCallCount() > 0) {
+                stat.setAppId(key.appId);
+                stat.setModel(key.model);
+                stat.setStatTime(statTime);
+                statList.add(stat);
+                counterList.add(counter);
+            }
+        });
+        if (!statList.isEmpty()) {
+            try {
+                aiUsageStatMapper.upsertBatch(statList);
+            } catch (Exception e) {
+                // 写入失败时把计数加回去，下次一起写入
+                log.error("AI 调用用量写入失败，{} 条统计等待下次写入", statList.size(), e);
+                for (int i = 0; i < statList.size(); i++) {
+                    counterList.get(i).restore(statList.get(i));
+                }
+            }
+        }
+        this.refreshDailyUsage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.flush();
+    }
+
+    private void refreshDailyUsage() {
+        LocalDate today = LocalDate.now();
+        try {
+            Map<String, Long> tokens = new HashMap<>();
+            for (AiUsageStat stat : aiUsageStatMapper.selectTokensSince(DateUtil.beginOfDay(new Date()))) {
+                tokens.put(stat.getAppId(), stat.getPromptTokens() + stat.getCompletionTokens());
+            }
+            dailyUsage = new DailyUsage(today, tokens);
+        } catch (Exception e) {
+            log.error("查询今日 AI 调用用量失败", e);
+        }
+    }
+
+    private record CounterKey(String appId, String model) {
+    }
+
+    private record DailyUsage(LocalDate day, Map<String, Long> tokens) {
+    }
+
+    private static final class Counter {
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder promptTokens = new LongAdder();
+
+        private final LongAdder completionTokens = new LongAdder();
+
+        private final LongAdder latencyMillis = new LongAdder();
+
+        private final LongAccumulator maxLatencyMillis = new LongAccumulator(Math::max, 0);
+
+        /**
+         * 取出并清零，各计数器分别清零，和并发的 record 之间可能有一次调用被分到相邻两分钟，不影响累计值
+         */
+        private AiUsageStat drain() {
+            AiUsageStat stat = new AiUsageStat();
+            stat.setCallCount((int) calls.sumThenReset());
+            stat.setFailCount((int) failures.sumThenReset());
+            stat.setPromptTokens(promptTokens.sumThenReset());
+            stat.setCompletionTokens(completionTokens.sumThenReset());
+            stat.setLatencyMillis(latencyMillis.sumThenReset());
+            stat.setMaxLatencyMillis((int) maxLatencyMillis.getThenReset());
+            return stat;
+        }
+
+        private void restore(AiUsageStat stat) {
+            calls.add(stat.getCallCount());
+            failures.add(stat.getFailCount());
+            promptTokens.add(stat.getPromptTokens());
+            completionTokens.add(stat.getCompletionTokens());
+            latencyMillis.add(stat.getLatencyMillis());
+            maxLatencyMillis.accumulate(stat.getMaxLatencyMillis());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 微信回调录制，用于按真实消息组合回放压测
+ * <p>
+ * 录制文件按 segmentMb 预先映射到内存，每条回调只是一次内存拷贝，由操作系统负责写回磁盘，进程崩溃也不会丢失已写入的记录。
+ * 写满后切换到新文件，超出 maxSegments 时删除最早的文件。
+ * <p>
+ * 文件格式：8 字节文件头 {@link #MAGIC}，之后每条记录为 4 字节长度 + 内容，长度为 0 表示文件结束（预分配未写入的部分）。
+ * 记录内容依次为：接收时间（8 字节毫秒时间戳）、appId、openId、timestamp、nonce、encrypt_type、msg_signature、请求体，
+ * 字符串为 4 字节长度（-1 表示 null）+ UTF-8。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class CallbackCaptureManager {
+
+    private static final byte[] MAGIC = "WXCAP001".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String FILE_PREFIX = "capture-";
+
+    private static final String FILE_SUFFIX = ".bin";
+
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final WxMpProperties.Capture properties;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    /**
+     * 文件序号，同一毫秒内切换多次时避免文件名重复
+     */
+    private int segmentSequence;
+
+    public CallbackCaptureManager(WxMpProperties wxMpProperties) {
+        this.properties = wxMpProperties.getCapture();
+    }
+
+    /**
+     * 是否录制该公众号的回调
+     *
+     * @param appId appId
+     * @return 是否录制
+     */
+    public boolean isEnabled(String appId) {
+        return properties.isEnabled() && (properties.getAppIds().isEmpty() || properties.getAppIds().contains(appId));
+    }
+
+    /**
+     * 录制一条回调，失败只记录日志，不影响消息处理
+     *
+     * @param callback 回调
+     */
+    public void capture(CapturedCallback callback) {
+        byte[] record = encode(callback);
+        synchronized (this) {
+            try {
+                if (buffer == null || buffer.remaining() < Integer.BYTES + record.length + Integer.BYTES) {
+                    this.rotate(record.length);
+                }
+                // 先写内容再写长度，写入中途进程退出时长度仍为 0，读取时不会读到半条记录
+                int position = buffer.position();
+                buffer.position(position + Integer.BYTES);
+                buffer.put(record);
+                buffer.putInt(position, record.length);
+            } catch (Exception e) {
+                log.warn("微信回调录制失败：appId={}, {}", callback.appId(), e.getMessage());
+                this.closeSegment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        this.closeSegment();
+    }
+
+    private void rotate(int recordLength) throws IOException {
+        this.closeSegment();
+        long segmentBytes = Math.max((long) properties.getSegmentMb() << 20, MAGIC.length + 2L * Integer.BYTES + recordLength);
+        Path dir = Paths.get(properties.getDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIME_FORMAT)
+                + String.format("-%04d", segmentSequence++ % 10000) + FILE_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        buffer.put(MAGIC);
+        log.info("开始写入微信回调录制文件：{}", file);
+        this.deleteExpiredSegments(dir);
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            int position = buffer.position();
+            buffer.force();
+            buffer = null;
+            // 截掉预分配未使用的部分，部分系统不允许截断仍在映射中的文件，失败时保留，读取时遇到长度 0 结束
+            channel.truncate(position);
+        } catch (IOException e) {
+            log.debug("截断录制文件失败：{}", e.getMessage());
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("关闭录制文件失败：{}", e.getMessage());
+            }
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    private void deleteExpiredSegments(Path dir) {
+        try {
+            List<Path> segments = listSegments(dir);
+            for (int i = 0; i < segments.size() - properties.getMaxSegments(); i++) {
+                Files.deleteIfExists(segments.get(i));
+                log.info("删除过期的微信回调录制文件：{}", segments.get(i));
+            }
+        } catch (IOException e) {
+            log.warn("清理微信回调录制文件失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按时间顺序列出目录下的录制文件
+     *
+     * @param dir 目录
+     * @return 录制文件
+     */
+    public static List<Path> listSegments(Path dir) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        // 文件名中的时间可以直接按字符串排序
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * 读取录制文件，文件末尾不完整的记录（写入中途进程退出）会被忽略
+     *
+     * @param file     录制文件
+     * @param consumer 回调
+     */
+    public static void read(Path file, Consumer<CapturedCallback> consumer) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            byte[] magic = new byte[MAGIC.length];
+            if (data.remaining() >= magic.length) {
+                data.get(magic);
+            }
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("不是微信回调录制文件：" + file);
+            }
+            while (data.remaining() >= Integer.BYTES) {
+                int length = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    break;
+                }
+                ByteBuffer record = data.slice(data.position(), length);
+                data.position(data.position() + length);
+                try {
+                    consumer.accept(decode(record));
+                } catch (BufferUnderflowException e) {
+                    throw new IOException("录制记录损坏：" + file, e);
+                }
+            }
+        }
+    }
+
+    static byte[] encode(CapturedCallback callback) {
+        byte[][] fields = {
+                bytes(callback.appId()), bytes(callback.openId()), bytes(callback.timestamp()), bytes(callback.nonce()),
+                bytes(callback.encType()), bytes(callback.msgSignature()), bytes(callback.body())
+        };
+        int length = Long.BYTES;
+        for (byte[] field : fields) {
+            length += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.putLong(callback.arrivalMillis());
+        for (byte[] field : fields) {
+            if (field == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(field.length);
+                out.put(field);
+            }
+        }
+        return out.array();
+    }
+
+    static CapturedCallback decode(ByteBuffer in) {
+        long arrivalMillis = in.getLong();
+        return new CapturedCallback(arrivalMillis, string(in), string(in), string(in), string(in),
+                string(in), string(in), string(in));
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        in.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 录制的微信回调
+     *
+     * @param arrivalMillis 接收时间
+     * @param appId         appId
+     * @param openId        openid 参数
+     * @param timestamp     timestamp 参数
+     * @param nonce         nonce 参数
+     * @param encType       encrypt_type 参数
+     * @param msgSignature  msg_signature 参数
+     * @param body          请求体原文
+     */
+    public record CapturedCallback(long arrivalMillis, String appId, String openId, String timestamp, String nonce,
+                                   String encType, String msgSignature, String body) {
+    }
+}
@@ -1,7 +1,9 @@
 package com.yuyuan.wxmp.manager;
 
+import com.yuyuan.wxmp.constant.MetricConstant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Component;
@@ -21,6 +23,10 @@ public class DistributedLockManager {
 
     private final RedissonClient redissonClient;
 
+    private final MetricsManager metricsManager;
+
+    private final TraceManager traceManager;
+
     private final String LOCK_KEY_PREFIX = "lock:";
 
     /**
@@ -35,7 +41,7 @@ public class DistributedLockManager {
         RLock lock = redissonClient.getLock(fullLockKey);
         try {
             log.info("尝试获取阻塞锁: {}", fullLockKey);
-            lock.lock();
+            this.lock(lock, lockKey);
             log.info("成功获取阻塞锁: {}", fullLockKey);
             // 执行方法
             return supplier.get();
@@ -58,7 +64,7 @@ public class DistributedLockManager {
         RLock lock = redissonClient.getLock(fullLockKey);
         try {
             log.info("尝试获取阻塞锁: {}", fullLockKey);
-            lock.lock();
+            this.lock(lock, lockKey);
             log.info("成功获取阻塞锁: {}", fullLockKey);
             // 执行方法
             runnable.run();
@@ -80,7 +86,7 @@ public class DistributedLockManager {
         String fullLockKey = LOCK_KEY_PREFIX + lockKey;
         RLock lock = redissonClient.getLock(fullLockKey);
         log.info("尝试获取非阻塞锁: {}", fullLockKey);
-        if (lock.tryLock()) {
+        if (this.tryLock(lock, lockKey)) {
             log.info("成功获取非阻塞锁: {}", fullLockKey);
             try {
                 // 执行方法
@@ -107,7 +113,7 @@ public class DistributedLockManager {
         String fullLockKey = LOCK_KEY_PREFIX + lockKey;
         RLock lock = redissonClient.getLock(fullLockKey);
         log.info("尝试获取非阻塞锁: {}", fullLockKey);
-        if (lock.tryLock()) {
+        if (this.tryLock(lock, lockKey)) {
             log.info("成功获取非阻塞锁: {}", fullLockKey);
             try {
                 // 执行方法
@@ -124,4 +130,27 @@ public class DistributedLockManager {
         }
     }
 
+    private void lock(RLock lock, String lockKey) {
+        long start = System.nanoTime();
+        traceManager.traceRun("wx.lock.acquire", lock::lock, "lock", lockKey, "mode", "block");
+        this.recordAcquire(lockKey, "block", start, true);
+    }
+
+    private boolean tryLock(RLock lock, String lockKey) {
+        long start = System.nanoTime();
+        boolean acquired = traceManager.trace("wx.lock.acquire", lock::tryLock, "lock", lockKey, "mode", "try");
+        this.recordAcquire(lockKey, "try", start, acquired);
+        return acquired;
+    }
+
+    /**
+     * 记录获取锁的耗时，锁名称只取第一个冒号之前的部分，避免带业务 id 的锁产生大量指标
+     */
+    private void recordAcquire(String lockKey, String mode, long startNanos, boolean acquired) {
+        metricsManager.recordSince(MetricConstant.LOCK_ACQUIRE, startNanos,
+                "lock", StringUtils.substringBefore(lockKey, ":"),
+                "mode", mode,
+                "outcome", acquired ? "acquired" : "busy");
+    }
+
 }
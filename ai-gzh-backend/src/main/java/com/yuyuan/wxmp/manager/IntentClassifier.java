@@ -0,0 +1,336 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.model.vo.IntentEvaluationVO;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地意图分类器（字符 n-gram + 多项式朴素贝叶斯）
+ * <p>
+ * 每个关键字回复规则是一个类别，另外用未命中规则的 AI 问答记录训练一个"其他"类别，
+ * 预测为"其他"或置信度不足时不作答，交给 AI 处理。
+ * <p>
+ * 训练完成后不可变，可以在多个线程中同时预测。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class IntentClassifier {
+
+    /**
+     * "其他"类别的标签
+     */
+    public static final int OTHER = -1;
+
+    private static final int MIN_GRAM = 1;
+
+    private static final int MAX_GRAM = 3;
+
+    /**
+     * 平滑系数
+     */
+    private static final double ALPHA = 0.5;
+
+    /**
+     * 评估时按文本哈希取 1/5 作为测试集
+     */
+    private static final int TEST_FOLD = 5;
+
+    /**
+     * 评估耗时时最少预测的次数
+     */
+    private static final int BENCHMARK_ROUNDS = 10000;
+
+    /**
+     * 规则类别数，"其他"类别（如果有）的下标为 classCount
+     */
+    private final int classCount;
+
+    private final boolean hasOther;
+
+    /**
+     * n-gram 哈希 -> 各类别的对数似然
+     */
+    private final Map<Integer, float[]> logLikelihoods;
+
+    private IntentClassifier(int classCount, boolean hasOther, Map<Integer, float[]> logLikelihoods) {
+        this.classCount = classCount;
+        this.hasOther = hasOther;
+        this.logLikelihoods = logLikelihoods;
+    }
+
+    /**
+     * 训练
+     * <p>
+     * 各类别的样本量差异很大（"其他"类别通常是规则类别的几十倍），先验取均匀分布，避免样本多的类别压过关键字规则
+     *
+     * @param samples    样本
+     * @param classCount 规则类别数，样本标签为 0 ~ classCount - 1 或 {@link #OTHER}
+     * @return 分类器
+     */
+    public static IntentClassifier train(List<Sample> samples, int classCount) {
+        boolean hasOther = samples.stream().anyMatch(sample -> sample.label == OTHER);
+        int size = hasOther ? classCount + 1 : classCount;
+        Map<Integer, double[]> counts = new HashMap<>();
+        double[] totals = new double[size];
+        for (Sample sample : samples) {
+            int index = sample.label == OTHER ? classCount : sample.label;
+            for (int feature : features(sample.text)) {
+                counts.computeIfAbsent(feature, key -> new double[size])[index] += sample.weight;
+                totals[index] += sample.weight;
+            }
+        }
+        int vocabulary = counts.size();
+        Map<Integer, float[]> logLikelihoods = new HashMap<>(counts.size() * 2);
+        for (Map.Entry<Integer, double[]> entry : counts.entrySet()) {
+            double[] featureCounts = entry.getValue();
+            float[] values = new float[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = (float) Math.log((featureCounts[i] + ALPHA) / (totals[i] + ALPHA * vocabulary));
+            }
+            logLikelihoods.put(entry.getKey(), values);
+        }
+        return new IntentClassifier(classCount, hasOther, logLikelihoods);
+    }
+
+    /**
+     * 预测
+     *
+     * @param normalized 归一化后的文本，参考 {@link TextNormalizeUtil#normalize(String)}
+     * @return 预测结果，文本中没有任何已知特征时返回 null
+     */
+    public Prediction predict(String normalized) {
+        int[] features = features(normalized);
+        int size = hasOther ? classCount + 1 : classCount;
+        if (features.length == 0 || size == 0) {
+            return null;
+        }
+        double[] scores = new double[size];
+        int known = 0;
+        for (int feature : features) {
+            float[] values = logLikelihoods.get(feature);
+            if (values == null) {
+                continue;
+            }
+            known++;
+            for (int i = 0; i < size; i++) {
+                scores[i] += values[i];
+            }
+        }
+        if (known == 0) {
+            return null;
+        }
+        int top = 0;
+        for (int i = 1; i < size; i++) {
+            if (scores[i] > scores[top]) {
+                top = i;
+            }
+        }
+        double sum = 0;
+        for (double score : scores) {
+            sum += Math.exp(score - scores[top]);
+        }
+        int label = top == classCount ? OTHER : top;
+        return new Prediction(label, 1 / sum, (double) known / features.length);
+    }
+
+    /**
+     * 离线评估：按文本哈希划分训练集和测试集，统计准确率和预测耗时
+     *
+     * @param samples       样本
+     * @param classCount    规则类别数
+     * @param minConfidence 作答需要的置信度
+     * @param minCoverage   作答需要的已知特征占比
+     * @return {@link IntentEvaluationVO}，appId 由调用方填写
+     */
+    public static IntentEvaluationVO evaluate(List<Sample> samples, int classCount, double minConfidence, double minCoverage) {
+        List<Sample> trainSamples = new ArrayList<>();
+        List<Sample> testSamples = new ArrayList<>();
+        for (Sample sample : samples) {
+            (Math.floorMod(sample.text.hashCode(), TEST_FOLD) == 0 ? testSamples : trainSamples).add(sample);
+        }
+        long trainStart = System.nanoTime();
+        IntentClassifier classifier = train(trainSamples, classCount);
+        long trainNanos = System.nanoTime() - trainStart;
+
+        int positive = 0;
+        int other = 0;
+        int top1Correct = 0;
+        int answered = 0;
+        int answeredCorrect = 0;
+        int falseAnswered = 0;
+        for (Sample sample : testSamples) {
+            Prediction prediction = classifier.predict(sample.text);
+            boolean answer = prediction != null && prediction.isConfident(minConfidence, minCoverage);
+            if (sample.label == OTHER) {
+                other++;
+                if (answer) {
+                    falseAnswered++;
+                    answered++;
+                }
+                continue;
+            }
+            positive++;
+            if (prediction != null && prediction.label == sample.label) {
+                top1Correct++;
+            }
+            if (answer) {
+                answered++;
+                if (prediction.label == sample.label) {
+                    answeredCorrect++;
+                }
+            }
+        }
+
+        IntentEvaluationVO evaluation = new IntentEvaluationVO();
+        evaluation.setClassCount(classCount);
+        evaluation.setFeatureCount(classifier.logLikelihoods.size());
+        evaluation.setTrainSize(trainSamples.size());
+        evaluation.setTestSize(testSamples.size());
+        evaluation.setTrainMillis(TimeUnit.NANOSECONDS.toMillis(trainNanos));
+        evaluation.setTop1Accuracy(ratio(top1Correct, positive));
+        evaluation.setPrecision(ratio(answeredCorrect, answered));
+        evaluation.setRecall(ratio(answeredCorrect, positive));
+        evaluation.setFalseAnswerRate(ratio(falseAnswered, other));
+        benchmark(classifier, testSamples.isEmpty() ? trainSamples : testSamples, evaluation);
+        return evaluation;
+    }
+
+    /**
+     * 提取 n-gram 特征（哈希）
+     *
+     * @param normalized 归一化后的文本
+     * @return 特征
+     */
+    static int[] features(String normalized) {
+        int length = normalized.length();
+        int count = 0;
+        for (int n = MIN_GRAM; n <= MAX_GRAM; n++) {
+            count += Math.max(length - n + 1, 0);
+        }
+        int[] features = new int[count];
+        int index = 0;
+        for (int n = MIN_GRAM; n <= MAX_GRAM; n++) {
+            for (int start = 0; start + n <= length; start++) {
+                int hash = n;
+                for (int i = start; i < start + n; i++) {
+                    hash = 31 * hash + normalized.charAt(i);
+                }
+                features[index++] = hash;
+            }
+        }
+        return features;
+    }
+
+    private static void benchmark(IntentClassifier classifier, List<Sample> samples, IntentEvaluationVO evaluation) {
+        if (samples.isEmpty()) {
+            evaluation.setAvgPredictMicros(0D);
+            evaluation.setP99PredictMicros(0D);
+            return;
+        }
+        // 先预热，再逐次计时
+        for (Sample sample : samples) {
+            classifier.predict(sample.text);
+        }
+        int rounds = Math.max(BENCHMARK_ROUNDS, samples.size());
+        long[] nanos = new long[rounds];
+        long total = 0;
+        for (int i = 0; i < rounds; i++) {
+            String text = samples.get(i % samples.size()).text;
+            long start = System.nanoTime();
+            classifier.predict(text);
+            nanos[i] = System.nanoTime() - start;
+            total += nanos[i];
+        }
+        Arrays.sort(nanos);
+        evaluation.setAvgPredictMicros(total / 1000D / rounds);
+        evaluation.setP99PredictMicros(nanos[(int) (rounds * 0.99)] / 1000D);
+    }
+
+    private static double ratio(int numerator, int denominator) {
+        return denominator == 0 ? 0 : (double) numerator / denominator;
+    }
+
+    /**
+     * 训练样本
+     */
+    public static final class Sample {
+
+        private final String text;
+
+        private final int label;
+
+        private final int weight;
+
+        /**
+         * @param text   归一化后的文本
+         * @param label  类别，0 ~ classCount - 1 或 {@link #OTHER}
+         * @param weight 权重（出现次数）
+         */
+        public Sample(String text, int label, int weight) {
+            this.text = text;
+            this.label = label;
+            this.weight = weight;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public int getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * 预测结果
+     */
+    public static final class Prediction {
+
+        private final int label;
+
+        private final double confidence;
+
+        private final double coverage;
+
+        private Prediction(int label, double confidence, double coverage) {
+            this.label = label;
+            this.confidence = confidence;
+            this.coverage = coverage;
+        }
+
+        /**
+         * @return 类别，0 ~ classCount - 1 或 {@link #OTHER}
+         */
+        public int getLabel() {
+            return label;
+        }
+
+        /**
+         * @return 后验概率
+         */
+        public double getConfidence() {
+            return confidence;
+        }
+
+        /**
+         * @return 文本特征中训练时见过的占比
+         */
+        public double getCoverage() {
+            return coverage;
+        }
+
+        /**
+         * 是否可以直接作答：预测为规则类别，且置信度和已知特征占比都达到要求
+         */
+        public boolean isConfident(double minConfidence, double minCoverage) {
+            return label != OTHER && confidence >= minConfidence && coverage >= minCoverage;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.model.dto.aireplysuggestion.AiReplySuggestionStatsDTO;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyMatchValueDTO;
+import com.yuyuan.wxmp.model.entity.AiReplyRecord;
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.enums.AiReplySuggestionStatusEnum;
+import com.yuyuan.wxmp.model.enums.WxAiReplyStatusEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyMatchTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
+import com.yuyuan.wxmp.model.vo.IntentEvaluationVO;
+import com.yuyuan.wxmp.service.AiReplyRecordService;
+import com.yuyuan.wxmp.service.AiReplySuggestionService;
+import com.yuyuan.wxmp.service.WxReplyRuleService;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 本地意图分类器管理（按公众号）
+ * <p>
+ * 在关键字规则没有命中、调用 AI 之前，用本地分类器判断消息是否属于某条关键字规则，置信度足够时直接回复规则内容。
+ * <p>
+ * 训练数据：
+ * <ul>
+ *     <li>关键字规则的关键字；</li>
+ *     <li>已采纳的 AI 回复规则建议中统计到的各种问法（标注为对应规则）；</li>
+ *     <li>最近的 AI 问答记录（标注为"其他"）。</li>
+ * </ul>
+ * 模型在第一次使用时异步训练，训练完成前直接交给 AI；超过刷新时间后在下一次使用时异步重新训练。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class IntentClassifierManager {
+
+    private final WxReplyRuleService wxReplyRuleService;
+
+    private final AiReplySuggestionService aiReplySuggestionService;
+
+    private final AiReplyRecordService aiReplyRecordService;
+
+    private final WxMpProperties.Intent properties;
+
+    private final Map<String, Entry> entryMap = new ConcurrentHashMap<>();
+
+    private final ExecutorService trainExecutor;
+
+    public IntentClassifierManager(WxReplyRuleService wxReplyRuleService,
+                                   AiReplySuggestionService aiReplySuggestionService,
+                                   AiReplyRecordService aiReplyRecordService,
+                                   WxMpProperties wxMpProperties) {
+        this.wxReplyRuleService = wxReplyRuleService;
+        this.aiReplySuggestionService = aiReplySuggestionService;
+        this.aiReplyRecordService = aiReplyRecordService;
+        this.properties = wxMpProperties.getIntent();
+        // 每个公众号同一时间最多排队一次训练，队列长度不超过公众号数量
+        this.trainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadFactoryBuilder.create().setNamePrefix("intent-train-").build());
+    }
+
+    /**
+     * 分类用户消息
+     *
+     * @param appId   appId
+     * @param message 用户消息
+     * @return 命中规则的回复内容，模型未就绪或置信度不足时返回 null
+     */
+    public WxReplyContentDTO classify(String appId, String message) {
+        if (!properties.isEnabled() || StringUtils.isBlank(message)) {
+            return null;
+        }
+        Entry entry = entryMap.computeIfAbsent(appId, key -> new Entry());
+        Model model = entry.model;
+        if (model == null || System.currentTimeMillis() - model.builtAt > TimeUnit.MINUTES.toMillis(properties.getRefreshMinutes())) {
+            this.scheduleTrain(appId, entry);
+        }
+        if (model == null) {
+            return null;
+        }
+        IntentClassifier.Prediction prediction = model.classifier.predict(TextNormalizeUtil.normalize(message));
+        if (prediction == null || !prediction.isConfident(properties.getMinConfidence(), properties.getMinCoverage())) {
+            return null;
+        }
+        log.info("本地意图分类命中规则 - appId: {}, ruleId: {}, confidence: {}, coverage: {}, message: {}",
+                appId, model.ruleIds.get(prediction.getLabel()), prediction.getConfidence(), prediction.getCoverage(), message);
+        return model.replies.get(prediction.getLabel());
+    }
+
+    /**
+     * 使模型失效，下一次使用时重新训练
+     *
+     * @param appId appId
+     */
+    public void invalidate(String appId) {
+        entryMap.remove(appId);
+    }
+
+    /**
+     * 用当前数据离线评估分类器（同步执行）
+     *
+     * @param appId appId
+     * @return {@link IntentEvaluationVO}
+     */
+    public IntentEvaluationVO evaluate(String appId) {
+        TrainingData data = this.loadTrainingData(appId);
+        IntentEvaluationVO evaluation = IntentClassifier.evaluate(data.samples, data.ruleIds.size(),
+                properties.getMinConfidence(), properties.getMinCoverage());
+        evaluation.setAppId(appId);
+        return evaluation;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trainExecutor.shutdownNow();
+    }
+
+    private void scheduleTrain(String appId, Entry entry) {
+        if (!entry.training.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            trainExecutor.execute(() -> {
+                try {
+                    long startTime = System.currentTimeMillis();
+                    TrainingData data = this.loadTrainingData(appId);
+                    entry.model = new Model(IntentClassifier.train(data.samples, data.ruleIds.size()), data.ruleIds, data.replies);
+                    log.info("本地意图分类器训练完成 - appId: {}, 规则数: {}, 样本数: {}, 耗时: {}ms",
+                            appId, data.ruleIds.size(), data.samples.size(), System.currentTimeMillis() - startTime);
+                } catch (Exception e) {
+                    log.error("本地意图分类器训练失败 - appId: {}", appId, e);
+                } finally {
+                    entry.training.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.training.set(false);
+        }
+    }
+
+    private TrainingData loadTrainingData(String appId) {
+        TrainingData data = new TrainingData();
+        Set<String> positiveTexts = new HashSet<>();
+
+        // 1、关键字规则
+        List<WxReplyRule> ruleList = wxReplyRuleService.lambdaQuery()
+                .eq(WxReplyRule::getAppId, appId)
+                .eq(WxReplyRule::getReplyType, WxReplyRuleTypeEnum.KEYWORDS.getValue())
+                .list();
+        Map<Long, Integer> ruleLabelMap = new HashMap<>();
+        for (WxReplyRule rule : ruleList) {
+            if (StringUtils.isAnyBlank(rule.getMatchValue(), rule.getReplyContent())) {
+                continue;
+            }
+            int label = data.ruleIds.size();
+            boolean added = false;
+            for (WxReplyMatchValueDTO matchValue : JSONUtil.toList(rule.getMatchValue(), WxReplyMatchValueDTO.class)) {
+                // 正则不是自然语言，不作为训练样本
+                if (WxReplyMatchTypeEnum.REGEX.getValue().equals(matchValue.getMatchType())) {
+                    continue;
+                }
+                String text = TextNormalizeUtil.normalize(matchValue.getMatchKeyWords());
+                if (!text.isEmpty()) {
+                    data.samples.add(new IntentClassifier.Sample(text, label, properties.getKeywordWeight()));
+                    positiveTexts.add(text);
+                    added = true;
+                }
+            }
+            if (added) {
+                ruleLabelMap.put(rule.getId(), label);
+                data.ruleIds.add(rule.getId());
+                data.replies.add(JSONUtil.toBean(rule.getReplyContent(), WxReplyContentDTO.class));
+            }
+        }
+
+        // 2、已采纳建议中的问法
+        List<AiReplySuggestion> suggestionList = aiReplySuggestionService.lambdaQuery()
+                .eq(AiReplySuggestion::getAppId, appId)
+                .eq(AiReplySuggestion::getStatus, AiReplySuggestionStatusEnum.ACCEPTED.getValue())
+                .isNotNull(AiReplySuggestion::getRuleId)
+                .list();
+        for (AiReplySuggestion suggestion : suggestionList) {
+            Integer label = ruleLabelMap.get(suggestion.getRuleId());
+            if (label == null || StringUtils.isBlank(suggestion.getStatistics())) {
+                continue;
+            }
+            AiReplySuggestionStatsDTO stats = JSONUtil.toBean(suggestion.getStatistics(), AiReplySuggestionStatsDTO.class);
+            stats.getQuestions().forEach((question, count) -> {
+                String text = TextNormalizeUtil.normalize(question);
+                if (!text.isEmpty()) {
+                    data.samples.add(new IntentClassifier.Sample(text, label, Math.min(count, properties.getMaxQuestionWeight())));
+                    positiveTexts.add(text);
+                }
+            });
+        }
+
+        // 3、最近的 AI 问答作为"其他"
+        if (!data.ruleIds.isEmpty()) {
+            List<AiReplyRecord> recordList = aiReplyRecordService.lambdaQuery()
+                    .select(AiReplyRecord::getMessage)
+                    .eq(AiReplyRecord::getAppId, appId)
+                    .eq(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.REPLIED.getValue())
+                    .orderByDesc(AiReplyRecord::getId)
+                    .last("limit " + properties.getMaxOtherSamples())
+                    .list();
+            for (AiReplyRecord record : recordList) {
+                String text = TextNormalizeUtil.normalize(record.getMessage());
+                if (!text.isEmpty() && !positiveTexts.contains(text)) {
+                    data.samples.add(new IntentClassifier.Sample(text, IntentClassifier.OTHER, 1));
+                }
+            }
+        }
+        return data;
+    }
+
+    private static final class Entry {
+
+        private volatile Model model;
+
+        private final AtomicBoolean training = new AtomicBoolean();
+    }
+
+    private static final class Model {
+
+        private final IntentClassifier classifier;
+
+        /**
+         * 类别 -> 规则 id
+         */
+        private final List<Long> ruleIds;
+
+        /**
+         * 类别 -> 回复内容
+         */
+        private final List<WxReplyContentDTO> replies;
+
+        private final long builtAt = System.currentTimeMillis();
+
+        private Model(IntentClassifier classifier, List<Long> ruleIds, List<WxReplyContentDTO> replies) {
+            this.classifier = classifier;
+            this.ruleIds = ruleIds;
+            this.replies = replies;
+        }
+    }
+
+    private static final class TrainingData {
+
+        private final List<IntentClassifier.Sample> samples = new ArrayList<>();
+
+        private final List<Long> ruleIds = new ArrayList<>();
+
+        private final List<WxReplyContentDTO> replies = new ArrayList<>();
+    }
+}
@@ -0,0 +1,145 @@
+package com.yuyuan.wxmp.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把 span 按行写入本地 JSON 文件（每天一个文件），不依赖外部采集服务
+ * <p>
+ * 排查时按 openId 找到 wx.route span 的 traceId，再按 traceId 查出整条链路。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Slf4j
+public class JsonFileSpanExporter implements SpanExporter {
+
+    private static final String FILE_PREFIX = "spans-";
+
+    private static final String FILE_SUFFIX = ".jsonl";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Path dir;
+
+    private final int retentionDays;
+
+    private LocalDate currentDay;
+
+    private BufferedWriter writer;
+
+    public JsonFileSpanExporter(String dir, int retentionDays) {
+        this.dir = Paths.get(dir);
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            BufferedWriter out = this.writerOf(LocalDate.now());
+            for (SpanData span : spans) {
+                out.write(objectMapper.writeValueAsString(toMap(span)));
+                out.newLine();
+            }
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("链路数据写入失败，丢弃 {} 个 span：{}", spans.size(), e.getMessage());
+            this.closeWriter();
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        this.closeWriter();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private BufferedWriter writerOf(LocalDate day) throws IOException {
+        if (writer != null && day.equals(currentDay)) {
+            return writer;
+        }
+        this.closeWriter();
+        Files.createDirectories(dir);
+        writer = Files.newBufferedWriter(dir.resolve(FILE_PREFIX + day + FILE_SUFFIX), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentDay = day;
+        this.deleteExpired(day);
+        return writer;
+    }
+
+    private void deleteExpired(LocalDate today) {
+        LocalDate expireBefore = today.minusDays(retentionDays);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    LocalDate day = LocalDate.parse(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+                    if (day.isBefore(expireBefore)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (DateTimeParseException ignored) {
+                    // 不是本类生成的文件
+                }
+            }
+        } catch (IOException e) {
+            log.warn("清理过期链路文件失败：{}", e.getMessage());
+        }
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("关闭链路文件失败：{}", e.getMessage());
+        }
+        writer = null;
+    }
+
+    private static Map<String, Object> toMap(SpanData span) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("time", Instant.ofEpochSecond(0, span.getStartEpochNanos()).toString());
+        map.put("traceId", span.getTraceId());
+        map.put("spanId", span.getSpanId());
+        map.put("parentSpanId", span.getParentSpanId());
+        map.put("name", span.getName());
+        map.put("kind", span.getKind().name());
+        map.put("durationMicros", TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()));
+        map.put("status", span.getStatus().getStatusCode().name());
+        if (!span.getStatus().getDescription().isEmpty()) {
+            map.put("error", span.getStatus().getDescription());
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+        map.put("attributes", attributes);
+        return map;
+    }
+}
@@ -0,0 +1,326 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeChunkDTO;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeIndexFileDTO;
+import com.yuyuan.wxmp.model.vo.KnowledgePassageVO;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 单个公众号的知识库索引（向量 + BM25 混合检索）
+ * <p>
+ * 目录下两个文件：
+ * <ul>
+ *     <li>chunks.json：切片内容和构建时的知识库版本；</li>
+ *     <li>vectors.bin：切片向量，加载时内存映射，不占用堆内存。</li>
+ * </ul>
+ * 向量使用本地的字符 n-gram 特征哈希（不依赖外部 embedding 接口，检索全程在进程内完成），
+ * BM25 倒排索引在加载时根据切片内容构建。两路结果按排名做倒数融合（RRF）。
+ * <p>
+ * 加载后不可变，可以在多个线程中同时检索。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Slf4j
+public class KnowledgeIndex {
+
+    public static final int DIMENSION = 256;
+
+    private static final String CHUNKS_FILE = "chunks.json";
+
+    private static final String VECTORS_FILE = "vectors.bin";
+
+    /**
+     * "KNOW"
+     */
+    private static final int MAGIC = 0x4b4e4f57;
+
+    private static final int HEADER_BYTES = 16;
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private static final int RRF_K = 60;
+
+    /**
+     * 每一路参与融合的候选数
+     */
+    private static final int CANDIDATES = 50;
+
+    private final String revision;
+
+    private final List<KnowledgeChunkDTO> chunks;
+
+    private final FloatBuffer vectors;
+
+    /**
+     * 词 -> [切片下标, 词频, 切片下标, 词频, ...]
+     */
+    private final Map<Integer, int[]> postings;
+
+    private final int[] chunkLengths;
+
+    private final double averageLength;
+
+    private KnowledgeIndex(String revision, List<KnowledgeChunkDTO> chunks, FloatBuffer vectors) {
+        this.revision = revision;
+        this.chunks = chunks;
+        this.vectors = vectors;
+        this.chunkLengths = new int[chunks.size()];
+        Map<Integer, List<Integer>> builder = new HashMap<>();
+        long totalLength = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            int[] terms = terms(TextNormalizeUtil.normalize(chunks.get(i).getContent()));
+            chunkLengths[i] = terms.length;
+            totalLength += terms.length;
+            for (Map.Entry<Integer, Integer> entry : frequencies(terms).entrySet()) {
+                List<Integer> posting = builder.computeIfAbsent(entry.getKey(), key -> new ArrayList<>());
+                posting.add(i);
+                posting.add(entry.getValue());
+            }
+        }
+        this.averageLength = chunks.isEmpty() ? 0 : (double) totalLength / chunks.size();
+        this.postings = new HashMap<>(builder.size() * 2);
+        builder.forEach((term, posting) -> postings.put(term, posting.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * 构建索引并写入目录，写入完成后加载
+     *
+     * @param dir      索引目录
+     * @param revision 知识库版本
+     * @param chunks   切片
+     * @return {@link KnowledgeIndex}
+     */
+    public static KnowledgeIndex build(Path dir, String revision, List<KnowledgeChunkDTO> chunks) throws IOException {
+        Files.createDirectories(dir);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + chunks.size() * DIMENSION * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(DIMENSION).putInt(chunks.size()).putInt(revision.hashCode());
+        for (KnowledgeChunkDTO chunk : chunks) {
+            for (float value : embed(TextNormalizeUtil.normalize(chunk.getContent()))) {
+                buffer.putFloat(value);
+            }
+        }
+        buffer.flip();
+        Path vectorsTemp = dir.resolve(VECTORS_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(vectorsTemp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        KnowledgeIndexFileDTO file = new KnowledgeIndexFileDTO();
+        file.setRevision(revision);
+        file.setChunks(chunks);
+        Path chunksTemp = dir.resolve(CHUNKS_FILE + ".tmp");
+        Files.writeString(chunksTemp, JSONUtil.toJsonStr(file), StandardCharsets.UTF_8);
+        // 用重命名替换，正在使用旧文件映射的索引不受影响
+        Files.move(vectorsTemp, dir.resolve(VECTORS_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(chunksTemp, dir.resolve(CHUNKS_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return load(dir);
+    }
+
+    /**
+     * 从目录加载索引
+     *
+     * @param dir 索引目录
+     * @return {@link KnowledgeIndex}，文件不存在或不完整时返回 null
+     */
+    public static KnowledgeIndex load(Path dir) throws IOException {
+        Path chunksPath = dir.resolve(CHUNKS_FILE);
+        Path vectorsPath = dir.resolve(VECTORS_FILE);
+        if (!Files.exists(chunksPath) || !Files.exists(vectorsPath)) {
+            return null;
+        }
+        KnowledgeIndexFileDTO file = JSONUtil.toBean(Files.readString(chunksPath, StandardCharsets.UTF_8), KnowledgeIndexFileDTO.class);
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(vectorsPath, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        int count = file.getChunks().size();
+        if (mapped.capacity() < HEADER_BYTES
+                || mapped.getInt(0) != MAGIC
+                || mapped.getInt(4) != DIMENSION
+                || mapped.getInt(8) != count
+                || mapped.getInt(12) != file.getRevision().hashCode()
+                || mapped.capacity() != HEADER_BYTES + (long) count * DIMENSION * Float.BYTES) {
+            log.warn("知识库索引文件不完整，需要重新构建：{}", dir);
+            return null;
+        }
+        FloatBuffer vectors = mapped.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        return new KnowledgeIndex(file.getRevision(), file.getChunks(), vectors);
+    }
+
+    /**
+     * 检索
+     *
+     * @param query         用户问题
+     * @param topK          返回的切片数
+     * @param minSimilarity 向量检索的最低相似度
+     * @return 按相关性排序的切片
+     */
+    public List<KnowledgePassageVO> search(String query, int topK, double minSimilarity) {
+        String normalized = TextNormalizeUtil.normalize(query);
+        int size = chunks.size();
+        if (normalized.isEmpty() || size == 0) {
+            return List.of();
+        }
+        // 1、BM25
+        double[] bm25 = new double[size];
+        for (int term : frequencies(terms(normalized)).keySet()) {
+            int[] posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            int df = posting.length / 2;
+            double idf = Math.log(1 + (size - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < posting.length; i += 2) {
+                int chunk = posting[i];
+                int tf = posting[i + 1];
+                bm25[chunk] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * chunkLengths[chunk] / averageLength));
+            }
+        }
+        // 2、向量
+        float[] queryVector = embed(normalized);
+        double[] similarity = new double[size];
+        for (int i = 0, offset = 0; i < size; i++, offset += DIMENSION) {
+            double dot = 0;
+            for (int j = 0; j < DIMENSION; j++) {
+                dot += queryVector[j] * vectors.get(offset + j);
+            }
+            similarity[i] = dot;
+        }
+        // 3、按排名融合
+        double[] fused = new double[size];
+        int[] bm25Top = top(bm25, Double.MIN_VALUE, CANDIDATES);
+        int[] similarityTop = top(similarity, minSimilarity, CANDIDATES);
+        for (int rank = 0; rank < bm25Top.length; rank++) {
+            fused[bm25Top[rank]] += 1.0 / (RRF_K + rank + 1);
+        }
+        for (int rank = 0; rank < similarityTop.length; rank++) {
+            fused[similarityTop[rank]] += 1.0 / (RRF_K + rank + 1);
+        }
+        List<KnowledgePassageVO> passages = new ArrayList<>();
+        for (int index : top(fused, Double.MIN_VALUE, topK)) {
+            KnowledgeChunkDTO chunk = chunks.get(index);
+            KnowledgePassageVO passage = new KnowledgePassageVO();
+            passage.setDocumentId(chunk.getDocumentId());
+            passage.setTitle(chunk.getTitle());
+            passage.setContent(chunk.getContent());
+            passage.setBm25Score(bm25[index]);
+            passage.setSimilarity(similarity[index]);
+            passage.setScore(fused[index]);
+            passages.add(passage);
+        }
+        return passages;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * BM25 的词：字符 2-gram（只有一个字时为该字）
+     */
+    static int[] terms(String normalized) {
+        int length = normalized.length();
+        if (length == 1) {
+            return new int[]{normalized.charAt(0)};
+        }
+        int[] terms = new int[Math.max(length - 1, 0)];
+        for (int i = 0; i + 1 < length; i++) {
+            terms[i] = (normalized.charAt(i) << 16) | normalized.charAt(i + 1);
+        }
+        return terms;
+    }
+
+    /**
+     * 向量：字符 1-gram 和 2-gram 做带符号的特征哈希，再做 L2 归一化
+     */
+    static float[] embed(String normalized) {
+        float[] vector = new float[DIMENSION];
+        int length = normalized.length();
+        for (int i = 0; i < length; i++) {
+            addFeature(vector, normalized.charAt(i));
+            if (i + 1 < length) {
+                addFeature(vector, 0x9e3779b9 ^ ((normalized.charAt(i) << 16) | normalized.charAt(i + 1)));
+            }
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    private static void addFeature(float[] vector, int feature) {
+        int hash = feature * 0x85ebca6b;
+        hash ^= hash >>> 15;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 13;
+        vector[Math.floorMod(hash, DIMENSION)] += (hash & 0x40000000) == 0 ? 1 : -1;
+    }
+
+    private static Map<Integer, Integer> frequencies(int[] terms) {
+        Map<Integer, Integer> frequencies = new HashMap<>();
+        for (int term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    /**
+     * 得分不低于 min 的前 limit 个下标，按得分从高到低
+     */
+    private static int[] top(double[] scores, double min, int limit) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(scores[a], scores[b]));
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] < min) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(i);
+            } else if (scores[i] > scores[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll();
+        }
+        return result;
+    }
+}
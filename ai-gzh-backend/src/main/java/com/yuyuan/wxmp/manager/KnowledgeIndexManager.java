@@ -0,0 +1,173 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.mapper.KnowledgeDocumentMapper;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeChunkDTO;
+import com.yuyuan.wxmp.model.entity.KnowledgeDocument;
+import com.yuyuan.wxmp.model.vo.KnowledgePassageVO;
+import com.yuyuan.wxmp.utils.TextChunkUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 公众号知识库索引管理
+ * <p>
+ * 文档保存在数据库中，每个节点在本地磁盘上各自构建索引。第一次检索某个公众号时异步加载本地索引，
+ * 之后定期比对数据库中的知识库版本，有变化时异步重新构建。索引就绪前检索直接返回空，不阻塞消息处理。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class KnowledgeIndexManager {
+
+    private final KnowledgeDocumentMapper knowledgeDocumentMapper;
+
+    private final WxMpProperties.Knowledge properties;
+
+    private final Map<String, Entry> entryMap = new ConcurrentHashMap<>();
+
+    private final ExecutorService buildExecutor;
+
+    public KnowledgeIndexManager(KnowledgeDocumentMapper knowledgeDocumentMapper, WxMpProperties wxMpProperties) {
+        this.knowledgeDocumentMapper = knowledgeDocumentMapper;
+        this.properties = wxMpProperties.getKnowledge();
+        this.buildExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadFactoryBuilder.create().setNamePrefix("knowledge-index-").build());
+    }
+
+    /**
+     * 检索公众号知识库
+     *
+     * @param appId appId
+     * @param query 用户问题
+     * @return 相关切片，索引未就绪或没有相关内容时为空
+     */
+    public List<KnowledgePassageVO> search(String appId, String query) {
+        if (!properties.isEnabled() || StringUtils.isBlank(query)) {
+            return List.of();
+        }
+        Entry entry = entryMap.computeIfAbsent(appId, key -> new Entry());
+        if (System.currentTimeMillis() - entry.checkedAt > TimeUnit.SECONDS.toMillis(properties.getCheckIntervalSeconds())) {
+            this.scheduleRefresh(appId, entry);
+        }
+        KnowledgeIndex index = entry.index;
+        if (index == null) {
+            return List.of();
+        }
+        return index.search(query, properties.getTopK(), properties.getMinSimilarity());
+    }
+
+    /**
+     * 把检索结果拼成提示词
+     *
+     * @param passages 检索结果
+     * @return 提示词，没有检索结果时为空字符串
+     */
+    public String buildContext(List<KnowledgePassageVO> passages) {
+        if (passages.isEmpty()) {
+            return "";
+        }
+        StringBuilder context = new StringBuilder("\n以下是与用户问题相关的资料，请优先根据资料回答，资料中没有的内容不要编造：\n");
+        int index = 1;
+        for (KnowledgePassageVO passage : passages) {
+            String item = String.format("[%d]《%s》%s\n", index++, passage.getTitle(), passage.getContent());
+            if (context.length() + item.length() > properties.getMaxContextChars()) {
+                break;
+            }
+            context.append(item);
+        }
+        return context.toString();
+    }
+
+    /**
+     * 知识库有变化，下一次检索时检查版本
+     *
+     * @param appId appId
+     */
+    public void invalidate(String appId) {
+        Entry entry = entryMap.get(appId);
+        if (entry != null) {
+            entry.checkedAt = 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buildExecutor.shutdownNow();
+    }
+
+    private void scheduleRefresh(String appId, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buildExecutor.execute(() -> {
+                try {
+                    this.refresh(appId, entry);
+                } catch (Exception e) {
+                    log.error("知识库索引刷新失败 - appId: {}", appId, e);
+                } finally {
+                    entry.checkedAt = System.currentTimeMillis();
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void refresh(String appId, Entry entry) throws Exception {
+        Path dir = Paths.get(properties.getIndexDir(), appId);
+        if (entry.index == null) {
+            // 先用本地已有的索引，即使版本旧一些也比没有好
+            entry.index = KnowledgeIndex.load(dir);
+        }
+        String revision = knowledgeDocumentMapper.selectRevision(appId);
+        if (entry.index != null && Objects.equals(entry.index.getRevision(), revision)) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        List<KnowledgeDocument> documentList = knowledgeDocumentMapper.selectList(
+                Wrappers.lambdaQuery(KnowledgeDocument.class).eq(KnowledgeDocument::getAppId, appId)
+        );
+        List<KnowledgeChunkDTO> chunks = new ArrayList<>();
+        for (KnowledgeDocument document : documentList) {
+            for (String content : TextChunkUtil.split(document.getContent(), properties.getChunkSize(), properties.getChunkOverlap())) {
+                chunks.add(new KnowledgeChunkDTO(document.getId(), document.getTitle(), content));
+            }
+        }
+        entry.index = KnowledgeIndex.build(dir, revision, chunks);
+        log.info("知识库索引构建完成 - appId: {}, 文档数: {}, 切片数: {}, 耗时: {}ms",
+                appId, documentList.size(), chunks.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private static final class Entry {
+
+        private volatile KnowledgeIndex index;
+
+        private volatile long checkedAt;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+    }
+}
@@ -0,0 +1,58 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.RedisConstant;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 微信消息排重
+ * <p>
+ * 普通消息按 appId:MsgId、事件按 appId:FromUser:CreateTime 在 Redis 中占位，
+ * 微信重试、队列写入确认超时后改为直接处理等情况下同一条消息只处理一次（跨节点有效）。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class MessageDedupeManager {
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final WxMpProperties.Ingest properties;
+
+    public MessageDedupeManager(RedisTemplate<String, String> redisTemplate, WxMpProperties wxMpProperties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = wxMpProperties.getIngest();
+    }
+
+    /**
+     * 占位，第一次处理该消息时返回 true
+     *
+     * @param appId   appId
+     * @param message 消息
+     * @return 是否需要处理
+     */
+    public boolean tryAcquire(String appId, WxMpXmlMessage message) {
+        if (properties.getDedupeSeconds() <= 0) {
+            return true;
+        }
+        String key = RedisConstant.MESSAGE_DEDUPE_KEY_PREFIX + appId + ":" + (message.getMsgId() != null
+                ? message.getMsgId()
+                : message.getFromUser() + ":" + message.getCreateTime());
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(key, "1", Duration.ofSeconds(properties.getDedupeSeconds()));
+            return !Boolean.FALSE.equals(acquired);
+        } catch (Exception e) {
+            // Redis 不可用时照常处理，宁可重复回复也不丢消息
+            log.warn("微信消息排重失败，照常处理：key={}, {}", key, e.toString());
+            return true;
+        }
+    }
+}
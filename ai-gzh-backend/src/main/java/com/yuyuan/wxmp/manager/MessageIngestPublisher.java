@@ -0,0 +1,73 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MqConstant;
+import com.yuyuan.wxmp.model.dto.wxmpmessage.WxInboundMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 微信消息写入分区队列
+ * <p>
+ * 等待 broker 确认后才算写入成功，未确认、超时或发送失败时由调用方改为直接处理，微信回调返回后消息不会丢失。
+ * 超时时消息可能已经写入队列，处理节点和回调两条路径由 {@link MessageDedupeManager} 排重，只有一方回复。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class MessageIngestPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final WxMpProperties.Ingest properties;
+
+    public MessageIngestPublisher(RabbitTemplate rabbitTemplate, WxMpProperties wxMpProperties) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = wxMpProperties.getIngest();
+    }
+
+    /**
+     * 是否使用队列接收
+     *
+     * @return 是否开启
+     */
+    public boolean isEnabled() {
+        return properties.isQueueMode();
+    }
+
+    /**
+     * 写入分区队列，routing key 为 appId:openId
+     *
+     * @param message 回调
+     * @return 是否已被 broker 确认
+     */
+    public boolean publish(WxInboundMessage message) {
+        CorrelationData correlationData = new CorrelationData(UUID.randomUUID().toString());
+        try {
+            rabbitTemplate.convertAndSend(MqConstant.MESSAGE_INGEST_EXCHANGE,
+                    message.getAppId() + ":" + message.getOpenId(), message, correlationData);
+            CorrelationData.Confirm confirm = correlationData.getFuture()
+                    .get(properties.getConfirmTimeoutMillis(), TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                log.warn("微信消息写入队列未被确认，改为直接处理：appId={}, 原因：{}", message.getAppId(), confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (AmqpException | ExecutionException | TimeoutException e) {
+            log.warn("微信消息写入队列失败，改为直接处理：appId={}, {}", message.getAppId(), e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
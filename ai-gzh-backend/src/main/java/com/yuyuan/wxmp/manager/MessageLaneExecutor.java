@@ -0,0 +1,178 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 按 appId + openId 分通道的消息执行器
+ * <p>
+ * 同一个粉丝的消息固定进入同一个通道，通道内按提交顺序串行执行，不同通道之间并行。
+ * 通道本身不占用线程，有任务时才提交到共享线程池，通过 CAS 标记保证同一时刻只有一个线程在消费，整个过程无锁。
+ * <p>
+ * 只保证单个节点内的顺序，多节点时需要由上游按 appId + openId 把消息路由到同一个节点。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class MessageLaneExecutor {
+
+    /**
+     * 通道每次最多连续执行的任务数，执行完后让出线程，避免单个通道长期占用
+     */
+    private static final int DRAIN_BATCH_SIZE = 16;
+
+    private final Lane[] lanes;
+
+    private final int maxPendingPerLane;
+
+    private final ExecutorService executor;
+
+    private final TraceManager traceManager;
+
+    public MessageLaneExecutor(WxMpProperties wxMpProperties, TraceManager traceManager) {
+        this.traceManager = traceManager;
+        WxMpProperties.Lane laneProperties = wxMpProperties.getLane();
+        this.maxPendingPerLane = laneProperties.getMaxPendingPerLane();
+        this.lanes = new Lane[laneProperties.getLaneCount()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+        // 排队的最多是有任务的通道，数量不超过通道数
+        this.executor = new ThreadPoolExecutor(
+                laneProperties.getThreads(), laneProperties.getThreads(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                ThreadFactoryBuilder.create().setNamePrefix("message-lane-").build()
+        );
+    }
+
+    /**
+     * 提交任务到 appId + openId 对应的通道
+     *
+     * @param appId  appId
+     * @param openId 粉丝 openId
+     * @param task   任务
+     * @return 任务结果
+     * @throws RejectedExecutionException 通道排队已满或执行器已关闭
+     */
+    public <T> CompletableFuture<T> submit(String appId, String openId, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Lane lane = lanes[this.laneIndex(appId, openId)];
+        // 通道线程继续使用提交时的链路
+        Supplier<T> tracedTask = traceManager.wrap(task);
+        lane.enqueue(() -> {
+            try {
+                future.complete(tracedTask.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 当前所有通道排队中（含执行中）的任务数
+     *
+     * @return 任务数
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (Lane lane : lanes) {
+            count += lane.pending.get();
+        }
+        return count;
+    }
+
+    int laneIndex(String appId, String openId) {
+        int hash = 31 * appId.hashCode() + openId.hashCode();
+        // 打散低位，避免 openId 前缀相同时集中到少数通道
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("消息通道执行器关闭超时，仍有 {} 条消息未处理", this.getPendingCount());
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private void enqueue(Runnable task) {
+            if (pending.incrementAndGet() > maxPendingPerLane) {
+                pending.decrementAndGet();
+                throw new RejectedExecutionException("消息通道排队已满");
+            }
+            tasks.offer(task);
+            try {
+                this.schedule();
+            } catch (RejectedExecutionException e) {
+                if (tasks.remove(task)) {
+                    pending.decrementAndGet();
+                }
+                throw e;
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable task;
+            int executed = 0;
+            while (executed < DRAIN_BATCH_SIZE && (task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    log.error("消息通道任务执行失败", e);
+                } finally {
+                    pending.decrementAndGet();
+                }
+                executed++;
+            }
+            scheduled.set(false);
+            // 释放标记后再检查一次，避免与刚入队的任务错过调度
+            if (!tasks.isEmpty()) {
+                try {
+                    this.schedule();
+                } catch (RejectedExecutionException e) {
+                    log.warn("消息通道执行器已关闭，丢弃 {} 条消息", tasks.size());
+                }
+            }
+        }
+    }
+}
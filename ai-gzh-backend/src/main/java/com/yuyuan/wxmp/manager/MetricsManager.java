@@ -0,0 +1,65 @@
+package com.yuyuan.wxmp.manager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监控指标记录
+ * <p>
+ * 指标按名称 + tag 缓存在 MeterRegistry 中，tag 取值需要是有限的（appId、路由名、结果等），不要放消息内容、openId。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsManager {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 记录从 startNanos 到现在的耗时
+     *
+     * @param name       指标名称
+     * @param startNanos 开始时间（System.nanoTime()）
+     * @param tags       tag，按 key、value 依次排列，value 为空时记为 none
+     */
+    public void recordSince(String name, long startNanos, String... tags) {
+        meterRegistry.timer(name, normalize(tags)).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录耗时
+     *
+     * @param name   指标名称
+     * @param millis 耗时（毫秒）
+     * @param tags   tag，按 key、value 依次排列，value 为空时记为 none
+     */
+    public void recordMillis(String name, long millis, String... tags) {
+        meterRegistry.timer(name, normalize(tags)).record(Math.max(millis, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 计数加一
+     *
+     * @param name 指标名称
+     * @param tags tag，按 key、value 依次排列，value 为空时记为 none
+     */
+    public void increment(String name, String... tags) {
+        meterRegistry.counter(name, normalize(tags)).increment();
+    }
+
+    private static String[] normalize(String[] tags) {
+        for (int i = 0; i < tags.length; i++) {
+            if (tags[i] == null || tags[i].isEmpty()) {
+                tags[i] = NONE;
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,224 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.model.dto.aireplysuggestion.AiReplySuggestionStatsDTO;
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+import com.yuyuan.wxmp.model.enums.AiReplySuggestionStatusEnum;
+import com.yuyuan.wxmp.utils.MinHashUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个公众号的相似问题聚类索引（MinHash + LSH）
+ * <p>
+ * 用已有的回复规则建议初始化，之后逐条加入问题：与已有簇相似度达到阈值时计入该簇，否则新建一个簇。
+ * 已采纳、已忽略的簇同样参与匹配，避免同一类问题被反复建议。非线程安全。
+ * <p>
+ * 已有建议可以不带统计信息加载（只需要签名和出现次数），本次有变化的簇在保存前通过 {@link #mergeStatistics} 合并已保存的统计，
+ * 避免每次挖掘把所有建议的统计 json 读入内存。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class QuestionClusterIndex {
+
+    private final String appId;
+
+    private final double similarity;
+
+    private final int maxStatsSize;
+
+    private final List<Cluster> clusters = new ArrayList<>();
+
+    private final Map<Long, List<Cluster>> buckets = new HashMap<>();
+
+    private final Map<Long, Cluster> clusterById = new HashMap<>();
+
+    /**
+     * @param appId        appId
+     * @param similarity   判定为同一类问题的相似度阈值
+     * @param maxStatsSize 每个簇最多保留的问法、回复数量，超出后只保留出现次数最多的
+     * @param suggestions  已有的回复规则建议
+     */
+    public QuestionClusterIndex(String appId, double similarity, int maxStatsSize, List<AiReplySuggestion> suggestions) {
+        this.appId = appId;
+        this.similarity = similarity;
+        this.maxStatsSize = maxStatsSize;
+        for (AiReplySuggestion suggestion : suggestions) {
+            int[] signature = MinHashUtil.decode(suggestion.getSignature());
+            if (signature == null) {
+                continue;
+            }
+            // 没有带统计信息加载的簇先只记录本次新增的问法、回复，保存前再合并
+            boolean statsLoaded = StringUtils.isNotBlank(suggestion.getStatistics());
+            AiReplySuggestionStatsDTO stats = statsLoaded
+                    ? JSONUtil.toBean(suggestion.getStatistics(), AiReplySuggestionStatsDTO.class)
+                    : new AiReplySuggestionStatsDTO();
+            Cluster cluster = new Cluster(suggestion, signature, stats, statsLoaded);
+            this.index(cluster);
+            if (suggestion.getId() != null) {
+                clusterById.put(suggestion.getId(), cluster);
+            }
+        }
+    }
+
+    /**
+     * 加入一条问答
+     *
+     * @param normalized 归一化后的问题
+     * @param question   原始问题
+     * @param reply      回复
+     */
+    public void add(String normalized, String question, String reply) {
+        int[] signature = MinHashUtil.signature(normalized);
+        Cluster cluster = this.findSimilar(signature);
+        if (cluster == null) {
+            AiReplySuggestion suggestion = new AiReplySuggestion();
+            suggestion.setAppId(appId);
+            suggestion.setHitCount(0);
+            suggestion.setStatus(AiReplySuggestionStatusEnum.PENDING.getValue());
+            suggestion.setSignature(MinHashUtil.encode(signature));
+            cluster = new Cluster(suggestion, signature, new AiReplySuggestionStatsDTO(), true);
+            this.index(cluster);
+        }
+        cluster.changed = true;
+        cluster.suggestion.setHitCount(cluster.suggestion.getHitCount() + 1);
+        this.increment(cluster.stats.getQuestions(), question, 1);
+        this.increment(cluster.stats.getReplies(), reply, 1);
+    }
+
+    /**
+     * 获取本次有变化、但加载时没有带统计信息的建议 id，需要在 {@link #getChangedSuggestions} 之前合并已保存的统计
+     *
+     * @return 建议 id
+     */
+    public List<Long> getChangedIdsWithoutStatistics() {
+        List<Long> ids = new ArrayList<>();
+        for (Cluster cluster : clusters) {
+            if (cluster.changed && !cluster.statsLoaded && cluster.suggestion.getId() != null) {
+                ids.add(cluster.suggestion.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 把已保存的统计合并到本次新增的问法、回复中
+     *
+     * @param id         建议 id
+     * @param statistics 已保存的统计（json）
+     */
+    public void mergeStatistics(Long id, String statistics) {
+        Cluster cluster = clusterById.get(id);
+        if (cluster == null || cluster.statsLoaded) {
+            return;
+        }
+        cluster.statsLoaded = true;
+        if (StringUtils.isBlank(statistics)) {
+            return;
+        }
+        AiReplySuggestionStatsDTO stored = JSONUtil.toBean(statistics, AiReplySuggestionStatsDTO.class);
+        stored.getQuestions().forEach((text, count) -> this.increment(cluster.stats.getQuestions(), text, count));
+        stored.getReplies().forEach((text, count) -> this.increment(cluster.stats.getReplies(), text, count));
+    }
+
+    /**
+     * 获取本次有变化的建议，问法、回复和统计已更新
+     *
+     * @return {@link List}<{@link AiReplySuggestion}>
+     */
+    public List<AiReplySuggestion> getChangedSuggestions() {
+        List<AiReplySuggestion> changed = new ArrayList<>();
+        for (Cluster cluster : clusters) {
+            if (!cluster.changed) {
+                continue;
+            }
+            AiReplySuggestion suggestion = cluster.suggestion;
+            Map.Entry<String, Integer> topQuestion = this.top(cluster.stats.getQuestions());
+            Map.Entry<String, Integer> topReply = this.top(cluster.stats.getReplies());
+            suggestion.setQuestion(topQuestion.getKey());
+            suggestion.setReplyMessage(topReply.getKey());
+            suggestion.setReplyCount(topReply.getValue());
+            suggestion.setStatistics(JSONUtil.toJsonStr(cluster.stats));
+            changed.add(suggestion);
+        }
+        return changed;
+    }
+
+    private Cluster findSimilar(int[] signature) {
+        Cluster best = null;
+        double bestSimilarity = similarity;
+        for (long key : MinHashUtil.bandKeys(signature)) {
+            List<Cluster> candidates = buckets.get(key);
+            if (candidates == null) {
+                continue;
+            }
+            for (Cluster candidate : candidates) {
+                double value = MinHashUtil.similarity(signature, candidate.signature);
+                if (value >= bestSimilarity) {
+                    best = candidate;
+                    bestSimilarity = value;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void index(Cluster cluster) {
+        clusters.add(cluster);
+        for (long key : MinHashUtil.bandKeys(cluster.signature)) {
+            buckets.computeIfAbsent(key, k -> new ArrayList<>(1)).add(cluster);
+        }
+    }
+
+    private void increment(Map<String, Integer> counts, String text, int count) {
+        counts.merge(text, count, Integer::sum);
+        if (counts.size() > maxStatsSize * 2) {
+            // 只保留出现次数最多的，长尾的问法和回复对结果没有影响
+            Map<String, Integer> kept = new LinkedHashMap<>();
+            counts.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(maxStatsSize)
+                    .forEach(entry -> kept.put(entry.getKey(), entry.getValue()));
+            counts.clear();
+            counts.putAll(kept);
+        }
+    }
+
+    private Map.Entry<String, Integer> top(Map<String, Integer> counts) {
+        return counts.entrySet()
+                .stream()
+                .max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .orElse(Map.entry("", 0));
+    }
+
+    private static final class Cluster {
+
+        private final AiReplySuggestion suggestion;
+
+        private final int[] signature;
+
+        private final AiReplySuggestionStatsDTO stats;
+
+        private boolean changed;
+
+        /**
+         * stats 是否包含已保存的统计，为 false 时只有本次新增的部分
+         */
+        private boolean statsLoaded;
+
+        private Cluster(AiReplySuggestion suggestion, int[] signature, AiReplySuggestionStatsDTO stats, boolean statsLoaded) {
+            this.suggestion = suggestion;
+            this.signature = signature;
+            this.stats = stats;
+            this.statsLoaded = statsLoaded;
+        }
+    }
+}
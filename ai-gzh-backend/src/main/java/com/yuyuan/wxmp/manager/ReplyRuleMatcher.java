@@ -0,0 +1,369 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.extra.pinyin.PinyinUtil;
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyMatchValueDTO;
+import com.yuyuan.wxmp.model.entity.WxReplyKeyword;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.enums.WxReplyMatchTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 关键字回复规则匹配器（按公众号预编译）
+ * <p>
+ * 加载规则时一次性解析关键字和回复内容，并预先计算拼音、正则（归一化文本由关键字表提供），
+ * 匹配时每条消息只归一化一次，拼音只在有拼音规则时才计算。
+ * <p>
+ * 规则按传入顺序匹配（更新时间倒序），第一个命中的规则生效；都没命中时随机返回一个默认回复。
+ * 关注回复也在这里预先解析，关注事件直接随机取一个，不再查库。
+ * 构建完成后不可变，可以在多个线程中同时匹配。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Slf4j
+public class ReplyRuleMatcher {
+
+    /**
+     * 拼音之间的分隔符，匹配时前后补上，避免跨音节误命中（如 "xian" 命中 "xi an"）
+     */
+    private static final String PINYIN_SEPARATOR = " ";
+
+    private final List<CompiledRule> keywordRules;
+
+    /**
+     * 默认回复和关注回复都是编译时解析好的数组，随机选择时不再解析 json
+     */
+    private final WxReplyContentDTO[] defaultReplies;
+
+    private final WxReplyContentDTO[] subscribeReplies;
+
+    private final boolean needPinyin;
+
+    private final int regexMaxSteps;
+
+    private ReplyRuleMatcher(List<CompiledRule> keywordRules, WxReplyContentDTO[] defaultReplies,
+                             WxReplyContentDTO[] subscribeReplies, int regexMaxSteps) {
+        this.keywordRules = keywordRules;
+        this.defaultReplies = defaultReplies;
+        this.subscribeReplies = subscribeReplies;
+        this.regexMaxSteps = regexMaxSteps;
+        this.needPinyin = keywordRules.stream()
+                .flatMap(rule -> rule.keywords.stream())
+                .anyMatch(keyword -> keyword.type == WxReplyMatchTypeEnum.PINYIN);
+    }
+
+    /**
+     * 编译规则
+     *
+     * @param rules            关键字规则、默认规则和关注回复规则，按匹配优先级排序
+     * @param keywords         关键字表中的关键字（已归一化），没有关键字的规则回退为解析 matchValue
+     * @param maxFuzzyDistance 容错匹配允许的最大编辑距离
+     * @param regexMaxSteps    单个正则单条消息最多读取的字符次数，超过视为未命中，避免回溯过多拖慢回复
+     * @return 匹配器
+     */
+    public static ReplyRuleMatcher compile(List<WxReplyRule> rules, List<WxReplyKeyword> keywords,
+                                           int maxFuzzyDistance, int regexMaxSteps) {
+        Map<Long, List<WxReplyKeyword>> ruleKeywordMap = keywords.stream()
+                .collect(Collectors.groupingBy(WxReplyKeyword::getRuleId));
+        List<CompiledRule> keywordRules = new ArrayList<>();
+        List<WxReplyContentDTO> defaultReplies = new ArrayList<>();
+        List<WxReplyContentDTO> subscribeReplies = new ArrayList<>();
+        for (WxReplyRule rule : rules) {
+            try {
+                WxReplyContentDTO replyContent = JSONUtil.toBean(rule.getReplyContent(), WxReplyContentDTO.class);
+                if (WxReplyRuleTypeEnum.DEFAULT.getValue().equals(rule.getReplyType())) {
+                    defaultReplies.add(replyContent);
+                    continue;
+                }
+                if (WxReplyRuleTypeEnum.SUBSCRIBE.getValue().equals(rule.getReplyType())) {
+                    subscribeReplies.add(replyContent);
+                    continue;
+                }
+                if (!WxReplyRuleTypeEnum.KEYWORDS.getValue().equals(rule.getReplyType())) {
+                    continue;
+                }
+                List<CompiledKeyword> compiledKeywords = new ArrayList<>();
+                List<WxReplyKeyword> ruleKeywords = ruleKeywordMap.get(rule.getId());
+                if (ruleKeywords != null) {
+                    for (WxReplyKeyword keyword : ruleKeywords) {
+                        addKeyword(compiledKeywords, keyword.getMatchType(), keyword.getKeyword(), keyword.getNormalized(), maxFuzzyDistance);
+                    }
+                } else {
+                    for (WxReplyMatchValueDTO matchValue : JSONUtil.toList(rule.getMatchValue(), WxReplyMatchValueDTO.class)) {
+                        String raw = matchValue.getMatchKeyWords();
+                        addKeyword(compiledKeywords, matchValue.getMatchType(), raw, TextNormalizeUtil.normalize(raw), maxFuzzyDistance);
+                    }
+                }
+                if (!compiledKeywords.isEmpty()) {
+                    keywordRules.add(new CompiledRule(compiledKeywords, replyContent));
+                }
+            } catch (Exception e) {
+                log.warn("解析回复规则失败，已跳过：规则ID={}, matchValue={}, 错误={}", rule.getId(), rule.getMatchValue(), e.getMessage());
+            }
+        }
+        return new ReplyRuleMatcher(keywordRules, defaultReplies.toArray(new WxReplyContentDTO[0]),
+                subscribeReplies.toArray(new WxReplyContentDTO[0]), regexMaxSteps);
+    }
+
+    /**
+     * 编译正则关键字
+     *
+     * @param regex 正则表达式
+     * @return {@link Pattern}
+     * @throws java.util.regex.PatternSyntaxException 正则不合法
+     */
+    public static Pattern compileRegex(String regex) {
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    /**
+     * 匹配回复：先匹配关键字规则，都没命中时随机返回一个默认回复
+     *
+     * @param msg 用户消息
+     * @return 回复内容，没有关键字规则命中且没有默认规则时返回 null
+     */
+    public WxReplyContentDTO match(String msg) {
+        CompiledRule rule = this.matchRule(msg);
+        if (rule != null) {
+            return rule.replyContent;
+        }
+        return randomOf(defaultReplies);
+    }
+
+    /**
+     * 随机返回一个关注回复
+     *
+     * @return 回复内容，没有关注回复规则时返回 null
+     */
+    public WxReplyContentDTO subscribeReply() {
+        return randomOf(subscribeReplies);
+    }
+
+    private static WxReplyContentDTO randomOf(WxReplyContentDTO[] replies) {
+        return switch (replies.length) {
+            case 0 -> null;
+            case 1 -> replies[0];
+            default -> replies[ThreadLocalRandom.current().nextInt(replies.length)];
+        };
+    }
+
+    private CompiledRule matchRule(String msg) {
+        if (msg == null || keywordRules.isEmpty()) {
+            return null;
+        }
+        Message message = new Message(msg);
+        for (CompiledRule rule : keywordRules) {
+            for (CompiledKeyword keyword : rule.keywords) {
+                if (this.matches(keyword, message)) {
+                    return rule;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(CompiledKeyword keyword, Message message) {
+        return switch (keyword.type) {
+            case ALL -> keyword.raw.equalsIgnoreCase(message.raw);
+            case LIKE -> message.lowerCase().contains(keyword.lowerCase);
+            case NORMALIZED -> message.normalized().contains(keyword.normalized);
+            case PINYIN -> keyword.pinyin != null && message.pinyin() != null && message.pinyin().contains(keyword.pinyin);
+            case FUZZY -> withinDistance(keyword.normalized, message.normalized(), keyword.maxDistance);
+            case REGEX -> this.find(keyword, message.raw);
+        };
+    }
+
+    private boolean find(CompiledKeyword keyword, String msg) {
+        try {
+            return keyword.pattern.matcher(new BoundedCharSequence(msg, regexMaxSteps)).find();
+        } catch (RegexTimeoutException e) {
+            log.warn("正则关键字匹配超过 {} 步，视为未命中：{}", regexMaxSteps, keyword.raw);
+            return false;
+        }
+    }
+
+    private static void addKeyword(List<CompiledKeyword> compiledKeywords, Integer matchType, String raw,
+                                   String normalized, int maxFuzzyDistance) {
+        WxReplyMatchTypeEnum type = WxReplyMatchTypeEnum.getEnumByValue(matchType);
+        if (StringUtils.isBlank(raw) || type == null) {
+            return;
+        }
+        if (normalized.isEmpty() && (type == WxReplyMatchTypeEnum.NORMALIZED
+                || type == WxReplyMatchTypeEnum.PINYIN || type == WxReplyMatchTypeEnum.FUZZY)) {
+            // 关键字全是标点，归一化后为空，会命中所有消息
+            return;
+        }
+        String pinyin = type == WxReplyMatchTypeEnum.PINYIN ? toPinyin(normalized) : null;
+        Pattern pattern = type == WxReplyMatchTypeEnum.REGEX ? compileRegex(raw) : null;
+        compiledKeywords.add(new CompiledKeyword(type, raw, raw.toLowerCase(), normalized, pinyin, pattern,
+                fuzzyDistance(normalized.length(), maxFuzzyDistance)));
+    }
+
+    /**
+     * 容错匹配允许的编辑距离：3 个字以内不容错，4 ~ 7 个字容错 1 个，8 个字以上容错 2 个
+     */
+    static int fuzzyDistance(int length, int maxFuzzyDistance) {
+        return Math.min(length / 4, maxFuzzyDistance);
+    }
+
+    /**
+     * 转为以空格分隔、前后带空格的拼音，拼音引擎不可用时返回 null
+     */
+    static String toPinyin(String normalized) {
+        try {
+            return PINYIN_SEPARATOR + PinyinUtil.getPinyin(normalized, PINYIN_SEPARATOR) + PINYIN_SEPARATOR;
+        } catch (Exception e) {
+            log.warn("拼音转换失败，拼音匹配不生效：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * text 中是否存在与 pattern 的编辑距离不超过 maxDistance 的子串（Sellers 算法，O(m * n)）
+     *
+     * @param pattern     关键字
+     * @param text        消息
+     * @param maxDistance 最大编辑距离
+     * @return 是否命中
+     */
+    static boolean withinDistance(String pattern, String text, int maxDistance) {
+        if (maxDistance <= 0) {
+            return text.contains(pattern);
+        }
+        int m = pattern.length();
+        if (m <= maxDistance) {
+            return true;
+        }
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            previous[i] = i;
+        }
+        for (int j = 0; j < text.length(); j++) {
+            char c = text.charAt(j);
+            // 子串可以从任意位置开始，所以第 0 行始终为 0
+            current[0] = 0;
+            for (int i = 1; i <= m; i++) {
+                int substitute = previous[i - 1] + (pattern.charAt(i - 1) == c ? 0 : 1);
+                current[i] = Math.min(substitute, Math.min(previous[i], current[i - 1]) + 1);
+            }
+            if (current[m] <= maxDistance) {
+                return true;
+            }
+            int[] temp = previous;
+            previous = current;
+            current = temp;
+        }
+        return false;
+    }
+
+    private record CompiledRule(List<CompiledKeyword> keywords, WxReplyContentDTO replyContent) {
+    }
+
+    private record CompiledKeyword(WxReplyMatchTypeEnum type, String raw, String lowerCase, String normalized,
+                                   String pinyin, Pattern pattern, int maxDistance) {
+    }
+
+    /**
+     * 单条消息的各种形式，按需计算且只计算一次
+     */
+    private final class Message {
+
+        private final String raw;
+
+        private String lowerCase;
+
+        private String normalized;
+
+        private String pinyin;
+
+        private boolean pinyinComputed;
+
+        private Message(String raw) {
+            this.raw = raw;
+        }
+
+        private String lowerCase() {
+            if (lowerCase == null) {
+                lowerCase = raw.toLowerCase();
+            }
+            return lowerCase;
+        }
+
+        private String normalized() {
+            if (normalized == null) {
+                normalized = TextNormalizeUtil.normalize(raw);
+            }
+            return normalized;
+        }
+
+        private String pinyin() {
+            if (!pinyinComputed && needPinyin) {
+                pinyin = toPinyin(this.normalized());
+                pinyinComputed = true;
+            }
+            return pinyin;
+        }
+    }
+
+    /**
+     * 限制读取次数的字符序列，正则回溯过多时中断匹配
+     */
+    private static final class BoundedCharSequence implements CharSequence {
+
+        private final CharSequence delegate;
+
+        private final int[] remaining;
+
+        private BoundedCharSequence(CharSequence delegate, int maxSteps) {
+            this(delegate, new int[]{maxSteps});
+        }
+
+        private BoundedCharSequence(CharSequence delegate, int[] remaining) {
+            this.delegate = delegate;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remaining[0] < 0) {
+                throw new RegexTimeoutException();
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BoundedCharSequence(delegate.subSequence(start, end), remaining);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private static final class RegexTimeoutException extends RuntimeException {
+
+        private RegexTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+}
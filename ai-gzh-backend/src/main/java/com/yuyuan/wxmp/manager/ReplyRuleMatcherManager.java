@@ -0,0 +1,217 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MqConstant;
+import com.yuyuan.wxmp.mapper.WxReplyKeywordMapper;
+import com.yuyuan.wxmp.mapper.WxReplyRuleMapper;
+import com.yuyuan.wxmp.model.entity.WxReplyKeyword;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 关键字回复规则匹配器缓存（按公众号）
+ * <p>
+ * 规则变更时本节点直接失效，并通过广播消息通知其他节点失效；消息丢失时按 refreshSeconds 定期重新加载兜底。
+ * <p>
+ * 启动时一次性预热所有公众号；失效和过期后都在后台线程重新加载，过期期间继续使用旧的匹配器，
+ * 消息和关注事件处理只有在公众号第一次出现或刚失效时才会同步查库。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class ReplyRuleMatcherManager {
+
+    private final WxReplyRuleMapper wxReplyRuleMapper;
+
+    private final WxReplyKeywordMapper wxReplyKeywordMapper;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final WxMpProperties.Matcher properties;
+
+    private final Map<String, Entry> entryMap = new ConcurrentHashMap<>();
+
+    /**
+     * 最近一次失效的时间（nanoTime），失效前开始加载的匹配器不再使用，避免并发加载把旧规则写回缓存
+     */
+    private final Map<String, Long> invalidatedMap = new ConcurrentHashMap<>();
+
+    /**
+     * 正在后台加载的公众号，避免重复提交
+     */
+    private final Set<String> refreshingSet = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), ThreadFactoryBuilder.create().setNamePrefix("reply-rule-refresh-").build());
+
+    public ReplyRuleMatcherManager(WxReplyRuleMapper wxReplyRuleMapper, WxReplyKeywordMapper wxReplyKeywordMapper,
+                                   RabbitTemplate rabbitTemplate, WxMpProperties wxMpProperties) {
+        this.wxReplyRuleMapper = wxReplyRuleMapper;
+        this.wxReplyKeywordMapper = wxReplyKeywordMapper;
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = wxMpProperties.getMatcher();
+    }
+
+    /**
+     * 获取公众号的匹配器，不存在或已失效时同步加载，已过期时返回旧的匹配器并在后台重新加载
+     *
+     * @param appId appId
+     * @return {@link ReplyRuleMatcher}
+     */
+    public ReplyRuleMatcher getMatcher(String appId) {
+        Entry entry = entryMap.get(appId);
+        if (entry != null && !this.isInvalidated(appId, entry)) {
+            if (this.isExpired(entry)) {
+                this.refreshAsync(appId);
+            }
+            return entry.matcher;
+        }
+        return this.load(appId);
+    }
+
+    /**
+     * 预热所有公众号的匹配器，两次查询加载全部规则后按公众号编译
+     *
+     * @return 预热的公众号数量
+     */
+    public int warmUp() {
+        long loadedAt = System.nanoTime();
+        // 分组后每个公众号的规则仍是更新时间倒序
+        Map<String, List<WxReplyRule>> ruleMap = wxReplyRuleMapper.selectList(this.ruleQuery()).stream()
+                .collect(Collectors.groupingBy(WxReplyRule::getAppId));
+        Map<String, List<WxReplyKeyword>> keywordMap = wxReplyKeywordMapper.selectList(null).stream()
+                .collect(Collectors.groupingBy(WxReplyKeyword::getAppId));
+        ruleMap.forEach((appId, rules) -> this.put(appId,
+                this.compile(rules, keywordMap.getOrDefault(appId, List.of())), loadedAt));
+        return ruleMap.size();
+    }
+
+    private ReplyRuleMatcher load(String appId) {
+        long loadedAt = System.nanoTime();
+        List<WxReplyRule> rules = wxReplyRuleMapper.selectList(this.ruleQuery().eq(WxReplyRule::getAppId, appId));
+        List<WxReplyKeyword> keywords = wxReplyKeywordMapper.selectList(
+                Wrappers.lambdaQuery(WxReplyKeyword.class).eq(WxReplyKeyword::getAppId, appId)
+        );
+        ReplyRuleMatcher matcher = this.compile(rules, keywords);
+        this.put(appId, matcher, loadedAt);
+        return matcher;
+    }
+
+    private void refreshAsync(String appId) {
+        if (!refreshingSet.add(appId)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    this.load(appId);
+                } catch (Exception e) {
+                    log.warn("回复规则后台加载失败，下次使用时重试：{}", appId, e);
+                } finally {
+                    refreshingSet.remove(appId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshingSet.remove(appId);
+        }
+    }
+
+    private LambdaQueryWrapper<WxReplyRule> ruleQuery() {
+        return Wrappers.lambdaQuery(WxReplyRule.class)
+                .in(
+                        WxReplyRule::getReplyType,
+                        WxReplyRuleTypeEnum.KEYWORDS.getValue(), WxReplyRuleTypeEnum.DEFAULT.getValue(),
+                        WxReplyRuleTypeEnum.SUBSCRIBE.getValue()
+                )
+                .orderByDesc(WxReplyRule::getUpdateTime);
+    }
+
+    private ReplyRuleMatcher compile(List<WxReplyRule> rules, List<WxReplyKeyword> keywords) {
+        return ReplyRuleMatcher.compile(rules, keywords, properties.getMaxFuzzyDistance(), properties.getRegexMaxSteps());
+    }
+
+    private void put(String appId, ReplyRuleMatcher matcher, long loadedAt) {
+        Entry loaded = new Entry(matcher, loadedAt);
+        if (!this.isInvalidated(appId, loaded)) {
+            entryMap.put(appId, loaded);
+        }
+    }
+
+    /**
+     * 本节点失效
+     *
+     * @param appId appId
+     */
+    public void invalidate(String appId) {
+        invalidatedMap.put(appId, System.nanoTime());
+        entryMap.remove(appId);
+        // 提前加载新规则，下一条消息不用等待查库
+        this.refreshAsync(appId);
+    }
+
+    /**
+     * 规则变更后失效本节点并通知其他节点，存在事务时在事务提交后执行
+     *
+     * @param appId appId
+     */
+    public void publishChange(String appId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.doPublishChange(appId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doPublishChange(appId);
+            }
+        });
+    }
+
+    private void doPublishChange(String appId) {
+        this.invalidate(appId);
+        try {
+            rabbitTemplate.convertAndSend(MqConstant.REPLY_RULE_CHANGE_EXCHANGE, "", appId);
+        } catch (AmqpException e) {
+            log.error("回复规则变更消息发送失败，其他节点将在 {} 秒内重新加载：{}", properties.getRefreshSeconds(), appId, e);
+        }
+    }
+
+    private boolean isInvalidated(String appId, Entry entry) {
+        Long invalidatedAt = invalidatedMap.get(appId);
+        return invalidatedAt != null && entry.loadedAt - invalidatedAt <= 0;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.nanoTime() - entry.loadedAt >= TimeUnit.SECONDS.toNanos(properties.getRefreshSeconds());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record Entry(ReplyRuleMatcher matcher, long loadedAt) {
+    }
+}
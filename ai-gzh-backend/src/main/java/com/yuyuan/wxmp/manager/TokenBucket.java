@@ -0,0 +1,126 @@
+package com.yuyuan.wxmp.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 令牌桶限流（GCRA 实现），用于控制单个公众号调用微信接口的频率
+ * <p>
+ * 只记录理论到达时间，不需要定时补充令牌：每次领取把理论到达时间推后一个间隔，
+ * 比当前时间超前不超过 (burst - 1) 个间隔的领取立即放行，否则等待到超出的部分。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long burstToleranceNanos;
+
+    /**
+     * 理论到达时间（System.nanoTime）
+     */
+    private long theoreticalArrivalNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System.nanoTime());
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond 必须大于 0");
+        }
+        this.intervalNanos = Math.max((long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond), 1);
+        this.burstToleranceNanos = (Math.max(burst, 1) - 1) * intervalNanos;
+        this.theoreticalArrivalNanos = nowNanos;
+    }
+
+    /**
+     * 领取一个令牌，必要时阻塞等待
+     *
+     * @return 被中断时返回 false
+     */
+    public boolean acquire() {
+        return this.park(this.reserve(System.nanoTime()));
+    }
+
+    /**
+     * 需要等待的时间不超过 maxWaitMillis 时领取令牌并等待，否则不领取直接返回，避免暂停期间长时间占用线程
+     *
+     * @param maxWaitMillis 最长等待时间（毫秒）
+     * @return 是否领取成功，需要等待的时间超出或被中断时返回 false
+     */
+    public boolean tryAcquire(long maxWaitMillis) {
+        long waitNanos = this.tryReserve(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(maxWaitMillis));
+        return waitNanos >= 0 && this.park(waitNanos);
+    }
+
+    /**
+     * 现在领取下一个令牌需要等待的时间
+     *
+     * @return 等待时间（毫秒）
+     */
+    public long delayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.delayNanos(System.nanoTime()));
+    }
+
+    /**
+     * 暂停发放令牌，恢复后不允许突发，按频率逐个放行
+     *
+     * @param millis 暂停时长（毫秒）
+     */
+    public void pause(long millis) {
+        this.pause(millis, System.nanoTime());
+    }
+
+    /**
+     * 预定一个令牌
+     *
+     * @param nowNanos 当前时间
+     * @return 需要等待的时间（纳秒）
+     */
+    synchronized long reserve(long nowNanos) {
+        long arrival = theoreticalArrivalNanos - nowNanos > 0 ? theoreticalArrivalNanos : nowNanos;
+        theoreticalArrivalNanos = arrival + intervalNanos;
+        return Math.max(arrival - burstToleranceNanos - nowNanos, 0);
+    }
+
+    /**
+     * 需要等待的时间不超过 maxWaitNanos 时预定一个令牌
+     *
+     * @param nowNanos     当前时间
+     * @param maxWaitNanos 最长等待时间
+     * @return 需要等待的时间（纳秒），超出时返回 -1 且不预定
+     */
+    synchronized long tryReserve(long nowNanos, long maxWaitNanos) {
+        if (this.delayNanos(nowNanos) > maxWaitNanos) {
+            return -1;
+        }
+        return this.reserve(nowNanos);
+    }
+
+    synchronized long delayNanos(long nowNanos) {
+        long arrival = theoreticalArrivalNanos - nowNanos > 0 ? theoreticalArrivalNanos : nowNanos;
+        return Math.max(arrival - burstToleranceNanos - nowNanos, 0);
+    }
+
+    synchronized void pause(long millis, long nowNanos) {
+        long resumeArrival = nowNanos + TimeUnit.MILLISECONDS.toNanos(millis) + burstToleranceNanos;
+        if (resumeArrival - theoreticalArrivalNanos > 0) {
+            theoreticalArrivalNanos = resumeArrival;
+        }
+    }
+
+    private boolean park(long waitNanos) {
+        long deadline = System.nanoTime() + waitNanos;
+        while (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            waitNanos = deadline - System.nanoTime();
+        }
+        return true;
+    }
+}
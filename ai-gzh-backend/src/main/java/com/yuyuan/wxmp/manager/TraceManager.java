@@ -0,0 +1,99 @@
+package com.yuyuan.wxmp.manager;
+
+import io.micrometer.tracing.CurrentTraceContext;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 链路追踪
+ * <p>
+ * HTTP 请求、RabbitMQ 收发、模型 HTTP 调用由 Spring 自动生成 span，这里补充业务步骤的 span，
+ * 并在切换线程（消息通道）时传递当前链路。未开启追踪时使用空实现。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+public class TraceManager {
+
+    private final Tracer tracer;
+
+    public TraceManager(ObjectProvider<Tracer> tracerProvider) {
+        this.tracer = tracerProvider.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    /**
+     * 在子 span 中执行
+     *
+     * @param name     span 名称
+     * @param supplier 执行的方法
+     * @param tags     tag，按 key、value 依次排列，value 为空时忽略
+     * @return 执行结果
+     */
+    public <T> T trace(String name, Supplier<T> supplier, String... tags) {
+        Span span = this.start(name, tags);
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return supplier.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * 在子 span 中执行
+     *
+     * @param name     span 名称
+     * @param runnable 执行的方法
+     * @param tags     tag，按 key、value 依次排列，value 为空时忽略
+     */
+    public void traceRun(String name, Runnable runnable, String... tags) {
+        this.trace(name, () -> {
+            runnable.run();
+            return null;
+        }, tags);
+    }
+
+    /**
+     * 开始一个子 span，调用方负责 end
+     *
+     * @param name span 名称
+     * @param tags tag，按 key、value 依次排列，value 为空时忽略
+     * @return {@link Span}
+     */
+    public Span start(String name, String... tags) {
+        Span span = tracer.nextSpan().name(name);
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            if (tags[i + 1] != null) {
+                span.tag(tags[i], tags[i + 1]);
+            }
+        }
+        return span.start();
+    }
+
+    /**
+     * 捕获当前链路，在其他线程执行时恢复
+     *
+     * @param supplier 执行的方法
+     * @return 包装后的方法
+     */
+    public <T> Supplier<T> wrap(Supplier<T> supplier) {
+        CurrentTraceContext currentTraceContext = tracer.currentTraceContext();
+        TraceContext context = currentTraceContext.context();
+        if (context == null) {
+            return supplier;
+        }
+        return () -> {
+            try (CurrentTraceContext.Scope ignored = currentTraceContext.maybeScope(context)) {
+                return supplier.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,351 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MetricConstant;
+import com.yuyuan.wxmp.constant.RedisConstant;
+import com.yuyuan.wxmp.manager.WxBroadcastSender.Outcome;
+import com.yuyuan.wxmp.manager.WxBroadcastSender.SendResult;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastContentDTO;
+import com.yuyuan.wxmp.model.entity.WxBroadcastRecipient;
+import com.yuyuan.wxmp.model.entity.WxBroadcastTask;
+import com.yuyuan.wxmp.model.enums.WxBroadcastChannelEnum;
+import com.yuyuan.wxmp.model.enums.WxBroadcastRecipientStatusEnum;
+import com.yuyuan.wxmp.model.enums.WxBroadcastTaskStatusEnum;
+import com.yuyuan.wxmp.service.WxBroadcastRecipientService;
+import com.yuyuan.wxmp.service.WxBroadcastTaskService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.mp.api.WxMpService;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 群发任务执行
+ * <p>
+ * 每个接收人一行记录发送状态，按 id 分批领取待发送的接收人（标记为发送中），在固定大小的发送线程池中发送，
+ * 每条发送前从该公众号的令牌桶领取令牌，一批完成后按结果批量更新接收人和任务进度。
+ * <p>
+ * 同一公众号的任务通过 Redisson 锁只在一个节点上执行，本地令牌桶即为该公众号的全局频率。
+ * 节点退出后锁自动释放，其他节点扫描到发送中的任务时把遗留的发送中接收人放回待发送，从未完成的接收人继续，
+ * 中断时正在发送的一批可能重复发送。
+ * <p>
+ * 45047、-1 等错误按指数退避重试；45009、45011 表示公众号被限流，暂停整个公众号的令牌桶，不计入重试次数。
+ * 领取令牌最多等待 maxAcquireWaitMillis，暂停期间本批剩余的接收人直接放回待发送，不占用共用的发送线程，
+ * 任务随即释放锁退出。没有到时间的接收人时同样释放锁，由定时扫描在重试、暂停时间到达后继续。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class WxBroadcastManager {
+
+    /**
+     * 公众号暂停发送期间没有发出的接收人
+     */
+    private static final SendResult DEFERRED = new SendResult(Outcome.THROTTLED, null, "公众号限流暂停中，稍后发送");
+
+    private final WxBroadcastTaskService wxBroadcastTaskService;
+
+    private final WxBroadcastRecipientService wxBroadcastRecipientService;
+
+    private final WxMpConfigRegistry wxMpConfigRegistry;
+
+    private final DistributedLockManager distributedLockManager;
+
+    private final MetricsManager metricsManager;
+
+    private final WxMpProperties.Broadcast properties;
+
+    /**
+     * 执行任务的线程，每个公众号占用一个
+     */
+    private final ThreadPoolExecutor taskExecutor;
+
+    /**
+     * 调用微信接口的线程，所有任务共用
+     */
+    private final ThreadPoolExecutor sendExecutor;
+
+    /**
+     * 本节点正在执行或已提交的公众号
+     */
+    private final Set<String> runningSet = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, TokenBucket> bucketMap = new ConcurrentHashMap<>();
+
+    public WxBroadcastManager(WxBroadcastTaskService wxBroadcastTaskService, WxBroadcastRecipientService wxBroadcastRecipientService,
+                              WxMpConfigRegistry wxMpConfigRegistry, DistributedLockManager distributedLockManager,
+                              MetricsManager metricsManager, WxMpProperties wxMpProperties) {
+        this.wxBroadcastTaskService = wxBroadcastTaskService;
+        this.wxBroadcastRecipientService = wxBroadcastRecipientService;
+        this.wxMpConfigRegistry = wxMpConfigRegistry;
+        this.distributedLockManager = distributedLockManager;
+        this.metricsManager = metricsManager;
+        this.properties = wxMpProperties.getBroadcast();
+        int maxConcurrentTasks = Math.max(properties.getMaxConcurrentTasks(), 1);
+        this.taskExecutor = new ThreadPoolExecutor(maxConcurrentTasks, maxConcurrentTasks, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), ThreadFactoryBuilder.create().setNamePrefix("broadcast-task-").build());
+        int sendConcurrency = Math.max(properties.getSendConcurrency(), 1);
+        this.sendExecutor = new ThreadPoolExecutor(sendConcurrency, sendConcurrency, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), ThreadFactoryBuilder.create().setNamePrefix("broadcast-send-").build());
+    }
+
+    /**
+     * 在后台发送公众号下所有发送中的任务
+     *
+     * @param appId appId
+     * @return 是否已提交，本节点已在执行该公众号时返回 false
+     */
+    public boolean runAsync(String appId) {
+        if (!runningSet.add(appId)) {
+            return false;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    distributedLockManager.nonBlockExecute(RedisConstant.BROADCAST_LOCK_KEY_PREFIX + appId, () -> this.run(appId));
+                } catch (Exception e) {
+                    log.error("群发任务执行失败：appId={}", appId, e);
+                } finally {
+                    runningSet.remove(appId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            runningSet.remove(appId);
+            return false;
+        }
+        return true;
+    }
+
+    private void run(String appId) {
+        TokenBucket bucket = bucketMap.computeIfAbsent(appId,
+                key -> new TokenBucket(properties.permitsPerSecondOf(key), properties.getBurst()));
+        // 一轮下来所有任务都没有可发送的接收人（全部完成或都在等待重试）时退出
+        while (!Thread.currentThread().isInterrupted() && !this.isPaused(bucket)) {
+            List<WxBroadcastTask> taskList = wxBroadcastTaskService.lambdaQuery()
+                    .eq(WxBroadcastTask::getAppId, appId)
+                    .eq(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.RUNNING.getValue())
+                    .orderByAsc(WxBroadcastTask::getId)
+                    .list();
+            int processed = 0;
+            for (WxBroadcastTask task : taskList) {
+                processed += this.runTask(task, bucket);
+                if (this.isPaused(bucket)) {
+                    // 公众号被限流暂停，释放锁和线程，由定时扫描在暂停结束后继续
+                    return;
+                }
+            }
+            if (processed == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 发送任务中所有已到时间的接收人
+     *
+     * @return 处理的接收人数
+     */
+    private int runTask(WxBroadcastTask task, TokenBucket bucket) {
+        WxMpService wxMpService = wxMpConfigRegistry.getService(task.getAppId());
+        if (wxMpService == null) {
+            log.warn("群发任务的公众号不存在，暂停任务：taskId={}, appId={}", task.getId(), task.getAppId());
+            wxBroadcastTaskService.lambdaUpdate()
+                    .eq(WxBroadcastTask::getId, task.getId())
+                    .eq(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.RUNNING.getValue())
+                    .set(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.PAUSED.getValue())
+                    .update();
+            return 0;
+        }
+        // 持有该公众号的锁，发送中的接收人只可能是上次中断遗留的
+        int reset = wxBroadcastRecipientService.resetSending(task.getId());
+        if (reset > 0) {
+            log.info("群发任务恢复，放回待发送 {} 人：taskId={}", reset, task.getId());
+        }
+        WxBroadcastChannelEnum channel = WxBroadcastChannelEnum.getEnumByValue(task.getChannel());
+        WxBroadcastContentDTO content = JSONUtil.toBean(task.getContent(), WxBroadcastContentDTO.class);
+
+        long startMillis = System.currentTimeMillis();
+        long lastId = 0;
+        int processed = 0;
+        // 每批之前检查任务状态，暂停、取消在当前批完成后生效
+        while (wxBroadcastTaskService.isRunning(task.getId())) {
+            List<WxBroadcastRecipient> recipientList = wxBroadcastRecipientService.listDue(task.getId(), lastId,
+                    new Date(), properties.getBatchSize());
+            if (recipientList.isEmpty()) {
+                break;
+            }
+            lastId = recipientList.get(recipientList.size() - 1).getId();
+            if (!this.sendBatch(task, wxMpService, channel, content, recipientList, bucket)) {
+                return processed;
+            }
+            processed += recipientList.size();
+            if (this.isPaused(bucket)) {
+                log.info("群发任务所属公众号暂停发送 {}ms，稍后继续：taskId={}", bucket.delayMillis(), task.getId());
+                break;
+            }
+        }
+        if (processed > 0) {
+            log.info("群发任务发送 {} 人，耗时 {}ms：taskId={}", processed, System.currentTimeMillis() - startMillis, task.getId());
+        }
+        if (wxBroadcastTaskService.completeIfDone(task.getId())) {
+            log.info("群发任务已完成：taskId={}, appId={}", task.getId(), task.getAppId());
+        }
+        return processed;
+    }
+
+    /**
+     * 发送一批接收人
+     *
+     * @return 被中断时返回 false，未完成的接收人保持发送中，下次恢复时放回待发送
+     */
+    private boolean sendBatch(WxBroadcastTask task, WxMpService wxMpService, WxBroadcastChannelEnum channel,
+                              WxBroadcastContentDTO content, List<WxBroadcastRecipient> recipientList, TokenBucket bucket) {
+        List<Long> ids = recipientList.stream().map(WxBroadcastRecipient::getId).toList();
+        wxBroadcastRecipientService.lambdaUpdate()
+                .in(WxBroadcastRecipient::getId, ids)
+                .set(WxBroadcastRecipient::getStatus, WxBroadcastRecipientStatusEnum.SENDING.getValue())
+                .update();
+
+        // 被限流后本批剩余的接收人不再发送，直接按限流延后
+        AtomicReference<SendResult> throttled = new AtomicReference<>();
+        List<CompletableFuture<SendResult>> futureList = new ArrayList<>(recipientList.size());
+        for (WxBroadcastRecipient recipient : recipientList) {
+            futureList.add(CompletableFuture.supplyAsync(() -> {
+                if (throttled.get() != null) {
+                    return throttled.get();
+                }
+                if (!bucket.tryAcquire(properties.getMaxAcquireWaitMillis())) {
+                    // 被中断时保持发送中，下次恢复时放回待发送；等待超时（公众号暂停中）按限流延后
+                    return Thread.currentThread().isInterrupted() ? null : DEFERRED;
+                }
+                if (throttled.get() != null) {
+                    return throttled.get();
+                }
+                SendResult result = WxBroadcastSender.send(wxMpService, channel, content, recipient.getOpenId());
+                if (result.outcome() == Outcome.THROTTLED && throttled.compareAndSet(null, result)) {
+                    bucket.pause(TimeUnit.SECONDS.toMillis(this.throttlePauseSeconds(result.errorCode())));
+                    log.warn("群发任务被限流，暂停发送 {} 秒：taskId={}, appId={}, 错误码: {}",
+                            this.throttlePauseSeconds(result.errorCode()), task.getId(), task.getAppId(), result.errorCode());
+                }
+                return result;
+            }, sendExecutor));
+        }
+        try {
+            CompletableFuture.allOf(futureList.toArray(new CompletableFuture<?>[0])).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // 发送结果已归类，不会出现异常，出现时按中断处理
+            log.error("群发任务发送失败：taskId={}", task.getId(), e.getCause());
+            return false;
+        }
+
+        Date now = new Date();
+        // 被限流的接收人在令牌桶恢复后重试
+        Date resumeTime = DateUtil.offsetMillisecond(now, (int) Math.max(bucket.delayMillis(), 1000));
+        Map<RecipientUpdate, List<Long>> updateMap = new LinkedHashMap<>();
+        Map<RecipientUpdate, String> errorMsgMap = new LinkedHashMap<>();
+        int successCount = 0;
+        int failCount = 0;
+        for (int i = 0; i < recipientList.size(); i++) {
+            WxBroadcastRecipient recipient = recipientList.get(i);
+            SendResult result = futureList.get(i).join();
+            if (result == null) {
+                continue;
+            }
+            int attempts = ObjectUtils.defaultIfNull(recipient.getAttempts(), 0) + 1;
+            Outcome outcome = result.outcome() == Outcome.RETRY && attempts >= properties.getMaxAttempts()
+                    ? Outcome.FAILED : result.outcome();
+            RecipientUpdate update = switch (outcome) {
+                case SENT -> new RecipientUpdate(WxBroadcastRecipientStatusEnum.SENT, true, null, null);
+                case THROTTLED -> new RecipientUpdate(WxBroadcastRecipientStatusEnum.PENDING, false,
+                        resumeTime, result.errorCode());
+                case RETRY -> new RecipientUpdate(WxBroadcastRecipientStatusEnum.PENDING, true,
+                        DateUtil.offsetSecond(now, (int) this.backoffSeconds(attempts)), result.errorCode());
+                case FAILED -> new RecipientUpdate(WxBroadcastRecipientStatusEnum.FAILED, true, null, result.errorCode());
+            };
+            if (outcome == Outcome.SENT) {
+                successCount++;
+            } else if (outcome == Outcome.FAILED) {
+                failCount++;
+            }
+            updateMap.computeIfAbsent(update, key -> new ArrayList<>()).add(recipient.getId());
+            if (result.errorMsg() != null) {
+                errorMsgMap.putIfAbsent(update, result.errorMsg());
+            }
+            metricsManager.increment(MetricConstant.BROADCAST_SEND, "appId", task.getAppId(),
+                    "channel", channel.name().toLowerCase(), "outcome", outcome.name().toLowerCase());
+        }
+        // 同样结果的接收人一条语句更新
+        updateMap.forEach((update, updateIds) -> wxBroadcastRecipientService.lambdaUpdate()
+                .in(WxBroadcastRecipient::getId, updateIds)
+                .set(WxBroadcastRecipient::getStatus, update.status().getValue())
+                .set(WxBroadcastRecipient::getNextRetryTime, update.nextRetryTime())
+                .set(WxBroadcastRecipient::getErrorCode, update.errorCode())
+                .set(WxBroadcastRecipient::getErrorMsg, errorMsgMap.get(update))
+                .setSql(update.countAttempt(), "attempts = attempts + 1")
+                .update());
+        wxBroadcastTaskService.addProgress(task.getId(), successCount, failCount);
+        return true;
+    }
+
+    /**
+     * 第 attempts 次发送失败后的重试间隔（秒）
+     */
+    private long backoffSeconds(int attempts) {
+        long base = Math.max(properties.getBackoffBaseSeconds(), 1);
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(base << shift, properties.getBackoffMaxSeconds());
+    }
+
+    /**
+     * 令牌桶的等待时间超出单条发送允许的等待时间，说明公众号处于限流暂停中
+     */
+    private boolean isPaused(TokenBucket bucket) {
+        return bucket.delayMillis() > properties.getMaxAcquireWaitMillis();
+    }
+
+    private long throttlePauseSeconds(Integer errorCode) {
+        // 45009 为当天调用额度用完，45011 只是短时间频率过高
+        return Integer.valueOf(45009).equals(errorCode) ? properties.getQuotaPauseSeconds() : properties.getBackoffBaseSeconds();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        taskExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * 接收人的更新内容，相同的合并为一条 update 语句
+     *
+     * @param status        状态
+     * @param countAttempt  是否增加发送次数
+     * @param nextRetryTime 下次重试时间
+     * @param errorCode     错误码
+     */
+    private record RecipientUpdate(WxBroadcastRecipientStatusEnum status, boolean countAttempt, Date nextRetryTime,
+                                   Integer errorCode) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastContentDTO;
+import com.yuyuan.wxmp.model.enums.WxBroadcastChannelEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
+import me.chanjar.weixin.common.error.WxErrorException;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.bean.kefu.WxMpKefuMessage;
+import me.chanjar.weixin.mp.bean.template.WxMpTemplateData;
+import me.chanjar.weixin.mp.bean.template.WxMpTemplateMessage;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 群发消息的单条发送，把微信返回的错误码归类为成功、限流、可重试和不可重试
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class WxBroadcastSender {
+
+    /**
+     * 公众号级别的频率、额度限制：45009 接口调用超过限额、45011 调用频率过高，整个公众号暂停发送，不计入重试次数
+     */
+    private static final Set<Integer> THROTTLED_ERROR_CODES = Set.of(45009, 45011);
+
+    /**
+     * 可以稍后重试的错误码：45047 客服消息下行条数超过上限、-1 系统繁忙
+     */
+    private static final Set<Integer> RETRYABLE_ERROR_CODES = Set.of(45047, -1);
+
+    private static final int MAX_ERROR_MSG_LENGTH = 256;
+
+    private WxBroadcastSender() {
+    }
+
+    /**
+     * 发送一条群发消息
+     *
+     * @param wxMpService 公众号服务
+     * @param channel     发送渠道
+     * @param content     消息内容
+     * @param openId      接收人
+     * @return {@link SendResult}
+     */
+    public static SendResult send(WxMpService wxMpService, WxBroadcastChannelEnum channel,
+                                  WxBroadcastContentDTO content, String openId) {
+        try {
+            if (channel == WxBroadcastChannelEnum.TEMPLATE) {
+                wxMpService.getTemplateMsgService().sendTemplateMsg(toTemplateMessage(content, openId));
+            } else {
+                wxMpService.getKefuService().sendKefuMessage(toKefuMessage(content, openId));
+            }
+            return new SendResult(Outcome.SENT, null, null);
+        } catch (WxErrorException e) {
+            int errorCode = e.getError().getErrorCode();
+            Outcome outcome = THROTTLED_ERROR_CODES.contains(errorCode) ? Outcome.THROTTLED
+                    : RETRYABLE_ERROR_CODES.contains(errorCode) ? Outcome.RETRY : Outcome.FAILED;
+            return new SendResult(outcome, errorCode, StringUtils.abbreviate(e.getError().getErrorMsg(), MAX_ERROR_MSG_LENGTH));
+        } catch (RuntimeException e) {
+            // 网络异常等，稍后重试
+            return new SendResult(Outcome.RETRY, null, StringUtils.abbreviate(e.getMessage(), MAX_ERROR_MSG_LENGTH));
+        }
+    }
+
+    static WxMpKefuMessage toKefuMessage(WxBroadcastContentDTO content, String openId) {
+        WxReplyContentTypeEnum contentType = WxReplyContentTypeEnum.getEnumByValue(content.getContentType());
+        if (contentType == null) {
+            contentType = WxReplyContentTypeEnum.TEXT;
+        }
+        return switch (contentType) {
+            case IMAGE -> WxMpKefuMessage.IMAGE().toUser(openId).mediaId(content.getMediaId()).build();
+            case VOICE -> WxMpKefuMessage.VOICE().toUser(openId).mediaId(content.getMediaId()).build();
+            case VIDEO -> WxMpKefuMessage.VIDEO().toUser(openId).mediaId(content.getMediaId()).build();
+            default -> WxMpKefuMessage.TEXT().toUser(openId).content(content.getTextContent()).build();
+        };
+    }
+
+    static WxMpTemplateMessage toTemplateMessage(WxBroadcastContentDTO content, String openId) {
+        WxMpTemplateMessage templateMessage = WxMpTemplateMessage.builder()
+                .toUser(openId)
+                .templateId(content.getTemplateId())
+                .url(content.getUrl())
+                .build();
+        for (Map.Entry<String, String> entry : content.getTemplateData().entrySet()) {
+            templateMessage.addData(new WxMpTemplateData(entry.getKey(), entry.getValue()));
+        }
+        return templateMessage;
+    }
+
+    /**
+     * 发送结果分类
+     */
+    public enum Outcome {
+
+        /**
+         * 发送成功
+         */
+        SENT,
+
+        /**
+         * 公众号被限流，稍后重试，不计入重试次数
+         */
+        THROTTLED,
+
+        /**
+         * 稍后重试
+         */
+        RETRY,
+
+        /**
+         * 不可重试（粉丝已取消关注、openId 无效、超出客服消息时间窗口等）
+         */
+        FAILED
+    }
+
+    /**
+     * 发送结果
+     *
+     * @param outcome   结果分类
+     * @param errorCode 微信错误码
+     * @param errorMsg  错误信息
+     */
+    public record SendResult(Outcome outcome, Integer errorCode, String errorMsg) {
+    }
+}
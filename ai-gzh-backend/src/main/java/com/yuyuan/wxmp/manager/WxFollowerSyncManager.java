@@ -0,0 +1,288 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.RedisConstant;
+import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.model.entity.WxFollower;
+import com.yuyuan.wxmp.service.WxFollowerService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.common.error.WxErrorException;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.bean.result.WxMpUser;
+import me.chanjar.weixin.mp.bean.result.WxMpUserList;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 公众号粉丝同步
+ * <p>
+ * 全量同步按 next_openid 翻页获取关注列表（每页最多 10000 个），每 100 个 openId 批量获取一次用户信息，
+ * 批量请求由固定大小的线程池并行执行；同步完成后，本次没有更新到的关注中粉丝标记为已取消关注。
+ * 平时由关注、取消关注事件在后台单线程按顺序增量更新，不占用回复微信的时间。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class WxFollowerSyncManager {
+
+    /**
+     * 批量获取用户信息接口每次最多 100 个 openId
+     */
+    private static final int INFO_BATCH_SIZE = 100;
+
+    /**
+     * 关注事件队列长度，超出后丢弃（下次全量同步补齐）
+     */
+    private static final int MAX_PENDING_EVENTS = 10000;
+
+    private final WxFollowerService wxFollowerService;
+
+    private final WxMpConfigRegistry wxMpConfigRegistry;
+
+    private final DistributedLockManager distributedLockManager;
+
+    private final WxMpProperties.Follower properties;
+
+    /**
+     * 全量同步，逐个公众号执行
+     */
+    private final ThreadPoolExecutor syncExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), ThreadFactoryBuilder.create().setNamePrefix("follower-sync-").build());
+
+    /**
+     * 批量获取用户信息
+     */
+    private final ThreadPoolExecutor infoExecutor;
+
+    /**
+     * 关注、取消关注事件，单线程保证同一粉丝先关注后取消的顺序
+     */
+    private final ThreadPoolExecutor eventExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(MAX_PENDING_EVENTS), ThreadFactoryBuilder.create().setNamePrefix("follower-event-").build());
+
+    /**
+     * 已提交全量同步的公众号，避免重复提交
+     */
+    private final Set<String> syncingSet = ConcurrentHashMap.newKeySet();
+
+    public WxFollowerSyncManager(WxFollowerService wxFollowerService, WxMpConfigRegistry wxMpConfigRegistry,
+                                 DistributedLockManager distributedLockManager, WxMpProperties wxMpProperties) {
+        this.wxFollowerService = wxFollowerService;
+        this.wxMpConfigRegistry = wxMpConfigRegistry;
+        this.distributedLockManager = distributedLockManager;
+        this.properties = wxMpProperties.getFollower();
+        int concurrency = Math.max(properties.getConcurrency(), 1);
+        this.infoExecutor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), ThreadFactoryBuilder.create().setNamePrefix("follower-info-").build());
+    }
+
+    /**
+     * 在后台全量同步公众号的粉丝
+     *
+     * @param appId appId
+     * @return 是否已提交，本节点已在同步该公众号时返回 false
+     */
+    public boolean syncAsync(String appId) {
+        if (!syncingSet.add(appId)) {
+            return false;
+        }
+        syncExecutor.execute(() -> {
+            try {
+                this.sync(appId);
+            } catch (Exception e) {
+                log.error("粉丝全量同步失败：appId={}", appId, e);
+            } finally {
+                syncingSet.remove(appId);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 在后台依次全量同步多个公众号，多节点同时触发时只有一个节点执行
+     *
+     * @param appIds appId
+     */
+    public void syncAllAsync(List<String> appIds) {
+        syncExecutor.execute(() -> distributedLockManager.nonBlockExecute(RedisConstant.FOLLOWER_SYNC_ALL_LOCK_KEY, () -> {
+            for (String appId : appIds) {
+                try {
+                    this.sync(appId);
+                } catch (Exception e) {
+                    log.error("粉丝全量同步失败：appId={}", appId, e);
+                }
+            }
+        }));
+    }
+
+    /**
+     * 全量同步公众号的粉丝
+     *
+     * @param appId appId
+     * @return 同步的粉丝数，其他节点正在同步该公众号时返回 null
+     */
+    public Integer sync(String appId) {
+        return distributedLockManager.nonBlockExecute(RedisConstant.FOLLOWER_SYNC_LOCK_KEY_PREFIX + appId,
+                () -> this.doSync(appId), () -> null);
+    }
+
+    private Integer doSync(String appId) {
+        WxMpService wxMpService = wxMpConfigRegistry.getRequiredService(appId);
+        // 本次同步的粉丝都写入同一个 syncTime，datetime 只保存到秒，先截掉毫秒避免写入时进位
+        Date syncStart = DateUtil.beginOfSecond(new Date());
+        int count = 0;
+        String nextOpenid = null;
+        do {
+            WxMpUserList userList;
+            try {
+                userList = wxMpService.getUserService().userList(nextOpenid);
+            } catch (WxErrorException e) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "获取粉丝列表失败：" + e.getError());
+            }
+            if (ObjectUtils.isEmpty(userList.getOpenids())) {
+                break;
+            }
+            this.syncUsers(appId, wxMpService, userList.getOpenids(), syncStart);
+            count += userList.getOpenids().size();
+            nextOpenid = userList.getNextOpenid();
+        } while (StringUtils.isNotBlank(nextOpenid));
+
+        // 只有完整翻完列表才标记取消关注，中途失败时不会误标记
+        int unsubscribed = wxFollowerService.unsubscribeNotSyncedSince(appId, syncStart);
+        log.info("粉丝全量同步完成：appId={}, 关注中 {} 人，标记取消关注 {} 人，耗时 {}ms",
+                appId, count, unsubscribed, System.currentTimeMillis() - syncStart.getTime());
+        return count;
+    }
+
+    /**
+     * 一页 openId 按 100 个一批并行获取用户信息并写入，全部完成后返回
+     */
+    private void syncUsers(String appId, WxMpService wxMpService, List<String> openIds, Date syncTime) {
+        try {
+            CompletableFuture.allOf(ListUtil.partition(openIds, INFO_BATCH_SIZE).stream()
+                    .map(batch -> CompletableFuture.runAsync(() -> {
+                        List<WxMpUser> users;
+                        try {
+                            users = wxMpService.getUserService().userInfoList(batch);
+                        } catch (WxErrorException e) {
+                            throw new BusinessException(ErrorCode.OPERATION_ERROR, "批量获取用户信息失败：" + e.getError());
+                        }
+                        wxFollowerService.upsertBatch(users.stream().map(user -> toFollower(appId, user, syncTime)).toList());
+                    }, infoExecutor))
+                    .toArray(CompletableFuture<?>[]::new)
+            ).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 关注事件，在后台获取用户信息并写入
+     *
+     * @param appId      appId
+     * @param openId     openId
+     * @param createTime 事件时间（秒）
+     */
+    public void onSubscribe(String appId, String openId, Long createTime) {
+        this.submitEvent(appId, openId, () -> {
+            WxFollower wxFollower = null;
+            if (properties.isFetchInfoOnSubscribe()) {
+                try {
+                    WxMpUser user = wxMpConfigRegistry.getRequiredService(appId).getUserService().userInfo(openId);
+                    wxFollower = toFollower(appId, user, new Date());
+                } catch (Exception e) {
+                    log.warn("关注后获取用户信息失败，只记录关注时间：appId={}, openId={}, {}", appId, openId, e.getMessage());
+                }
+            }
+            if (wxFollower == null) {
+                wxFollower = new WxFollower();
+                wxFollower.setAppId(appId);
+                wxFollower.setOpenId(openId);
+            }
+            // 以事件为准，获取用户信息时粉丝可能已经取消关注
+            wxFollower.setSubscribe(1);
+            wxFollower.setSubscribeTime(toDate(createTime));
+            // 写入 syncTime，正在进行的全量同步不会把刚关注的粉丝标记为取消关注
+            wxFollower.setSyncTime(new Date());
+            wxFollowerService.upsertBatch(List.of(wxFollower));
+        });
+    }
+
+    /**
+     * 取消关注事件
+     *
+     * @param appId      appId
+     * @param openId     openId
+     * @param createTime 事件时间（秒）
+     */
+    public void onUnsubscribe(String appId, String openId, Long createTime) {
+        this.submitEvent(appId, openId, () -> wxFollowerService.unsubscribe(appId, openId, toDate(createTime)));
+    }
+
+    private void submitEvent(String appId, String openId, Runnable runnable) {
+        try {
+            eventExecutor.execute(() -> {
+                try {
+                    runnable.run();
+                } catch (Exception e) {
+                    log.error("更新粉丝关注状态失败：appId={}, openId={}", appId, openId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("粉丝事件队列已满，等待下次全量同步：appId={}, openId={}", appId, openId);
+        }
+    }
+
+    private static WxFollower toFollower(String appId, WxMpUser user, Date syncTime) {
+        WxFollower wxFollower = new WxFollower();
+        wxFollower.setAppId(appId);
+        wxFollower.setOpenId(user.getOpenId());
+        wxFollower.setUnionId(user.getUnionId());
+        wxFollower.setSubscribe(Boolean.TRUE.equals(user.getSubscribe()) ? 1 : 0);
+        if (user.getSubscribeTime() != null && user.getSubscribeTime() > 0) {
+            wxFollower.setSubscribeTime(toDate(user.getSubscribeTime()));
+        }
+        wxFollower.setSubscribeScene(user.getSubscribeScene());
+        wxFollower.setRemark(user.getRemark());
+        // 没有标签时写入空数组，清除之前的标签
+        wxFollower.setTagIds(ArrayUtils.isEmpty(user.getTagIds()) ? "[]" : JSONUtil.toJsonStr(user.getTagIds()));
+        wxFollower.setLanguage(user.getLanguage());
+        wxFollower.setSyncTime(syncTime);
+        return wxFollower;
+    }
+
+    private static Date toDate(Long seconds) {
+        return seconds == null ? new Date() : new Date(seconds * 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdownNow();
+        infoExecutor.shutdownNow();
+        eventExecutor.shutdownNow();
+    }
+}
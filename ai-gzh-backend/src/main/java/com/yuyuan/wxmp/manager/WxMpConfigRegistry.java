@@ -0,0 +1,292 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.collection.ListUtil;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.mapper.WxAccountMapper;
+import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountSyncMessage;
+import com.yuyuan.wxmp.model.entity.WxAccount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.api.impl.WxMpServiceImpl;
+import me.chanjar.weixin.mp.config.WxMpConfigStorage;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 公众号配置注册表
+ * <p>
+ * 启动时不再加载全部公众号，而是在第一次使用某个 appId 时才从数据库加载其配置，
+ * 并按空闲时间和数量上限淘汰，避免公众号很多时启动慢、占用内存，以及数据库不可用时无法启动。
+ * access_token 保存在 Redis 中，淘汰配置不会丢失 token。
+ * <p>
+ * 每个公众号对应一个只包含自身配置的 {@link WxMpService}，调用方直接持有该实例，
+ * 不依赖 WxJava 基于 ThreadLocal 的 switchover，在异步线程、虚拟线程中同样可以安全使用。
+ * <p>
+ * 每个已加载的配置都记录了数据库中的版本号，收到同步消息时丢弃过期的版本；
+ * 另外定时与数据库对账，修复因消息丢失导致的配置不一致。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WxMpConfigRegistry {
+
+    /**
+     * 对账时每批查询的 appId 数量
+     */
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final WxAccountMapper wxAccountMapper;
+
+    private final WxMpConfigStorageFactory wxMpConfigStorageFactory;
+
+    private final WxMpProperties wxMpProperties;
+
+    /**
+     * 已加载的公众号
+     */
+    private final Map<String, Entry> entryMap = new ConcurrentHashMap<>();
+
+    /**
+     * 数据库中不存在的 appId 及其缓存到期时间
+     */
+    private final Map<String, Long> missingMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取公众号服务，未加载时从数据库加载
+     *
+     * @param appId appId
+     * @return {@link WxMpService }，公众号不存在时返回 null
+     */
+    public WxMpService getService(String appId) {
+        if (StringUtils.isBlank(appId)) {
+            return null;
+        }
+        Entry entry = entryMap.get(appId);
+        if (entry == null) {
+            Long missingUntil = missingMap.get(appId);
+            if (missingUntil != null && missingUntil > System.currentTimeMillis()) {
+                return null;
+            }
+            // computeIfAbsent 保证同一个 appId 并发时只查一次库
+            entry = entryMap.computeIfAbsent(appId, this::load);
+            if (entry == null) {
+                return null;
+            }
+            this.evictOverflow();
+        }
+        entry.lastAccessTime = System.currentTimeMillis();
+        return entry.wxMpService;
+    }
+
+    /**
+     * 获取公众号服务，公众号不存在时抛出异常
+     *
+     * @param appId appId
+     * @return {@link WxMpService }
+     */
+    public WxMpService getRequiredService(String appId) {
+        WxMpService service = this.getService(appId);
+        if (service == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, String.format("当前公众号服务【%s】不存在，请稍后再试", appId));
+        }
+        return service;
+    }
+
+    /**
+     * 公众号是否已加载
+     *
+     * @param appId appId
+     * @return boolean
+     */
+    public boolean isLoaded(String appId) {
+        return entryMap.containsKey(appId);
+    }
+
+    /**
+     * 应用配置同步消息，重复或过期的消息会被忽略
+     *
+     * @param message 同步消息
+     */
+    public void apply(WxAccountSyncMessage message) {
+        String appId = message.getAppId();
+        long revision = message.getRevision() == null ? 0 : message.getRevision();
+        if (!Boolean.TRUE.equals(message.getDeleted())) {
+            // 新增的公众号可能被缓存为不存在
+            missingMap.remove(appId);
+        }
+        Entry entry = entryMap.get(appId);
+        if (entry == null || entry.revision >= revision) {
+            // 未加载的公众号在下次使用时从数据库读取最新配置，无需处理
+            return;
+        }
+        if (Boolean.TRUE.equals(message.getDeleted())) {
+            if (entryMap.remove(appId, entry)) {
+                this.markMissing(appId);
+                log.info("公众号已删除，移除配置：{}，版本：{}", appId, revision);
+            }
+            return;
+        }
+        this.reload(appId);
+    }
+
+    /**
+     * 定时与数据库对账：已删除的移除，版本不一致的重新加载
+     */
+    @Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
+    public void reconcile() {
+        List<String> appIds = new ArrayList<>(entryMap.keySet());
+        for (List<String> batch : ListUtil.partition(appIds, RECONCILE_BATCH_SIZE)) {
+            Map<String, Long> revisionMap = wxAccountMapper.selectList(
+                    Wrappers.lambdaQuery(WxAccount.class)
+                            .select(WxAccount::getAppId, WxAccount::getRevision)
+                            .in(WxAccount::getAppId, batch)
+            ).stream().collect(Collectors.toMap(WxAccount::getAppId, WxAccount::getRevision, Math::max));
+            for (String appId : batch) {
+                Entry entry = entryMap.get(appId);
+                if (entry == null) {
+                    continue;
+                }
+                Long revision = revisionMap.get(appId);
+                if (revision == null) {
+                    if (entryMap.remove(appId, entry)) {
+                        log.warn("对账发现公众号已删除，移除配置：{}", appId);
+                    }
+                } else if (!Objects.equals(revision, entry.revision)) {
+                    log.warn("对账发现公众号配置版本不一致：{}，本地：{}，数据库：{}", appId, entry.revision, revision);
+                    this.reload(appId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 移除公众号配置
+     *
+     * @param appId appId
+     */
+    public void evict(String appId) {
+        // 正在处理中的请求仍持有旧的服务实例，可以正常完成
+        if (entryMap.remove(appId) != null) {
+            log.info("公众号配置已移除：{}", appId);
+        }
+    }
+
+    /**
+     * 定时淘汰空闲的公众号配置
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        long idleMillis = wxMpProperties.getRegistry().getIdleMinutes() * 60_000;
+        entryMap.forEach((appId, entry) -> {
+            if (now - entry.lastAccessTime > idleMillis) {
+                this.evict(appId);
+            }
+        });
+        missingMap.entrySet().removeIf(item -> item.getValue() <= now);
+    }
+
+    private Entry load(String appId) {
+        WxAccount wxAccount = this.selectAccount(appId);
+        if (wxAccount == null) {
+            this.markMissing(appId);
+            log.warn("公众号不存在：{}", appId);
+            return null;
+        }
+        log.info("公众号配置已加载：{}，版本：{}", appId, wxAccount.getRevision());
+        return this.newEntry(wxAccount);
+    }
+
+    /**
+     * 从数据库重新加载已加载的公众号，只会用更新的版本替换本地配置
+     */
+    private void reload(String appId) {
+        WxAccount wxAccount = this.selectAccount(appId);
+        if (wxAccount == null) {
+            if (entryMap.remove(appId) != null) {
+                this.markMissing(appId);
+                log.info("公众号已删除，移除配置：{}", appId);
+            }
+            return;
+        }
+        entryMap.computeIfPresent(appId, (key, old) -> {
+            if (old.revision >= wxAccount.getRevision()) {
+                return old;
+            }
+            log.info("公众号配置已更新：{}，版本：{} -> {}", appId, old.revision, wxAccount.getRevision());
+            Entry entry = this.newEntry(wxAccount);
+            entry.lastAccessTime = old.lastAccessTime;
+            return entry;
+        });
+    }
+
+    private WxAccount selectAccount(String appId) {
+        return wxAccountMapper.selectOne(
+                Wrappers.lambdaQuery(WxAccount.class).eq(WxAccount::getAppId, appId)
+        );
+    }
+
+    private Entry newEntry(WxAccount wxAccount) {
+        long revision = wxAccount.getRevision() == null ? 0 : wxAccount.getRevision();
+        return new Entry(wxMpConfigStorageFactory.create(wxAccount), revision);
+    }
+
+    private void markMissing(String appId) {
+        long missingCacheMillis = wxMpProperties.getRegistry().getMissingCacheSeconds() * 1000;
+        missingMap.put(appId, System.currentTimeMillis() + missingCacheMillis);
+    }
+
+    /**
+     * 超出数量上限时淘汰最久未使用的公众号
+     */
+    private void evictOverflow() {
+        int maxSize = wxMpProperties.getRegistry().getMaxSize();
+        while (entryMap.size() > maxSize) {
+            String eldestAppId = null;
+            long eldestAccessTime = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> item : entryMap.entrySet()) {
+                if (item.getValue().lastAccessTime < eldestAccessTime) {
+                    eldestAccessTime = item.getValue().lastAccessTime;
+                    eldestAppId = item.getKey();
+                }
+            }
+            if (eldestAppId == null) {
+                return;
+            }
+            this.evict(eldestAppId);
+        }
+    }
+
+    private static final class Entry {
+
+        private final WxMpService wxMpService;
+
+        private final long revision;
+
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        private Entry(WxMpConfigStorage configStorage, long revision) {
+            // 只有一个配置时 getWxMpConfigStorage 直接返回该配置，不读取 ThreadLocal
+            WxMpService service = new WxMpServiceImpl();
+            service.setMaxRetryTimes(3);
+            service.setWxMpConfigStorage(configStorage);
+            this.wxMpService = service;
+            this.revision = revision;
+        }
+    }
+}
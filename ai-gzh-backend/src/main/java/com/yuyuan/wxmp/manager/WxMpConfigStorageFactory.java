@@ -0,0 +1,64 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.RedisConstant;
+import com.yuyuan.wxmp.model.entity.WxAccount;
+import lombok.RequiredArgsConstructor;
+import me.chanjar.weixin.mp.config.WxMpConfigStorage;
+import me.chanjar.weixin.mp.config.WxMpHostConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * 公众号配置存储工厂
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@RequiredArgsConstructor
+public class WxMpConfigStorageFactory {
+
+    private final RedissonClient redissonClient;
+
+    private final WxMpProperties wxMpProperties;
+
+    /**
+     * 根据公众号账号创建配置存储，access_token 保存在 Redis 中由所有节点共享
+     *
+     * @param wxAccount 公众号账号
+     * @return {@link WxMpConfigStorage }
+     */
+    public WxMpConfigStorage create(WxAccount wxAccount) {
+        WxMpProperties.Token tokenProperties = wxMpProperties.getToken();
+        WxMpRedisConfigStorage configStorage = new WxMpRedisConfigStorage(
+                redissonClient,
+                RedisConstant.WX_MP_TOKEN_KEY_PREFIX,
+                tokenProperties.getRefreshAheadSeconds() * 1000,
+                tokenProperties.getLocalCacheSeconds() * 1000
+        );
+        configStorage.setAppId(wxAccount.getAppId());
+        configStorage.setSecret(wxAccount.getSecret());
+        configStorage.setToken(wxAccount.getToken());
+        configStorage.setAesKey(wxAccount.getAesKey());
+        if (StringUtils.isNotBlank(wxMpProperties.getApiHost())) {
+            configStorage.setHostConfig(hostConfig(wxMpProperties.getApiHost()));
+        }
+        return configStorage;
+    }
+
+    /**
+     * 把接口地址指向指定地址，open、mp 域名的接口保持官方地址
+     *
+     * @param apiHost 接口地址，如 http://localhost:18081
+     * @return {@link WxMpHostConfig }
+     */
+    public static WxMpHostConfig hostConfig(String apiHost) {
+        WxMpHostConfig hostConfig = new WxMpHostConfig();
+        hostConfig.setApiHost(StringUtils.removeEnd(apiHost, "/"));
+        hostConfig.setOpenHost(WxMpHostConfig.OPEN_DEFAULT_HOST_URL);
+        hostConfig.setMpHost(WxMpHostConfig.MP_DEFAULT_HOST_URL);
+        return hostConfig;
+    }
+}
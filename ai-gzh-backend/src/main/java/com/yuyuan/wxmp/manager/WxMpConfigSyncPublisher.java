@@ -0,0 +1,107 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.yuyuan.wxmp.constant.MqConstant;
+import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountSyncMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 公众号配置同步消息发布
+ * <p>
+ * 事务提交后才更新本节点并发布消息，避免其他节点读到未提交的数据；
+ * 发布使用 publisher confirm，未确认时在单独的线程上退避重试（确认回调运行在 AMQP 连接线程上，不能在其中发送），
+ * 重试失败由 {@link WxMpConfigRegistry} 的定时对账兜底。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WxMpConfigSyncPublisher {
+
+    /**
+     * 最多发送次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * 第一次重试的等待时间（毫秒），之后每次翻倍
+     */
+    private static final long RETRY_BASE_DELAY_MILLIS = 500;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final WxMpConfigRegistry wxMpConfigRegistry;
+
+    private final ScheduledThreadPoolExecutor retryExecutor = new ScheduledThreadPoolExecutor(1,
+            ThreadFactoryBuilder.create().setNamePrefix("wxmp-config-sync-retry-").setDaemon(true).build());
+
+    /**
+     * 发布配置变更，存在事务时在事务提交后执行
+     *
+     * @param message 同步消息
+     */
+    public void publish(WxAccountSyncMessage message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.doPublish(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doPublish(message);
+            }
+        });
+    }
+
+    private void doPublish(WxAccountSyncMessage message) {
+        // 本节点直接生效，不依赖消息回环
+        wxMpConfigRegistry.apply(message);
+        this.send(message, 1);
+    }
+
+    private void send(WxAccountSyncMessage message, int attempt) {
+        CorrelationData correlationData = new CorrelationData(message.getAppId() + ":" + message.getRevision() + ":" + attempt);
+        try {
+            rabbitTemplate.convertAndSend(MqConstant.SYNC_WXMP_CONFIG_EXCHANGE, "", message, correlationData);
+        } catch (AmqpException e) {
+            log.error("公众号配置同步消息发送失败，等待定时对账修复：{}", message, e);
+            return;
+        }
+        correlationData.getFuture().whenComplete((confirm, e) -> {
+            if (e == null && confirm.isAck()) {
+                return;
+            }
+            String reason = e != null ? e.getMessage() : confirm.getReason();
+            if (attempt >= MAX_ATTEMPTS) {
+                log.error("公众号配置同步消息未被确认，等待定时对账修复：{}，原因：{}", message, reason);
+                return;
+            }
+            long delay = RETRY_BASE_DELAY_MILLIS << (attempt - 1);
+            log.warn("公众号配置同步消息未被确认，{}ms 后第 {} 次重试：{}，原因：{}", delay, attempt, message, reason);
+            try {
+                retryExecutor.schedule(() -> this.send(message, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ex) {
+                log.error("节点关闭中，公众号配置同步消息不再重试，等待定时对账修复：{}", message);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdownNow();
+    }
+}
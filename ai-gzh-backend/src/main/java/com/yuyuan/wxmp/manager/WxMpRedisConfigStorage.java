@@ -0,0 +1,223 @@
+package com.yuyuan.wxmp.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.common.enums.TicketType;
+import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 基于 Redis 的公众号配置存储
+ * <p>
+ * access_token 和 ticket 存放在 Redis 中，由所有节点共享，避免每个节点各自获取 token 导致互相失效、耗尽每日调用次数。
+ * <ul>
+ *     <li>刷新时使用 Redisson 分布式锁，保证同一时刻只有一个节点在刷新（WxJava 在拿到锁后会再次检查是否过期）</li>
+ *     <li>token 临近过期时只放行一个线程提前刷新，其他线程继续使用旧 token，不会集中阻塞在锁上</li>
+ *     <li>本地缓存读到的 token，在 localCacheMillis 内不再访问 Redis</li>
+ * </ul>
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Slf4j
+public class WxMpRedisConfigStorage extends WxMpDefaultConfigImpl {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final String ACCESS_TOKEN = "access_token";
+
+    /**
+     * 刷新权的最长持有时间，超过后允许其他线程重新发起提前刷新
+     */
+    private static final long REFRESH_CLAIM_TIMEOUT_MILLIS = 10_000;
+
+    private final transient RedissonClient redissonClient;
+
+    private final String keyPrefix;
+
+    private final long refreshAheadMillis;
+
+    private final long localCacheMillis;
+
+    /**
+     * 本地缓存，key 为 access_token 或 ticket 类型
+     */
+    private final transient Map<String, TokenSnapshot> localCache = new ConcurrentHashMap<>();
+
+    private final transient AtomicReference<RefreshClaim> refreshClaim = new AtomicReference<>();
+
+    public WxMpRedisConfigStorage(RedissonClient redissonClient, String keyPrefix,
+                                  long refreshAheadMillis, long localCacheMillis) {
+        this.redissonClient = redissonClient;
+        this.keyPrefix = keyPrefix;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.localCacheMillis = localCacheMillis;
+    }
+
+    // region access_token
+
+    @Override
+    public String getAccessToken() {
+        TokenSnapshot snapshot = this.load(ACCESS_TOKEN, this.isRefreshOwner());
+        return snapshot == null ? null : snapshot.value;
+    }
+
+    @Override
+    public Lock getAccessTokenLock() {
+        return redissonClient.getLock(this.redisKey("lock:" + ACCESS_TOKEN));
+    }
+
+    @Override
+    public boolean isAccessTokenExpired() {
+        boolean owner = this.isRefreshOwner();
+        TokenSnapshot snapshot = this.load(ACCESS_TOKEN, owner);
+        long now = System.currentTimeMillis();
+        if (snapshot == null || now >= snapshot.expiresAt) {
+            return true;
+        }
+        if (snapshot.expiresAt - now > refreshAheadMillis) {
+            return false;
+        }
+        // 即将过期：只放行一个线程去提前刷新，其他线程继续使用仍然有效的旧 token
+        return owner || this.tryClaimRefresh(now);
+    }
+
+    @Override
+    public synchronized void updateAccessToken(String accessToken, int expiresInSeconds) {
+        try {
+            this.store(ACCESS_TOKEN, accessToken, expiresInSeconds);
+        } finally {
+            refreshClaim.set(null);
+        }
+    }
+
+    @Override
+    public void expireAccessToken() {
+        this.remove(ACCESS_TOKEN);
+        refreshClaim.set(null);
+    }
+
+    // endregion
+
+    // region ticket
+
+    @Override
+    public String getTicket(TicketType type) {
+        TokenSnapshot snapshot = this.load(type.getCode(), false);
+        return snapshot == null ? null : snapshot.value;
+    }
+
+    @Override
+    public Lock getTicketLock(TicketType type) {
+        return redissonClient.getLock(this.redisKey("lock:" + type.getCode()));
+    }
+
+    @Override
+    public boolean isTicketExpired(TicketType type) {
+        TokenSnapshot snapshot = this.load(type.getCode(), false);
+        return snapshot == null || System.currentTimeMillis() >= snapshot.expiresAt;
+    }
+
+    @Override
+    public synchronized void updateTicket(TicketType type, String ticket, int expiresInSeconds) {
+        this.store(type.getCode(), ticket, expiresInSeconds);
+    }
+
+    @Override
+    public void expireTicket(TicketType type) {
+        this.remove(type.getCode());
+    }
+
+    // endregion
+
+    private TokenSnapshot load(String type, boolean skipLocalCache) {
+        long now = System.currentTimeMillis();
+        TokenSnapshot snapshot = localCache.get(type);
+        if (!skipLocalCache && snapshot != null && now - snapshot.loadedAt < localCacheMillis && now < snapshot.expiresAt) {
+            return snapshot;
+        }
+        snapshot = TokenSnapshot.parse(this.bucket(type).get(), now);
+        if (snapshot == null) {
+            localCache.remove(type);
+        } else {
+            localCache.put(type, snapshot);
+        }
+        return snapshot;
+    }
+
+    private void store(String type, String value, int expiresInSeconds) {
+        // 与 WxJava 默认实现一致，预留 200 秒的网络延迟余量
+        long ttlMillis = Math.max(expiresInSeconds - 200, 1) * 1000L;
+        long now = System.currentTimeMillis();
+        TokenSnapshot snapshot = new TokenSnapshot(value, now + ttlMillis, now);
+        this.bucket(type).set(snapshot.format(), Duration.ofMillis(ttlMillis));
+        localCache.put(type, snapshot);
+        log.info("公众号 {} 的 {} 已刷新并写入 Redis，有效期 {}s", this.getAppId(), type, ttlMillis / 1000);
+    }
+
+    private void remove(String type) {
+        this.bucket(type).delete();
+        localCache.remove(type);
+    }
+
+    private boolean isRefreshOwner() {
+        RefreshClaim claim = refreshClaim.get();
+        return claim != null && claim.thread == Thread.currentThread();
+    }
+
+    private boolean tryClaimRefresh(long now) {
+        RefreshClaim claim = refreshClaim.get();
+        if (claim != null && now - claim.claimedAt < REFRESH_CLAIM_TIMEOUT_MILLIS) {
+            return false;
+        }
+        return refreshClaim.compareAndSet(claim, new RefreshClaim(Thread.currentThread(), now));
+    }
+
+    private RBucket<String> bucket(String type) {
+        return redissonClient.getBucket(this.redisKey(type), StringCodec.INSTANCE);
+    }
+
+    private String redisKey(String type) {
+        return keyPrefix + this.getAppId() + ":" + type;
+    }
+
+    /**
+     * token 快照，Redis 中保存为 token|过期时间戳
+     */
+    private record TokenSnapshot(String value, long expiresAt, long loadedAt) {
+
+        private static final char SEPARATOR = '|';
+
+        private String format() {
+            return value + SEPARATOR + expiresAt;
+        }
+
+        private static TokenSnapshot parse(String raw, long now) {
+            if (StringUtils.isBlank(raw)) {
+                return null;
+            }
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                return null;
+            }
+            try {
+                return new TokenSnapshot(raw.substring(0, index), Long.parseLong(raw.substring(index + 1)), now);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private record RefreshClaim(Thread thread, long claimedAt) {
+    }
+}
@@ -1,7 +1,13 @@
 package com.yuyuan.wxmp.mapper;
 
 import com.yuyuan.wxmp.model.entity.AiReplyRecord;
+import com.yuyuan.wxmp.model.vo.AiUserUsageVO;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.Date;
+import java.util.List;
 
 /**
 * @author cq
@@ -11,8 +17,47 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 */
 public interface AiReplyRecordMapper extends BaseMapper<AiReplyRecord> {
 
-}
-
-
+    /**
+     * 按 id 顺序流式读取已回复的记录（只包含 id、appId、message、replyMessage）
+     * <p>
+     * 游标在读取完之前会一直占用数据库连接，需要在独立的 SqlSession 中使用并及时关闭
+     *
+     * @param lastId 从该 id 之后开始读取
+     * @param before 只读取该时间之前创建的记录
+     * @param limit  最多读取的条数
+     * @return {@link Cursor}<{@link AiReplyRecord}>
+     */
+    Cursor<AiReplyRecord> streamRepliedAfter(@Param("lastId") long lastId,
+                                             @Param("before") Date before,
+                                             @Param("limit") int limit);
 
+    /**
+     * 按 id 顺序查询待补发的未回复记录并加行锁，已被其他事务锁定的行直接跳过，需要在事务中调用
+     *
+     * @param lastId      从该 id 之后开始查询
+     * @param after       只查询该时间之后创建的记录（客服消息时间窗口）
+     * @param before      只查询该时间之前创建的记录，避免领取还在回复中的记录
+     * @param maxAttempts 补发次数小于该值的记录
+     * @param limit       最多查询的条数
+     * @return {@link List}<{@link AiReplyRecord}>
+     */
+    List<AiReplyRecord> selectRetryCandidatesForUpdate(@Param("lastId") long lastId,
+                                                       @Param("after") Date after,
+                                                       @Param("before") Date before,
+                                                       @Param("maxAttempts") int maxAttempts,
+                                                       @Param("limit") int limit);
 
+    /**
+     * 按粉丝统计 AI 调用的 token 用量，按总 token 数倒序
+     *
+     * @param appId     appId
+     * @param startTime 开始时间（包含）
+     * @param endTime   结束时间（不包含）
+     * @param limit     最多返回的粉丝数
+     * @return {@link List}<{@link AiUserUsageVO}>
+     */
+    List<AiUserUsageVO> selectTopUsers(@Param("appId") String appId,
+                                       @Param("startTime") Date startTime,
+                                       @Param("endTime") Date endTime,
+                                       @Param("limit") int limit);
+}
@@ -0,0 +1,23 @@
+package com.yuyuan.wxmp.mapper;
+
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+* @author cq
+* @description 针对表【ai_reply_suggestion(AI 高频问题回复规则建议)】的数据库操作Mapper
+* @createDate 2026-10-19 10:00:00
+* @Entity com.yuyuan.wxmp.model.entity.AiReplySuggestion
+*/
+public interface AiReplySuggestionMapper extends BaseMapper<AiReplySuggestion> {
+
+    /**
+     * 物理删除出现次数未达到展示条件、且长时间没有新的相似问题的待处理建议
+     *
+     * @param minHits    展示建议的最少出现次数
+     * @param expireDays 多少天没有更新
+     * @return 删除的条数
+     */
+    int deleteExpiredCandidates(@Param("minHits") int minHits, @Param("expireDays") int expireDays);
+}
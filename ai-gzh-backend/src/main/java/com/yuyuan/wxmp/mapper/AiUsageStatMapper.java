@@ -0,0 +1,48 @@
+package com.yuyuan.wxmp.mapper;
+
+import com.yuyuan.wxmp.model.entity.AiUsageStat;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.yuyuan.wxmp.model.vo.AiUsageStatVO;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+* @author cq
+* @description 针对表【ai_usage_stat(AI 调用用量统计（按分钟汇总）)】的数据库操作Mapper
+* @createDate 2026-10-19 10:00:00
+* @Entity com.yuyuan.wxmp.model.entity.AiUsageStat
+*/
+public interface AiUsageStatMapper extends BaseMapper<AiUsageStat> {
+
+    /**
+     * 批量累加（同一分钟的统计已存在时在原有数值上累加，多个节点可以同时写入）
+     *
+     * @param statList 统计
+     * @return 影响行数
+     */
+    int upsertBatch(@Param("statList") List<AiUsageStat> statList);
+
+    /**
+     * 按时间粒度汇总公众号的用量
+     *
+     * @param appId      appId，为空时查询所有公众号
+     * @param startTime  开始时间（包含）
+     * @param endTime    结束时间（不包含）
+     * @param timeFormat 时间粒度（DATE_FORMAT 格式）
+     * @return {@link List}<{@link AiUsageStatVO}>
+     */
+    List<AiUsageStatVO> selectUsage(@Param("appId") String appId,
+                                    @Param("startTime") Date startTime,
+                                    @Param("endTime") Date endTime,
+                                    @Param("timeFormat") String timeFormat);
+
+    /**
+     * 统计各公众号从某个时间开始的 token 总数（只包含 appId、promptTokens、completionTokens）
+     *
+     * @param startTime 开始时间（包含）
+     * @return {@link List}<{@link AiUsageStat}>
+     */
+    List<AiUsageStat> selectTokensSince(@Param("startTime") Date startTime);
+}
@@ -0,0 +1,22 @@
+package com.yuyuan.wxmp.mapper;
+
+import com.yuyuan.wxmp.model.entity.KnowledgeDocument;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+* @author cq
+* @description 针对表【knowledge_document(公众号知识库文档)】的数据库操作Mapper
+* @createDate 2026-10-19 10:00:00
+* @Entity com.yuyuan.wxmp.model.entity.KnowledgeDocument
+*/
+public interface KnowledgeDocumentMapper extends BaseMapper<KnowledgeDocument> {
+
+    /**
+     * 查询公众号知识库的版本（包含已删除的文档），文档新增、修改、删除后都会变化
+     *
+     * @param appId appId
+     * @return 版本
+     */
+    String selectRevision(@Param("appId") String appId);
+}
@@ -2,6 +2,7 @@ package com.yuyuan.wxmp.mapper;
 
 import com.yuyuan.wxmp.model.entity.WxAccount;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
 
 /**
 * @author cq
@@ -11,6 +12,21 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 */
 public interface WxAccountMapper extends BaseMapper<WxAccount> {
 
+    /**
+     * 查询 appId 的最大版本号（包含已删除的记录）
+     *
+     * @param appId appId
+     * @return 最大版本号，不存在时为 0
+     */
+    Long selectMaxRevision(@Param("appId") String appId);
+
+    /**
+     * 逻辑删除公众号并递增版本号
+     *
+     * @param appId appId
+     * @return 影响行数
+     */
+    int deleteByAppIdWithRevision(@Param("appId") String appId);
 }
 
 
@@ -0,0 +1,34 @@
+package com.yuyuan.wxmp.mapper;
+
+import com.yuyuan.wxmp.model.entity.WxBroadcastRecipient;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+* @author cq
+* @description 针对表【wx_broadcast_recipient(群发任务接收人（每人一行记录发送状态，任务中断后从未完成的接收人继续）)】的数据库操作Mapper
+* @createDate 2026-10-19 10:00:00
+* @Entity com.yuyuan.wxmp.model.entity.WxBroadcastRecipient
+*/
+public interface WxBroadcastRecipientMapper extends BaseMapper<WxBroadcastRecipient> {
+
+    /**
+     * 把公众号关注中的粉丝写入为接收人
+     *
+     * @param taskId 群发任务 id
+     * @param appId  appId
+     * @return 写入人数
+     */
+    int insertFromFollowers(@Param("taskId") Long taskId, @Param("appId") String appId);
+
+    /**
+     * 批量写入接收人，重复的 openId 忽略
+     *
+     * @param taskId  群发任务 id
+     * @param openIds openId
+     * @return 写入人数
+     */
+    int insertOpenIds(@Param("taskId") Long taskId, @Param("openIds") List<String> openIds);
+}
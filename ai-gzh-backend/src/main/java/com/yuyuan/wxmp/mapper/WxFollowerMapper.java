@@ -0,0 +1,24 @@
+package com.yuyuan.wxmp.mapper;
+
+import com.yuyuan.wxmp.model.entity.WxFollower;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+* @author cq
+* @description 针对表【wx_follower(公众号粉丝（全量同步 + 关注、取消关注事件增量更新）)】的数据库操作Mapper
+* @createDate 2026-10-19 10:00:00
+* @Entity com.yuyuan.wxmp.model.entity.WxFollower
+*/
+public interface WxFollowerMapper extends BaseMapper<WxFollower> {
+
+    /**
+     * 批量写入，粉丝已存在时更新（为空的字段保留原值，关注事件只带 openId 时不会覆盖已同步的信息）
+     *
+     * @param followerList 粉丝
+     * @return 影响行数
+     */
+    int upsertBatch(@Param("followerList") List<WxFollower> followerList);
+}
@@ -0,0 +1,14 @@
+package com.yuyuan.wxmp.mapper;
+
+import com.yuyuan.wxmp.model.entity.WxReplyKeyword;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+* @author cq
+* @description 针对表【wx_reply_keyword(回复规则关键字)】的数据库操作Mapper
+* @createDate 2026-10-19 10:00:00
+* @Entity com.yuyuan.wxmp.model.entity.WxReplyKeyword
+*/
+public interface WxReplyKeywordMapper extends BaseMapper<WxReplyKeyword> {
+
+}
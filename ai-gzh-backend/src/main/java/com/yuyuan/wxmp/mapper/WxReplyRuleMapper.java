@@ -2,6 +2,9 @@ package com.yuyuan.wxmp.mapper;
 
 import com.yuyuan.wxmp.model.entity.WxReplyRule;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
 * @author cq
@@ -11,6 +14,14 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 */
 public interface WxReplyRuleMapper extends BaseMapper<WxReplyRule> {
 
+    /**
+     * 查询还没有写入关键字表的关键字规则
+     *
+     * @param lastId 上一批最大的规则 id
+     * @param limit  数量
+     * @return {@link List}<{@link WxReplyRule}>
+     */
+    List<WxReplyRule> selectWithoutKeywords(@Param("lastId") Long lastId, @Param("limit") Integer limit);
 }
 
 
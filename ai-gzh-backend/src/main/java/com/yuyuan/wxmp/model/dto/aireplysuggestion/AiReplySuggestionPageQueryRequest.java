@@ -0,0 +1,32 @@
+package com.yuyuan.wxmp.model.dto.aireplysuggestion;
+
+import com.yuyuan.wxmp.common.PageRequest;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 回复规则建议分页查询
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class AiReplySuggestionPageQueryRequest extends PageRequest implements Serializable {
+
+    @Schema(description = "公众号appid")
+    private String appId;
+
+    @Schema(description = "状态，0 - 待处理、1 - 已采纳、2 - 已忽略")
+    private Integer status;
+
+    @Schema(description = "问题")
+    private String question;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
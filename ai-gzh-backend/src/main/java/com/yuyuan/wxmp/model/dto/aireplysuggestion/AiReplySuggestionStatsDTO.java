@@ -0,0 +1,26 @@
+package com.yuyuan.wxmp.model.dto.aireplysuggestion;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 回复规则建议的问法和回复统计
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class AiReplySuggestionStatsDTO {
+
+    /**
+     * 原始问法 -> 出现次数
+     */
+    private Map<String, Integer> questions = new HashMap<>();
+
+    /**
+     * 回复 -> 出现次数
+     */
+    private Map<String, Integer> replies = new HashMap<>();
+}
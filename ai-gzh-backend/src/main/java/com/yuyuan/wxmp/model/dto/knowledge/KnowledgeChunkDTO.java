@@ -0,0 +1,32 @@
+package com.yuyuan.wxmp.model.dto.knowledge;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 知识库文档切片
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KnowledgeChunkDTO {
+
+    /**
+     * 文档 id
+     */
+    private Long documentId;
+
+    /**
+     * 文档标题
+     */
+    private String title;
+
+    /**
+     * 切片内容
+     */
+    private String content;
+}
@@ -0,0 +1,33 @@
+package com.yuyuan.wxmp.model.dto.knowledge;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 新增知识库文档
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class KnowledgeDocumentAddRequest implements Serializable {
+
+    @NotBlank(message = "appId不能为空")
+    @Schema(description = "公众号appid", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String appId;
+
+    @NotBlank(message = "标题不能为空")
+    @Schema(description = "标题", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String title;
+
+    @NotBlank(message = "内容不能为空")
+    @Schema(description = "文档内容（纯文本或 markdown）", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String content;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,29 @@
+package com.yuyuan.wxmp.model.dto.knowledge;
+
+import com.yuyuan.wxmp.common.PageRequest;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 知识库文档分页查询
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class KnowledgeDocumentPageQueryRequest extends PageRequest implements Serializable {
+
+    @Schema(description = "公众号appid")
+    private String appId;
+
+    @Schema(description = "标题")
+    private String title;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,26 @@
+package com.yuyuan.wxmp.model.dto.knowledge;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 知识库索引的切片文件内容
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class KnowledgeIndexFileDTO {
+
+    /**
+     * 构建索引时的知识库版本
+     */
+    private String revision;
+
+    /**
+     * 切片，下标与向量文件中的向量一一对应
+     */
+    private List<KnowledgeChunkDTO> chunks = new ArrayList<>();
+}
@@ -0,0 +1,45 @@
+package com.yuyuan.wxmp.model.dto.wxbroadcast;
+
+import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 群发消息内容，客服消息使用 contentType、textContent、mediaId，模板消息使用 templateId、url、templateData
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class WxBroadcastContentDTO implements Serializable {
+
+    /**
+     * 内容类型
+     * 参考{@link WxReplyContentTypeEnum}
+     */
+    @Schema(description = "客服消息内容类型，默认为文字类型")
+    private Integer contentType = 0;
+
+    @Schema(description = "文本消息内容")
+    private String textContent;
+
+    @Schema(description = "素材Id（图片、音频、视频）")
+    private String mediaId;
+
+    @Schema(description = "模板消息的模板 id")
+    private String templateId;
+
+    @Schema(description = "模板消息的跳转链接")
+    private String url;
+
+    @Schema(description = "模板消息的数据，key 为模板中的变量名")
+    private Map<String, String> templateData = new LinkedHashMap<>();
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,42 @@
+package com.yuyuan.wxmp.model.dto.wxbroadcast;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 创建群发任务
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class WxBroadcastTaskAddRequest implements Serializable {
+
+    @Schema(description = "公众号appid", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "appId 不能为空")
+    private String appId;
+
+    @Schema(description = "任务名称", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "任务名称不能为空")
+    private String title;
+
+    @Schema(description = "发送渠道，0 - 客服消息、1 - 模板消息", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "发送渠道不能为空")
+    private Integer channel;
+
+    @Schema(description = "消息内容", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "消息内容不能为空")
+    private WxBroadcastContentDTO content;
+
+    @Schema(description = "接收人 openId，为空时发送给所有关注中的粉丝（以粉丝同步结果为准）")
+    private List<String> openIds;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,32 @@
+package com.yuyuan.wxmp.model.dto.wxbroadcast;
+
+import com.yuyuan.wxmp.common.PageRequest;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 群发任务分页查询
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class WxBroadcastTaskPageQueryRequest extends PageRequest implements Serializable {
+
+    @Schema(description = "公众号appid")
+    private String appId;
+
+    @Schema(description = "状态，0 - 待发送、1 - 发送中、2 - 已暂停、3 - 已完成、4 - 已取消")
+    private Integer status;
+
+    @Schema(description = "任务名称")
+    private String title;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,38 @@
+package com.yuyuan.wxmp.model.dto.wxfollower;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 粉丝游标分页查询
+ * <p>
+ * 按 id 递增翻页，下一页传入上一页返回的 nextId，翻到多深都只扫描一页数据
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class WxFollowerQueryRequest implements Serializable {
+
+    @NotBlank(message = "appId 不能为空")
+    @Schema(description = "公众号appid")
+    private String appId;
+
+    @Schema(description = "是否关注，0 - 已取消关注、1 - 关注中，为空时查询全部")
+    private Integer subscribe;
+
+    @Schema(description = "上一页返回的 nextId，第一页不传")
+    private Long lastId;
+
+    @Max(value = 100, message = "每页不能超过 100 条数据")
+    @Schema(description = "页面大小")
+    private int pageSize = 20;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,40 @@
+package com.yuyuan.wxmp.model.dto.wxmpaccount;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 公众号配置同步消息
+ * <p>
+ * 只携带 appId 和版本号，消费者按版本号判断是否过期，最新配置以数据库为准
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WxAccountSyncMessage implements Serializable {
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 配置版本号
+     */
+    private Long revision;
+
+    /**
+     * 是否已删除
+     */
+    private Boolean deleted;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
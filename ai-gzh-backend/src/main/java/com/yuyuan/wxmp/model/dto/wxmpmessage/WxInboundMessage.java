@@ -0,0 +1,65 @@
+package com.yuyuan.wxmp.model.dto.wxmpmessage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 写入分区队列的微信回调
+ * <p>
+ * 接收节点只校验签名，请求体原样转发，解密和解析由处理节点完成
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WxInboundMessage implements Serializable {
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 粉丝 openId，和 appId 一起决定分区
+     */
+    private String openId;
+
+    /**
+     * timestamp 参数
+     */
+    private String timestamp;
+
+    /**
+     * nonce 参数
+     */
+    private String nonce;
+
+    /**
+     * encrypt_type 参数
+     */
+    private String encType;
+
+    /**
+     * msg_signature 参数
+     */
+    private String msgSignature;
+
+    /**
+     * 请求体原文
+     */
+    private String body;
+
+    /**
+     * 接收时间（毫秒时间戳）
+     */
+    private Long receiveTime;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
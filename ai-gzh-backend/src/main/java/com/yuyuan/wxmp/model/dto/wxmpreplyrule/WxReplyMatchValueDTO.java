@@ -14,10 +14,10 @@ import lombok.Data;
 @Data
 public class WxReplyMatchValueDTO {
     /**
-     * 匹配类型（全匹配还是半匹配）
+     * 匹配类型
      * {@link WxReplyMatchTypeEnum}
      */
-    @Schema(description = "匹配类型（全匹配还是半匹配）,默认为模糊匹配")
+    @Schema(description = "匹配类型（0 全匹配、1 半匹配、2 归一化匹配、3 拼音匹配、4 容错匹配、5 正则匹配），默认为半匹配")
     private Integer matchType = 1;
 
     @Schema(description = "关键字")
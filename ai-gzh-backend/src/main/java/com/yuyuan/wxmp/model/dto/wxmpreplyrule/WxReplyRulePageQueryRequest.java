@@ -31,7 +31,7 @@ public class WxReplyRulePageQueryRequest extends PageRequest implements Serializ
     private String ruleName;
 
     /**
-     * 匹配值（关键字或者事件的key）
+     * 关键字（归一化后按前缀匹配）
      */
     @Schema(name = "关键字搜索")
     private String matchValue;
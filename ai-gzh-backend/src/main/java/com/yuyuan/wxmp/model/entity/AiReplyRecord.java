@@ -44,10 +44,35 @@ public class AiReplyRecord implements Serializable {
     private String replyMessage;
 
     /**
-     * 回复状态，0 - 未回复、1 - 已回复
+     * 回复状态，0 - 未回复、1 - 已回复、2 - 补发中、3 - 补发失败
      */
     private Integer replyStatus;
 
+    /**
+     * 模型
+     */
+    private String model;
+
+    /**
+     * 输入 token 数
+     */
+    private Integer promptTokens;
+
+    /**
+     * 输出 token 数
+     */
+    private Integer completionTokens;
+
+    /**
+     * AI 调用耗时（毫秒）
+     */
+    private Integer latencyMillis;
+
+    /**
+     * 后台补发次数
+     */
+    private Integer retryCount;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,89 @@
+package com.yuyuan.wxmp.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * AI 高频问题回复规则建议
+ * @TableName ai_reply_suggestion
+ */
+@TableName(value ="ai_reply_suggestion")
+@Data
+public class AiReplySuggestion implements Serializable {
+    /**
+     * id
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 出现次数最多的问法
+     */
+    private String question;
+
+    /**
+     * 出现次数最多的回复
+     */
+    private String replyMessage;
+
+    /**
+     * 相似问题出现次数
+     */
+    private Integer hitCount;
+
+    /**
+     * 出现次数最多的回复的次数
+     */
+    private Integer replyCount;
+
+    /**
+     * 问题的 MinHash 签名
+     */
+    private String signature;
+
+    /**
+     * 问法和回复的出现次数（json）
+     */
+    private String statistics;
+
+    /**
+     * 0 - 待处理、1 - 已采纳、2 - 已忽略
+     */
+    private Integer status;
+
+    /**
+     * 采纳后生成的回复规则 id
+     */
+    private Long ruleId;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    /**
+     * 是否删除
+     */
+    private Integer isDelete;
+
+    @Serial
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
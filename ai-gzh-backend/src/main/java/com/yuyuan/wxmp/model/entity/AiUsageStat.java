@@ -0,0 +1,84 @@
+package com.yuyuan.wxmp.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * AI 调用用量统计（按分钟汇总）
+ * @TableName ai_usage_stat
+ */
+@TableName(value ="ai_usage_stat")
+@Data
+public class AiUsageStat implements Serializable {
+    /**
+     * id
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 模型
+     */
+    private String model;
+
+    /**
+     * 统计时间（分钟）
+     */
+    private Date statTime;
+
+    /**
+     * 调用次数
+     */
+    private Integer callCount;
+
+    /**
+     * 失败次数
+     */
+    private Integer failCount;
+
+    /**
+     * 输入 token 数
+     */
+    private Long promptTokens;
+
+    /**
+     * 输出 token 数
+     */
+    private Long completionTokens;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private Long latencyMillis;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    private Integer maxLatencyMillis;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    @Serial
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
 import lombok.Data;
 import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
 
@@ -54,6 +55,12 @@ public class WxAccount implements Serializable {
      */
     private String aesKey;
 
+    /**
+     * 配置版本号，每次修改、删除时递增，用于多节点同步配置时丢弃过期的消息
+     */
+    @Version
+    private Long revision;
+
     /**
      * 创建用户 id
      */
@@ -0,0 +1,74 @@
+package com.yuyuan.wxmp.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 群发任务接收人（每人一行记录发送状态，任务中断后从未完成的接收人继续）
+ * @TableName wx_broadcast_recipient
+ */
+@TableName(value ="wx_broadcast_recipient")
+@Data
+public class WxBroadcastRecipient implements Serializable {
+    /**
+     * id
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 群发任务 id
+     */
+    private Long taskId;
+
+    /**
+     * 接收人 openId
+     */
+    private String openId;
+
+    /**
+     * 0 - 待发送、1 - 发送中、2 - 已发送、3 - 发送失败
+     */
+    private Integer status;
+
+    /**
+     * 已发送次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次重试时间
+     */
+    private Date nextRetryTime;
+
+    /**
+     * 最近一次的微信错误码
+     */
+    private Integer errorCode;
+
+    /**
+     * 最近一次的错误信息
+     */
+    private String errorMsg;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    @Serial
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
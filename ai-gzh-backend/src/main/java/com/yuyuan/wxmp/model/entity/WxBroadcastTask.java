@@ -0,0 +1,99 @@
+package com.yuyuan.wxmp.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 群发任务
+ * @TableName wx_broadcast_task
+ */
+@TableName(value ="wx_broadcast_task")
+@Data
+public class WxBroadcastTask implements Serializable {
+    /**
+     * id
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 任务名称
+     */
+    private String title;
+
+    /**
+     * 发送渠道，0 - 客服消息、1 - 模板消息
+     */
+    private Integer channel;
+
+    /**
+     * 消息内容（json）
+     */
+    private String content;
+
+    /**
+     * 0 - 待发送、1 - 发送中、2 - 已暂停、3 - 已完成、4 - 已取消
+     */
+    private Integer status;
+
+    /**
+     * 接收人数
+     */
+    private Integer totalCount;
+
+    /**
+     * 发送成功人数
+     */
+    private Integer successCount;
+
+    /**
+     * 发送失败人数
+     */
+    private Integer failCount;
+
+    /**
+     * 创建用户 id
+     */
+    private Long userId;
+
+    /**
+     * 开始发送时间
+     */
+    private Date startTime;
+
+    /**
+     * 完成时间
+     */
+    private Date finishTime;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    /**
+     * 是否删除
+     */
+    private Integer isDelete;
+
+    @Serial
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,94 @@
+package com.yuyuan.wxmp.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 公众号粉丝（全量同步 + 关注、取消关注事件增量更新）
+ * @TableName wx_follower
+ */
+@TableName(value ="wx_follower")
+@Data
+public class WxFollower implements Serializable {
+    /**
+     * id
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 粉丝 openId
+     */
+    private String openId;
+
+    /**
+     * unionId（公众号绑定开放平台时才有）
+     */
+    private String unionId;
+
+    /**
+     * 是否关注，0 - 已取消关注、1 - 关注中
+     */
+    private Integer subscribe;
+
+    /**
+     * 最近一次关注时间
+     */
+    private Date subscribeTime;
+
+    /**
+     * 取消关注时间
+     */
+    private Date unsubscribeTime;
+
+    /**
+     * 关注渠道
+     */
+    private String subscribeScene;
+
+    /**
+     * 公众号运营者对粉丝的备注
+     */
+    private String remark;
+
+    /**
+     * 标签 id（json）
+     */
+    private String tagIds;
+
+    /**
+     * 语言
+     */
+    private String language;
+
+    /**
+     * 最近一次全量同步或关注、取消关注事件写入的时间（应用时间）
+     */
+    private Date syncTime;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    @Serial
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,59 @@
+package com.yuyuan.wxmp.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 回复规则关键字
+ * @TableName wx_reply_keyword
+ */
+@TableName(value ="wx_reply_keyword")
+@Data
+public class WxReplyKeyword implements Serializable {
+    /**
+     * id
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 回复规则 id
+     */
+    private Long ruleId;
+
+    /**
+     * 关键字
+     */
+    private String keyword;
+
+    /**
+     * 匹配类型
+     */
+    private Integer matchType;
+
+    /**
+     * 归一化后的关键字
+     */
+    private String normalized;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    @Serial
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,64 @@
+package com.yuyuan.wxmp.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 回复规则建议状态枚举
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public enum AiReplySuggestionStatusEnum {
+
+    PENDING("待处理", 0),
+    ACCEPTED("已采纳", 1),
+    IGNORED("已忽略", 2);
+
+    private final String text;
+
+    private final Integer value;
+
+    AiReplySuggestionStatusEnum(String text, Integer value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 获取值列表
+     *
+     * @return {@link List}<{@link Integer}>
+     */
+    public static List<Integer> getValues() {
+        return Arrays.stream(values()).map(item -> item.value).collect(Collectors.toList());
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value 值
+     * @return {@link AiReplySuggestionStatusEnum}
+     */
+    public static AiReplySuggestionStatusEnum getEnumByValue(Integer value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (AiReplySuggestionStatusEnum anEnum : AiReplySuggestionStatusEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -15,7 +15,9 @@ import java.util.stream.Collectors;
 public enum WxAiReplyStatusEnum {
 
     NOT_REPLY("未回复", 0),
-    REPLIED("已回复", 1);
+    REPLIED("已回复", 1),
+    RETRYING("补发中", 2),
+    FAILED("补发失败", 3);
 
     private final String text;
 
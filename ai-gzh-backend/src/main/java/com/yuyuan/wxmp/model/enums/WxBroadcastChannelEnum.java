@@ -0,0 +1,63 @@
+package com.yuyuan.wxmp.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 群发渠道枚举
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public enum WxBroadcastChannelEnum {
+
+    KEFU("客服消息", 0),
+    TEMPLATE("模板消息", 1);
+
+    private final String text;
+
+    private final Integer value;
+
+    WxBroadcastChannelEnum(String text, Integer value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 获取值列表
+     *
+     * @return {@link List}<{@link Integer}>
+     */
+    public static List<Integer> getValues() {
+        return Arrays.stream(values()).map(item -> item.value).collect(Collectors.toList());
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value 值
+     * @return {@link WxBroadcastChannelEnum}
+     */
+    public static WxBroadcastChannelEnum getEnumByValue(Integer value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (WxBroadcastChannelEnum anEnum : WxBroadcastChannelEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
@@ -0,0 +1,65 @@
+package com.yuyuan.wxmp.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 群发接收人发送状态枚举
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public enum WxBroadcastRecipientStatusEnum {
+
+    PENDING("待发送", 0),
+    SENDING("发送中", 1),
+    SENT("已发送", 2),
+    FAILED("发送失败", 3);
+
+    private final String text;
+
+    private final Integer value;
+
+    WxBroadcastRecipientStatusEnum(String text, Integer value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 获取值列表
+     *
+     * @return {@link List}<{@link Integer}>
+     */
+    public static List<Integer> getValues() {
+        return Arrays.stream(values()).map(item -> item.value).collect(Collectors.toList());
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value 值
+     * @return {@link WxBroadcastRecipientStatusEnum}
+     */
+    public static WxBroadcastRecipientStatusEnum getEnumByValue(Integer value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (WxBroadcastRecipientStatusEnum anEnum : WxBroadcastRecipientStatusEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
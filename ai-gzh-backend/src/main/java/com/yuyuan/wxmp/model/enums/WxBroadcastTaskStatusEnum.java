@@ -0,0 +1,66 @@
+package com.yuyuan.wxmp.model.enums;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 群发任务状态枚举
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public enum WxBroadcastTaskStatusEnum {
+
+    PENDING("待发送", 0),
+    RUNNING("发送中", 1),
+    PAUSED("已暂停", 2),
+    COMPLETED("已完成", 3),
+    CANCELLED("已取消", 4);
+
+    private final String text;
+
+    private final Integer value;
+
+    WxBroadcastTaskStatusEnum(String text, Integer value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 获取值列表
+     *
+     * @return {@link List}<{@link Integer}>
+     */
+    public static List<Integer> getValues() {
+        return Arrays.stream(values()).map(item -> item.value).collect(Collectors.toList());
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value 值
+     * @return {@link WxBroadcastTaskStatusEnum}
+     */
+    public static WxBroadcastTaskStatusEnum getEnumByValue(Integer value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (WxBroadcastTaskStatusEnum anEnum : WxBroadcastTaskStatusEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
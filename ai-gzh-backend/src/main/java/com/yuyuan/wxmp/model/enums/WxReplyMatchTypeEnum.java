@@ -18,7 +18,23 @@ import java.util.stream.Collectors;
 public enum WxReplyMatchTypeEnum {
 
     ALL("全匹配", 0),
-    LIKE("半匹配", 1);
+    LIKE("半匹配", 1),
+    /**
+     * 全角半角、大小写、常用繁简体、空白和标点统一后再做包含匹配
+     */
+    NORMALIZED("归一化匹配", 2),
+    /**
+     * 按拼音做包含匹配，可以命中同音错别字
+     */
+    PINYIN("拼音匹配", 3),
+    /**
+     * 归一化后允许少量错字、漏字、多字（编辑距离随关键字长度放宽）
+     */
+    FUZZY("容错匹配", 4),
+    /**
+     * 正则表达式匹配（忽略大小写）
+     */
+    REGEX("正则匹配", 5);
 
     @JsonProperty("label")
     private final String text;
@@ -0,0 +1,69 @@
+package com.yuyuan.wxmp.model.vo;
+
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.model.dto.aireplysuggestion.AiReplySuggestionStatsDTO;
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+import com.yuyuan.wxmp.utils.CopyUtil;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * AI 高频问题回复规则建议
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class AiReplySuggestionVO implements Serializable {
+
+    private Long id;
+
+    private String appId;
+
+    @Schema(description = "出现次数最多的问法")
+    private String question;
+
+    @Schema(description = "出现次数最多的回复")
+    private String replyMessage;
+
+    @Schema(description = "相似问题出现次数")
+    private Integer hitCount;
+
+    @Schema(description = "出现次数最多的回复的次数")
+    private Integer replyCount;
+
+    @Schema(description = "各问法的出现次数")
+    private Map<String, Integer> questions;
+
+    @Schema(description = "各回复的出现次数")
+    private Map<String, Integer> replies;
+
+    @Schema(description = "0 - 待处理、1 - 已采纳、2 - 已忽略")
+    private Integer status;
+
+    @Schema(description = "采纳后生成的回复规则 id")
+    private Long ruleId;
+
+    private Date createTime;
+
+    private Date updateTime;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static AiReplySuggestionVO obj2VO(AiReplySuggestion aiReplySuggestion) {
+        AiReplySuggestionVO aiReplySuggestionVO = CopyUtil.copy(aiReplySuggestion, AiReplySuggestionVO.class);
+        if (StringUtils.isNotBlank(aiReplySuggestion.getStatistics())) {
+            AiReplySuggestionStatsDTO stats = JSONUtil.toBean(aiReplySuggestion.getStatistics(), AiReplySuggestionStatsDTO.class);
+            aiReplySuggestionVO.setQuestions(stats.getQuestions());
+            aiReplySuggestionVO.setReplies(stats.getReplies());
+        }
+        return aiReplySuggestionVO;
+    }
+}
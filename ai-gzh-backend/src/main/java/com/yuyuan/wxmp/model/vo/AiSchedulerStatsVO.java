@@ -0,0 +1,69 @@
+package com.yuyuan.wxmp.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * AI 调用调度统计（按公众号）
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class AiSchedulerStatsVO implements Serializable {
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 权重
+     */
+    private Integer weight;
+
+    /**
+     * 最多同时进行的调用数
+     */
+    private Integer maxInFlight;
+
+    /**
+     * 当前排队数
+     */
+    private Integer queueDepth;
+
+    /**
+     * 当前进行中的调用数
+     */
+    private Integer inFlight;
+
+    /**
+     * 已放行的调用数
+     */
+    private Long granted;
+
+    /**
+     * 因超过截止时间被丢弃的请求数
+     */
+    private Long shed;
+
+    /**
+     * 因排队已满被拒绝的请求数
+     */
+    private Long rejected;
+
+    /**
+     * 平均排队时间（毫秒）
+     */
+    private Long avgWaitMillis;
+
+    /**
+     * 最大排队时间（毫秒）
+     */
+    private Long maxWaitMillis;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,69 @@
+package com.yuyuan.wxmp.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * AI 调用用量统计（按时间粒度汇总）
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class AiUsageStatVO implements Serializable {
+
+    /**
+     * 时间
+     */
+    private String time;
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 模型
+     */
+    private String model;
+
+    /**
+     * 调用次数
+     */
+    private Long callCount;
+
+    /**
+     * 失败次数
+     */
+    private Long failCount;
+
+    /**
+     * 输入 token 数
+     */
+    private Long promptTokens;
+
+    /**
+     * 输出 token 数
+     */
+    private Long completionTokens;
+
+    /**
+     * 总 token 数
+     */
+    private Long totalTokens;
+
+    /**
+     * 平均耗时（毫秒）
+     */
+    private Long avgLatencyMillis;
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    private Long maxLatencyMillis;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,44 @@
+package com.yuyuan.wxmp.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * AI 调用用量（按粉丝汇总）
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class AiUserUsageVO implements Serializable {
+
+    /**
+     * 粉丝 openId
+     */
+    private String fromUser;
+
+    /**
+     * 调用次数
+     */
+    private Long callCount;
+
+    /**
+     * 输入 token 数
+     */
+    private Long promptTokens;
+
+    /**
+     * 输出 token 数
+     */
+    private Long completionTokens;
+
+    /**
+     * 总 token 数
+     */
+    private Long totalTokens;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
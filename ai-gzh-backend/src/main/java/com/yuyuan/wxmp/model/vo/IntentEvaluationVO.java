@@ -0,0 +1,79 @@
+package com.yuyuan.wxmp.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 本地意图分类器离线评估结果
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class IntentEvaluationVO implements Serializable {
+
+    /**
+     * appId
+     */
+    private String appId;
+
+    /**
+     * 规则类别数
+     */
+    private Integer classCount;
+
+    /**
+     * 特征数
+     */
+    private Integer featureCount;
+
+    /**
+     * 训练样本数
+     */
+    private Integer trainSize;
+
+    /**
+     * 测试样本数
+     */
+    private Integer testSize;
+
+    /**
+     * 训练耗时（毫秒）
+     */
+    private Long trainMillis;
+
+    /**
+     * 不考虑阈值时，规则样本预测正确的比例
+     */
+    private Double top1Accuracy;
+
+    /**
+     * 作答的样本中回答正确的比例
+     */
+    private Double precision;
+
+    /**
+     * 规则样本中被正确作答的比例
+     */
+    private Double recall;
+
+    /**
+     * "其他"样本中被错误作答的比例
+     */
+    private Double falseAnswerRate;
+
+    /**
+     * 平均预测耗时（微秒）
+     */
+    private Double avgPredictMicros;
+
+    /**
+     * P99 预测耗时（微秒）
+     */
+    private Double p99PredictMicros;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
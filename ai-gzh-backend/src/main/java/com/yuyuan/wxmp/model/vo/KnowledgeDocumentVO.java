@@ -0,0 +1,50 @@
+package com.yuyuan.wxmp.model.vo;
+
+import com.yuyuan.wxmp.model.entity.KnowledgeDocument;
+import com.yuyuan.wxmp.utils.CopyUtil;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 公众号知识库文档
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class KnowledgeDocumentVO implements Serializable {
+
+    private Long id;
+
+    private String appId;
+
+    private String title;
+
+    @Schema(description = "内容摘要")
+    private String summary;
+
+    @Schema(description = "内容字符数")
+    private Integer contentLength;
+
+    private Long userId;
+
+    private Date createTime;
+
+    private Date updateTime;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static KnowledgeDocumentVO obj2VO(KnowledgeDocument knowledgeDocument) {
+        KnowledgeDocumentVO knowledgeDocumentVO = CopyUtil.copy(knowledgeDocument, KnowledgeDocumentVO.class);
+        String content = StringUtils.defaultString(knowledgeDocument.getContent());
+        knowledgeDocumentVO.setSummary(StringUtils.abbreviate(content, 200));
+        knowledgeDocumentVO.setContentLength(content.length());
+        return knowledgeDocumentVO;
+    }
+}
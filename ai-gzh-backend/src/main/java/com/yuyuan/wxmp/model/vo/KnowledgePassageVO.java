@@ -0,0 +1,49 @@
+package com.yuyuan.wxmp.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 知识库检索结果
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class KnowledgePassageVO implements Serializable {
+
+    /**
+     * 文档 id
+     */
+    private Long documentId;
+
+    /**
+     * 文档标题
+     */
+    private String title;
+
+    /**
+     * 切片内容
+     */
+    private String content;
+
+    /**
+     * BM25 得分
+     */
+    private Double bm25Score;
+
+    /**
+     * 向量余弦相似度
+     */
+    private Double similarity;
+
+    /**
+     * 融合后的排序得分
+     */
+    private Double score;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
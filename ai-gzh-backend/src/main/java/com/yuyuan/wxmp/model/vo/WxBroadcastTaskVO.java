@@ -0,0 +1,78 @@
+package com.yuyuan.wxmp.model.vo;
+
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastContentDTO;
+import com.yuyuan.wxmp.model.entity.WxBroadcastTask;
+import com.yuyuan.wxmp.utils.CopyUtil;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 群发任务
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class WxBroadcastTaskVO implements Serializable {
+
+    private Long id;
+
+    private String appId;
+
+    private String title;
+
+    @Schema(description = "发送渠道，0 - 客服消息、1 - 模板消息")
+    private Integer channel;
+
+    private WxBroadcastContentDTO content;
+
+    @Schema(description = "0 - 待发送、1 - 发送中、2 - 已暂停、3 - 已完成、4 - 已取消")
+    private Integer status;
+
+    @Schema(description = "接收人数")
+    private Integer totalCount;
+
+    @Schema(description = "发送成功人数")
+    private Integer successCount;
+
+    @Schema(description = "发送失败人数")
+    private Integer failCount;
+
+    @Schema(description = "未完成人数（待发送、等待重试）")
+    private Integer pendingCount;
+
+    @Schema(description = "进度百分比")
+    private Double progress;
+
+    private Long userId;
+
+    private Date startTime;
+
+    private Date finishTime;
+
+    private Date createTime;
+
+    private Date updateTime;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static WxBroadcastTaskVO obj2VO(WxBroadcastTask wxBroadcastTask) {
+        WxBroadcastTaskVO wxBroadcastTaskVO = CopyUtil.copy(wxBroadcastTask, WxBroadcastTaskVO.class);
+        if (StringUtils.isNotBlank(wxBroadcastTask.getContent())) {
+            wxBroadcastTaskVO.setContent(JSONUtil.toBean(wxBroadcastTask.getContent(), WxBroadcastContentDTO.class));
+        }
+        int total = wxBroadcastTask.getTotalCount() == null ? 0 : wxBroadcastTask.getTotalCount();
+        int done = (wxBroadcastTask.getSuccessCount() == null ? 0 : wxBroadcastTask.getSuccessCount())
+                + (wxBroadcastTask.getFailCount() == null ? 0 : wxBroadcastTask.getFailCount());
+        wxBroadcastTaskVO.setPendingCount(Math.max(total - done, 0));
+        wxBroadcastTaskVO.setProgress(total == 0 ? 100.0 : Math.round(done * 1000.0 / total) / 10.0);
+        return wxBroadcastTaskVO;
+    }
+}
@@ -0,0 +1,26 @@
+package com.yuyuan.wxmp.model.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 粉丝游标分页结果
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class WxFollowerPageVO implements Serializable {
+
+    private List<WxFollowerVO> records;
+
+    @Schema(description = "下一页的 lastId，没有下一页时为空")
+    private Long nextId;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,69 @@
+package com.yuyuan.wxmp.model.vo;
+
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.model.entity.WxFollower;
+import com.yuyuan.wxmp.utils.CopyUtil;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 公众号粉丝
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class WxFollowerVO implements Serializable {
+
+    private Long id;
+
+    private String appId;
+
+    private String openId;
+
+    private String unionId;
+
+    @Schema(description = "是否关注，0 - 已取消关注、1 - 关注中")
+    private Integer subscribe;
+
+    @Schema(description = "最近一次关注时间")
+    private Date subscribeTime;
+
+    @Schema(description = "取消关注时间")
+    private Date unsubscribeTime;
+
+    @Schema(description = "关注渠道")
+    private String subscribeScene;
+
+    @Schema(description = "备注")
+    private String remark;
+
+    @Schema(description = "标签 id")
+    private List<Long> tagIds;
+
+    private String language;
+
+    @Schema(description = "最近一次从微信同步用户信息的时间")
+    private Date syncTime;
+
+    private Date createTime;
+
+    private Date updateTime;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static WxFollowerVO obj2VO(WxFollower wxFollower) {
+        WxFollowerVO wxFollowerVO = CopyUtil.copy(wxFollower, WxFollowerVO.class);
+        if (StringUtils.isNotBlank(wxFollower.getTagIds())) {
+            wxFollowerVO.setTagIds(JSONUtil.toList(wxFollower.getTagIds(), Long.class));
+        }
+        return wxFollowerVO;
+    }
+}
@@ -0,0 +1,44 @@
+package com.yuyuan.wxmp.model.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 消息路由耗时统计
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Data
+public class WxRouteStatsVO implements Serializable {
+
+    /**
+     * 路由（msgType 或 msgType:event）
+     */
+    private String route;
+
+    /**
+     * 调用次数
+     */
+    private Long count;
+
+    /**
+     * 失败次数
+     */
+    private Long errorCount;
+
+    /**
+     * 平均耗时（微秒）
+     */
+    private Long avgMicros;
+
+    /**
+     * 最大耗时（微秒）
+     */
+    private Long maxMicros;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,181 @@
+package com.yuyuan.wxmp.receive;
+
+import com.rabbitmq.client.Channel;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.MetricConstant;
+import com.yuyuan.wxmp.handler.WxMpMessageDispatcher;
+import com.yuyuan.wxmp.manager.MessageDedupeManager;
+import com.yuyuan.wxmp.manager.MessageLaneExecutor;
+import com.yuyuan.wxmp.manager.MetricsManager;
+import com.yuyuan.wxmp.manager.TraceManager;
+import com.yuyuan.wxmp.manager.WxMpConfigRegistry;
+import com.yuyuan.wxmp.model.dto.wxmpmessage.WxInboundMessage;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import me.chanjar.weixin.common.error.WxErrorException;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.bean.kefu.WxMpKefuMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutImageMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutTextMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutVideoMessage;
+import me.chanjar.weixin.mp.bean.message.WxMpXmlOutVoiceMessage;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 分区队列中的微信消息处理（处理节点）
+ * <p>
+ * 解密、路由后把被动回复转换为客服消息发送。消费线程只把消息交给按 appId + openId 分通道的 {@link MessageLaneExecutor}，
+ * 同一粉丝的消息按接收顺序回复，不同粉丝之间并行；处理完成后才确认消息。
+ * 通道排队已满时消费线程等待，分区暂停取新消息。AI 超时未回复的记录和直接处理时一样由补发任务兜底。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "wx.mp.ingest", name = "worker", havingValue = "true")
+public class MessageIngestReceiver {
+
+    private static final Map<String, Object> CONTEXT = Map.of(WxMpMessageDispatcher.CONTEXT_KEFU_REPLY, true);
+
+    /**
+     * 通道排队已满时重新提交的间隔（毫秒）
+     */
+    private static final long LANE_BUSY_WAIT_MILLIS = 100;
+
+    @Resource
+    private WxMpConfigRegistry wxMpConfigRegistry;
+
+    @Resource
+    private WxMpMessageDispatcher messageDispatcher;
+
+    @Resource
+    private MetricsManager metricsManager;
+
+    @Resource
+    private TraceManager traceManager;
+
+    @Resource
+    private MessageDedupeManager messageDedupeManager;
+
+    @Resource
+    private MessageLaneExecutor messageLaneExecutor;
+
+    @Resource
+    private WxMpProperties wxMpProperties;
+
+    @RabbitListener(queues = "#{messageIngestQueues}", containerFactory = "messageIngestContainerFactory")
+    public void onMessage(WxInboundMessage message, Channel channel,
+                          @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) throws InterruptedException {
+        CompletableFuture<String> future = this.submit(message);
+        if (future == null) {
+            log.error("消息通道持续繁忙，丢弃队列中的微信消息：appId={}, openId={}", message.getAppId(), message.getOpenId());
+            metricsManager.recordMillis(MetricConstant.MESSAGE_INGEST, System.currentTimeMillis() - message.getReceiveTime(),
+                    "appId", message.getAppId(), "outcome", "lane_busy");
+            this.ack(channel, deliveryTag);
+            return;
+        }
+        future.whenComplete((outcome, e) -> {
+            if (e != null) {
+                log.error("处理队列中的微信消息失败：appId={}, openId={}", message.getAppId(), message.getOpenId(), e);
+            }
+            metricsManager.recordMillis(MetricConstant.MESSAGE_INGEST, System.currentTimeMillis() - message.getReceiveTime(),
+                    "appId", message.getAppId(), "outcome", e == null ? outcome : "error");
+            this.ack(channel, deliveryTag);
+        });
+    }
+
+    /**
+     * 提交到消息通道，通道排队已满时等待，超过回复超时时间仍无法提交返回 null
+     */
+    private CompletableFuture<String> submit(WxInboundMessage message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + wxMpProperties.getIngest().getReplyTimeoutMillis();
+        while (true) {
+            try {
+                return messageLaneExecutor.submit(message.getAppId(), message.getOpenId(), () -> this.handle(message));
+            } catch (RejectedExecutionException e) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return null;
+                }
+                Thread.sleep(LANE_BUSY_WAIT_MILLIS);
+            }
+        }
+    }
+
+    private void ack(Channel channel, long deliveryTag) {
+        try {
+            channel.basicAck(deliveryTag, false);
+        } catch (IOException | RuntimeException e) {
+            // 通道已关闭等情况下未确认的消息会重新投递，由消息排重跳过
+            log.warn("队列消息确认失败：deliveryTag={}, {}", deliveryTag, e.toString());
+        }
+    }
+
+    private String handle(WxInboundMessage message) {
+        String appId = message.getAppId();
+        WxMpService wxMpService = wxMpConfigRegistry.getService(appId);
+        if (wxMpService == null) {
+            log.warn("公众号不存在，丢弃队列中的消息：appId={}", appId);
+            return "error";
+        }
+        WxMpXmlMessage inMessage = "aes".equalsIgnoreCase(message.getEncType())
+                ? WxMpXmlMessage.fromEncryptedXml(message.getBody(), wxMpService.getWxMpConfigStorage(),
+                message.getTimestamp(), message.getNonce(), message.getMsgSignature())
+                : WxMpXmlMessage.fromXml(message.getBody());
+        if (!messageDedupeManager.tryAcquire(appId, inMessage)) {
+            log.info("重复的微信消息，跳过：appId={}, msgId={}", appId, inMessage.getMsgId());
+            return "duplicate";
+        }
+        WxMpXmlOutMessage outMessage = traceManager.trace("wx.route",
+                () -> messageDispatcher.dispatch(inMessage, wxMpService, CONTEXT),
+                "appId", appId, "openId", inMessage.getFromUser(), "msgType", inMessage.getMsgType(), "event", inMessage.getEvent());
+        WxMpKefuMessage kefuMessage = toKefuMessage(outMessage);
+        if (kefuMessage == null) {
+            return "empty";
+        }
+        try {
+            wxMpService.getKefuService().sendKefuMessage(kefuMessage);
+        } catch (WxErrorException e) {
+            log.warn("客服消息发送失败：appId={}, openId={}, 错误：{}", appId, inMessage.getFromUser(), e.getError());
+            return "send_failed";
+        }
+        return "replied";
+    }
+
+    /**
+     * 被动回复转换为客服消息，不支持的类型返回 null
+     */
+    private static WxMpKefuMessage toKefuMessage(WxMpXmlOutMessage outMessage) {
+        if (outMessage instanceof WxMpXmlOutTextMessage text) {
+            return WxMpKefuMessage.TEXT().toUser(text.getToUserName()).content(text.getContent()).build();
+        }
+        if (outMessage instanceof WxMpXmlOutImageMessage image) {
+            return WxMpKefuMessage.IMAGE().toUser(image.getToUserName()).mediaId(image.getMediaId()).build();
+        }
+        if (outMessage instanceof WxMpXmlOutVoiceMessage voice) {
+            return WxMpKefuMessage.VOICE().toUser(voice.getToUserName()).mediaId(voice.getMediaId()).build();
+        }
+        if (outMessage instanceof WxMpXmlOutVideoMessage video) {
+            return WxMpKefuMessage.VIDEO().toUser(video.getToUserName())
+                    .mediaId(video.getVideo().getMediaId())
+                    .title(video.getVideo().getTitle())
+                    .description(video.getVideo().getDescription())
+                    .build();
+        }
+        if (outMessage != null) {
+            log.warn("不支持通过客服消息发送的回复类型：{}", outMessage.getMsgType());
+        }
+        return null;
+    }
+}
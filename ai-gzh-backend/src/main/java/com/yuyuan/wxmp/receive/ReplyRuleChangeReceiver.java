@@ -0,0 +1,45 @@
+package com.yuyuan.wxmp.receive;
+
+import com.yuyuan.wxmp.constant.MqConstant;
+import com.yuyuan.wxmp.manager.IntentClassifierManager;
+import com.yuyuan.wxmp.manager.ReplyRuleMatcherManager;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 回复规则变更广播，失效各节点的规则匹配器和意图分类器
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+@Component
+@Slf4j
+public class ReplyRuleChangeReceiver {
+
+    @Resource
+    private ReplyRuleMatcherManager replyRuleMatcherManager;
+
+    @Resource
+    private IntentClassifierManager intentClassifierManager;
+
+    @RabbitListener(
+            bindings = @QueueBinding(
+                    value = @Queue(durable = "true"),
+                    exchange = @Exchange(
+                            name = MqConstant.REPLY_RULE_CHANGE_EXCHANGE,
+                            // 指定为 FANOUT 类型
+                            type = ExchangeTypes.FANOUT
+                    )
+            ))
+    public void onReplyRuleChange(String appId) {
+        log.info("收到回复规则变更消息：{}", appId);
+        replyRuleMatcherManager.invalidate(appId);
+        intentClassifierManager.invalidate(appId);
+    }
+}
@@ -1,12 +1,10 @@
 package com.yuyuan.wxmp.receive;
 
 import com.yuyuan.wxmp.constant.MqConstant;
-import com.yuyuan.wxmp.model.entity.WxAccount;
+import com.yuyuan.wxmp.manager.WxMpConfigRegistry;
+import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountSyncMessage;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import me.chanjar.weixin.mp.api.WxMpService;
-import me.chanjar.weixin.mp.config.WxMpConfigStorage;
-import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
 import org.springframework.amqp.core.ExchangeTypes;
 import org.springframework.amqp.rabbit.annotation.Exchange;
 import org.springframework.amqp.rabbit.annotation.Queue;
@@ -14,50 +12,29 @@ import org.springframework.amqp.rabbit.annotation.QueueBinding;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 @Component
 @Slf4j
 public class SyncMpConfigReceiver {
 
     @Resource
-    private WxMpService wxMpService;
-
-    @RabbitListener(
-            bindings = @QueueBinding(
-                    value = @Queue(durable = "true"),
-                    exchange = @Exchange(
-                            name = MqConstant.ADD_WXMP_CONFIG_EXCHANGE,
-                            // 指定为 FANOUT 类型
-                            type = ExchangeTypes.FANOUT
-                    )
-            ))
-    public void addMpServiceConfig(WxAccount wxAccount) {
-        String appId = wxAccount.getAppId();
-        WxMpDefaultConfigImpl config = wxAccount.toWxMpConfigStorage();
-        try {
-            wxMpService.addConfigStorage(appId, config);
-        } catch (NullPointerException e) {
-            log.info("初始化configStorageMap...");
-            Map<String, WxMpConfigStorage> configStorages = new HashMap<>(6);
-            configStorages.put(appId, config);
-            wxMpService.setMultiConfigStorages(configStorages, appId);
-        }
-    }
+    private WxMpConfigRegistry wxMpConfigRegistry;
 
+    /**
+     * 新增、修改、删除使用同一个队列，保证本节点按发布顺序处理；
+     * 版本号小于等于本地版本的消息会被忽略，重复投递或乱序不会覆盖新配置
+     */
     @RabbitListener(
             bindings = @QueueBinding(
                     value = @Queue(durable = "true"),
                     exchange = @Exchange(
-                            name = MqConstant.REMOVE_WXMP_CONFIG_EXCHANGE,
+                            name = MqConstant.SYNC_WXMP_CONFIG_EXCHANGE,
                             // 指定为 FANOUT 类型
                             type = ExchangeTypes.FANOUT
                     )
             ))
-    public void removeMpServiceConfig(List<String> appIds) {
-        appIds.forEach(wxMpService::removeConfigStorage);
+    public void syncMpServiceConfig(WxAccountSyncMessage message) {
+        log.info("收到公众号配置同步消息：{}", message);
+        wxMpConfigRegistry.apply(message);
     }
 
-}
\ No newline at end of file
+}
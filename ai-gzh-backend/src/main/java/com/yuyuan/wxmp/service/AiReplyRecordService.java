@@ -2,6 +2,10 @@ package com.yuyuan.wxmp.service;
 
 import com.yuyuan.wxmp.model.entity.AiReplyRecord;
 import com.baomidou.mybatisplus.extension.service.IService;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 /**
  * @author cq
@@ -10,5 +14,28 @@ import com.baomidou.mybatisplus.extension.service.IService;
  */
 public interface AiReplyRecordService extends IService<AiReplyRecord> {
 
-    String aiReply(String appId, String fromUser, String message, AiReplyRecord aiReplyRecord);
+    /**
+     * AI 回复
+     *
+     * @param appId         appId
+     * @param fromUser      粉丝 openId
+     * @param message       消息
+     * @param aiReplyRecord 回复记录
+     * @param deadline      截止时间（毫秒时间戳），排队超过该时间时不再调用 AI
+     * @return 回复内容
+     */
+    String aiReply(String appId, String fromUser, String message, AiReplyRecord aiReplyRecord, long deadline);
+
+    /**
+     * 领取一批待补发的未回复记录：加锁查询（跳过其他节点已锁定的行）后改为补发中，补发次数加一
+     *
+     * @param lastId      从该 id 之后开始领取
+     * @param after       只领取该时间之后创建的记录
+     * @param before      只领取该时间之前创建的记录
+     * @param maxAttempts 最多补发次数
+     * @param limit       最多领取的条数
+     * @return 领取到的记录
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    List<AiReplyRecord> claimRetryRecords(long lastId, Date after, Date before, int maxAttempts, int limit);
 }
@@ -0,0 +1,48 @@
+package com.yuyuan.wxmp.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.yuyuan.wxmp.model.dto.aireplysuggestion.AiReplySuggestionPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+
+import java.util.List;
+
+/**
+ * @author cq
+ * @description 针对表【ai_reply_suggestion(AI 高频问题回复规则建议)】的数据库操作Service
+ * @createDate 2026-10-19 10:00:00
+ */
+public interface AiReplySuggestionService extends IService<AiReplySuggestion> {
+
+    /**
+     * 增量挖掘 AI 回复记录：从上次处理到的 id 开始，把相似问题聚类成回复规则建议
+     *
+     * @return 本次处理的记录数，其他节点正在执行时返回 null
+     */
+    Integer mine();
+
+    /**
+     * 采纳建议，生成关键字回复规则
+     *
+     * @param id     建议 id
+     * @param userId 操作用户 id
+     * @return 回复规则 id
+     */
+    Long accept(Long id, Long userId);
+
+    /**
+     * 忽略建议，之后相似的问题不再建议
+     *
+     * @param ids 建议 id
+     * @return 是否成功
+     */
+    Boolean ignore(List<Long> ids);
+
+    /**
+     * 获取查询包装器
+     *
+     * @param aiReplySuggestionPageQueryRequest 建议分页查询
+     * @return {@link QueryWrapper}<{@link AiReplySuggestion}>
+     */
+    QueryWrapper<AiReplySuggestion> getQueryWrapper(AiReplySuggestionPageQueryRequest aiReplySuggestionPageQueryRequest);
+}
@@ -0,0 +1,42 @@
+package com.yuyuan.wxmp.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeDocumentAddRequest;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeDocumentPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.KnowledgeDocument;
+
+import java.util.List;
+
+/**
+ * @author cq
+ * @description 针对表【knowledge_document(公众号知识库文档)】的数据库操作Service
+ * @createDate 2026-10-19 10:00:00
+ */
+public interface KnowledgeDocumentService extends IService<KnowledgeDocument> {
+
+    /**
+     * 新增文档
+     *
+     * @param knowledgeDocumentAddRequest 文档
+     * @param userId                      创建用户 id
+     * @return 文档 id
+     */
+    Long addDocument(KnowledgeDocumentAddRequest knowledgeDocumentAddRequest, Long userId);
+
+    /**
+     * 删除文档
+     *
+     * @param ids 文档 id
+     * @return 是否成功
+     */
+    Boolean deleteDocuments(List<Long> ids);
+
+    /**
+     * 获取查询包装器
+     *
+     * @param knowledgeDocumentPageQueryRequest 文档分页查询
+     * @return {@link QueryWrapper}<{@link KnowledgeDocument}>
+     */
+    QueryWrapper<KnowledgeDocument> getQueryWrapper(KnowledgeDocumentPageQueryRequest knowledgeDocumentPageQueryRequest);
+}
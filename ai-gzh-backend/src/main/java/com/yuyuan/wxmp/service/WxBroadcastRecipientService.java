@@ -0,0 +1,53 @@
+package com.yuyuan.wxmp.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.yuyuan.wxmp.model.entity.WxBroadcastRecipient;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author cq
+ * @description 针对表【wx_broadcast_recipient(群发任务接收人（每人一行记录发送状态，任务中断后从未完成的接收人继续）)】的数据库操作Service
+ * @createDate 2026-10-19 10:00:00
+ */
+public interface WxBroadcastRecipientService extends IService<WxBroadcastRecipient> {
+
+    /**
+     * 写入接收人，重复的 openId 只保留一条
+     *
+     * @param taskId  群发任务 id
+     * @param appId   appId
+     * @param openIds 接收人 openId，为空时写入所有关注中的粉丝
+     * @return 写入人数
+     */
+    int addRecipients(Long taskId, String appId, List<String> openIds);
+
+    /**
+     * 按 id 顺序查询已到发送时间的待发送接收人
+     *
+     * @param taskId 群发任务 id
+     * @param lastId 上一批最后一个接收人的 id
+     * @param now    当前时间
+     * @param limit  数量
+     * @return 接收人
+     */
+    List<WxBroadcastRecipient> listDue(Long taskId, long lastId, Date now, int limit);
+
+    /**
+     * 把发送中的接收人放回待发送，用于节点退出后恢复任务，不增加发送次数
+     *
+     * @param taskId 群发任务 id
+     * @return 放回的人数
+     */
+    int resetSending(Long taskId);
+
+    /**
+     * 统计各状态的接收人数
+     *
+     * @param taskId 群发任务 id
+     * @return 状态 -> 人数
+     */
+    Map<Integer, Integer> countByStatus(Long taskId);
+}
@@ -0,0 +1,91 @@
+package com.yuyuan.wxmp.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastTaskAddRequest;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastTaskPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.WxBroadcastTask;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * @author cq
+ * @description 针对表【wx_broadcast_task(群发任务)】的数据库操作Service
+ * @createDate 2026-10-19 10:00:00
+ */
+public interface WxBroadcastTaskService extends IService<WxBroadcastTask> {
+
+    /**
+     * 创建群发任务并写入接收人，任务创建后为待发送，需要手动开始
+     *
+     * @param wxBroadcastTaskAddRequest 创建请求
+     * @param userId                    创建用户 id
+     * @return 任务 id
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    Long create(WxBroadcastTaskAddRequest wxBroadcastTaskAddRequest, Long userId);
+
+    /**
+     * 开始或继续发送
+     *
+     * @param id 任务 id
+     * @return {@link WxBroadcastTask}
+     */
+    WxBroadcastTask start(Long id);
+
+    /**
+     * 暂停发送，正在发送的一批完成后停止
+     *
+     * @param id 任务 id
+     * @return 是否成功
+     */
+    Boolean pause(Long id);
+
+    /**
+     * 取消任务，未发送的接收人不再发送
+     *
+     * @param id 任务 id
+     * @return 是否成功
+     */
+    Boolean cancel(Long id);
+
+    /**
+     * 是否处于发送中
+     *
+     * @param id 任务 id
+     * @return 是否发送中
+     */
+    boolean isRunning(Long id);
+
+    /**
+     * 累加发送进度
+     *
+     * @param id           任务 id
+     * @param successCount 本次成功人数
+     * @param failCount    本次失败人数
+     */
+    void addProgress(Long id, int successCount, int failCount);
+
+    /**
+     * 按接收人状态重新统计发送进度，恢复任务时修正中断造成的偏差
+     *
+     * @param id 任务 id
+     * @return 未完成（待发送、发送中）的人数
+     */
+    int refreshProgress(Long id);
+
+    /**
+     * 没有未完成的接收人时把任务标记为已完成
+     *
+     * @param id 任务 id
+     * @return 是否已完成
+     */
+    boolean completeIfDone(Long id);
+
+    /**
+     * 获取查询包装器
+     *
+     * @param wxBroadcastTaskPageQueryRequest 群发任务分页查询
+     * @return {@link QueryWrapper}<{@link WxBroadcastTask}>
+     */
+    QueryWrapper<WxBroadcastTask> getQueryWrapper(WxBroadcastTaskPageQueryRequest wxBroadcastTaskPageQueryRequest);
+}
@@ -0,0 +1,50 @@
+package com.yuyuan.wxmp.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.yuyuan.wxmp.model.dto.wxfollower.WxFollowerQueryRequest;
+import com.yuyuan.wxmp.model.entity.WxFollower;
+import com.yuyuan.wxmp.model.vo.WxFollowerPageVO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author cq
+ * @description 针对表【wx_follower(公众号粉丝（全量同步 + 关注、取消关注事件增量更新）)】的数据库操作Service
+ * @createDate 2026-10-19 10:00:00
+ */
+public interface WxFollowerService extends IService<WxFollower> {
+
+    /**
+     * 批量写入粉丝，已存在时更新
+     *
+     * @param followerList 粉丝
+     */
+    void upsertBatch(List<WxFollower> followerList);
+
+    /**
+     * 标记为已取消关注，没有记录时新增
+     *
+     * @param appId           appId
+     * @param openId          openId
+     * @param unsubscribeTime 取消关注时间
+     */
+    void unsubscribe(String appId, String openId, Date unsubscribeTime);
+
+    /**
+     * 全量同步后，把 syncTime 早于本次同步开始时间（没有被本次同步或同步期间的事件写入）的关注中粉丝标记为已取消关注
+     *
+     * @param appId     appId
+     * @param syncStart 同步开始时间
+     * @return 标记的粉丝数
+     */
+    int unsubscribeNotSyncedSince(String appId, Date syncStart);
+
+    /**
+     * 按 id 游标分页查询
+     *
+     * @param wxFollowerQueryRequest 查询条件
+     * @return {@link WxFollowerPageVO}
+     */
+    WxFollowerPageVO listByCursor(WxFollowerQueryRequest wxFollowerQueryRequest);
+}
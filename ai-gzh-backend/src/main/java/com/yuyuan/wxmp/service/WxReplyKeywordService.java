@@ -0,0 +1,60 @@
+package com.yuyuan.wxmp.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.yuyuan.wxmp.model.entity.WxReplyKeyword;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+
+import java.util.List;
+
+/**
+ * @author cq
+ * @description 针对表【wx_reply_keyword(回复规则关键字)】的数据库操作Service
+ * @createDate 2026-10-19 10:00:00
+ */
+public interface WxReplyKeywordService extends IService<WxReplyKeyword> {
+
+    /**
+     * 关键字最大长度
+     */
+    int KEYWORD_MAX_LENGTH = 255;
+
+    /**
+     * 按规则当前的 matchValue 重写关键字（需要在规则所在的事务中调用）
+     *
+     * @param wxReplyRule 回复规则
+     */
+    void replaceKeywords(WxReplyRule wxReplyRule);
+
+    /**
+     * 删除规则的关键字
+     *
+     * @param ruleIds 规则 id 列表
+     */
+    void removeByRuleIds(List<Long> ruleIds);
+
+    /**
+     * 按关键字查询规则 id（归一化后前缀匹配，走 appId + normalized 索引）
+     *
+     * @param appId   appId，为空时查询所有公众号
+     * @param keyword 关键字
+     * @param limit   最多返回的规则数
+     * @return 规则 id 列表
+     */
+    List<Long> listRuleIds(String appId, String keyword, int limit);
+
+    /**
+     * 是否已有归一化后完全相同的关键字
+     *
+     * @param appId      appId
+     * @param normalized 归一化后的关键字
+     * @return 是否存在
+     */
+    boolean existsNormalized(String appId, String normalized);
+
+    /**
+     * 把还没有写入关键字表的规则迁移过来
+     *
+     * @return 迁移的规则数
+     */
+    int migrate();
+}
@@ -10,6 +10,7 @@ import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
 import com.yuyuan.wxmp.model.vo.WxReplyRuleVO;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlMessage;
 import me.chanjar.weixin.mp.bean.message.WxMpXmlOutMessage;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -37,6 +38,33 @@ public interface WxReplyRuleService extends IService<WxReplyRule> {
      */
     Page<WxReplyRuleVO> getPage(Page<WxReplyRule> wxReplyRulePage, QueryWrapper<WxReplyRule> queryWrapper);
 
+    /**
+     * 新增回复规则（关键字同时写入关键字表）
+     *
+     * @param wxReplyRule 回复规则
+     * @return 规则 id
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    Long addRule(WxReplyRule wxReplyRule);
+
+    /**
+     * 更新回复规则
+     *
+     * @param wxReplyRule 回复规则
+     * @return {@link Boolean }
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    Boolean updateRule(WxReplyRule wxReplyRule);
+
+    /**
+     * 删除回复规则
+     *
+     * @param ids 规则 id 列表
+     * @return {@link Boolean }
+     */
+    @Transactional(rollbackFor = Throwable.class)
+    Boolean deleteRules(List<Long> ids);
+
     /**
      * 收到消息回复
      *
@@ -2,20 +2,33 @@ package com.yuyuan.wxmp.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.constant.MetricConstant;
 import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.manager.AiCallScheduler;
+import com.yuyuan.wxmp.manager.AiUsageManager;
+import com.yuyuan.wxmp.manager.KnowledgeIndexManager;
+import com.yuyuan.wxmp.manager.MetricsManager;
+import com.yuyuan.wxmp.manager.TraceManager;
 import com.yuyuan.wxmp.mapper.AiReplyRecordMapper;
 import com.yuyuan.wxmp.model.entity.AiReplyRecord;
 import com.yuyuan.wxmp.model.enums.WxAiReplyStatusEnum;
+import com.yuyuan.wxmp.model.vo.KnowledgePassageVO;
 import com.yuyuan.wxmp.service.AiReplyRecordService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -31,6 +44,11 @@ public class AiReplyRecordServiceImpl extends ServiceImpl<AiReplyRecordMapper, A
 
     private final OpenAiChatModel chatModel;
     private final RedisTemplate<String, String> redisTemplate;
+    private final AiCallScheduler aiCallScheduler;
+    private final KnowledgeIndexManager knowledgeIndexManager;
+    private final AiUsageManager aiUsageManager;
+    private final MetricsManager metricsManager;
+    private final TraceManager traceManager;
 
     private static final String SYSTEM_PROMPT = "我想让你充当一个名为撷雯小筑微信公众号客服，回复内容控制在 200 字以内，在四秒内返回响应，并且回答的内容不要使用 markdown 格式，如果有链接可以使用 HTML 格式展示。";
     private static final String RATE_LIMIT_KEY_PREFIX = "ai_reply_rate_limit:";
@@ -40,7 +58,9 @@ public class AiReplyRecordServiceImpl extends ServiceImpl<AiReplyRecordMapper, A
     private static final long CACHE_EXPIRE = 1800; // 缓存过期时间，单位：秒（30分钟）
 
     @Override
-    public String aiReply(String appId, String fromUser, String message, AiReplyRecord aiReplyRecord) {
+    public String aiReply(String appId, String fromUser, String message, AiReplyRecord aiReplyRecord, long deadline) {
+        long aiReplyStart = System.nanoTime();
+        String outcome = "invalid";
         try {
             // 0. 增强输入消息检查
             if (StringUtils.isBlank(message)) {
@@ -63,8 +83,10 @@ public class AiReplyRecordServiceImpl extends ServiceImpl<AiReplyRecordMapper, A
             
             // 1. 实现请求缓存机制
             String cacheKey = CACHE_KEY_PREFIX + appId + ":" + fromUser + ":" + message.hashCode();
-            String cachedReply = redisTemplate.opsForValue().get(cacheKey);
+            String cachedReply = traceManager.trace("wx.redis", () -> redisTemplate.opsForValue().get(cacheKey), "command", "get");
+            metricsManager.increment(MetricConstant.CACHE_REQUESTS, "cache", "ai_reply", "result", cachedReply != null ? "hit" : "miss");
             if (cachedReply != null) {
+                outcome = "cache_hit";
                 log.info("返回缓存的AI回复 - appId: {}, fromUser: {}, message: {}", appId, fromUser, message);
                 aiReplyRecord.setReplyMessage(cachedReply);
                 aiReplyRecord.setReplyStatus(WxAiReplyStatusEnum.REPLIED.getValue());
@@ -78,36 +100,57 @@ public class AiReplyRecordServiceImpl extends ServiceImpl<AiReplyRecordMapper, A
             
             // 2. 实现API限流机制
             String rateLimitKey = RATE_LIMIT_KEY_PREFIX + appId + ":" + fromUser;
-            Long requestCount = redisTemplate.opsForValue().increment(rateLimitKey);
+            Long requestCount = traceManager.trace("wx.redis", () -> redisTemplate.opsForValue().increment(rateLimitKey), "command", "incr");
             
             if (requestCount == 1) {
                 // 设置过期时间为1分钟
-                redisTemplate.expire(rateLimitKey, RATE_LIMIT_EXPIRE, TimeUnit.SECONDS);
+                traceManager.trace("wx.redis", () -> redisTemplate.expire(rateLimitKey, RATE_LIMIT_EXPIRE, TimeUnit.SECONDS), "command", "expire");
             }
             
             if (requestCount > RATE_LIMIT_MAX) {
                 log.warn("用户触发限流 - appId: {}, fromUser: {}, 请求次数: {}", appId, fromUser, requestCount);
+                outcome = "rate_limited";
                 return "当前AI服务访问频繁，请稍后再试（每分钟最多可请求2次）";
             }
             
-            // 3. 调用真实AI服务
+            // 3. 检查公众号今日 token 预算
+            if (aiUsageManager.isOverBudget(appId)) {
+                log.warn("公众号今日 AI token 预算已用完 - appId: {}, fromUser: {}", appId, fromUser);
+                outcome = "over_budget";
+                return "今日 AI 咨询额度已用完，请明天再试";
+            }
+
+            // 4. 调用真实AI服务
             long startTime = System.currentTimeMillis();
             log.info("开始调用AI模型 - appId: {}, fromUser: {}, message: {}, messageLength: {}", 
                     appId, fromUser, message, message.length());
             
+            // 检索公众号知识库，相关资料拼入系统提示词
+            List<KnowledgePassageVO> passages = knowledgeIndexManager.search(appId, message);
+            if (!passages.isEmpty()) {
+                log.info("知识库检索到 {} 条相关资料 - appId: {}, 耗时: {}ms", passages.size(), appId, System.currentTimeMillis() - startTime);
+            }
+
             // 创建Prompt对象
-            org.springframework.ai.chat.prompt.Prompt prompt = new org.springframework.ai.chat.prompt.Prompt(
-                    new SystemMessage(SYSTEM_PROMPT),
+            Prompt prompt = new Prompt(
+                    new SystemMessage(SYSTEM_PROMPT + knowledgeIndexManager.buildContext(passages)),
                     new UserMessage(message)
             );
             
-            // 调用AI模型
-            org.springframework.ai.chat.model.ChatResponse chatResponse = chatModel.call(prompt);
+            // 调用AI模型（按公众号公平排队，超过截止时间直接放弃）
+            ChatResponse chatResponse;
+            try {
+                chatResponse = aiCallScheduler.execute(appId, deadline, () -> this.callModel(appId, prompt, aiReplyRecord));
+            } catch (RejectedExecutionException e) {
+                log.warn("AI调用未被放行 - appId: {}, fromUser: {}, 原因: {}", appId, fromUser, e.getMessage());
+                outcome = "rejected";
+                return "当前咨询人数较多，请稍后再试";
+            }
             
             long endTime = System.currentTimeMillis();
             log.info("AI调用完成，耗时: {}ms", endTime - startTime);
             
-            // 4. 处理AI响应
+            // 5. 处理AI响应
             String aiReplyContent = null;
             if (chatResponse != null && chatResponse.getResult() != null && chatResponse.getResult().getOutput() != null) {
                 aiReplyContent = chatResponse.getResult().getOutput().getText();
@@ -118,30 +161,97 @@ public class AiReplyRecordServiceImpl extends ServiceImpl<AiReplyRecordMapper, A
             // 检查AI回复内容是否为空
             if (StringUtils.isBlank(aiReplyContent)) {
                 log.error("AI返回空回复 - appId: {}, fromUser: {}, message: {}", appId, fromUser, message);
+                outcome = "error";
                 return "AI服务存在问题，请检查连接或稍后重试";
             }
             
-            // 5. 缓存AI回复
-            redisTemplate.opsForValue().set(cacheKey, aiReplyContent, CACHE_EXPIRE, TimeUnit.SECONDS);
+            // 6. 缓存AI回复
+            String replyToCache = aiReplyContent;
+            traceManager.traceRun("wx.redis", () -> redisTemplate.opsForValue().set(cacheKey, replyToCache, CACHE_EXPIRE, TimeUnit.SECONDS), "command", "set");
             
-            // 6. 更新数据库记录
+            // 7. 更新数据库记录，已超过截止时间时粉丝收到的是默认回复，保持未回复，由补发任务通过客服消息发送
+            boolean late = System.currentTimeMillis() > deadline;
+            if (!late) {
+                aiReplyRecord.setReplyStatus(WxAiReplyStatusEnum.REPLIED.getValue());
+            }
             aiReplyRecord.setReplyMessage(aiReplyContent);
-            aiReplyRecord.setReplyStatus(WxAiReplyStatusEnum.REPLIED.getValue());
             this.lambdaUpdate()
                     .eq(AiReplyRecord::getId, aiReplyRecord.getId())
                     .set(AiReplyRecord::getReplyMessage, aiReplyContent)
-                    .set(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.REPLIED.getValue())
+                    .set(!late, AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.REPLIED.getValue())
+                    .set(AiReplyRecord::getModel, aiReplyRecord.getModel())
+                    .set(AiReplyRecord::getPromptTokens, aiReplyRecord.getPromptTokens())
+                    .set(AiReplyRecord::getCompletionTokens, aiReplyRecord.getCompletionTokens())
+                    .set(AiReplyRecord::getLatencyMillis, aiReplyRecord.getLatencyMillis())
                     .update();
             
+            outcome = "replied";
             return aiReplyContent;
         } catch (Exception e) {
             log.error("AI调用失败 - 错误类型: {}, 错误信息: {}, appId: {}, fromUser: {}, message: {}", 
                     e.getClass().getSimpleName(), e.getMessage(), appId, fromUser, message, e);
+            outcome = "error";
             return "AI服务存在问题，请检查连接或稍后重试";
+        } finally {
+            metricsManager.recordSince(MetricConstant.AI_REPLY, aiReplyStart, "appId", appId, "outcome", outcome);
         }
     }
-}
-
 
+    @Override
+    public List<AiReplyRecord> claimRetryRecords(long lastId, Date after, Date before, int maxAttempts, int limit) {
+        List<AiReplyRecord> records = this.baseMapper.selectRetryCandidatesForUpdate(lastId, after, before, maxAttempts, limit);
+        if (records.isEmpty()) {
+            return records;
+        }
+        this.lambdaUpdate()
+                .in(AiReplyRecord::getId, records.stream().map(AiReplyRecord::getId).toList())
+                .set(AiReplyRecord::getReplyStatus, WxAiReplyStatusEnum.RETRYING.getValue())
+                .setSql("retryCount = retryCount + 1")
+                .update();
+        records.forEach(record -> {
+            record.setReplyStatus(WxAiReplyStatusEnum.RETRYING.getValue());
+            record.setRetryCount(record.getRetryCount() + 1);
+        });
+        return records;
+    }
 
+    /**
+     * 调用模型并记录本次调用的模型、token 数和耗时（不包含排队时间）
+     */
+    private ChatResponse callModel(String appId, Prompt prompt, AiReplyRecord aiReplyRecord) {
+        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        ChatResponse chatResponse;
+        try {
+            chatResponse = chatModel.call(prompt);
+        } catch (RuntimeException e) {
+            aiUsageManager.record(appId, null, 0, 0, System.currentTimeMillis() - startTime, false);
+            metricsManager.recordSince(MetricConstant.AI_CALL, startNanos, "appId", appId, "outcome", "error");
+            throw e;
+        }
+        metricsManager.recordSince(MetricConstant.AI_CALL, startNanos, "appId", appId, "outcome", "success");
+        long latencyMillis = System.currentTimeMillis() - startTime;
+        String model = null;
+        long promptTokens = 0;
+        long completionTokens = 0;
+        if (chatResponse != null && chatResponse.getMetadata() != null) {
+            model = chatResponse.getMetadata().getModel();
+            Usage usage = chatResponse.getMetadata().getUsage();
+            if (usage != null) {
+                // 输出 token 按总数减输入计算，兼容不同版本 Usage 的字段名
+                promptTokens = toLong(usage.getPromptTokens());
+                completionTokens = Math.max(toLong(usage.getTotalTokens()) - promptTokens, 0);
+            }
+        }
+        aiUsageManager.record(appId, model, promptTokens, completionTokens, latencyMillis, true);
+        aiReplyRecord.setModel(StringUtils.left(model, 64));
+        aiReplyRecord.setPromptTokens((int) promptTokens);
+        aiReplyRecord.setCompletionTokens((int) completionTokens);
+        aiReplyRecord.setLatencyMillis((int) latencyMillis);
+        return chatResponse;
+    }
 
+    private static long toLong(Number value) {
+        return value == null ? 0L : value.longValue();
+    }
+}
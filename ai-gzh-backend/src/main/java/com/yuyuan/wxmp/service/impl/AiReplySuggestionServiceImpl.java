@@ -0,0 +1,264 @@
+package com.yuyuan.wxmp.service.impl;
+
+import cn.hutool.core.collection.ListUtil;
+import cn.hutool.core.date.DateUtil;
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.PageRequest;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.constant.RedisConstant;
+import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.DistributedLockManager;
+import com.yuyuan.wxmp.manager.QuestionClusterIndex;
+import com.yuyuan.wxmp.mapper.AiReplyRecordMapper;
+import com.yuyuan.wxmp.mapper.AiReplySuggestionMapper;
+import com.yuyuan.wxmp.model.dto.aireplysuggestion.AiReplySuggestionPageQueryRequest;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyMatchValueDTO;
+import com.yuyuan.wxmp.model.entity.AiReplyRecord;
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+import com.yuyuan.wxmp.model.entity.WxAccount;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.enums.AiReplySuggestionStatusEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyMatchTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
+import com.yuyuan.wxmp.service.AiReplySuggestionService;
+import com.yuyuan.wxmp.service.WxAccountService;
+import com.yuyuan.wxmp.service.WxReplyKeywordService;
+import com.yuyuan.wxmp.service.WxReplyRuleService;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import com.yuyuan.wxmp.utils.WrapperUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author cq
+ * @description 针对表【ai_reply_suggestion(AI 高频问题回复规则建议)】的数据库操作Service实现
+ * @createDate 2026-10-19 10:00:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AiReplySuggestionServiceImpl extends ServiceImpl<AiReplySuggestionMapper, AiReplySuggestion>
+        implements AiReplySuggestionService {
+
+    private static final int RULE_NAME_MAX_LENGTH = 50;
+
+    private static final int STATS_LOAD_BATCH_SIZE = 500;
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final DistributedLockManager distributedLockManager;
+
+    private final WxReplyRuleService wxReplyRuleService;
+
+    private final WxReplyKeywordService wxReplyKeywordService;
+
+    private final WxAccountService wxAccountService;
+
+    private final WxMpProperties wxMpProperties;
+
+    @Override
+    public Integer mine() {
+        return distributedLockManager.nonBlockExecute(RedisConstant.AI_REPLY_MINING_LOCK_KEY, this::doMine, () -> null);
+    }
+
+    private Integer doMine() {
+        WxMpProperties.Mining mining = wxMpProperties.getMining();
+        long lastId = NumberUtils.toLong(redisTemplate.opsForValue().get(RedisConstant.AI_REPLY_MINING_LAST_ID_KEY), 0L);
+        Date before = DateUtil.offsetMinute(new Date(), -mining.getSettleMinutes());
+        long startTime = System.currentTimeMillis();
+        int expired = this.baseMapper.deleteExpiredCandidates(mining.getMinHits(), mining.getCandidateExpireDays());
+
+        // 1、流式读取新的问答记录，在内存中聚类（游标占用单独的连接，读取期间可以正常查询建议表）
+        Map<String, QuestionClusterIndex> indexMap = new HashMap<>();
+        long maxId = lastId;
+        int count = 0;
+        try (SqlSession sqlSession = sqlSessionFactory.openSession();
+             Cursor<AiReplyRecord> cursor = sqlSession.getMapper(AiReplyRecordMapper.class)
+                     .streamRepliedAfter(lastId, before, mining.getBatchSize())) {
+            for (AiReplyRecord record : cursor) {
+                maxId = record.getId();
+                count++;
+                String normalized = TextNormalizeUtil.normalize(record.getMessage());
+                if (normalized.length() < mining.getMinQuestionLength() || StringUtils.isBlank(record.getReplyMessage())) {
+                    continue;
+                }
+                indexMap.computeIfAbsent(record.getAppId(), this::loadIndex)
+                        .add(normalized, record.getMessage().trim(), record.getReplyMessage());
+            }
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "读取 AI 回复记录失败");
+        }
+
+        // 2、保存建议，满足条件的直接生成规则
+        int changed = 0;
+        int created = 0;
+        for (Map.Entry<String, QuestionClusterIndex> entry : indexMap.entrySet()) {
+            this.mergeStatistics(entry.getValue());
+            Long userId = null;
+            for (AiReplySuggestion suggestion : entry.getValue().getChangedSuggestions()) {
+                changed++;
+                // 已有归一化后相同的关键字时不再重复生成规则
+                if (this.shouldAutoCreate(suggestion) && !wxReplyKeywordService.existsNormalized(
+                        suggestion.getAppId(), TextNormalizeUtil.normalize(suggestion.getQuestion()))) {
+                    if (userId == null) {
+                        userId = this.getAccountUserId(entry.getKey());
+                    }
+                    if (userId != null) {
+                        this.createRule(suggestion, userId);
+                        created++;
+                    }
+                }
+                this.saveOrUpdate(suggestion);
+            }
+        }
+
+        // 3、记录处理进度，建议保存完成后才推进，中途失败时下次会重新处理这一批
+        if (maxId > lastId) {
+            redisTemplate.opsForValue().set(RedisConstant.AI_REPLY_MINING_LAST_ID_KEY, String.valueOf(maxId));
+        }
+        log.info("AI 回复记录挖掘完成，处理记录 {} 条（id {} ~ {}），更新建议 {} 条，自动生成规则 {} 条，删除过期的低频问题 {} 条，耗时 {}ms",
+                count, lastId, maxId, changed, created, expired, System.currentTimeMillis() - startTime);
+        return count;
+    }
+
+    @Override
+    public Long accept(Long id, Long userId) {
+        AiReplySuggestion suggestion = this.getById(id);
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(suggestion), ErrorCode.NOT_FOUND_ERROR);
+        ThrowUtils.throwIf(!AiReplySuggestionStatusEnum.PENDING.getValue().equals(suggestion.getStatus()),
+                ErrorCode.OPERATION_ERROR, "该建议已处理");
+        ThrowUtils.throwIf(StringUtils.isBlank(suggestion.getReplyMessage()), ErrorCode.OPERATION_ERROR, "该建议没有可用的回复");
+        ThrowUtils.throwIf(suggestion.getQuestion().length() > WxReplyKeywordService.KEYWORD_MAX_LENGTH,
+                ErrorCode.OPERATION_ERROR, "问题过长，无法作为关键字");
+        this.createRule(suggestion, userId);
+        this.lambdaUpdate()
+                .eq(AiReplySuggestion::getId, id)
+                .set(AiReplySuggestion::getStatus, suggestion.getStatus())
+                .set(AiReplySuggestion::getRuleId, suggestion.getRuleId())
+                .update();
+        return suggestion.getRuleId();
+    }
+
+    @Override
+    public Boolean ignore(List<Long> ids) {
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(ids), ErrorCode.PARAMS_ERROR);
+        return this.lambdaUpdate()
+                .in(AiReplySuggestion::getId, ids)
+                .eq(AiReplySuggestion::getStatus, AiReplySuggestionStatusEnum.PENDING.getValue())
+                .set(AiReplySuggestion::getStatus, AiReplySuggestionStatusEnum.IGNORED.getValue())
+                .update();
+    }
+
+    @Override
+    public QueryWrapper<AiReplySuggestion> getQueryWrapper(AiReplySuggestionPageQueryRequest aiReplySuggestionPageQueryRequest) {
+        if (aiReplySuggestionPageQueryRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "请求参数为空");
+        }
+        String appId = aiReplySuggestionPageQueryRequest.getAppId();
+        Integer status = aiReplySuggestionPageQueryRequest.getStatus();
+        String question = aiReplySuggestionPageQueryRequest.getQuestion();
+        String sortField = aiReplySuggestionPageQueryRequest.getSortField();
+        String sortOrder = aiReplySuggestionPageQueryRequest.getSortOrder();
+        List<PageRequest.Sorter> sorterList = aiReplySuggestionPageQueryRequest.getSorterList();
+
+        QueryWrapper<AiReplySuggestion> queryWrapper = Wrappers.query();
+        queryWrapper.eq(StringUtils.isNotBlank(appId), "appId", appId);
+        queryWrapper.eq(ObjectUtils.isNotEmpty(status), "status", status);
+        queryWrapper.like(StringUtils.isNotBlank(question), "question", question);
+        // 出现次数太少的只是聚类的中间结果，不作为建议展示
+        queryWrapper.ge("hitCount", wxMpProperties.getMining().getMinHits());
+        if (StringUtils.isBlank(sortField) && ObjectUtils.isEmpty(sorterList)) {
+            queryWrapper.orderByDesc("hitCount");
+        } else {
+            WrapperUtil.handleOrder(queryWrapper, sorterList, sortField, sortOrder);
+        }
+        return queryWrapper;
+    }
+
+    private QuestionClusterIndex loadIndex(String appId) {
+        WxMpProperties.Mining mining = wxMpProperties.getMining();
+        // 只加载聚类需要的字段，统计 json 在保存有变化的建议前再读取
+        List<AiReplySuggestion> suggestions = this.list(
+                Wrappers.lambdaQuery(AiReplySuggestion.class)
+                        .select(AiReplySuggestion::getId, AiReplySuggestion::getAppId, AiReplySuggestion::getSignature,
+                                AiReplySuggestion::getHitCount, AiReplySuggestion::getStatus)
+                        .eq(AiReplySuggestion::getAppId, appId)
+        );
+        return new QuestionClusterIndex(appId, mining.getSimilarity(), mining.getMaxStatsSize(), suggestions);
+    }
+
+    /**
+     * 读取本次有变化的建议已保存的统计，合并到新增的问法、回复中
+     */
+    private void mergeStatistics(QuestionClusterIndex index) {
+        for (List<Long> ids : ListUtil.partition(index.getChangedIdsWithoutStatistics(), STATS_LOAD_BATCH_SIZE)) {
+            this.list(Wrappers.lambdaQuery(AiReplySuggestion.class)
+                            .select(AiReplySuggestion::getId, AiReplySuggestion::getStatistics)
+                            .in(AiReplySuggestion::getId, ids))
+                    .forEach(suggestion -> index.mergeStatistics(suggestion.getId(), suggestion.getStatistics()));
+        }
+    }
+
+    private boolean shouldAutoCreate(AiReplySuggestion suggestion) {
+        WxMpProperties.Mining mining = wxMpProperties.getMining();
+        return mining.isAutoCreate()
+                && AiReplySuggestionStatusEnum.PENDING.getValue().equals(suggestion.getStatus())
+                && suggestion.getHitCount() >= mining.getAutoCreateMinHits()
+                && StringUtils.isNotBlank(suggestion.getReplyMessage())
+                && suggestion.getQuestion().length() <= WxReplyKeywordService.KEYWORD_MAX_LENGTH
+                && suggestion.getReplyCount() >= suggestion.getHitCount() * mining.getAutoCreateReplyRatio();
+    }
+
+    private Long getAccountUserId(String appId) {
+        WxAccount wxAccount = wxAccountService.lambdaQuery().eq(WxAccount::getAppId, appId).one();
+        return wxAccount == null ? null : wxAccount.getUserId();
+    }
+
+    /**
+     * 用最常见的问法生成归一化匹配的关键字规则（忽略全半角、繁简体和标点差异），回复为最常见的 AI 回复
+     */
+    private void createRule(AiReplySuggestion suggestion, Long userId) {
+        WxReplyMatchValueDTO matchValue = new WxReplyMatchValueDTO();
+        matchValue.setMatchType(WxReplyMatchTypeEnum.NORMALIZED.getValue());
+        matchValue.setMatchKeyWords(suggestion.getQuestion());
+        WxReplyContentDTO replyContent = new WxReplyContentDTO();
+        replyContent.setContentType(WxReplyContentTypeEnum.TEXT.getValue());
+        replyContent.setTextContent(suggestion.getReplyMessage());
+
+        WxReplyRule wxReplyRule = new WxReplyRule();
+        wxReplyRule.setAppId(suggestion.getAppId());
+        wxReplyRule.setRuleName(StringUtils.abbreviate("高频问题：" + suggestion.getQuestion(), RULE_NAME_MAX_LENGTH));
+        wxReplyRule.setMatchValue(JSONUtil.toJsonStr(List.of(matchValue)));
+        wxReplyRule.setReplyContent(JSONUtil.toJsonStr(replyContent));
+        wxReplyRule.setRuleDescription(String.format("根据 AI 回复记录生成，相似问题出现 %d 次", suggestion.getHitCount()));
+        wxReplyRule.setReplyType(WxReplyRuleTypeEnum.KEYWORDS.getValue());
+        wxReplyRule.setUserId(userId);
+        wxReplyRuleService.addRule(wxReplyRule);
+
+        suggestion.setStatus(AiReplySuggestionStatusEnum.ACCEPTED.getValue());
+        suggestion.setRuleId(wxReplyRule.getId());
+    }
+}
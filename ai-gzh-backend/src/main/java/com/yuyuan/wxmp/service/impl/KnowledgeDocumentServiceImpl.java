@@ -0,0 +1,88 @@
+package com.yuyuan.wxmp.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.PageRequest;
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.KnowledgeIndexManager;
+import com.yuyuan.wxmp.mapper.KnowledgeDocumentMapper;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeDocumentAddRequest;
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeDocumentPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.KnowledgeDocument;
+import com.yuyuan.wxmp.service.KnowledgeDocumentService;
+import com.yuyuan.wxmp.utils.WrapperUtil;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @author cq
+ * @description 针对表【knowledge_document(公众号知识库文档)】的数据库操作Service实现
+ * @createDate 2026-10-19 10:00:00
+ */
+@Service
+@RequiredArgsConstructor
+public class KnowledgeDocumentServiceImpl extends ServiceImpl<KnowledgeDocumentMapper, KnowledgeDocument>
+        implements KnowledgeDocumentService {
+
+    private final KnowledgeIndexManager knowledgeIndexManager;
+
+    private final WxMpProperties wxMpProperties;
+
+    @Override
+    public Long addDocument(KnowledgeDocumentAddRequest knowledgeDocumentAddRequest, Long userId) {
+        String content = knowledgeDocumentAddRequest.getContent();
+        ThrowUtils.throwIf(StringUtils.isBlank(content), ErrorCode.PARAMS_ERROR, "内容不能为空");
+        ThrowUtils.throwIf(content.length() > wxMpProperties.getKnowledge().getMaxDocumentChars(),
+                ErrorCode.PARAMS_ERROR, "文档过长，请拆分后上传");
+        KnowledgeDocument knowledgeDocument = new KnowledgeDocument();
+        knowledgeDocument.setAppId(knowledgeDocumentAddRequest.getAppId());
+        knowledgeDocument.setTitle(knowledgeDocumentAddRequest.getTitle());
+        knowledgeDocument.setContent(content);
+        knowledgeDocument.setUserId(userId);
+        this.save(knowledgeDocument);
+        // 其他节点在下一次检查版本时重建
+        knowledgeIndexManager.invalidate(knowledgeDocument.getAppId());
+        return knowledgeDocument.getId();
+    }
+
+    @Override
+    public Boolean deleteDocuments(List<Long> ids) {
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(ids), ErrorCode.PARAMS_ERROR);
+        List<String> appIds = this.listByIds(ids)
+                .stream()
+                .map(KnowledgeDocument::getAppId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        boolean removed = this.removeBatchByIds(ids);
+        appIds.forEach(knowledgeIndexManager::invalidate);
+        return removed;
+    }
+
+    @Override
+    public QueryWrapper<KnowledgeDocument> getQueryWrapper(KnowledgeDocumentPageQueryRequest knowledgeDocumentPageQueryRequest) {
+        if (knowledgeDocumentPageQueryRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "请求参数为空");
+        }
+        String appId = knowledgeDocumentPageQueryRequest.getAppId();
+        String title = knowledgeDocumentPageQueryRequest.getTitle();
+        String sortField = knowledgeDocumentPageQueryRequest.getSortField();
+        String sortOrder = knowledgeDocumentPageQueryRequest.getSortOrder();
+        List<PageRequest.Sorter> sorterList = knowledgeDocumentPageQueryRequest.getSorterList();
+
+        QueryWrapper<KnowledgeDocument> queryWrapper = Wrappers.query();
+        queryWrapper.eq(StringUtils.isNotBlank(appId), "appId", appId);
+        queryWrapper.like(StringUtils.isNotBlank(title), "title", title);
+        WrapperUtil.handleOrder(queryWrapper, sorterList, sortField, sortOrder);
+        return queryWrapper;
+    }
+}
@@ -7,12 +7,13 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import com.yuyuan.wxmp.common.ErrorCode;
 import com.yuyuan.wxmp.common.PageRequest;
-import com.yuyuan.wxmp.constant.MqConstant;
 import com.yuyuan.wxmp.exception.BusinessException;
 import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.WxMpConfigSyncPublisher;
 import com.yuyuan.wxmp.mapper.WxAccountMapper;
 import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountAddDTO;
 import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountPageQueryDTO;
+import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountSyncMessage;
 import com.yuyuan.wxmp.model.dto.wxmpaccount.WxAccountUpdateDTO;
 import com.yuyuan.wxmp.model.entity.User;
 import com.yuyuan.wxmp.model.entity.WxAccount;
@@ -23,12 +24,8 @@ import com.yuyuan.wxmp.utils.CopyUtil;
 import com.yuyuan.wxmp.utils.WrapperUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import me.chanjar.weixin.mp.api.WxMpService;
-import me.chanjar.weixin.mp.config.WxMpConfigStorage;
-import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
@@ -49,9 +46,8 @@ import java.util.stream.Collectors;
 public class WxAccountServiceImpl extends ServiceImpl<WxAccountMapper, WxAccount>
         implements WxAccountService {
 
-    private final WxMpService wxMpService;
     private final UserService userService;
-    private final RabbitTemplate rabbitTemplate;
+    private final WxMpConfigSyncPublisher wxMpConfigSyncPublisher;
 
     @Override
     public Page<WxAccountVO> getPage(Page<WxAccount> wxAccountPage, QueryWrapper<WxAccount> wxAccountQueryWrapper) {
@@ -99,16 +95,15 @@ public class WxAccountServiceImpl extends ServiceImpl<WxAccountMapper, WxAccount
         );
         String appId = wxAccountAddDTO.getAppId();
         synchronized (appId.intern()) {
-            if (this.isAccountInRuntime(appId)) {
-                throw new BusinessException(ErrorCode.PARAMS_ERROR, "公众号已存在");
-            }
             WxAccount wxAccount = CopyUtil.copy(wxAccountAddDTO, WxAccount.class);
             wxAccount.setUserId(userId);
+            // 版本号接着该 appId 历史记录（包括已删除的）递增，避免被当作过期消息忽略
+            wxAccount.setRevision(this.baseMapper.selectMaxRevision(appId) + 1);
             // 保存
             this.save(wxAccount);
 
-            // 添加到wxJava
-            this.addAccountToRuntime(wxAccount);
+            // 通知各节点
+            wxMpConfigSyncPublisher.publish(new WxAccountSyncMessage(appId, wxAccount.getRevision(), false));
             return wxAccount.getId();
         }
     }
@@ -118,39 +113,43 @@ public class WxAccountServiceImpl extends ServiceImpl<WxAccountMapper, WxAccount
         WxAccount wxAccountDb = this.getById(wxAccountUpdateDTO.getId());
         ThrowUtils.throwIf(ObjectUtils.isEmpty(wxAccountDb), ErrorCode.PARAMS_ERROR, "公众号不存在");
         String oldAppId = wxAccountDb.getAppId();
-        if (!this.isAccountInRuntime(oldAppId)) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "公众号不存在");
-        }
 
         // 如果 appId 为空，则使用原来的 appId
         if (StringUtils.isBlank(wxAccountUpdateDTO.getAppId())) {
             wxAccountUpdateDTO.setAppId(oldAppId);
         }
         WxAccount wxAccount = CopyUtil.copy(wxAccountUpdateDTO, WxAccount.class);
+        // 乐观锁，更新成功后版本号加一
+        wxAccount.setRevision(wxAccountDb.getRevision());
 
         // 更新
         boolean result = SqlHelper.retBool(this.baseMapper.updateById(wxAccount));
-
-        // 先移除
-        wxMpService.removeConfigStorage(oldAppId);
-        // 删除后再填加到 wxJava（这里再查一遍目的是拿到最新的微信公众号信息，后面如果又加了字段，不这样做可能会漏掉字段）
-        this.addAccountToRuntime(this.getById(wxAccountUpdateDTO.getId()));
+        ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR, "公众号已被修改，请刷新后重试");
+
+        // 通知各节点重新加载（各节点会从数据库读取最新的配置）
+        long revision = wxAccountDb.getRevision() + 1;
+        String newAppId = wxAccountUpdateDTO.getAppId();
+        wxMpConfigSyncPublisher.publish(new WxAccountSyncMessage(newAppId, revision, false));
+        if (!oldAppId.equals(newAppId)) {
+            wxMpConfigSyncPublisher.publish(new WxAccountSyncMessage(oldAppId, revision, true));
+        }
 
         return result;
     }
 
     @Override
     public Boolean deleteByAppIds(List<String> appIds) {
-        // 先删除wxJava里的数据
-        rabbitTemplate.convertAndSend(MqConstant.REMOVE_WXMP_CONFIG_EXCHANGE,
-                "", appIds);
-//        appIds.forEach(wxMpService::removeConfigStorage);
-
-        // 再删除数据库里的数据
-        return this.remove(
-                Wrappers.lambdaQuery(WxAccount.class)
-                        .in(WxAccount::getAppId, appIds)
-        );
+        boolean result = false;
+        for (String appId : appIds) {
+            // 删除数据库里的数据，同时递增版本号
+            if (this.baseMapper.deleteByAppIdWithRevision(appId) > 0) {
+                result = true;
+                // 事务提交后通知各节点移除
+                long revision = this.baseMapper.selectMaxRevision(appId);
+                wxMpConfigSyncPublisher.publish(new WxAccountSyncMessage(appId, revision, true));
+            }
+        }
+        return result;
 
     }
 
@@ -179,32 +178,4 @@ public class WxAccountServiceImpl extends ServiceImpl<WxAccountMapper, WxAccount
         WrapperUtil.handleOrder(queryWrapper, sorterList, sortField, sortOrder);
         return queryWrapper;
     }
-
-    private synchronized void addAccountToRuntime(WxAccount wxAccount) {
-        rabbitTemplate.convertAndSend(MqConstant.ADD_WXMP_CONFIG_EXCHANGE,
-                "", wxAccount);
-//        String appId = wxAccount.getAppId();
-//        WxMpDefaultConfigImpl config = wxAccount.toWxMpConfigStorage();
-//        try {
-//            wxMpService.addConfigStorage(appId, config);
-//        } catch (NullPointerException e) {
-//            log.info("初始化configStorageMap...");
-//            Map<String, WxMpConfigStorage> configStorages = new HashMap<>(6);
-//            configStorages.put(appId, config);
-//            wxMpService.setMultiConfigStorages(configStorages, appId);
-//        }
-    }
-
-    private boolean isAccountInRuntime(String appid) {
-        try {
-            return wxMpService.switchover(appid);
-        } catch (NullPointerException e) {
-            // sdk bug，未添加任何账号时configStorageMap为null会出错
-            return false;
-        }
-    }
 }
-
-
-
-
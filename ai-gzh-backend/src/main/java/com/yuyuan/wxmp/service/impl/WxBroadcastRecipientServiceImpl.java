@@ -0,0 +1,79 @@
+package com.yuyuan.wxmp.service.impl;
+
+import cn.hutool.core.collection.ListUtil;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.yuyuan.wxmp.mapper.WxBroadcastRecipientMapper;
+import com.yuyuan.wxmp.model.entity.WxBroadcastRecipient;
+import com.yuyuan.wxmp.model.enums.WxBroadcastRecipientStatusEnum;
+import com.yuyuan.wxmp.service.WxBroadcastRecipientService;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author cq
+ * @description 针对表【wx_broadcast_recipient(群发任务接收人（每人一行记录发送状态，任务中断后从未完成的接收人继续）)】的数据库操作Service实现
+ * @createDate 2026-10-19 10:00:00
+ */
+@Service
+public class WxBroadcastRecipientServiceImpl extends ServiceImpl<WxBroadcastRecipientMapper, WxBroadcastRecipient>
+        implements WxBroadcastRecipientService {
+
+    /**
+     * 指定接收人时每条 insert 语句写入的人数
+     */
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    @Override
+    public int addRecipients(Long taskId, String appId, List<String> openIds) {
+        if (ObjectUtils.isEmpty(openIds)) {
+            return this.baseMapper.insertFromFollowers(taskId, appId);
+        }
+        int count = 0;
+        for (List<String> partition : ListUtil.partition(openIds, INSERT_BATCH_SIZE)) {
+            count += this.baseMapper.insertOpenIds(taskId, partition);
+        }
+        return count;
+    }
+
+    @Override
+    public List<WxBroadcastRecipient> listDue(Long taskId, long lastId, Date now, int limit) {
+        return this.lambdaQuery()
+                .eq(WxBroadcastRecipient::getTaskId, taskId)
+                .eq(WxBroadcastRecipient::getStatus, WxBroadcastRecipientStatusEnum.PENDING.getValue())
+                .gt(WxBroadcastRecipient::getId, lastId)
+                .and(wrapper -> wrapper.isNull(WxBroadcastRecipient::getNextRetryTime)
+                        .or()
+                        .le(WxBroadcastRecipient::getNextRetryTime, now))
+                .orderByAsc(WxBroadcastRecipient::getId)
+                .last("limit " + limit)
+                .list();
+    }
+
+    @Override
+    public int resetSending(Long taskId) {
+        return this.baseMapper.update(null, this.lambdaUpdate()
+                .eq(WxBroadcastRecipient::getTaskId, taskId)
+                .eq(WxBroadcastRecipient::getStatus, WxBroadcastRecipientStatusEnum.SENDING.getValue())
+                .set(WxBroadcastRecipient::getStatus, WxBroadcastRecipientStatusEnum.PENDING.getValue())
+                .getWrapper());
+    }
+
+    @Override
+    public Map<Integer, Integer> countByStatus(Long taskId) {
+        List<Map<String, Object>> rows = this.listMaps(this.query()
+                .select("status", "count(*) as total")
+                .eq("taskId", taskId)
+                .groupBy("status")
+                .getWrapper());
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            counts.put(((Number) row.get("status")).intValue(), ((Number) row.get("total")).intValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,203 @@
+package com.yuyuan.wxmp.service.impl;
+
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.yuyuan.wxmp.common.ErrorCode;
+import com.yuyuan.wxmp.common.PageRequest;
+import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.mapper.WxBroadcastTaskMapper;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastContentDTO;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastTaskAddRequest;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastTaskPageQueryRequest;
+import com.yuyuan.wxmp.model.entity.WxAccount;
+import com.yuyuan.wxmp.model.entity.WxBroadcastTask;
+import com.yuyuan.wxmp.model.enums.WxBroadcastChannelEnum;
+import com.yuyuan.wxmp.model.enums.WxBroadcastRecipientStatusEnum;
+import com.yuyuan.wxmp.model.enums.WxBroadcastTaskStatusEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
+import com.yuyuan.wxmp.service.WxAccountService;
+import com.yuyuan.wxmp.service.WxBroadcastRecipientService;
+import com.yuyuan.wxmp.service.WxBroadcastTaskService;
+import com.yuyuan.wxmp.utils.WrapperUtil;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author cq
+ * @description 针对表【wx_broadcast_task(群发任务)】的数据库操作Service实现
+ * @createDate 2026-10-19 10:00:00
+ */
+@Service
+@RequiredArgsConstructor
+public class WxBroadcastTaskServiceImpl extends ServiceImpl<WxBroadcastTaskMapper, WxBroadcastTask>
+        implements WxBroadcastTaskService {
+
+    private final WxBroadcastRecipientService wxBroadcastRecipientService;
+
+    private final WxAccountService wxAccountService;
+
+    @Override
+    public Long create(WxBroadcastTaskAddRequest wxBroadcastTaskAddRequest, Long userId) {
+        String appId = wxBroadcastTaskAddRequest.getAppId();
+        ThrowUtils.throwIf(wxAccountService.lambdaQuery().eq(WxAccount::getAppId, appId).count() == 0,
+                ErrorCode.NOT_FOUND_ERROR, "公众号不存在");
+        WxBroadcastChannelEnum channel = WxBroadcastChannelEnum.getEnumByValue(wxBroadcastTaskAddRequest.getChannel());
+        ThrowUtils.throwIf(channel == null, ErrorCode.PARAMS_ERROR, "发送渠道错误");
+        validContent(channel, wxBroadcastTaskAddRequest.getContent());
+
+        WxBroadcastTask wxBroadcastTask = new WxBroadcastTask();
+        wxBroadcastTask.setAppId(appId);
+        wxBroadcastTask.setTitle(wxBroadcastTaskAddRequest.getTitle());
+        wxBroadcastTask.setChannel(channel.getValue());
+        wxBroadcastTask.setContent(JSONUtil.toJsonStr(wxBroadcastTaskAddRequest.getContent()));
+        wxBroadcastTask.setStatus(WxBroadcastTaskStatusEnum.PENDING.getValue());
+        wxBroadcastTask.setUserId(userId);
+        this.save(wxBroadcastTask);
+
+        List<String> openIds = wxBroadcastTaskAddRequest.getOpenIds();
+        if (ObjectUtils.isNotEmpty(openIds)) {
+            openIds = openIds.stream().filter(StringUtils::isNotBlank).map(String::trim).distinct().toList();
+            ThrowUtils.throwIf(openIds.isEmpty(), ErrorCode.PARAMS_ERROR, "接收人不能为空");
+        }
+        int totalCount = wxBroadcastRecipientService.addRecipients(wxBroadcastTask.getId(), appId, openIds);
+        ThrowUtils.throwIf(totalCount == 0, ErrorCode.OPERATION_ERROR, "没有接收人，请先同步粉丝");
+        this.lambdaUpdate()
+                .eq(WxBroadcastTask::getId, wxBroadcastTask.getId())
+                .set(WxBroadcastTask::getTotalCount, totalCount)
+                .update();
+        return wxBroadcastTask.getId();
+    }
+
+    @Override
+    public WxBroadcastTask start(Long id) {
+        WxBroadcastTask wxBroadcastTask = this.getById(id);
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(wxBroadcastTask), ErrorCode.NOT_FOUND_ERROR);
+        boolean updated = this.lambdaUpdate()
+                .eq(WxBroadcastTask::getId, id)
+                .in(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.PENDING.getValue(), WxBroadcastTaskStatusEnum.PAUSED.getValue())
+                .set(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.RUNNING.getValue())
+                .set(wxBroadcastTask.getStartTime() == null, WxBroadcastTask::getStartTime, new Date())
+                .update();
+        ThrowUtils.throwIf(!updated, ErrorCode.OPERATION_ERROR, "只有待发送、已暂停的任务可以开始");
+        return wxBroadcastTask;
+    }
+
+    @Override
+    public Boolean pause(Long id) {
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(this.getById(id)), ErrorCode.NOT_FOUND_ERROR);
+        boolean updated = this.lambdaUpdate()
+                .eq(WxBroadcastTask::getId, id)
+                .eq(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.RUNNING.getValue())
+                .set(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.PAUSED.getValue())
+                .update();
+        ThrowUtils.throwIf(!updated, ErrorCode.OPERATION_ERROR, "只有发送中的任务可以暂停");
+        return true;
+    }
+
+    @Override
+    public Boolean cancel(Long id) {
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(this.getById(id)), ErrorCode.NOT_FOUND_ERROR);
+        boolean updated = this.lambdaUpdate()
+                .eq(WxBroadcastTask::getId, id)
+                .in(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.PENDING.getValue(),
+                        WxBroadcastTaskStatusEnum.RUNNING.getValue(), WxBroadcastTaskStatusEnum.PAUSED.getValue())
+                .set(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.CANCELLED.getValue())
+                .set(WxBroadcastTask::getFinishTime, new Date())
+                .update();
+        ThrowUtils.throwIf(!updated, ErrorCode.OPERATION_ERROR, "任务已结束");
+        return true;
+    }
+
+    @Override
+    public boolean isRunning(Long id) {
+        return this.lambdaQuery()
+                .eq(WxBroadcastTask::getId, id)
+                .eq(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.RUNNING.getValue())
+                .count() > 0;
+    }
+
+    @Override
+    public void addProgress(Long id, int successCount, int failCount) {
+        if (successCount == 0 && failCount == 0) {
+            return;
+        }
+        this.lambdaUpdate()
+                .eq(WxBroadcastTask::getId, id)
+                .setSql("successCount = successCount + " + successCount)
+                .setSql("failCount = failCount + " + failCount)
+                .update();
+    }
+
+    @Override
+    public int refreshProgress(Long id) {
+        Map<Integer, Integer> counts = wxBroadcastRecipientService.countByStatus(id);
+        this.lambdaUpdate()
+                .eq(WxBroadcastTask::getId, id)
+                .set(WxBroadcastTask::getSuccessCount, counts.getOrDefault(WxBroadcastRecipientStatusEnum.SENT.getValue(), 0))
+                .set(WxBroadcastTask::getFailCount, counts.getOrDefault(WxBroadcastRecipientStatusEnum.FAILED.getValue(), 0))
+                .update();
+        return counts.getOrDefault(WxBroadcastRecipientStatusEnum.PENDING.getValue(), 0)
+                + counts.getOrDefault(WxBroadcastRecipientStatusEnum.SENDING.getValue(), 0);
+    }
+
+    @Override
+    public boolean completeIfDone(Long id) {
+        if (this.refreshProgress(id) > 0) {
+            return false;
+        }
+        return this.lambdaUpdate()
+                .eq(WxBroadcastTask::getId, id)
+                .eq(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.RUNNING.getValue())
+                .set(WxBroadcastTask::getStatus, WxBroadcastTaskStatusEnum.COMPLETED.getValue())
+                .set(WxBroadcastTask::getFinishTime, new Date())
+                .update();
+    }
+
+    @Override
+    public QueryWrapper<WxBroadcastTask> getQueryWrapper(WxBroadcastTaskPageQueryRequest wxBroadcastTaskPageQueryRequest) {
+        if (wxBroadcastTaskPageQueryRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "请求参数为空");
+        }
+        String appId = wxBroadcastTaskPageQueryRequest.getAppId();
+        Integer status = wxBroadcastTaskPageQueryRequest.getStatus();
+        String title = wxBroadcastTaskPageQueryRequest.getTitle();
+        String sortField = wxBroadcastTaskPageQueryRequest.getSortField();
+        String sortOrder = wxBroadcastTaskPageQueryRequest.getSortOrder();
+        List<PageRequest.Sorter> sorterList = wxBroadcastTaskPageQueryRequest.getSorterList();
+
+        QueryWrapper<WxBroadcastTask> queryWrapper = Wrappers.query();
+        queryWrapper.eq(StringUtils.isNotBlank(appId), "appId", appId);
+        queryWrapper.eq(ObjectUtils.isNotEmpty(status), "status", status);
+        queryWrapper.like(StringUtils.isNotBlank(title), "title", title);
+        if (StringUtils.isBlank(sortField) && ObjectUtils.isEmpty(sorterList)) {
+            queryWrapper.orderByDesc("id");
+        } else {
+            WrapperUtil.handleOrder(queryWrapper, sorterList, sortField, sortOrder);
+        }
+        return queryWrapper;
+    }
+
+    private static void validContent(WxBroadcastChannelEnum channel, WxBroadcastContentDTO content) {
+        if (channel == WxBroadcastChannelEnum.TEMPLATE) {
+            ThrowUtils.throwIf(StringUtils.isBlank(content.getTemplateId()), ErrorCode.PARAMS_ERROR, "模板 id 不能为空");
+            ThrowUtils.throwIf(ObjectUtils.isEmpty(content.getTemplateData()), ErrorCode.PARAMS_ERROR, "模板数据不能为空");
+            return;
+        }
+        WxReplyContentTypeEnum contentType = WxReplyContentTypeEnum.getEnumByValue(content.getContentType());
+        ThrowUtils.throwIf(contentType == null, ErrorCode.PARAMS_ERROR, "内容类型错误");
+        if (contentType == WxReplyContentTypeEnum.TEXT) {
+            ThrowUtils.throwIf(StringUtils.isBlank(content.getTextContent()), ErrorCode.PARAMS_ERROR, "文本内容不能为空");
+        } else {
+            ThrowUtils.throwIf(StringUtils.isBlank(content.getMediaId()), ErrorCode.PARAMS_ERROR, "素材 id 不能为空");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.yuyuan.wxmp.service.impl;
+
+import cn.hutool.core.date.DateUtil;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.yuyuan.wxmp.mapper.WxFollowerMapper;
+import com.yuyuan.wxmp.model.dto.wxfollower.WxFollowerQueryRequest;
+import com.yuyuan.wxmp.model.entity.WxFollower;
+import com.yuyuan.wxmp.model.vo.WxFollowerPageVO;
+import com.yuyuan.wxmp.model.vo.WxFollowerVO;
+import com.yuyuan.wxmp.service.WxFollowerService;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author cq
+ * @description 针对表【wx_follower(公众号粉丝（全量同步 + 关注、取消关注事件增量更新）)】的数据库操作Service实现
+ * @createDate 2026-10-19 10:00:00
+ */
+@Service
+public class WxFollowerServiceImpl extends ServiceImpl<WxFollowerMapper, WxFollower>
+        implements WxFollowerService {
+
+    @Override
+    public void upsertBatch(List<WxFollower> followerList) {
+        if (ObjectUtils.isEmpty(followerList)) {
+            return;
+        }
+        this.baseMapper.upsertBatch(followerList);
+    }
+
+    @Override
+    public void unsubscribe(String appId, String openId, Date unsubscribeTime) {
+        // 同步前就关注的粉丝可能还没有记录，直接写入一条已取消关注的记录
+        WxFollower wxFollower = new WxFollower();
+        wxFollower.setAppId(appId);
+        wxFollower.setOpenId(openId);
+        wxFollower.setSubscribe(0);
+        wxFollower.setUnsubscribeTime(unsubscribeTime);
+        wxFollower.setSyncTime(new Date());
+        this.baseMapper.upsertBatch(List.of(wxFollower));
+    }
+
+    @Override
+    public int unsubscribeNotSyncedSince(String appId, Date syncStart) {
+        // 只比较应用写入的 syncTime（全量同步和关注、取消关注事件都会写入），不使用数据库生成的 updateTime，
+        // 避免应用和 MySQL 的时区、时钟不一致时误标记；syncTime 只精确到秒，和同步开始同一秒内写入的粉丝保留
+        Date before = DateUtil.beginOfSecond(syncStart);
+        return this.baseMapper.update(null, this.lambdaUpdate()
+                .eq(WxFollower::getAppId, appId)
+                .eq(WxFollower::getSubscribe, 1)
+                .and(wrapper -> wrapper.isNull(WxFollower::getSyncTime)
+                        .or()
+                        .lt(WxFollower::getSyncTime, before))
+                .set(WxFollower::getSubscribe, 0)
+                .set(WxFollower::getUnsubscribeTime, before)
+                .getWrapper());
+    }
+
+    @Override
+    public WxFollowerPageVO listByCursor(WxFollowerQueryRequest wxFollowerQueryRequest) {
+        int pageSize = Math.max(wxFollowerQueryRequest.getPageSize(), 1);
+        // 多查一条判断是否还有下一页
+        List<WxFollower> followerList = this.lambdaQuery()
+                .eq(WxFollower::getAppId, wxFollowerQueryRequest.getAppId())
+                .eq(ObjectUtils.isNotEmpty(wxFollowerQueryRequest.getSubscribe()), WxFollower::getSubscribe, wxFollowerQueryRequest.getSubscribe())
+                .gt(ObjectUtils.isNotEmpty(wxFollowerQueryRequest.getLastId()), WxFollower::getId, wxFollowerQueryRequest.getLastId())
+                .orderByAsc(WxFollower::getId)
+                .last("limit " + (pageSize + 1))
+                .list();
+        boolean hasMore = followerList.size() > pageSize;
+        if (hasMore) {
+            followerList = followerList.subList(0, pageSize);
+        }
+        WxFollowerPageVO wxFollowerPageVO = new WxFollowerPageVO();
+        wxFollowerPageVO.setRecords(followerList.stream().map(WxFollowerVO::obj2VO).collect(Collectors.toList()));
+        wxFollowerPageVO.setNextId(hasMore ? followerList.get(followerList.size() - 1).getId() : null);
+        return wxFollowerPageVO;
+    }
+}
@@ -0,0 +1,138 @@
+package com.yuyuan.wxmp.service.impl;
+
+import cn.hutool.json.JSONUtil;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.yuyuan.wxmp.mapper.WxReplyKeywordMapper;
+import com.yuyuan.wxmp.mapper.WxReplyRuleMapper;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyMatchValueDTO;
+import com.yuyuan.wxmp.model.entity.WxReplyKeyword;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
+import com.yuyuan.wxmp.service.WxReplyKeywordService;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author cq
+ * @description 针对表【wx_reply_keyword(回复规则关键字)】的数据库操作Service实现
+ * @createDate 2026-10-19 10:00:00
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WxReplyKeywordServiceImpl extends ServiceImpl<WxReplyKeywordMapper, WxReplyKeyword>
+        implements WxReplyKeywordService {
+
+    private static final int MIGRATE_BATCH_SIZE = 500;
+
+    private final WxReplyRuleMapper wxReplyRuleMapper;
+
+    @Override
+    public void replaceKeywords(WxReplyRule wxReplyRule) {
+        this.remove(Wrappers.lambdaQuery(WxReplyKeyword.class).eq(WxReplyKeyword::getRuleId, wxReplyRule.getId()));
+        List<WxReplyKeyword> keywordList = this.toKeywords(wxReplyRule);
+        if (!keywordList.isEmpty()) {
+            this.saveBatch(keywordList);
+        }
+    }
+
+    @Override
+    public void removeByRuleIds(List<Long> ruleIds) {
+        if (ObjectUtils.isEmpty(ruleIds)) {
+            return;
+        }
+        this.remove(Wrappers.lambdaQuery(WxReplyKeyword.class).in(WxReplyKeyword::getRuleId, ruleIds));
+    }
+
+    @Override
+    public List<Long> listRuleIds(String appId, String keyword, int limit) {
+        String normalized = TextNormalizeUtil.normalize(keyword);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return this.lambdaQuery()
+                .select(WxReplyKeyword::getRuleId)
+                .eq(StringUtils.isNotBlank(appId), WxReplyKeyword::getAppId, appId)
+                .likeRight(WxReplyKeyword::getNormalized, normalized)
+                .last("limit " + limit)
+                .list()
+                .stream()
+                .map(WxReplyKeyword::getRuleId)
+                .distinct()
+                .toList();
+    }
+
+    @Override
+    public boolean existsNormalized(String appId, String normalized) {
+        return this.lambdaQuery()
+                .eq(WxReplyKeyword::getAppId, appId)
+                .eq(WxReplyKeyword::getNormalized, normalized)
+                .exists();
+    }
+
+    @Override
+    public int migrate() {
+        int count = 0;
+        long lastId = 0;
+        List<WxReplyRule> ruleList;
+        do {
+            ruleList = wxReplyRuleMapper.selectWithoutKeywords(lastId, MIGRATE_BATCH_SIZE);
+            List<WxReplyKeyword> keywordList = new ArrayList<>();
+            for (WxReplyRule wxReplyRule : ruleList) {
+                lastId = wxReplyRule.getId();
+                try {
+                    List<WxReplyKeyword> ruleKeywords = this.toKeywords(wxReplyRule);
+                    if (!ruleKeywords.isEmpty()) {
+                        keywordList.addAll(ruleKeywords);
+                        count++;
+                    }
+                } catch (Exception e) {
+                    log.warn("迁移规则关键字失败，已跳过：规则ID={}, matchValue={}, 错误={}",
+                            wxReplyRule.getId(), wxReplyRule.getMatchValue(), e.getMessage());
+                }
+            }
+            if (!keywordList.isEmpty()) {
+                this.saveBatch(keywordList);
+            }
+        } while (ruleList.size() == MIGRATE_BATCH_SIZE);
+        return count;
+    }
+
+    /**
+     * 解析规则的关键字，有超长关键字时整条规则不写入，匹配时回退为解析 matchValue，避免截断后改变匹配结果
+     */
+    private List<WxReplyKeyword> toKeywords(WxReplyRule wxReplyRule) {
+        if (!WxReplyRuleTypeEnum.KEYWORDS.getValue().equals(wxReplyRule.getReplyType())
+                || StringUtils.isBlank(wxReplyRule.getMatchValue())) {
+            return List.of();
+        }
+        List<WxReplyKeyword> keywordList = new ArrayList<>();
+        for (WxReplyMatchValueDTO matchValue : JSONUtil.toList(wxReplyRule.getMatchValue(), WxReplyMatchValueDTO.class)) {
+            String keyword = matchValue.getMatchKeyWords();
+            if (StringUtils.isBlank(keyword) || matchValue.getMatchType() == null) {
+                continue;
+            }
+            String normalized = TextNormalizeUtil.normalize(keyword);
+            if (keyword.length() > KEYWORD_MAX_LENGTH || normalized.length() > KEYWORD_MAX_LENGTH) {
+                log.warn("规则关键字超过 {} 个字符，不写入关键字表：规则ID={}", KEYWORD_MAX_LENGTH, wxReplyRule.getId());
+                return List.of();
+            }
+            WxReplyKeyword wxReplyKeyword = new WxReplyKeyword();
+            wxReplyKeyword.setAppId(wxReplyRule.getAppId());
+            wxReplyKeyword.setRuleId(wxReplyRule.getId());
+            wxReplyKeyword.setKeyword(keyword);
+            wxReplyKeyword.setMatchType(matchValue.getMatchType());
+            wxReplyKeyword.setNormalized(normalized);
+            keywordList.add(wxReplyKeyword);
+        }
+        return keywordList;
+    }
+}
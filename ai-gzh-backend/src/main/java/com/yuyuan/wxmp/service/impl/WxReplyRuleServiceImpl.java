@@ -1,6 +1,5 @@
 package com.yuyuan.wxmp.service.impl;
 
-import cn.hutool.core.util.RandomUtil;
 import cn.hutool.json.JSONUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
@@ -8,7 +7,13 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.yuyuan.wxmp.common.ErrorCode;
 import com.yuyuan.wxmp.common.PageRequest;
+import com.yuyuan.wxmp.constant.MetricConstant;
 import com.yuyuan.wxmp.exception.BusinessException;
+import com.yuyuan.wxmp.exception.ThrowUtils;
+import com.yuyuan.wxmp.manager.MetricsManager;
+import com.yuyuan.wxmp.manager.ReplyRuleMatcher;
+import com.yuyuan.wxmp.manager.ReplyRuleMatcherManager;
+import com.yuyuan.wxmp.manager.TraceManager;
 import com.yuyuan.wxmp.mapper.WxReplyRuleMapper;
 import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
 import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyMatchValueDTO;
@@ -17,9 +22,9 @@ import com.yuyuan.wxmp.model.entity.User;
 import com.yuyuan.wxmp.model.entity.WxReplyRule;
 import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
 import com.yuyuan.wxmp.model.enums.WxReplyMatchTypeEnum;
-import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
 import com.yuyuan.wxmp.model.vo.WxReplyRuleVO;
 import com.yuyuan.wxmp.service.UserService;
+import com.yuyuan.wxmp.service.WxReplyKeywordService;
 import com.yuyuan.wxmp.service.WxReplyRuleService;
 import com.yuyuan.wxmp.utils.WrapperUtil;
 import lombok.RequiredArgsConstructor;
@@ -34,6 +39,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 /**
@@ -46,8 +52,21 @@ import java.util.stream.Collectors;
 public class WxReplyRuleServiceImpl extends ServiceImpl<WxReplyRuleMapper, WxReplyRule>
         implements WxReplyRuleService {
 
+    /**
+     * 按关键字搜索时最多匹配的规则数
+     */
+    private static final int KEYWORD_SEARCH_LIMIT = 1000;
+
     private final UserService userService;
 
+    private final ReplyRuleMatcherManager replyRuleMatcherManager;
+
+    private final WxReplyKeywordService wxReplyKeywordService;
+
+    private final MetricsManager metricsManager;
+
+    private final TraceManager traceManager;
+
     @Override
     public Page<WxReplyRuleVO> getPage(Page<WxReplyRule> wxReplyRulePage, QueryWrapper<WxReplyRule> queryWrapper) {
         Page<WxReplyRule> replyRulePage = this.page(wxReplyRulePage, queryWrapper);
@@ -104,7 +123,15 @@ public class WxReplyRuleServiceImpl extends ServiceImpl<WxReplyRuleMapper, WxRep
         queryWrapper.eq(ObjectUtils.isNotEmpty(replyType), "replyType", replyType);
         queryWrapper.like(ObjectUtils.isNotEmpty(eventKey), "eventKey", eventKey);
         queryWrapper.like(StringUtils.isNotBlank(ruleName), "ruleName", ruleName);
-        queryWrapper.like(StringUtils.isNotBlank(matchValue), "matchValue", matchValue);
+        if (StringUtils.isNotBlank(matchValue)) {
+            // 关键字在关键字表中按 appId + normalized 索引前缀查询，不再对 json 文本做 like
+            List<Long> ruleIds = wxReplyKeywordService.listRuleIds(appId, matchValue, KEYWORD_SEARCH_LIMIT);
+            if (ruleIds.isEmpty()) {
+                queryWrapper.apply("1 = 0");
+            } else {
+                queryWrapper.in("id", ruleIds);
+            }
+        }
         queryWrapper.like(StringUtils.isNotBlank(replyContent), "replyContent", replyContent);
         queryWrapper.like(StringUtils.isNotBlank(ruleDescription), "ruleDescription", ruleDescription);
         WrapperUtil.handleOrder(queryWrapper, sorterList, sortField, sortOrder);
@@ -113,79 +140,78 @@ public class WxReplyRuleServiceImpl extends ServiceImpl<WxReplyRuleMapper, WxRep
 
 
     @Override
-    public WxReplyContentDTO receiveMessageReply(String appId, String msg) {
-        // 1、将所有的关键词规则和默认规则都查询出来
-        List<WxReplyRule> wxReplyRuleList = this.list(
-                Wrappers.lambdaQuery(WxReplyRule.class)
-                        .eq(WxReplyRule::getAppId, appId)
-                        .in(
-                                WxReplyRule::getReplyType,
-                                WxReplyRuleTypeEnum.KEYWORDS.getValue(), WxReplyRuleTypeEnum.DEFAULT.getValue()
-                        )
-                        .orderByDesc(WxReplyRule::getUpdateTime)
-        );
+    public Long addRule(WxReplyRule wxReplyRule) {
+        this.validateMatchValue(wxReplyRule.getMatchValue());
+        this.save(wxReplyRule);
+        wxReplyKeywordService.replaceKeywords(wxReplyRule);
+        replyRuleMatcherManager.publishChange(wxReplyRule.getAppId());
+        return wxReplyRule.getId();
+    }
+
+    @Override
+    public Boolean updateRule(WxReplyRule wxReplyRule) {
+        WxReplyRule wxReplyRuleDb = this.getById(wxReplyRule.getId());
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(wxReplyRuleDb), ErrorCode.NOT_FOUND_ERROR);
+        this.validateMatchValue(wxReplyRule.getMatchValue());
+        boolean result = this.updateById(wxReplyRule);
+        // 更新请求可能只包含部分字段，按更新后的规则重写关键字
+        wxReplyKeywordService.replaceKeywords(this.getById(wxReplyRule.getId()));
+        replyRuleMatcherManager.publishChange(wxReplyRuleDb.getAppId());
+        if (StringUtils.isNotBlank(wxReplyRule.getAppId()) && !wxReplyRule.getAppId().equals(wxReplyRuleDb.getAppId())) {
+            replyRuleMatcherManager.publishChange(wxReplyRule.getAppId());
+        }
+        return result;
+    }
 
-        // 2、将关键词规则都过滤出来
-        WxReplyRule keyWordReply = wxReplyRuleList
+    @Override
+    public Boolean deleteRules(List<Long> ids) {
+        ThrowUtils.throwIf(ObjectUtils.isEmpty(ids), ErrorCode.PARAMS_ERROR);
+        Set<String> appIdSet = this.listByIds(ids)
                 .stream()
-                .filter(wxReplyRule -> {
-                    if (!WxReplyRuleTypeEnum.KEYWORDS.getValue().equals(wxReplyRule.getReplyType())) {
-                        return false;
-                    }
-                    try {
-                        List<WxReplyMatchValueDTO> keywords = JSONUtil.toList(wxReplyRule.getMatchValue(), WxReplyMatchValueDTO.class);
-                        // 查看当前规则的关键字是否包含在用户发送的信息中
-                        for (WxReplyMatchValueDTO keyword : keywords) {
-                            String matchKeyWords = keyword.getMatchKeyWords();
-                            Integer matchType = keyword.getMatchType();
-                            if (StringUtils.isBlank(matchKeyWords)) {
-                                continue;
-                            }
-                            if (WxReplyMatchTypeEnum.ALL.getValue().equals(matchType) && matchKeyWords.equalsIgnoreCase(msg)) {
-                                return true;
-                            }
-                            if (WxReplyMatchTypeEnum.LIKE.getValue().equals(matchType) && msg.toLowerCase().contains(matchKeyWords.toLowerCase())) {
-                                return true;
-                            }
-                        }
-                    } catch (Exception e) {
-                        System.out.println("解析匹配规则失败：规则ID=" + wxReplyRule.getId() + ", matchValue=" + wxReplyRule.getMatchValue() + ", 错误=" + e.getMessage());
-                    }
-                    return false;
-                })
-                .findFirst()
-                .orElse(null);
-
-        // 3、如果没有匹配上的关键词，则返回默认回复内容
-        if (ObjectUtils.isEmpty(keyWordReply)) {
-            List<WxReplyRule> defaultList = wxReplyRuleList
-                    .stream()
-                    .filter(wxReplyRule -> WxReplyRuleTypeEnum.DEFAULT.getValue().equals(wxReplyRule.getReplyType()))
-                    .collect(Collectors.toList());
+                .map(WxReplyRule::getAppId)
+                .collect(Collectors.toSet());
+        boolean result = this.removeBatchByIds(ids);
+        wxReplyKeywordService.removeByRuleIds(ids);
+        appIdSet.forEach(replyRuleMatcherManager::publishChange);
+        return result;
+    }
+
+    @Override
+    public WxReplyContentDTO receiveMessageReply(String appId, String msg) {
+        long start = System.nanoTime();
+        // 关键字规则按公众号预编译并缓存，规则变更时失效
+        WxReplyContentDTO replyContent = traceManager.trace("wx.rule.match",
+                () -> replyRuleMatcherManager.getMatcher(appId).match(msg), "appId", appId);
+        metricsManager.recordSince(MetricConstant.RULE_MATCH, start, "appId", appId, "outcome", replyContent == null ? "miss" : "hit");
+        return replyContent;
+    }
 
-            // 4、如果默认规则也没有，则返回程序指定的文案
-            if (ObjectUtils.isEmpty(defaultList)) {
-                return null;
+    /**
+     * 校验关键字的匹配类型和正则表达式，避免保存后匹配时才发现规则无效
+     */
+    private void validateMatchValue(String matchValue) {
+        if (StringUtils.isBlank(matchValue)) {
+            return;
+        }
+        for (WxReplyMatchValueDTO keyword : JSONUtil.toList(matchValue, WxReplyMatchValueDTO.class)) {
+            WxReplyMatchTypeEnum matchTypeEnum = WxReplyMatchTypeEnum.getEnumByValue(keyword.getMatchType());
+            ThrowUtils.throwIf(matchTypeEnum == null, ErrorCode.PARAMS_ERROR, "匹配类型不存在：" + keyword.getMatchType());
+            ThrowUtils.throwIf(StringUtils.length(keyword.getMatchKeyWords()) > WxReplyKeywordService.KEYWORD_MAX_LENGTH,
+                    ErrorCode.PARAMS_ERROR, "关键字不能超过 " + WxReplyKeywordService.KEYWORD_MAX_LENGTH + " 个字符");
+            if (matchTypeEnum == WxReplyMatchTypeEnum.REGEX && StringUtils.isNotBlank(keyword.getMatchKeyWords())) {
+                try {
+                    ReplyRuleMatcher.compileRegex(keyword.getMatchKeyWords());
+                } catch (PatternSyntaxException e) {
+                    throw new BusinessException(ErrorCode.PARAMS_ERROR, "正则表达式不合法：" + keyword.getMatchKeyWords());
+                }
             }
-            return JSONUtil.toBean(RandomUtil.randomEle(defaultList).getReplyContent(), WxReplyContentDTO.class);
         }
-
-        // 5、直接回复
-        return JSONUtil.toBean(keyWordReply.getReplyContent(), WxReplyContentDTO.class);
     }
 
     @Override
     public WxReplyContentDTO replySubscribe(String appId) {
-        List<WxReplyRule> wxReplyRuleList = this.list(
-                Wrappers.lambdaQuery(WxReplyRule.class)
-                        .eq(WxReplyRule::getAppId, appId)
-                        .eq(WxReplyRule::getReplyType, WxReplyRuleTypeEnum.SUBSCRIBE.getValue())
-        );
-        if (ObjectUtils.isEmpty(wxReplyRuleList)) {
-            return null;
-        }
-        // 随机选择一个
-        return JSONUtil.toBean(RandomUtil.randomEle(wxReplyRuleList).getReplyContent(), WxReplyContentDTO.class);
+        // 关注回复和关键字规则一起预先解析缓存，随机选择一个
+        return replyRuleMatcherManager.getMatcher(appId).subscribeReply();
     }
 
     @Override
@@ -0,0 +1,50 @@
+package com.yuyuan.wxmp.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压测工具的命令行参数，格式为 --key=value
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class LoadTestArgs {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public static LoadTestArgs parse(String[] args) {
+        LoadTestArgs options = new LoadTestArgs();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("参数格式应为 --key=value：" + arg);
+            }
+            int index = arg.indexOf('=');
+            if (index < 0) {
+                options.values.put(arg.substring(2), "true");
+            } else {
+                options.values.put(arg.substring(2, index), arg.substring(index + 1));
+            }
+        }
+        return options;
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,129 @@
+package com.yuyuan.wxmp.test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 压测、回放结果统计：耗时分位数、截止时间内回复占比、兜底回复分布
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class LoadTestReport {
+
+    public static final String REPLIED = "replied";
+
+    /**
+     * 兜底回复，按出现的顺序匹配前缀
+     */
+    private static final Map<String, String> FALLBACK_REPLIES = new LinkedHashMap<>();
+
+    static {
+        FALLBACK_REPLIES.put("正在处理您的请求", "timeout_or_busy");
+        FALLBACK_REPLIES.put("当前咨询人数较多", "ai_rejected");
+        FALLBACK_REPLIES.put("当前AI服务访问频繁", "rate_limited");
+        FALLBACK_REPLIES.put("今日 AI 咨询额度已用完", "over_budget");
+        FALLBACK_REPLIES.put("AI服务存在问题", "ai_error");
+        FALLBACK_REPLIES.put("抱歉，我暂时无法处理您的请求", "handle_error");
+    }
+
+    private static final Pattern CONTENT_PATTERN = Pattern.compile("<Content><!\\[CDATA\\[(.*?)]]></Content>", Pattern.DOTALL);
+
+    private final ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+
+    public void add(long latencyNanos, boolean encrypted, String outcome) {
+        results.add(new Result(latencyNanos, encrypted, outcome));
+    }
+
+    /**
+     * 按回复内容分类，xml 为明文回复
+     */
+    public static String classify(String xml) {
+        if (xml == null || xml.isBlank()) {
+            return "empty";
+        }
+        Matcher matcher = CONTENT_PATTERN.matcher(xml);
+        if (!matcher.find()) {
+            return "non_text";
+        }
+        String content = matcher.group(1);
+        for (Map.Entry<String, String> entry : FALLBACK_REPLIES.entrySet()) {
+            if (content.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return REPLIED;
+    }
+
+    /**
+     * 读取 xml 中的元素，兼容 CDATA
+     */
+    public static String element(String xml, String name) {
+        Matcher matcher = Pattern.compile("<" + name + ">(?:<!\\[CDATA\\[)?(.*?)(?:]]>)?</" + name + ">", Pattern.DOTALL).matcher(xml);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 输出报告
+     *
+     * @param title          标题
+     * @param deadlineMillis 回复截止时间
+     */
+    public void print(String title, long deadlineMillis) {
+        List<Result> list = new ArrayList<>(results);
+        int total = list.size();
+        System.out.println("\n=== " + title + " ===");
+        System.out.println("请求总数: " + total);
+        if (total == 0) {
+            return;
+        }
+        long encryptedCount = list.stream().filter(Result::encrypted).count();
+        System.out.printf("明文 / AES: %d / %d%n", total - encryptedCount, encryptedCount);
+
+        long[] latencies = list.stream().mapToLong(Result::latencyNanos).sorted().toArray();
+        System.out.println("\n耗时（从计划发送时间算起）:");
+        System.out.printf("  p50=%dms  p90=%dms  p99=%dms  p999=%dms  max=%dms%n",
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.90)),
+                millis(percentile(latencies, 0.99)), millis(percentile(latencies, 0.999)),
+                millis(latencies[latencies.length - 1]));
+
+        long deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        long inTime = list.stream().filter(r -> r.latencyNanos <= deadlineNanos && REPLIED.equals(r.outcome)).count();
+        long anyInTime = list.stream().filter(r -> r.latencyNanos <= deadlineNanos).count();
+        System.out.printf("%n%dms 内返回: %.2f%%，其中正常回复（非兜底）: %.2f%%%n",
+                deadlineMillis, percent(anyInTime, total), percent(inTime, total));
+
+        Map<String, Long> outcomeCount = new LinkedHashMap<>();
+        outcomeCount.put(REPLIED, 0L);
+        FALLBACK_REPLIES.values().forEach(outcome -> outcomeCount.putIfAbsent(outcome, 0L));
+        list.forEach(r -> outcomeCount.merge(r.outcome, 1L, Long::sum));
+        System.out.println("\n回复分布:");
+        outcomeCount.forEach((outcome, count) ->
+                System.out.printf("  %-16s %8d  %6.2f%%%n", outcome, count, percent(count, total)));
+        long fallback = FALLBACK_REPLIES.values().stream().distinct().mapToLong(outcomeCount::get).sum();
+        System.out.printf("兜底回复占比: %.2f%%，其他失败占比: %.2f%%%n", percent(fallback, total),
+                percent(total - fallback - outcomeCount.get(REPLIED), total));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : count * 100.0 / total;
+    }
+
+    private record Result(long latencyNanos, boolean encrypted, String outcome) {
+    }
+}
@@ -0,0 +1,193 @@
+package com.yuyuan.wxmp.test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地模拟的 OpenAI 兼容接口，压测时代替 DeepSeek，避免产生费用和受外部接口波动影响
+ * <p>
+ * 启动后把 spring.ai.openai.base-url 改为 http://localhost:端口 即可，只实现了 POST /chat/completions（非流式）。
+ * <p>
+ * 参数：
+ * <pre>
+ *   --port=18080             监听端口
+ *   --latency=fixed:800      响应延迟分布：
+ *                              fixed:毫秒
+ *                              uniform:最小毫秒-最大毫秒
+ *                              lognormal:中位数毫秒,sigma   （长尾，接近真实模型）
+ *   --error-rate=0.0         返回 500 的比例
+ *   --reply=这是模拟回复       回复内容
+ * </pre>
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class StubLlmServer {
+
+    private final HttpServer server;
+
+    private final LatencyDistribution latency;
+
+    private final double errorRate;
+
+    private final String reply;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    public StubLlmServer(int port, LatencyDistribution latency, double errorRate, String reply) throws IOException {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.reply = reply;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        // 兼容 base-url 是否带 /v1 两种写法
+        this.server.createContext("/chat/completions", this::handle);
+        this.server.createContext("/v1/chat/completions", this::handle);
+        // sleep 模拟延迟会占住线程，使用不限数量的线程池，避免模拟接口自身成为瓶颈
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                this.write(exchange, 405, "{\"error\":{\"message\":\"method not allowed\"}}");
+                return;
+            }
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            long id = requestCount.incrementAndGet();
+            try {
+                Thread.sleep(latency.nextMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                this.write(exchange, 500, "{\"error\":{\"message\":\"stub error\",\"type\":\"server_error\"}}");
+                return;
+            }
+            // token 数按字符数粗略估算，够用量统计和预算测试使用
+            int promptTokens = Math.max(body.length() / 2, 1);
+            int completionTokens = Math.max(reply.length(), 1);
+            String response = "{\"id\":\"stub-" + id + "\",\"object\":\"chat.completion\","
+                    + "\"created\":" + System.currentTimeMillis() / 1000 + ",\"model\":\"stub-chat\","
+                    + "\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"" + escape(reply) + "\"},"
+                    + "\"finish_reason\":\"stop\"}],"
+                    + "\"usage\":{\"prompt_tokens\":" + promptTokens + ",\"completion_tokens\":" + completionTokens
+                    + ",\"total_tokens\":" + (promptTokens + completionTokens) + "}}";
+            this.write(exchange, 200, response);
+        }
+    }
+
+    private void write(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * 延迟分布
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+
+        long nextMillis();
+
+        /**
+         * 解析 fixed:800、uniform:200-3000、lognormal:1200,0.6
+         */
+        static LatencyDistribution parse(String spec) {
+            String[] parts = spec.split(":", 2);
+            String type = parts[0].trim().toLowerCase();
+            String value = parts.length > 1 ? parts[1].trim() : "";
+            switch (type) {
+                case "fixed": {
+                    long millis = Long.parseLong(value);
+                    return () -> millis;
+                }
+                case "uniform": {
+                    String[] range = value.split("-");
+                    long min = Long.parseLong(range[0].trim());
+                    long max = Long.parseLong(range[1].trim());
+                    return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+                }
+                case "lognormal": {
+                    String[] args = value.split(",");
+                    double mu = Math.log(Double.parseDouble(args[0].trim()));
+                    double sigma = Double.parseDouble(args[1].trim());
+                    return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+                }
+                default:
+                    throw new IllegalArgumentException("不支持的延迟分布：" + spec);
+            }
+        }
+    }
+
+    /**
+     * 主方法：启动模拟接口，Ctrl+C 退出
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestArgs options = LoadTestArgs.parse(args);
+        StubLlmServer server = new StubLlmServer(
+                options.getInt("port", 18080),
+                LatencyDistribution.parse(options.get("latency", "fixed:800")),
+                options.getDouble("error-rate", 0),
+                options.get("reply", "这是模拟的 AI 回复，用于压测。")
+        );
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            System.out.println("模拟接口已停止，共处理请求: " + server.getRequestCount());
+        }));
+
+        System.out.println("=== 模拟 OpenAI 兼容接口 ===");
+        System.out.println("地址: http://localhost:" + server.getPort() + "/chat/completions");
+        System.out.println("延迟分布: " + options.get("latency", "fixed:800"));
+        System.out.println("启动后端时设置: --spring.ai.openai.base-url=http://localhost:" + server.getPort());
+        // 抽样打印几次延迟，便于确认分布参数
+        LatencyDistribution sample = LatencyDistribution.parse(options.get("latency", "fixed:800"));
+        StringBuilder samples = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            samples.append(sample.nextMillis()).append("ms ");
+        }
+        System.out.println("延迟抽样: " + samples.toString().trim());
+        Thread.currentThread().join();
+    }
+}
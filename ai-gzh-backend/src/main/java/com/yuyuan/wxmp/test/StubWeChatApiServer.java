@@ -0,0 +1,245 @@
+package com.yuyuan.wxmp.test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地模拟的微信接口，联调、压测群发时代替 api.weixin.qq.com，避免真实发送给粉丝
+ * <p>
+ * 启动后把 wx.mp.api-host 改为 http://localhost:端口 即可，实现了获取 access_token、发送客服消息、发送模板消息。
+ * 按接收人 openId 的前缀模拟错误：
+ * <ul>
+ *   <li>unsub_：43004 需要接收者关注</li>
+ *   <li>busy_：前 fail-times 次返回 45047 客服消息下行条数超过上限，之后成功</li>
+ *   <li>quota_：45009 接口调用超过限额</li>
+ * </ul>
+ * 每秒请求数超过 --qps 时返回 45011，用于验证限流配置。
+ * <p>
+ * 参数：
+ * <pre>
+ *   --port=18081            监听端口
+ *   --latency=50            每次发送的延迟（毫秒）
+ *   --fail-times=1          busy_ 开头的 openId 返回 45047 的次数
+ *   --qps=0                 每秒最多处理的发送请求，0 为不限制
+ * </pre>
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class StubWeChatApiServer {
+
+    private static final Pattern TO_USER_PATTERN = Pattern.compile("\"touser\"\\s*:\\s*\"([^\"]*)\"");
+
+    private final HttpServer server;
+
+    private final long latencyMillis;
+
+    private final int failTimes;
+
+    private final int qps;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final AtomicLong throttledCount = new AtomicLong();
+
+    /**
+     * 各 openId 的发送请求次数
+     */
+    private final Map<String, AtomicInteger> attemptMap = new ConcurrentHashMap<>();
+
+    /**
+     * 各 openId 成功收到的消息数，大于 1 表示重复发送
+     */
+    private final Map<String, AtomicInteger> deliveredMap = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private long currentSecond;
+
+    private int currentSecondCount;
+
+    private int maxSecondCount;
+
+    public StubWeChatApiServer(int port, long latencyMillis, int failTimes, int qps) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.failTimes = failTimes;
+        this.qps = qps;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.server.createContext("/cgi-bin/token", this::handleToken);
+        this.server.createContext("/cgi-bin/stable_token", this::handleToken);
+        this.server.createContext("/cgi-bin/message/custom/send", this::handleSend);
+        this.server.createContext("/cgi-bin/message/template/send", this::handleSend);
+        this.server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    /**
+     * 发送请求次数
+     */
+    public int getAttempts(String openId) {
+        AtomicInteger count = attemptMap.get(openId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * 成功收到的消息数
+     */
+    public int getDelivered(String openId) {
+        AtomicInteger count = deliveredMap.get(openId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * 收到消息的人数
+     */
+    public int getDeliveredUsers() {
+        return deliveredMap.size();
+    }
+
+    /**
+     * 单秒最多的发送请求数
+     */
+    public synchronized int getMaxSecondCount() {
+        return maxSecondCount;
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            this.write(exchange, "{\"access_token\":\"stub_access_token\",\"expires_in\":7200}");
+        }
+    }
+
+    private void handleSend(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            requestCount.incrementAndGet();
+            if (!this.countSecond()) {
+                throttledCount.incrementAndGet();
+                this.write(exchange, error(45011, "api minute-quota reach limit"));
+                return;
+            }
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            Matcher matcher = TO_USER_PATTERN.matcher(body);
+            if (!matcher.find()) {
+                this.write(exchange, error(40003, "invalid openid"));
+                return;
+            }
+            String openId = matcher.group(1);
+            int attempts = attemptMap.computeIfAbsent(openId, key -> new AtomicInteger()).incrementAndGet();
+            if (openId.startsWith("unsub_")) {
+                this.write(exchange, error(43004, "require subscribe"));
+                return;
+            }
+            if (openId.startsWith("quota_")) {
+                this.write(exchange, error(45009, "reach max api daily quota limit"));
+                return;
+            }
+            if (openId.startsWith("busy_") && attempts <= failTimes) {
+                this.write(exchange, error(45047, "out of response count limit"));
+                return;
+            }
+            deliveredMap.computeIfAbsent(openId, key -> new AtomicInteger()).incrementAndGet();
+            this.write(exchange, "{\"errcode\":0,\"errmsg\":\"ok\",\"msgid\":" + requestCount.get() + "}");
+        }
+    }
+
+    /**
+     * 按秒统计请求数
+     *
+     * @return 是否在 qps 限制内
+     */
+    private synchronized boolean countSecond() {
+        long second = System.currentTimeMillis() / 1000;
+        if (second != currentSecond) {
+            currentSecond = second;
+            currentSecondCount = 0;
+        }
+        currentSecondCount++;
+        maxSecondCount = Math.max(maxSecondCount, currentSecondCount);
+        return qps <= 0 || currentSecondCount <= qps;
+    }
+
+    private void write(HttpExchange exchange, String json) throws IOException {
+        // 微信接口的错误也返回 200
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(int errorCode, String errorMsg) {
+        return "{\"errcode\":" + errorCode + ",\"errmsg\":\"" + errorMsg + "\"}";
+    }
+
+    /**
+     * 主方法：启动模拟接口，Ctrl+C 退出
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestArgs options = LoadTestArgs.parse(args);
+        StubWeChatApiServer server = new StubWeChatApiServer(
+                options.getInt("port", 18081),
+                options.getLong("latency", 50),
+                options.getInt("fail-times", 1),
+                options.getInt("qps", 0)
+        );
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            System.out.println("模拟接口已停止，共处理发送请求: " + server.getRequestCount()
+                    + "，收到消息人数: " + server.getDeliveredUsers()
+                    + "，单秒最多请求: " + server.getMaxSecondCount()
+                    + "，限流: " + server.getThrottledCount());
+        }));
+
+        System.out.println("=== 模拟微信接口 ===");
+        System.out.println("地址: http://localhost:" + server.getPort());
+        System.out.println("启动后端时设置: --wx.mp.api-host=http://localhost:" + server.getPort());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,210 @@
+package com.yuyuan.wxmp.test;
+
+import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
+import me.chanjar.weixin.mp.util.crypto.WxMpCryptUtil;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 微信消息压测工具
+ * <p>
+ * 按目标 RPS 以开环方式发送带签名的明文、AES 加密回调：请求按计划时间发出，不等待上一个请求返回，
+ * 耗时从计划发送时间算起，服务变慢时排队的时间也计入耗时，不会因为压测端被拖慢而低估延迟。
+ * <p>
+ * 配合 {@link StubLlmServer} 使用，后端启动时设置 --spring.ai.openai.base-url=http://localhost:18080。
+ * 注意 AI 回复按粉丝每分钟限流 2 次，--users 需要足够大，否则大部分请求会命中限流提示。
+ * <p>
+ * 参数：
+ * <pre>
+ *   --url=http://localhost:8102/api/wx/msg   接口地址，不含 appId
+ *   --app-id=wx4dfe426f30714a55
+ *   --token=daishuwang
+ *   --aes-key=                               43 位 EncodingAESKey，不填时只发明文
+ *   --aes-ratio=0.0                          AES 加密请求占比
+ *   --rps=20                                 目标每秒请求数
+ *   --duration=60                            持续时间（秒）
+ *   --arrival=poisson                        到达间隔：poisson（指数分布）或 uniform（固定间隔）
+ *   --users=1000                             模拟的粉丝数
+ *   --deadline=5000                          微信服务器等待回复的截止时间（毫秒）
+ *   --messages=你好,怎么退款,...                消息内容，逗号分隔，按顺序轮换
+ * </pre>
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class WeChatLoadTester {
+
+    private final String url;
+
+    private final String token;
+
+    private final WxMpCryptUtil cryptUtil;
+
+    private final double aesRatio;
+
+    private final int users;
+
+    private final List<String> messages;
+
+    private final HttpClient httpClient;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LoadTestReport report = new LoadTestReport();
+
+    public WeChatLoadTester(String url, String appId, String token, String aesKey, double aesRatio,
+                            int users, List<String> messages) {
+        this.url = url.endsWith("/") ? url + appId : url + "/" + appId;
+        this.token = token;
+        if (aesKey == null || aesKey.isBlank()) {
+            this.cryptUtil = null;
+            this.aesRatio = 0;
+        } else {
+            WxMpDefaultConfigImpl config = new WxMpDefaultConfigImpl();
+            config.setAppId(appId);
+            config.setToken(token);
+            config.setAesKey(aesKey);
+            this.cryptUtil = new WxMpCryptUtil(config);
+            this.aesRatio = aesRatio;
+        }
+        this.users = users;
+        this.messages = messages;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    /**
+     * 按目标 RPS 发送请求，返回时所有请求都已完成或超时
+     *
+     * @param rps         每秒请求数
+     * @param duration    持续时间
+     * @param poisson     是否按泊松过程到达
+     * @param readTimeout 单个请求的超时时间
+     */
+    public void run(double rps, Duration duration, boolean poisson, Duration readTimeout) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        long scheduledNanos = startNanos;
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        while (scheduledNanos < endNanos) {
+            long waitNanos = scheduledNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            futures.add(this.send(scheduledNanos, readTimeout));
+            scheduledNanos += poisson
+                    ? (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos)
+                    : intervalNanos;
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private CompletableFuture<Void> send(long scheduledNanos, Duration readTimeout) {
+        long seq = sequence.incrementAndGet();
+        String openId = "load_test_user_" + (seq % users);
+        String content = messages.get((int) (seq % messages.size()));
+        boolean encrypted = cryptUtil != null && ThreadLocalRandom.current().nextDouble() < aesRatio;
+
+        String plainXml = buildTextXml(openId, content, seq);
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        String nonce = String.valueOf(ThreadLocalRandom.current().nextInt(100_000_000, 999_999_999));
+        String signature = WeChatSignatureGenerator.generateSignature(timestamp, nonce, token);
+        String query = "signature=" + signature + "&timestamp=" + timestamp + "&nonce=" + nonce + "&openid=" + openId;
+        String body = plainXml;
+        if (encrypted) {
+            // 加密结果里自带 TimeStamp、Nonce 和 MsgSignature，请求参数需要和它们一致
+            body = cryptUtil.encrypt(plainXml);
+            String encryptTimestamp = LoadTestReport.element(body, "TimeStamp");
+            String encryptNonce = LoadTestReport.element(body, "Nonce");
+            query = "signature=" + WeChatSignatureGenerator.generateSignature(encryptTimestamp, encryptNonce, token)
+                    + "&timestamp=" + encryptTimestamp + "&nonce=" + encryptNonce + "&openid=" + openId
+                    + "&encrypt_type=aes&msg_signature=" + LoadTestReport.element(body, "MsgSignature");
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "?" + query))
+                .timeout(readTimeout)
+                .header("Content-Type", "application/xml; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .handle((response, e) -> {
+                    long latencyNanos = System.nanoTime() - scheduledNanos;
+                    if (e != null) {
+                        report.add(latencyNanos, encrypted, "transport_error");
+                    } else if (response.statusCode() != 200) {
+                        report.add(latencyNanos, encrypted, "http_" + response.statusCode());
+                    } else {
+                        report.add(latencyNanos, encrypted, this.classify(response.body(), encrypted));
+                    }
+                    return null;
+                });
+    }
+
+    private String classify(String responseBody, boolean encrypted) {
+        if (!encrypted || responseBody == null || responseBody.isBlank()) {
+            return LoadTestReport.classify(responseBody);
+        }
+        try {
+            return LoadTestReport.classify(cryptUtil.decrypt(LoadTestReport.element(responseBody, "MsgSignature"),
+                    LoadTestReport.element(responseBody, "TimeStamp"), LoadTestReport.element(responseBody, "Nonce"), responseBody));
+        } catch (Exception e) {
+            return "decrypt_error";
+        }
+    }
+
+    private static String buildTextXml(String openId, String content, long seq) {
+        return "<xml>" +
+                "<ToUserName><![CDATA[gh_load_test]]></ToUserName>" +
+                "<FromUserName><![CDATA[" + openId + "]]></FromUserName>" +
+                "<CreateTime>" + System.currentTimeMillis() / 1000 + "</CreateTime>" +
+                "<MsgType><![CDATA[text]]></MsgType>" +
+                "<Content><![CDATA[" + content + "]]></Content>" +
+                "<MsgId>" + (System.currentTimeMillis() * 1000 + seq % 1000) + "</MsgId>" +
+                "</xml>";
+    }
+
+    /**
+     * 主方法：按参数压测，结束后输出报告
+     */
+    public static void main(String[] args) {
+        LoadTestArgs options = LoadTestArgs.parse(args);
+        String appId = options.get("app-id", "wx4dfe426f30714a55");
+        double rps = options.getDouble("rps", 20);
+        long durationSeconds = options.getLong("duration", 60);
+        long deadlineMillis = options.getLong("deadline", 5000);
+        List<String> messages = Arrays.asList(options.get("messages", "你好,请问有什么功能,怎么退款,你是谁,帮助").split(","));
+
+        WeChatLoadTester tester = new WeChatLoadTester(
+                options.get("url", "http://localhost:8102/api/wx/msg"), appId,
+                options.get("token", "daishuwang"), options.get("aes-key", null),
+                options.getDouble("aes-ratio", 0), options.getInt("users", 1000), messages
+        );
+
+        System.out.println("=== 微信消息压测 ===");
+        System.out.println("目标: " + tester.url);
+        System.out.printf("RPS: %.1f，持续: %ds，到达间隔: %s，粉丝数: %d，AES 占比: %.2f%n",
+                rps, durationSeconds, options.get("arrival", "poisson"), tester.users, tester.aesRatio);
+        tester.run(rps, Duration.ofSeconds(durationSeconds), !"uniform".equals(options.get("arrival", "poisson")),
+                // 比截止时间多等一会，超时的请求也能统计到真实耗时
+                Duration.ofMillis(deadlineMillis * 3));
+        tester.report.print("压测报告", deadlineMillis);
+        System.exit(0);
+    }
+}
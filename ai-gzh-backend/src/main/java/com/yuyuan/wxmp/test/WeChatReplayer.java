@@ -0,0 +1,252 @@
+package com.yuyuan.wxmp.test;
+
+import com.yuyuan.wxmp.manager.CallbackCaptureManager;
+import com.yuyuan.wxmp.manager.CallbackCaptureManager.CapturedCallback;
+import me.chanjar.weixin.common.util.crypto.SHA1;
+import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
+import me.chanjar.weixin.mp.util.crypto.WxMpCryptUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 微信回调回放工具
+ * <p>
+ * 读取 {@link CallbackCaptureManager} 录制的回调，按原始到达间隔（可加速）重新签名后发送到测试节点，
+ * 用真实的消息组合验证缓存、规则匹配、AI 调度等改动。测试节点应配合 {@link StubLlmServer} 使用。
+ * <p>
+ * AES 加密的回调有三种处理方式：
+ * <ul>
+ *   <li>只提供 --aes-key：测试节点和线上使用相同的 EncodingAESKey，密文原样发送，只重新计算签名</li>
+ *   <li>提供 --source-aes-key 和 --aes-key：用线上密钥解密，再用测试节点的密钥加密</li>
+ *   <li>只提供 --source-aes-key：解密后按明文发送</li>
+ * </ul>
+ * 参数：
+ * <pre>
+ *   --dir=data/capture                       录制目录，也可以用 --file 指定单个文件
+ *   --url=http://localhost:8102/api/wx/msg   测试节点接口地址，不含 appId
+ *   --app-id=                                发送到指定公众号，为空时使用录制的 appId
+ *   --token=daishuwang                       测试节点公众号的 token
+ *   --aes-key=                               测试节点公众号的 EncodingAESKey
+ *   --source-aes-key=                        线上公众号的 EncodingAESKey
+ *   --speed=1.0                              回放倍速，2 表示间隔缩短一半
+ *   --limit=0                                最多回放的条数，0 为不限制
+ *   --deadline=5000                          回复截止时间（毫秒）
+ * </pre>
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class WeChatReplayer {
+
+    private final String url;
+
+    private final String targetAppId;
+
+    private final String token;
+
+    private final String aesKey;
+
+    private final String sourceAesKey;
+
+    private final Map<String, WxMpCryptUtil> targetCryptMap = new ConcurrentHashMap<>();
+
+    private final Map<String, WxMpCryptUtil> sourceCryptMap = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient;
+
+    private final LoadTestReport report = new LoadTestReport();
+
+    public WeChatReplayer(String url, String targetAppId, String token, String aesKey, String sourceAesKey) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.targetAppId = blankToNull(targetAppId);
+        this.token = token;
+        this.aesKey = blankToNull(aesKey);
+        this.sourceAesKey = blankToNull(sourceAesKey);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    /**
+     * 按原始间隔回放，返回时所有请求都已完成或超时
+     *
+     * @param callbacks   按到达时间排序的回调
+     * @param speed       倍速
+     * @param readTimeout 单个请求的超时时间
+     */
+    public void replay(List<CapturedCallback> callbacks, double speed, Duration readTimeout) {
+        if (callbacks.isEmpty()) {
+            return;
+        }
+        long firstArrival = callbacks.get(0).arrivalMillis();
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (CapturedCallback callback : callbacks) {
+            long scheduledNanos = startNanos
+                    + (long) (TimeUnit.MILLISECONDS.toNanos(callback.arrivalMillis() - firstArrival) / speed);
+            long waitNanos = scheduledNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            futures.add(this.send(callback, scheduledNanos, readTimeout));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private CompletableFuture<Void> send(CapturedCallback callback, long scheduledNanos, Duration readTimeout) {
+        String appId = targetAppId == null ? callback.appId() : targetAppId;
+        Request request;
+        try {
+            request = this.resign(appId, callback);
+        } catch (Exception e) {
+            report.add(0, callback.encType() != null, "resign_error");
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(url + "/" + appId + "?" + request.query))
+                .timeout(readTimeout)
+                .header("Content-Type", "application/xml; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(request.body, StandardCharsets.UTF_8))
+                .build();
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .handle((response, e) -> {
+                    long latencyNanos = System.nanoTime() - scheduledNanos;
+                    if (e != null) {
+                        report.add(latencyNanos, request.encrypted, "transport_error");
+                    } else if (response.statusCode() != 200) {
+                        report.add(latencyNanos, request.encrypted, "http_" + response.statusCode());
+                    } else {
+                        report.add(latencyNanos, request.encrypted, this.classify(appId, response.body(), request.encrypted));
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * 用新的 timestamp、nonce 重新签名，必要时重新加密
+     */
+    private Request resign(String appId, CapturedCallback callback) {
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        String nonce = String.valueOf(ThreadLocalRandom.current().nextInt(100_000_000, 999_999_999));
+        String body = callback.body();
+        boolean encrypted = "aes".equalsIgnoreCase(callback.encType());
+        if (encrypted && sourceAesKey != null) {
+            String plainXml = this.cryptOf(sourceCryptMap, callback.appId(), sourceAesKey)
+                    .decrypt(LoadTestReport.element(body, "Encrypt"));
+            if (aesKey == null) {
+                body = plainXml;
+                encrypted = false;
+            } else {
+                // 加密结果自带 TimeStamp、Nonce 和 MsgSignature
+                body = this.cryptOf(targetCryptMap, appId, aesKey).encrypt(plainXml);
+                timestamp = LoadTestReport.element(body, "TimeStamp");
+                nonce = LoadTestReport.element(body, "Nonce");
+            }
+        }
+        StringBuilder query = new StringBuilder()
+                .append("signature=").append(WeChatSignatureGenerator.generateSignature(timestamp, nonce, token))
+                .append("&timestamp=").append(timestamp)
+                .append("&nonce=").append(nonce)
+                .append("&openid=").append(URLEncoder.encode(String.valueOf(callback.openId()), StandardCharsets.UTF_8));
+        if (encrypted) {
+            String msgSignature = SHA1.gen(token, timestamp, nonce, LoadTestReport.element(body, "Encrypt"));
+            query.append("&encrypt_type=aes&msg_signature=").append(msgSignature);
+        }
+        return new Request(query.toString(), body, encrypted);
+    }
+
+    private String classify(String appId, String responseBody, boolean encrypted) {
+        if (!encrypted || responseBody == null || responseBody.isBlank()) {
+            return LoadTestReport.classify(responseBody);
+        }
+        if (aesKey == null) {
+            // 没有测试节点的密钥，无法解密回复内容
+            return "encrypted_reply";
+        }
+        try {
+            return LoadTestReport.classify(this.cryptOf(targetCryptMap, appId, aesKey).decrypt(
+                    LoadTestReport.element(responseBody, "MsgSignature"), LoadTestReport.element(responseBody, "TimeStamp"),
+                    LoadTestReport.element(responseBody, "Nonce"), responseBody));
+        } catch (Exception e) {
+            return "decrypt_error";
+        }
+    }
+
+    private WxMpCryptUtil cryptOf(Map<String, WxMpCryptUtil> cryptMap, String appId, String key) {
+        // 解密时会校验密文中的 appId，每个公众号单独创建
+        return cryptMap.computeIfAbsent(appId, id -> {
+            WxMpDefaultConfigImpl config = new WxMpDefaultConfigImpl();
+            config.setAppId(id);
+            config.setToken(token);
+            config.setAesKey(key);
+            return new WxMpCryptUtil(config);
+        });
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record Request(String query, String body, boolean encrypted) {
+    }
+
+    /**
+     * 读取录制文件
+     */
+    static List<CapturedCallback> load(Path path, int limit) throws IOException {
+        List<Path> files = Files.isDirectory(path) ? CallbackCaptureManager.listSegments(path) : List.of(path);
+        List<CapturedCallback> callbacks = new ArrayList<>();
+        for (Path file : files) {
+            CallbackCaptureManager.read(file, callbacks::add);
+        }
+        // 多个文件之间可能因为切换时刻有少量交错，统一按到达时间排序
+        callbacks.sort((a, b) -> Long.compare(a.arrivalMillis(), b.arrivalMillis()));
+        return limit > 0 && callbacks.size() > limit ? callbacks.subList(0, limit) : callbacks;
+    }
+
+    /**
+     * 主方法：回放录制的回调，结束后输出报告
+     */
+    public static void main(String[] args) throws IOException {
+        LoadTestArgs options = LoadTestArgs.parse(args);
+        Path path = Paths.get(options.get("file", options.get("dir", "data/capture")));
+        double speed = options.getDouble("speed", 1.0);
+        long deadlineMillis = options.getLong("deadline", 5000);
+        List<CapturedCallback> callbacks = load(path, options.getInt("limit", 0));
+
+        WeChatReplayer replayer = new WeChatReplayer(
+                options.get("url", "http://localhost:8102/api/wx/msg"), options.get("app-id", null),
+                options.get("token", "daishuwang"), options.get("aes-key", null), options.get("source-aes-key", null)
+        );
+
+        System.out.println("=== 微信回调回放 ===");
+        System.out.println("录制: " + path + "，共 " + callbacks.size() + " 条");
+        if (!callbacks.isEmpty()) {
+            long spanMillis = callbacks.get(callbacks.size() - 1).arrivalMillis() - callbacks.get(0).arrivalMillis();
+            System.out.printf("原始时长: %.1fs，倍速: %.2f，预计回放: %.1fs%n",
+                    spanMillis / 1000.0, speed, spanMillis / 1000.0 / speed);
+        }
+        replayer.replay(callbacks, speed, Duration.ofMillis(deadlineMillis * 3));
+        replayer.report.print("回放报告", deadlineMillis);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,154 @@
+package com.yuyuan.wxmp.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.StringJoiner;
+
+/**
+ * MinHash 签名工具类，用于相似问题聚类
+ * <p>
+ * 以字符 2-gram 为特征（中文问题普遍较短，3-gram 特征太少），签名长度 {@link #NUM_HASHES}，
+ * 分成 {@link #BANDS} 段做 LSH 分桶：任意一段完全相同即视为候选，再用签名估算的 Jaccard 相似度确认。
+ * <p>
+ * 签名会持久化到数据库，哈希参数使用固定种子生成，修改 NUM_HASHES、SHINGLE_SIZE 或种子后旧签名将失效。
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class MinHashUtil {
+
+    public static final int NUM_HASHES = 64;
+
+    public static final int BANDS = 16;
+
+    private static final int ROWS = NUM_HASHES / BANDS;
+
+    private static final int SHINGLE_SIZE = 2;
+
+    /**
+     * 2^31 - 1
+     */
+    private static final long PRIME = 2147483647L;
+
+    private static final long[] A = new long[NUM_HASHES];
+
+    private static final long[] B = new long[NUM_HASHES];
+
+    static {
+        Random random = new Random(20261019L);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            A[i] = 1 + random.nextInt((int) PRIME - 1);
+            B[i] = random.nextInt((int) PRIME);
+        }
+    }
+
+    /**
+     * 计算签名
+     *
+     * @param normalized 归一化后的文本，参考 {@link TextNormalizeUtil#normalize(String)}
+     * @return 签名
+     */
+    public static int[] signature(String normalized) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int length = normalized.length();
+        int size = Math.min(SHINGLE_SIZE, length);
+        for (int start = 0; start + size <= length && size > 0; start++) {
+            int hash = 0;
+            for (int i = start; i < start + size; i++) {
+                hash = 31 * hash + normalized.charAt(i);
+            }
+            long x = Integer.toUnsignedLong(mix(hash)) % PRIME;
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int value = (int) ((A[i] * x + B[i]) % PRIME);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * 用签名估算 Jaccard 相似度
+     *
+     * @param a 签名
+     * @param b 签名
+     * @return 0 ~ 1
+     */
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / NUM_HASHES;
+    }
+
+    /**
+     * 计算 LSH 分桶 key，每段一个
+     *
+     * @param signature 签名
+     * @return 分桶 key
+     */
+    public static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            int hash = 1;
+            for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+                hash = 31 * hash + signature[i];
+            }
+            keys[band] = ((long) band << 32) | Integer.toUnsignedLong(hash);
+        }
+        return keys;
+    }
+
+    /**
+     * 签名转为字符串，用于持久化
+     *
+     * @param signature 签名
+     * @return 逗号分隔的字符串
+     */
+    public static String encode(int[] signature) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int value : signature) {
+            joiner.add(Integer.toString(value));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * 解析 {@link #encode(int[])} 生成的字符串
+     *
+     * @param text 字符串
+     * @return 签名，格式不正确时返回 null
+     */
+    public static int[] decode(String text) {
+        if (text == null) {
+            return null;
+        }
+        String[] parts = text.split(",");
+        if (parts.length != NUM_HASHES) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        try {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                signature[i] = Integer.parseInt(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return signature;
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,57 @@
+package com.yuyuan.wxmp.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 文本切片工具类
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class TextChunkUtil {
+
+    /**
+     * 按段落切片：相邻的短段落合并到同一片，超长的段落按固定长度切开，相邻两片保留 overlap 个字符的重叠
+     *
+     * @param text    文本
+     * @param size    每片最大字符数
+     * @param overlap 超长段落切开时的重叠字符数
+     * @return 切片
+     */
+    public static List<String> split(String text, int size, int overlap) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null) {
+            return chunks;
+        }
+        int step = Math.max(size - overlap, 1);
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("\\r?\\n")) {
+            String paragraph = line.strip();
+            if (paragraph.isEmpty()) {
+                continue;
+            }
+            if (current.length() > 0 && current.length() + 1 + paragraph.length() > size) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (paragraph.length() > size) {
+                for (int start = 0; start < paragraph.length(); start += step) {
+                    chunks.add(paragraph.substring(start, Math.min(start + size, paragraph.length())));
+                    if (start + size >= paragraph.length()) {
+                        break;
+                    }
+                }
+                continue;
+            }
+            if (current.length() > 0) {
+                current.append('\n');
+            }
+            current.append(paragraph);
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+}
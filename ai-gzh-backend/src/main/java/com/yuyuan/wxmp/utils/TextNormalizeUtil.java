@@ -0,0 +1,59 @@
+package com.yuyuan.wxmp.utils;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 文本归一化工具类
+ *
+ * @author cq
+ * @since 2026/10/19
+ */
+public class TextNormalizeUtil {
+
+    /**
+     * 常用繁体字（公众号咨询场景），与 SIMPLIFIED 按位置一一对应
+     */
+    private static final String TRADITIONAL = "錢費價訂單號貨買賣們麼嗎這個時間門開關會員發電話問題請謝資幾點態務運郵額帳賬戶碼聯係繫還換沒說過後體優專業營處區東車長紅書學習網線頁圖視頻聽讀寫實現種類樣麵飯雞魚鮮醫藥療愛歡準確認證護險蘋機腦軟鍵盤與為爲無從來對邊裡裏讓給應該於並當較錯難聲響隨帶臺灣廣術園鐘錶週餘製復複閱簡趕辦總錄動勞訊稱隱條約規則權歸檔載測試驗啟設狀構選擇項據庫產質筆紀銀轉匯詢諮導覽館島鐵飛場氣溫節慶團購夠報減積級註冊進遲達寶禮親見覺舊雙樂貼遠億萬";
+
+    private static final String SIMPLIFIED = "钱费价订单号货买卖们么吗这个时间门开关会员发电话问题请谢资几点态务运邮额账账户码联系系还换没说过后体优专业营处区东车长红书学习网线页图视频听读写实现种类样面饭鸡鱼鲜医药疗爱欢准确认证护险苹机脑软键盘与为为无从来对边里里让给应该于并当较错难声响随带台湾广术园钟表周余制复复阅简赶办总录动劳讯称隐条约规则权归档载测试验启设状构选择项据库产质笔纪银转汇询咨导览馆岛铁飞场气温节庆团购够报减积级注册进迟达宝礼亲见觉旧双乐贴远亿万";
+
+    private static final Map<Integer, Integer> VARIANT_MAP = new HashMap<>(TRADITIONAL.length() * 2);
+
+    static {
+        for (int i = 0; i < TRADITIONAL.length(); i++) {
+            VARIANT_MAP.put((int) TRADITIONAL.charAt(i), (int) SIMPLIFIED.charAt(i));
+        }
+    }
+
+    /**
+     * 归一化用户消息：全角转半角（NFKC）、转小写、常用繁体转简体、去掉空白和标点，只保留文字和数字
+     *
+     * @param text 文本
+     * @return 归一化后的文本，text 为 null 时返回空字符串
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String nfkc = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        StringBuilder builder = new StringBuilder(nfkc.length());
+        nfkc.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .map(Character::toLowerCase)
+                .map(TextNormalizeUtil::foldVariant)
+                .forEach(builder::appendCodePoint);
+        return builder.toString();
+    }
+
+    /**
+     * 繁体字转为对应的简体字，其他字符原样返回
+     *
+     * @param codePoint 字符
+     * @return 简体字符
+     */
+    public static int foldVariant(int codePoint) {
+        return VARIANT_MAP.getOrDefault(codePoint, codePoint);
+    }
+}
@@ -0,0 +1,168 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.model.vo.AiSchedulerStatsVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AI 调用调度器测试
+ */
+public class AiCallSchedulerTest {
+
+    private static final long FAR_DEADLINE_MILLIS = 10_000;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    private AiCallScheduler newScheduler(int maxConcurrency, int maxInFlight) {
+        WxMpProperties properties = new WxMpProperties();
+        WxMpProperties.AiScheduler scheduler = properties.getAiScheduler();
+        scheduler.setMaxConcurrency(maxConcurrency);
+        scheduler.setDefaultMaxInFlight(maxInFlight);
+        scheduler.setMinRemainingMillis(500);
+        WxMpProperties.AiScheduler.Tenant heavy = new WxMpProperties.AiScheduler.Tenant();
+        heavy.setWeight(3);
+        scheduler.getTenants().put("app_heavy", heavy);
+        return new AiCallScheduler(properties);
+    }
+
+    private long deadline() {
+        return System.currentTimeMillis() + FAR_DEADLINE_MILLIS;
+    }
+
+    private Future<?> hold(AiCallScheduler scheduler, String appId, CountDownLatch started, CountDownLatch release) {
+        return callers.submit(() -> scheduler.execute(appId, deadline(), () -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+    }
+
+    private int queueDepth(AiCallScheduler scheduler) {
+        return scheduler.getStats().stream().mapToInt(AiSchedulerStatsVO::getQueueDepth).sum();
+    }
+
+    private void waitForQueueDepth(AiCallScheduler scheduler, int depth) throws InterruptedException {
+        long until = System.currentTimeMillis() + 5000;
+        while (queueDepth(scheduler) < depth && System.currentTimeMillis() < until) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, queueDepth(scheduler));
+    }
+
+    @Test
+    public void grantsFollowWeights() throws Exception {
+        AiCallScheduler scheduler = newScheduler(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = hold(scheduler, "app_blocker", started, release);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            for (String appId : List.of("app_heavy", "app_light")) {
+                futures.add(callers.submit(() -> scheduler.execute(appId, deadline(), () -> order.add(appId))));
+            }
+        }
+        waitForQueueDepth(scheduler, 16);
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        // 权重 3:1，两个公众号都有排队时 heavy 大约分到 3/4
+        long heavyInFirstEight = order.subList(0, 8).stream().filter("app_heavy"::equals).count();
+        assertTrue(heavyInFirstEight >= 5 && heavyInFirstEight <= 7, "order: " + order);
+    }
+
+    @Test
+    public void maxInFlightIsPerApp() throws Exception {
+        AiCallScheduler scheduler = newScheduler(4, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> first = hold(scheduler, "app_a", started, release);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // app_a 的第二个调用需要排队，app_b 可以立即执行
+        AtomicInteger secondRan = new AtomicInteger();
+        Future<?> second = callers.submit(() -> scheduler.execute("app_a", deadline(), secondRan::incrementAndGet));
+        waitForQueueDepth(scheduler, 1);
+        assertEquals(1, scheduler.execute("app_b", deadline(), () -> 1));
+        assertEquals(0, secondRan.get());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, secondRan.get());
+    }
+
+    @Test
+    public void expiredRequestsAreShed() throws Exception {
+        AiCallScheduler scheduler = newScheduler(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = hold(scheduler, "app_blocker", started, release);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger ran = new AtomicInteger();
+        long shortDeadline = System.currentTimeMillis() + 700;
+        assertThrows(RejectedExecutionException.class,
+                () -> scheduler.execute("app_late", shortDeadline, ran::incrementAndGet));
+        // 已经过了截止时间的请求不会被放行
+        assertThrows(RejectedExecutionException.class,
+                () -> scheduler.execute("app_late", System.currentTimeMillis(), ran::incrementAndGet));
+
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        assertEquals(0, ran.get());
+        AiSchedulerStatsVO stats = scheduler.getStats().stream()
+                .filter(item -> "app_late".equals(item.getAppId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, stats.getShed());
+        assertEquals(0, stats.getQueueDepth());
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() throws Exception {
+        WxMpProperties properties = new WxMpProperties();
+        properties.getAiScheduler().setMaxConcurrency(1);
+        properties.getAiScheduler().setMaxQueuePerApp(1);
+        AiCallScheduler scheduler = new AiCallScheduler(properties);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocker = hold(scheduler, "app_a", started, release);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<?> queued = callers.submit(() -> scheduler.execute("app_a", deadline(), () -> 1));
+        waitForQueueDepth(scheduler, 1);
+        assertThrows(RejectedExecutionException.class, () -> scheduler.execute("app_a", deadline(), () -> 1));
+
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,84 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import com.yuyuan.wxmp.manager.CallbackCaptureManager.CapturedCallback;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 微信回调录制测试
+ */
+public class CallbackCaptureManagerTest {
+
+    @TempDir
+    Path dir;
+
+    private CallbackCaptureManager manager(int maxSegments) {
+        WxMpProperties properties = new WxMpProperties();
+        properties.getCapture().setEnabled(true);
+        properties.getCapture().setDir(dir.toString());
+        properties.getCapture().setSegmentMb(1);
+        properties.getCapture().setMaxSegments(maxSegments);
+        return new CallbackCaptureManager(properties);
+    }
+
+    private static List<CapturedCallback> readAll(Path dir) throws Exception {
+        List<CapturedCallback> callbacks = new ArrayList<>();
+        for (Path file : CallbackCaptureManager.listSegments(dir)) {
+            CallbackCaptureManager.read(file, callbacks::add);
+        }
+        return callbacks;
+    }
+
+    @Test
+    public void writtenCallbacksAreReadBack() throws Exception {
+        CallbackCaptureManager manager = manager(10);
+        CapturedCallback plain = new CapturedCallback(1000L, "wx_app", "open_1", "1760839200", "123",
+                null, null, "<xml><Content><![CDATA[你好]]></Content></xml>");
+        CapturedCallback aes = new CapturedCallback(1500L, "wx_app", "open_2", "1760839201", "456",
+                "aes", "abc", "<xml><Encrypt><![CDATA[xxx]]></Encrypt></xml>");
+        manager.capture(plain);
+        manager.capture(aes);
+        // 未关闭时也能读到已写入的记录
+        assertEquals(List.of(plain, aes), readAll(dir));
+        manager.shutdown();
+        assertEquals(List.of(plain, aes), readAll(dir));
+    }
+
+    @Test
+    public void segmentsRotateAndExpire() throws Exception {
+        CallbackCaptureManager manager = manager(2);
+        String body = "x".repeat(300 * 1024);
+        for (int i = 0; i < 10; i++) {
+            manager.capture(new CapturedCallback(i, "wx_app", "open", "t", "n", null, null, body));
+        }
+        manager.shutdown();
+        List<Path> segments = CallbackCaptureManager.listSegments(dir);
+        assertEquals(2, segments.size());
+        List<CapturedCallback> callbacks = readAll(dir);
+        // 每个文件 1MB 放 3 条，保留最后两个文件
+        assertEquals(4, callbacks.size());
+        assertEquals(9L, callbacks.get(callbacks.size() - 1).arrivalMillis());
+        for (Path segment : segments) {
+            assertTrue(Files.size(segment) < 1024 * 1024);
+        }
+    }
+
+    @Test
+    public void onlyConfiguredAppIdsAreCaptured() {
+        WxMpProperties properties = new WxMpProperties();
+        assertFalse(new CallbackCaptureManager(properties).isEnabled("wx_app"));
+        properties.getCapture().setEnabled(true);
+        assertTrue(new CallbackCaptureManager(properties).isEnabled("wx_app"));
+        properties.getCapture().setAppIds(Set.of("wx_other"));
+        assertFalse(new CallbackCaptureManager(properties).isEnabled("wx_app"));
+    }
+}
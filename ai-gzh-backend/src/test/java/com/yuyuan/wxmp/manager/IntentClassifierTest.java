@@ -0,0 +1,93 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.model.vo.IntentEvaluationVO;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地意图分类器测试
+ */
+public class IntentClassifierTest {
+
+    private static final int REFUND = 0;
+
+    private static final int OPENING_HOURS = 1;
+
+    private static final double MIN_CONFIDENCE = 0.95;
+
+    private static final double MIN_COVERAGE = 0.6;
+
+    private static final String[] REFUND_QUESTIONS = {
+            "怎么申请退款", "退款怎么申请", "我要退款", "如何退款", "申请退款的流程是什么", "退款多久到账", "订单怎么退款"
+    };
+
+    private static final String[] OPENING_HOURS_QUESTIONS = {
+            "营业时间", "你们几点开门", "营业时间是几点", "周末营业吗", "几点关门", "门店营业到几点"
+    };
+
+    private static final String[] OTHER_QUESTIONS = {
+            "你好", "今天天气怎么样", "推荐一本书", "你是谁", "帮我写一首诗", "会员有什么权益", "怎么修改手机号",
+            "积分怎么用", "快递到哪了", "可以开发票吗", "有优惠券吗", "怎么联系人工客服", "能帮我翻译一句话吗",
+            "讲个笑话", "最近有什么活动", "密码忘了怎么办", "支持货到付款吗", "商品有保修吗"
+    };
+
+    private List<IntentClassifier.Sample> samples() {
+        List<IntentClassifier.Sample> samples = new ArrayList<>();
+        samples.add(new IntentClassifier.Sample("退款", REFUND, 5));
+        samples.add(new IntentClassifier.Sample("营业时间", OPENING_HOURS, 5));
+        for (String question : REFUND_QUESTIONS) {
+            samples.add(new IntentClassifier.Sample(TextNormalizeUtil.normalize(question), REFUND, 3));
+        }
+        for (String question : OPENING_HOURS_QUESTIONS) {
+            samples.add(new IntentClassifier.Sample(TextNormalizeUtil.normalize(question), OPENING_HOURS, 3));
+        }
+        for (String question : OTHER_QUESTIONS) {
+            samples.add(new IntentClassifier.Sample(TextNormalizeUtil.normalize(question), IntentClassifier.OTHER, 1));
+        }
+        return samples;
+    }
+
+    private IntentClassifier.Prediction predict(IntentClassifier classifier, String message) {
+        return classifier.predict(TextNormalizeUtil.normalize(message));
+    }
+
+    @Test
+    public void answersParaphrasedQuestions() {
+        IntentClassifier classifier = IntentClassifier.train(samples(), 2);
+
+        IntentClassifier.Prediction refund = predict(classifier, "请问怎么退款？");
+        assertNotNull(refund);
+        assertEquals(REFUND, refund.getLabel());
+        assertTrue(refund.isConfident(MIN_CONFIDENCE, MIN_COVERAGE), "confidence: " + refund.getConfidence());
+
+        IntentClassifier.Prediction hours = predict(classifier, "你们营业时间到几点");
+        assertNotNull(hours);
+        assertEquals(OPENING_HOURS, hours.getLabel());
+    }
+
+    @Test
+    public void unrelatedQuestionsAreLeftToAi() {
+        IntentClassifier classifier = IntentClassifier.train(samples(), 2);
+        for (String message : List.of("讲一个笑话吧", "推荐几本书", "帮我写代码")) {
+            IntentClassifier.Prediction prediction = predict(classifier, message);
+            assertTrue(prediction == null || !prediction.isConfident(MIN_CONFIDENCE, MIN_COVERAGE), message);
+        }
+        // 完全没见过的字不作答
+        assertNull(predict(classifier, "ＸＹＺ"));
+    }
+
+    @Test
+    public void evaluationReportsMetrics() {
+        IntentEvaluationVO evaluation = IntentClassifier.evaluate(samples(), 2, MIN_CONFIDENCE, MIN_COVERAGE);
+        assertEquals(samples().size(), evaluation.getTrainSize() + evaluation.getTestSize());
+        assertTrue(evaluation.getTestSize() > 0);
+        assertTrue(evaluation.getAvgPredictMicros() > 0);
+        assertNotNull(evaluation.getP99PredictMicros());
+        assertTrue(evaluation.getPrecision() >= 0 && evaluation.getPrecision() <= 1);
+    }
+}
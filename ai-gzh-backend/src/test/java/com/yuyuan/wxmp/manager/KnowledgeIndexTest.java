@@ -0,0 +1,74 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.model.dto.knowledge.KnowledgeChunkDTO;
+import com.yuyuan.wxmp.model.vo.KnowledgePassageVO;
+import com.yuyuan.wxmp.utils.TextChunkUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 知识库索引测试
+ */
+public class KnowledgeIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private List<KnowledgeChunkDTO> chunks() {
+        List<KnowledgeChunkDTO> chunks = new ArrayList<>();
+        chunks.add(new KnowledgeChunkDTO(1L, "退款说明", "下单后 7 天内可以在订单详情页申请退款，审核通过后 3 个工作日内原路退回。"));
+        chunks.add(new KnowledgeChunkDTO(2L, "门店信息", "门店营业时间为每天上午 9 点到晚上 9 点，节假日正常营业。"));
+        chunks.add(new KnowledgeChunkDTO(3L, "会员权益", "会员每消费 1 元积 1 分，积分可以在下单时抵扣现金。"));
+        return chunks;
+    }
+
+    @Test
+    public void searchReturnsRelevantPassageFirst() throws Exception {
+        KnowledgeIndex index = KnowledgeIndex.build(dir, "rev-1", chunks());
+
+        List<KnowledgePassageVO> passages = index.search("退款多久能到账？", 2, 0.2);
+        assertFalse(passages.isEmpty());
+        assertEquals(1L, passages.get(0).getDocumentId());
+
+        passages = index.search("你们几点营业", 2, 0.2);
+        assertEquals(2L, passages.get(0).getDocumentId());
+
+        assertTrue(index.search("？？？", 2, 0.2).isEmpty());
+    }
+
+    @Test
+    public void loadReadsBuiltIndex() throws Exception {
+        KnowledgeIndex.build(dir, "rev-1", chunks());
+        KnowledgeIndex loaded = KnowledgeIndex.load(dir);
+        assertNotNull(loaded);
+        assertEquals("rev-1", loaded.getRevision());
+        assertEquals(3, loaded.size());
+        assertEquals(3L, loaded.search("积分怎么抵扣", 1, 0.2).get(0).getDocumentId());
+
+        // 重建后旧索引仍然可用
+        KnowledgeIndex rebuilt = KnowledgeIndex.build(dir, "rev-2", chunks().subList(0, 1));
+        assertEquals(1, rebuilt.size());
+        assertEquals(3L, loaded.search("积分怎么抵扣", 1, 0.2).get(0).getDocumentId());
+    }
+
+    @Test
+    public void emptyDirectoryHasNoIndex() throws Exception {
+        assertNull(KnowledgeIndex.load(dir));
+    }
+
+    @Test
+    public void longParagraphsAreSplitWithOverlap() {
+        String paragraph = "一".repeat(250);
+        List<String> chunks = TextChunkUtil.split("短段落\n\n" + paragraph + "\n结尾", 100, 20);
+        assertEquals("短段落", chunks.get(0));
+        assertEquals(100, chunks.get(1).length());
+        assertEquals(5, chunks.size());
+        assertEquals("结尾", chunks.get(chunks.size() - 1));
+    }
+}
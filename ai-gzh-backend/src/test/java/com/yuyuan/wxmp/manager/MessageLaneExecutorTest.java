@@ -0,0 +1,143 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.config.properties.WxMpProperties;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 消息通道执行器测试
+ */
+public class MessageLaneExecutorTest {
+
+    private MessageLaneExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        WxMpProperties properties = new WxMpProperties();
+        properties.getLane().setLaneCount(8);
+        properties.getLane().setThreads(4);
+        properties.getLane().setMaxPendingPerLane(10_000);
+        executor = new MessageLaneExecutor(properties, noopTraceManager());
+    }
+
+    private static TraceManager noopTraceManager() {
+        return new TraceManager(new StaticListableBeanFactory().getBeanProvider(Tracer.class));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    public void sameUserIsOrderedAndNeverParallel() throws Exception {
+        int users = 20;
+        int messagesPerUser = 200;
+        List<List<Integer>> received = new ArrayList<>();
+        List<AtomicInteger> running = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            received.add(Collections.synchronizedList(new ArrayList<>()));
+            running.add(new AtomicInteger());
+        }
+        AtomicInteger overlap = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int seq = 0; seq < messagesPerUser; seq++) {
+            for (int user = 0; user < users; user++) {
+                int u = user;
+                int s = seq;
+                futures.add(executor.submit("wx_app", "openid_" + u, () -> {
+                    if (running.get(u).incrementAndGet() > 1) {
+                        overlap.incrementAndGet();
+                    }
+                    received.get(u).add(s);
+                    running.get(u).decrementAndGet();
+                    return s;
+                }));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, overlap.get());
+        for (List<Integer> list : received) {
+            assertEquals(messagesPerUser, list.size());
+            for (int i = 0; i < messagesPerUser; i++) {
+                assertEquals(i, list.get(i));
+            }
+        }
+        assertEquals(0, executor.getPendingCount());
+    }
+
+    @Test
+    public void differentLanesRunInParallel() throws Exception {
+        // 找到两个落在不同通道的用户
+        String userA = "openid_a";
+        String userB = null;
+        for (int i = 0; userB == null; i++) {
+            if (executor.laneIndex("wx_app", "openid_" + i) != executor.laneIndex("wx_app", userA)) {
+                userB = "openid_" + i;
+            }
+        }
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CompletableFuture<Boolean> a = executor.submit("wx_app", userA, () -> await(bothStarted));
+        CompletableFuture<Boolean> b = executor.submit("wx_app", userB, () -> await(bothStarted));
+
+        assertTrue(a.get(5, TimeUnit.SECONDS));
+        assertTrue(b.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void rejectsWhenLaneIsFull() throws Exception {
+        WxMpProperties properties = new WxMpProperties();
+        properties.getLane().setLaneCount(1);
+        properties.getLane().setThreads(1);
+        properties.getLane().setMaxPendingPerLane(2);
+        MessageLaneExecutor smallExecutor = new MessageLaneExecutor(properties, noopTraceManager());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            smallExecutor.submit("wx_app", "openid", () -> block(release));
+            smallExecutor.submit("wx_app", "openid", () -> true);
+            assertThrows(RejectedExecutionException.class,
+                    () -> smallExecutor.submit("wx_app", "openid", () -> true));
+        } finally {
+            release.countDown();
+            smallExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void exceptionCompletesFuture() {
+        CompletableFuture<Object> future = executor.submit("wx_app", "openid", () -> {
+            throw new IllegalStateException("boom");
+        });
+        Exception e = assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        latch.countDown();
+        return block(latch);
+    }
+
+    private static boolean block(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
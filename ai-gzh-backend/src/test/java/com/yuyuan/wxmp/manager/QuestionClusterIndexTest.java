@@ -0,0 +1,100 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.model.entity.AiReplySuggestion;
+import com.yuyuan.wxmp.utils.TextNormalizeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 相似问题聚类测试
+ */
+public class QuestionClusterIndexTest {
+
+    private static final String REFUND_REPLY = "在订单详情页点击申请退款即可";
+
+    private void add(QuestionClusterIndex index, String question, String reply) {
+        index.add(TextNormalizeUtil.normalize(question), question, reply);
+    }
+
+    @Test
+    public void similarQuestionsAreClustered() {
+        QuestionClusterIndex index = new QuestionClusterIndex("wx_app", 0.6, 20, List.of());
+        add(index, "请问怎么申请退款？", REFUND_REPLY);
+        add(index, "请问怎么申请退款？", REFUND_REPLY);
+        add(index, "怎么申请退款呀", "请联系客服");
+        add(index, "营业时间是几点？", "每天 9 点到 18 点");
+        add(index, "你们营业时间是几点", "每天 9 点到 18 点");
+
+        List<AiReplySuggestion> suggestions = index.getChangedSuggestions();
+        suggestions.sort(Comparator.comparing(AiReplySuggestion::getHitCount).reversed());
+        assertEquals(2, suggestions.size());
+
+        AiReplySuggestion refund = suggestions.get(0);
+        assertEquals(3, refund.getHitCount());
+        assertEquals("请问怎么申请退款？", refund.getQuestion());
+        assertEquals(REFUND_REPLY, refund.getReplyMessage());
+        assertEquals(2, refund.getReplyCount());
+        assertEquals(2, suggestions.get(1).getHitCount());
+    }
+
+    @Test
+    public void differentQuestionsAreNotClustered() {
+        QuestionClusterIndex index = new QuestionClusterIndex("wx_app", 0.6, 20, List.of());
+        add(index, "怎么申请退款", REFUND_REPLY);
+        add(index, "怎么申请发票", "在订单详情页申请开票");
+        add(index, "你们的营业时间是几点", "每天 9 点到 18 点");
+        assertEquals(3, index.getChangedSuggestions().size());
+    }
+
+    @Test
+    public void existingSuggestionsKeepCounting() {
+        QuestionClusterIndex first = new QuestionClusterIndex("wx_app", 0.6, 20, List.of());
+        add(first, "请问怎么申请退款？", REFUND_REPLY);
+        AiReplySuggestion saved = first.getChangedSuggestions().get(0);
+        saved.setId(1L);
+
+        // 下一批记录从已保存的建议继续累计
+        QuestionClusterIndex second = new QuestionClusterIndex("wx_app", 0.6, 20, List.of(saved));
+        add(second, "怎么申请退款呀", REFUND_REPLY);
+        add(second, "营业时间是几点？", "每天 9 点到 18 点");
+
+        List<AiReplySuggestion> changed = second.getChangedSuggestions();
+        assertEquals(2, changed.size());
+        AiReplySuggestion refund = changed.stream().filter(item -> Long.valueOf(1L).equals(item.getId())).findFirst().orElseThrow();
+        assertEquals(2, refund.getHitCount());
+        assertEquals(2, refund.getReplyCount());
+    }
+
+    @Test
+    public void statisticsAreMergedForClustersLoadedWithoutThem() {
+        QuestionClusterIndex first = new QuestionClusterIndex("wx_app", 0.6, 20, List.of());
+        add(first, "请问怎么申请退款？", REFUND_REPLY);
+        add(first, "请问怎么申请退款？", REFUND_REPLY);
+        AiReplySuggestion saved = first.getChangedSuggestions().get(0);
+        saved.setId(1L);
+        String statistics = saved.getStatistics();
+
+        // 按挖掘任务的方式只加载签名和出现次数
+        AiReplySuggestion loaded = new AiReplySuggestion();
+        loaded.setId(1L);
+        loaded.setAppId("wx_app");
+        loaded.setSignature(saved.getSignature());
+        loaded.setHitCount(saved.getHitCount());
+        loaded.setStatus(saved.getStatus());
+        QuestionClusterIndex second = new QuestionClusterIndex("wx_app", 0.6, 20, List.of(loaded));
+        add(second, "怎么申请退款呀", "请联系客服");
+        assertEquals(List.of(1L), second.getChangedIdsWithoutStatistics());
+
+        second.mergeStatistics(1L, statistics);
+        assertTrue(second.getChangedIdsWithoutStatistics().isEmpty());
+        AiReplySuggestion refund = second.getChangedSuggestions().get(0);
+        assertEquals(3, refund.getHitCount());
+        assertEquals("请问怎么申请退款？", refund.getQuestion());
+        assertEquals(REFUND_REPLY, refund.getReplyMessage());
+        assertEquals(2, refund.getReplyCount());
+    }
+}
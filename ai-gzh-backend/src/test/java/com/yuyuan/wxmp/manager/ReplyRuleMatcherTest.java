@@ -0,0 +1,188 @@
+package com.yuyuan.wxmp.manager;
+
+import cn.hutool.json.JSONUtil;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyContentDTO;
+import com.yuyuan.wxmp.model.dto.wxmpreplyrule.WxReplyMatchValueDTO;
+import com.yuyuan.wxmp.model.entity.WxReplyKeyword;
+import com.yuyuan.wxmp.model.entity.WxReplyRule;
+import com.yuyuan.wxmp.model.enums.WxReplyContentTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyMatchTypeEnum;
+import com.yuyuan.wxmp.model.enums.WxReplyRuleTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 关键字回复规则匹配器测试
+ */
+public class ReplyRuleMatcherTest {
+
+    private static long nextId = 1;
+
+    private static WxReplyRule rule(WxReplyRuleTypeEnum type, String reply, WxReplyMatchTypeEnum matchType, String keyword) {
+        WxReplyRule rule = new WxReplyRule();
+        rule.setId(nextId++);
+        rule.setReplyType(type.getValue());
+        WxReplyContentDTO content = new WxReplyContentDTO();
+        content.setContentType(WxReplyContentTypeEnum.TEXT.getValue());
+        content.setTextContent(reply);
+        rule.setReplyContent(JSONUtil.toJsonStr(content));
+        if (matchType != null) {
+            WxReplyMatchValueDTO matchValue = new WxReplyMatchValueDTO();
+            matchValue.setMatchType(matchType.getValue());
+            matchValue.setMatchKeyWords(keyword);
+            rule.setMatchValue(JSONUtil.toJsonStr(List.of(matchValue)));
+        }
+        return rule;
+    }
+
+    private static WxReplyRule keyword(String reply, WxReplyMatchTypeEnum matchType, String keyword) {
+        return rule(WxReplyRuleTypeEnum.KEYWORDS, reply, matchType, keyword);
+    }
+
+    private static ReplyRuleMatcher compile(WxReplyRule... rules) {
+        return ReplyRuleMatcher.compile(List.of(rules), List.of(), 2, 100_000);
+    }
+
+    private static String reply(ReplyRuleMatcher matcher, String msg) {
+        WxReplyContentDTO content = matcher.match(msg);
+        return content == null ? null : content.getTextContent();
+    }
+
+    @Test
+    public void allAndLikeKeepOriginalSemantics() {
+        ReplyRuleMatcher matcher = compile(
+                keyword("all", WxReplyMatchTypeEnum.ALL, "Hello"),
+                keyword("like", WxReplyMatchTypeEnum.LIKE, "VIP")
+        );
+        assertEquals("all", reply(matcher, "hello"));
+        assertNull(reply(matcher, "hello!"));
+        assertEquals("like", reply(matcher, "怎么开通vip会员"));
+        // 原有的两种匹配不做归一化
+        assertNull(reply(matcher, "怎么开通ＶＩＰ会员"));
+    }
+
+    @Test
+    public void normalizedFoldsWidthCaseVariantsAndPunctuation() {
+        ReplyRuleMatcher matcher = compile(keyword("refund", WxReplyMatchTypeEnum.NORMALIZED, "VIP 退款进度"));
+        assertEquals("refund", reply(matcher, "請問ＶＩＰ退款進度？"));
+        assertEquals("refund", reply(matcher, "vip，退款进度"));
+        assertNull(reply(matcher, "退货进度"));
+    }
+
+    @Test
+    public void fuzzyToleratesTyposByLength() {
+        ReplyRuleMatcher matcher = compile(
+                keyword("long", WxReplyMatchTypeEnum.FUZZY, "怎么申请退款"),
+                keyword("short", WxReplyMatchTypeEnum.FUZZY, "发票")
+        );
+        // 6 个字允许 1 处差异：错字、漏字、多字
+        assertEquals("long", reply(matcher, "请问怎么申清退款呀"));
+        assertEquals("long", reply(matcher, "怎么申退款"));
+        assertEquals("long", reply(matcher, "怎么样申请退款"));
+        assertNull(reply(matcher, "怎样申清退货"));
+        // 3 个字以内不容错
+        assertEquals("short", reply(matcher, "开发票"));
+        assertNull(reply(matcher, "开发标"));
+    }
+
+    @Test
+    public void withinDistanceMatchesSubstrings() {
+        assertTrue(ReplyRuleMatcher.withinDistance("abcdef", "xxabcxefyy", 1));
+        assertFalse(ReplyRuleMatcher.withinDistance("abcdef", "xxabxxefyy", 1));
+        assertTrue(ReplyRuleMatcher.withinDistance("abcdef", "xxabxxefyy", 2));
+        assertEquals(0, ReplyRuleMatcher.fuzzyDistance(3, 2));
+        assertEquals(1, ReplyRuleMatcher.fuzzyDistance(7, 2));
+        assertEquals(2, ReplyRuleMatcher.fuzzyDistance(20, 2));
+    }
+
+    @Test
+    public void pinyinMatchesHomophones() {
+        ReplyRuleMatcher matcher = compile(keyword("refund", WxReplyMatchTypeEnum.PINYIN, "退款"));
+        assertEquals("refund", reply(matcher, "我要退宽"));
+        assertEquals("refund", reply(matcher, "我要退款"));
+        assertNull(reply(matcher, "我要退换"));
+    }
+
+    @Test
+    public void regexIsPrecompiledAndBounded() {
+        ReplyRuleMatcher matcher = compile(
+                keyword("order", WxReplyMatchTypeEnum.REGEX, "订单号?\\s*\\d{6,}"),
+                keyword("slow", WxReplyMatchTypeEnum.REGEX, "(a+)+b")
+        );
+        assertEquals("order", reply(matcher, "我的订单号 20261019 到哪了"));
+        assertNull(reply(matcher, "我的订单到哪了"));
+        // 灾难性回溯会在步数上限处中断，视为未命中
+        long start = System.nanoTime();
+        assertNull(reply(matcher, "a".repeat(40) + "c"));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    }
+
+    @Test
+    public void firstRuleWinsAndDefaultIsFallback() {
+        ReplyRuleMatcher matcher = compile(
+                keyword("first", WxReplyMatchTypeEnum.LIKE, "退款"),
+                keyword("second", WxReplyMatchTypeEnum.NORMALIZED, "退款"),
+                rule(WxReplyRuleTypeEnum.DEFAULT, "default", null, null)
+        );
+        assertEquals("first", reply(matcher, "退款"));
+        assertEquals("default", reply(matcher, "你好"));
+        assertNull(reply(compile(), "你好"));
+    }
+
+    @Test
+    public void subscribeRepliesAreSeparateFromDefault() {
+        ReplyRuleMatcher matcher = compile(
+                rule(WxReplyRuleTypeEnum.SUBSCRIBE, "welcome", null, null),
+                rule(WxReplyRuleTypeEnum.DEFAULT, "default", null, null)
+        );
+        assertEquals("welcome", matcher.subscribeReply().getTextContent());
+        assertEquals("default", reply(matcher, "你好"));
+        assertNull(compile(rule(WxReplyRuleTypeEnum.DEFAULT, "default", null, null)).subscribeReply());
+
+        Set<String> replies = new HashSet<>();
+        ReplyRuleMatcher random = compile(
+                rule(WxReplyRuleTypeEnum.SUBSCRIBE, "a", null, null),
+                rule(WxReplyRuleTypeEnum.SUBSCRIBE, "b", null, null)
+        );
+        for (int i = 0; i < 200; i++) {
+            replies.add(random.subscribeReply().getTextContent());
+        }
+        assertEquals(Set.of("a", "b"), replies);
+    }
+
+    @Test
+    public void invalidRulesAreSkipped() {
+        List<WxReplyRule> rules = new ArrayList<>();
+        WxReplyRule broken = keyword("broken", WxReplyMatchTypeEnum.LIKE, "退款");
+        broken.setMatchValue("not json");
+        rules.add(broken);
+        rules.add(keyword("regex", WxReplyMatchTypeEnum.REGEX, "([a-z"));
+        rules.add(keyword("punctuation", WxReplyMatchTypeEnum.NORMALIZED, "？？"));
+        rules.add(keyword("ok", WxReplyMatchTypeEnum.LIKE, "退款"));
+        ReplyRuleMatcher matcher = ReplyRuleMatcher.compile(rules, List.of(), 2, 100_000);
+        assertEquals("ok", reply(matcher, "退款"));
+        assertNull(reply(matcher, "你好"));
+    }
+
+    @Test
+    public void keywordTableTakesPrecedenceOverMatchValue() {
+        WxReplyRule fromTable = keyword("table", WxReplyMatchTypeEnum.LIKE, "旧关键字");
+        WxReplyRule fromJson = keyword("json", WxReplyMatchTypeEnum.LIKE, "发票");
+        WxReplyKeyword row = new WxReplyKeyword();
+        row.setRuleId(fromTable.getId());
+        row.setKeyword("退款");
+        row.setMatchType(WxReplyMatchTypeEnum.NORMALIZED.getValue());
+        row.setNormalized("退款");
+        ReplyRuleMatcher matcher = ReplyRuleMatcher.compile(List.of(fromTable, fromJson), List.of(row), 2, 100_000);
+        assertEquals("table", reply(matcher, "怎么退款"));
+        assertNull(reply(matcher, "旧关键字"));
+        // 关键字表中没有的规则回退为解析 matchValue
+        assertEquals("json", reply(matcher, "开发票"));
+    }
+}
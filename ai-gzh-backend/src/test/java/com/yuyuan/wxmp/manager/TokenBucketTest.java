@@ -0,0 +1,83 @@
+package com.yuyuan.wxmp.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 令牌桶限流测试
+ */
+public class TokenBucketTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void burstThenSteadyRate() {
+        // 每秒 10 条，间隔 100ms，允许突发 3 条
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(100 * MILLIS, bucket.reserve(0));
+        assertEquals(200 * MILLIS, bucket.reserve(0));
+        // 空闲足够久后恢复突发，但不会超过容量
+        long later = 10_000 * MILLIS;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve(later));
+        }
+        assertEquals(100 * MILLIS, bucket.reserve(later));
+    }
+
+    @Test
+    public void pauseDelaysWithoutBurst() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        bucket.pause(1000, 0);
+        assertEquals(1000 * MILLIS, bucket.reserve(0));
+        assertEquals(1100 * MILLIS, bucket.reserve(0));
+        // 暂停结束后按频率逐个放行
+        assertEquals(100 * MILLIS, bucket.reserve(1100 * MILLIS));
+        // 暂停时间早于当前进度时不影响
+        bucket.pause(0, 1100 * MILLIS);
+        assertEquals(200 * MILLIS, bucket.reserve(1100 * MILLIS));
+    }
+
+    @Test
+    public void acquireHoldsRate() {
+        TokenBucket bucket = new TokenBucket(50, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            assertTrue(bucket.acquire());
+        }
+        // 第一条立即放行，之后每 20ms 一条
+        assertTrue(System.nanoTime() - start >= 190 * MILLIS);
+    }
+
+    @Test
+    public void tryReserveDoesNotWaitOutPause() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        // 被限流暂停 600 秒后，最多等 10 秒的领取直接失败，不占用令牌
+        bucket.pause(600_000, 0);
+        assertEquals(600_000 * MILLIS, bucket.delayNanos(0));
+        assertEquals(-1, bucket.tryReserve(0, 10_000 * MILLIS));
+        assertEquals(-1, bucket.tryReserve(0, 10_000 * MILLIS));
+        assertEquals(600_000 * MILLIS, bucket.delayNanos(0));
+        // 暂停快结束时恢复领取，按频率逐个放行
+        long nearResume = 595_000 * MILLIS;
+        assertEquals(5_000 * MILLIS, bucket.tryReserve(nearResume, 10_000 * MILLIS));
+        assertEquals(5_100 * MILLIS, bucket.tryReserve(nearResume, 10_000 * MILLIS));
+    }
+
+    @Test
+    public void tryAcquireReturnsQuicklyWhilePaused() {
+        TokenBucket bucket = new TokenBucket(20, 20);
+        bucket.pause(600_000);
+        long start = System.nanoTime();
+        for (int i = 0; i < 500; i++) {
+            assertFalse(bucket.tryAcquire(10_000));
+        }
+        assertTrue(System.nanoTime() - start < 1000 * MILLIS);
+        assertTrue(bucket.delayMillis() > 590_000);
+    }
+}
@@ -0,0 +1,84 @@
+package com.yuyuan.wxmp.manager;
+
+import com.yuyuan.wxmp.manager.WxBroadcastSender.Outcome;
+import com.yuyuan.wxmp.manager.WxBroadcastSender.SendResult;
+import com.yuyuan.wxmp.model.dto.wxbroadcast.WxBroadcastContentDTO;
+import com.yuyuan.wxmp.model.enums.WxBroadcastChannelEnum;
+import com.yuyuan.wxmp.test.StubWeChatApiServer;
+import me.chanjar.weixin.mp.api.WxMpService;
+import me.chanjar.weixin.mp.api.impl.WxMpServiceImpl;
+import me.chanjar.weixin.mp.config.impl.WxMpDefaultConfigImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 群发消息发送测试，使用本地模拟的微信接口
+ */
+public class WxBroadcastSenderTest {
+
+    private StubWeChatApiServer server;
+
+    private WxMpService wxMpService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new StubWeChatApiServer(0, 0, 2, 0);
+        server.start();
+        WxMpDefaultConfigImpl config = new WxMpDefaultConfigImpl();
+        config.setAppId("wx_stub");
+        config.setSecret("secret");
+        config.setHostConfig(WxMpConfigStorageFactory.hostConfig("http://localhost:" + server.getPort()));
+        wxMpService = new WxMpServiceImpl();
+        wxMpService.setWxMpConfigStorage(config);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    private static WxBroadcastContentDTO text() {
+        WxBroadcastContentDTO content = new WxBroadcastContentDTO();
+        content.setTextContent("活动通知");
+        return content;
+    }
+
+    @Test
+    public void errorCodesAreClassified() {
+        assertEquals(Outcome.SENT, WxBroadcastSender.send(wxMpService, WxBroadcastChannelEnum.KEFU, text(), "user_1").outcome());
+        assertEquals(1, server.getDelivered("user_1"));
+
+        SendResult unsubscribed = WxBroadcastSender.send(wxMpService, WxBroadcastChannelEnum.KEFU, text(), "unsub_1");
+        assertEquals(Outcome.FAILED, unsubscribed.outcome());
+        assertEquals(43004, unsubscribed.errorCode());
+
+        SendResult quota = WxBroadcastSender.send(wxMpService, WxBroadcastChannelEnum.KEFU, text(), "quota_1");
+        assertEquals(Outcome.THROTTLED, quota.outcome());
+        assertEquals(45009, quota.errorCode());
+    }
+
+    @Test
+    public void busyRecipientSucceedsAfterRetries() {
+        for (int i = 0; i < 2; i++) {
+            SendResult busy = WxBroadcastSender.send(wxMpService, WxBroadcastChannelEnum.KEFU, text(), "busy_1");
+            assertEquals(Outcome.RETRY, busy.outcome());
+            assertEquals(45047, busy.errorCode());
+        }
+        assertEquals(Outcome.SENT, WxBroadcastSender.send(wxMpService, WxBroadcastChannelEnum.KEFU, text(), "busy_1").outcome());
+        assertEquals(3, server.getAttempts("busy_1"));
+        assertEquals(1, server.getDelivered("busy_1"));
+    }
+
+    @Test
+    public void templateMessageIsSent() {
+        WxBroadcastContentDTO content = new WxBroadcastContentDTO();
+        content.setTemplateId("template_1");
+        content.getTemplateData().put("first", "您好");
+        content.getTemplateData().put("remark", "感谢关注");
+        assertEquals(Outcome.SENT, WxBroadcastSender.send(wxMpService, WxBroadcastChannelEnum.TEMPLATE, content, "user_2").outcome());
+        assertEquals(1, server.getDelivered("user_2"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.yuyuan.wxmp.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Redis 公众号配置存储测试，使用内存 Map 模拟 Redis
+ */
+public class WxMpRedisConfigStorageTest {
+
+    private static final String APP_ID = "wx_test_app";
+
+    /**
+     * 模拟的 Redis 数据
+     */
+    private final Map<String, String> redisData = new ConcurrentHashMap<>();
+
+    private RedissonClient redissonClient;
+
+    @BeforeEach
+    public void setUp() {
+        redisData.clear();
+        Map<String, RBucket<String>> buckets = new ConcurrentHashMap<>();
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getBucket(anyString(), any(Codec.class)))
+                .thenAnswer(invocation -> buckets.computeIfAbsent(invocation.getArgument(0), this::newBucket));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RBucket<String> newBucket(String key) {
+        RBucket<String> bucket = mock(RBucket.class);
+        when(bucket.get()).thenAnswer(i -> redisData.get(key));
+        when(bucket.delete()).thenAnswer(i -> redisData.remove(key) != null);
+        doAnswer(i -> redisData.put(key, i.getArgument(0))).when(bucket).set(anyString(), any(Duration.class));
+        return bucket;
+    }
+
+    private WxMpRedisConfigStorage newStorage(long refreshAheadMillis, long localCacheMillis) {
+        WxMpRedisConfigStorage storage = new WxMpRedisConfigStorage(redissonClient, "wx_mp_token:",
+                refreshAheadMillis, localCacheMillis);
+        storage.setAppId(APP_ID);
+        return storage;
+    }
+
+    @Test
+    public void tokenIsSharedBetweenNodes() {
+        WxMpRedisConfigStorage nodeA = newStorage(0, 0);
+        WxMpRedisConfigStorage nodeB = newStorage(0, 0);
+        assertTrue(nodeB.isAccessTokenExpired());
+
+        nodeA.updateAccessToken("token-1", 7200);
+
+        assertFalse(nodeB.isAccessTokenExpired());
+        assertEquals("token-1", nodeB.getAccessToken());
+        assertTrue(redisData.containsKey("wx_mp_token:" + APP_ID + ":access_token"));
+    }
+
+    @Test
+    public void expireRemovesSharedToken() {
+        WxMpRedisConfigStorage nodeA = newStorage(0, 0);
+        WxMpRedisConfigStorage nodeB = newStorage(0, 0);
+        nodeA.updateAccessToken("token-1", 7200);
+
+        nodeB.expireAccessToken();
+
+        assertTrue(nodeA.isAccessTokenExpired());
+        assertNull(nodeA.getAccessToken());
+    }
+
+    @Test
+    public void localCacheAvoidsRedisReads() {
+        WxMpRedisConfigStorage nodeA = newStorage(0, 60_000);
+        nodeA.updateAccessToken("token-1", 7200);
+        // 直接修改 Redis，本地缓存期内仍然读到旧值
+        redisData.put("wx_mp_token:" + APP_ID + ":access_token", "token-2|" + (System.currentTimeMillis() + 600_000));
+
+        assertEquals("token-1", nodeA.getAccessToken());
+        assertEquals("token-2", newStorage(0, 60_000).getAccessToken());
+    }
+
+    @Test
+    public void onlyOneThreadRefreshesAhead() throws InterruptedException {
+        // token 还剩约 100 秒，提前刷新窗口为 300 秒
+        WxMpRedisConfigStorage storage = newStorage(300_000, 0);
+        storage.updateAccessToken("token-1", 300);
+
+        int threads = 16;
+        AtomicInteger expiredCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (storage.isAccessTokenExpired()) {
+                        expiredCount.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, expiredCount.get());
+        // 其他线程仍然可以使用旧 token
+        assertEquals("token-1", storage.getAccessToken());
+    }
+}